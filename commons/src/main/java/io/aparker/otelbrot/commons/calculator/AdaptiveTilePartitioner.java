@@ -0,0 +1,187 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import io.aparker.otelbrot.commons.model.TileGrid;
+import io.aparker.otelbrot.commons.model.TileOrder;
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+/**
+ * Splits a render into tiles of roughly equal estimated cost. The cost of the
+ * view is sampled on a coarse grid of points, then the image is divided as a
+ * quadtree: regions costing well above the average tile are split, down to
+ * {@link TileGrid#MIN_TILE_SIZE}, while cheap regions stay as large as
+ * {@link TileGrid#MAX_TILE_SIZE}, or a large render grid's tile size if that is larger.
+ */
+public class AdaptiveTilePartitioner {
+    public static final int DEFAULT_SAMPLE_RESOLUTION = 64;
+
+    // Cost of colouring and encoding a pixel, in iterations
+    private static final double PIXEL_OVERHEAD = 4.0;
+
+    // A region is split once it costs this many average tiles. Splitting
+    // quarters the cost, so leaves land between a half and twice the average
+    // and the tile count stays close to the uniform grid's.
+    private static final double SPLIT_FACTOR = 2.0;
+
+    private final int sampleResolution;
+
+    public AdaptiveTilePartitioner() {
+        this(DEFAULT_SAMPLE_RESOLUTION);
+    }
+
+    /**
+     * @param sampleResolution number of cost samples along the longer image side
+     */
+    public AdaptiveTilePartitioner(int sampleResolution) {
+        this.sampleResolution = Math.max(1, sampleResolution);
+    }
+
+    /**
+     * Partition the grid's view into about as many tiles as the uniform grid
+     * has, each costing about the same, in the grid's dispatch order
+     */
+    public List<TileSpec> partition(TileGrid grid) {
+        CostMap costs = new CostMap(grid);
+        double targetCost = costs.cost(0, 0, grid.getWidth(), grid.getHeight()) / Math.max(1, grid.getTileCount());
+
+        int maxTileSize = Math.max(TileGrid.MAX_TILE_SIZE, grid.getTileSize());
+        List<int[]> regions = new ArrayList<>();
+        split(costs, 0, 0, grid.getWidth(), grid.getHeight(), targetCost, maxTileSize, regions);
+        regions.sort(comparator(grid));
+
+        double pixelWidth = (grid.getXMax() - grid.getXMin()) / grid.getWidth();
+        double pixelHeight = (grid.getYMax() - grid.getYMin()) / grid.getHeight();
+        List<TileSpec> tiles = new ArrayList<>(regions.size());
+        for (int[] region : regions) {
+            tiles.add(new TileSpec.Builder()
+                    .jobId(grid.getJobId())
+                    .tileId(TileGrid.tileId(tiles.size()))
+                    .xMin(grid.getXMin() + region[0] * pixelWidth)
+                    .yMin(grid.getYMin() + region[1] * pixelHeight)
+                    .xMax(grid.getXMin() + (region[0] + region[2]) * pixelWidth)
+                    .yMax(grid.getYMin() + (region[1] + region[3]) * pixelHeight)
+                    .width(region[2])
+                    .height(region[3])
+                    .maxIterations(grid.getMaxIterations())
+                    .colorScheme(grid.getColorScheme())
+                    .pixelStartX(region[0])
+                    .pixelStartY(region[1])
+                    .reference(grid.getReferenceX(), grid.getReferenceY())
+                    .precision(grid.getPrecision())
+                    .build());
+        }
+        return tiles;
+    }
+
+    /**
+     * Split a region into quadrants (or halves, when one side cannot be
+     * split further) until it is cheap enough and no larger than the maximum tile
+     */
+    private void split(CostMap costs, int x, int y, int width, int height, double targetCost, int maxTileSize,
+                       List<int[]> regions) {
+        boolean costly = costs.cost(x, y, width, height) > targetCost * SPLIT_FACTOR;
+        boolean splitX = width > maxTileSize || (costly && width >= 2 * TileGrid.MIN_TILE_SIZE);
+        boolean splitY = height > maxTileSize || (costly && height >= 2 * TileGrid.MIN_TILE_SIZE);
+        if (!splitX && !splitY) {
+            regions.add(new int[] {x, y, width, height});
+            return;
+        }
+
+        int leftWidth = splitX ? width / 2 : width;
+        int topHeight = splitY ? height / 2 : height;
+        split(costs, x, y, leftWidth, topHeight, targetCost, maxTileSize, regions);
+        if (splitX) {
+            split(costs, x + leftWidth, y, width - leftWidth, topHeight, targetCost, maxTileSize, regions);
+        }
+        if (splitY) {
+            split(costs, x, y + topHeight, leftWidth, height - topHeight, targetCost, maxTileSize, regions);
+        }
+        if (splitX && splitY) {
+            split(costs, x + leftWidth, y + topHeight, width - leftWidth, height - topHeight, targetCost, maxTileSize, regions);
+        }
+    }
+
+    /**
+     * Dispatch order for variable-sized tiles, following the grid's order by tile center
+     */
+    private static Comparator<int[]> comparator(TileGrid grid) {
+        Comparator<int[]> raster = Comparator.<int[]>comparingInt(r -> r[1]).thenComparingInt(r -> r[0]);
+        if (grid.getOrder() == TileOrder.SPIRAL) {
+            double focusX = (grid.getFocusTileX() + 0.5) * grid.getWidth() / grid.getTilesX();
+            double focusY = (grid.getFocusTileY() + 0.5) * grid.getHeight() / grid.getTilesY();
+            return Comparator.<int[]>comparingDouble(r -> {
+                double dx = r[0] + r[2] / 2.0 - focusX;
+                double dy = r[1] + r[3] / 2.0 - focusY;
+                return dx * dx + dy * dy;
+            }).thenComparing(raster);
+        }
+        if (grid.getOrder() == TileOrder.HILBERT) {
+            int cell = TileGrid.MIN_TILE_SIZE;
+            int side = 1;
+            while (side * cell < Math.max(grid.getWidth(), grid.getHeight())) {
+                side <<= 1;
+            }
+            int n = side;
+            return Comparator.<int[]>comparingInt(
+                    r -> TileOrder.hilbertIndex(n, (r[0] + r[2] / 2) / cell, (r[1] + r[3] / 2) / cell))
+                    .thenComparing(raster);
+        }
+        return raster;
+    }
+
+    /**
+     * Sampled per-pixel cost of the view with a summed-area table, so the
+     * cost of any region is four lookups
+     */
+    private class CostMap {
+        private final int step;
+        private final int samplesX;
+        private final int samplesY;
+        private final double[] sums;
+
+        CostMap(TileGrid grid) {
+            int width = grid.getWidth();
+            int height = grid.getHeight();
+            this.step = Math.max(1, (int) Math.ceil((double) Math.max(width, height) / sampleResolution));
+            this.samplesX = (width + step - 1) / step;
+            this.samplesY = (height + step - 1) / step;
+            this.sums = new double[(samplesX + 1) * (samplesY + 1)];
+
+            // Sample the center pixel of each cell, mapping pixels like FractalCalculator does
+            double pixelWidth = (grid.getXMax() - grid.getXMin()) / width;
+            double pixelHeight = (grid.getYMax() - grid.getYMin()) / height;
+            for (int sy = 0; sy < samplesY; sy++) {
+                int py = Math.min(sy * step + step / 2, height - 1);
+                double cy = grid.getYMin() + py * pixelHeight;
+                double rowSum = 0;
+                for (int sx = 0; sx < samplesX; sx++) {
+                    int px = Math.min(sx * step + step / 2, width - 1);
+                    double cx = grid.getXMin() + px * pixelWidth;
+                    rowSum += FractalCalculator.iterationCost(cx, cy, grid.getMaxIterations()) + PIXEL_OVERHEAD;
+                    sums[index(sx + 1, sy + 1)] = sums[index(sx + 1, sy)] + rowSum;
+                }
+            }
+        }
+
+        /**
+         * Estimated cost of a pixel region: the mean of the samples it
+         * overlaps times its area
+         */
+        double cost(int x, int y, int width, int height) {
+            int x0 = Math.min(x / step, samplesX - 1);
+            int y0 = Math.min(y / step, samplesY - 1);
+            int x1 = Math.max(x0 + 1, Math.min(samplesX, (x + width + step - 1) / step));
+            int y1 = Math.max(y0 + 1, Math.min(samplesY, (y + height + step - 1) / step));
+            double sum = sums[index(x1, y1)] - sums[index(x0, y1)] - sums[index(x1, y0)] + sums[index(x0, y0)];
+            double mean = sum / ((x1 - x0) * (y1 - y0));
+            return mean * width * height;
+        }
+
+        private int index(int sx, int sy) {
+            return sy * (samplesX + 1) + sx;
+        }
+    }
+}
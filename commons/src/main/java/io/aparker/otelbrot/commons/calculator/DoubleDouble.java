@@ -0,0 +1,116 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import java.math.BigDecimal;
+
+/**
+ * Unevaluated sum of two doubles, hi + lo with |lo| at most half an ulp of
+ * hi, carrying about 106 bits of mantissa. Arithmetic uses error-free
+ * transformations (two-sum, and fma for products), so it costs a handful
+ * of double operations rather than arbitrary precision math.
+ */
+public final class DoubleDouble {
+
+    public static final DoubleDouble ZERO = new DoubleDouble(0.0, 0.0);
+
+    private final double hi;
+    private final double lo;
+
+    private DoubleDouble(double hi, double lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    public static DoubleDouble valueOf(double value) {
+        return new DoubleDouble(value, 0.0);
+    }
+
+    /**
+     * Nearest double-double to a decimal value
+     */
+    public static DoubleDouble valueOf(BigDecimal value) {
+        double hi = value.doubleValue();
+        if (Double.isInfinite(hi)) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        double lo = value.subtract(new BigDecimal(hi)).doubleValue();
+        return normalize(hi, lo);
+    }
+
+    public double hi() {
+        return hi;
+    }
+
+    public double lo() {
+        return lo;
+    }
+
+    public double doubleValue() {
+        return hi + lo;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return new BigDecimal(hi).add(new BigDecimal(lo));
+    }
+
+    public DoubleDouble add(DoubleDouble other) {
+        // Sum the high and low parts separately, each with its rounding error
+        double s = hi + other.hi;
+        double bb = s - hi;
+        double e = (hi - (s - bb)) + (other.hi - bb);
+        double t = lo + other.lo;
+        double cc = t - lo;
+        double f = (lo - (t - cc)) + (other.lo - cc);
+        e += t;
+        double s2 = s + e;
+        e = e - (s2 - s);
+        e += f;
+        return normalize(s2, e);
+    }
+
+    public DoubleDouble add(double other) {
+        double s = hi + other;
+        double bb = s - hi;
+        double e = (hi - (s - bb)) + (other - bb) + lo;
+        return normalize(s, e);
+    }
+
+    public DoubleDouble subtract(DoubleDouble other) {
+        return add(other.negate());
+    }
+
+    public DoubleDouble negate() {
+        return new DoubleDouble(-hi, -lo);
+    }
+
+    public DoubleDouble multiply(DoubleDouble other) {
+        double p = hi * other.hi;
+        double e = Math.fma(hi, other.hi, -p);
+        e += hi * other.lo + lo * other.hi;
+        return normalize(p, e);
+    }
+
+    public DoubleDouble square() {
+        double p = hi * hi;
+        double e = Math.fma(hi, hi, -p);
+        e += 2 * hi * lo;
+        return normalize(p, e);
+    }
+
+    /**
+     * Twice this value, which is exact
+     */
+    public DoubleDouble twice() {
+        return new DoubleDouble(2 * hi, 2 * lo);
+    }
+
+    // Renormalize so lo fits within half an ulp of hi (quick two-sum, |hi| >= |lo|)
+    private static DoubleDouble normalize(double hi, double lo) {
+        double s = hi + lo;
+        return new DoubleDouble(s, lo - (s - hi));
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+}
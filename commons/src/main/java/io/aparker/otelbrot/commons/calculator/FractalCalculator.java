@@ -0,0 +1,359 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import javax.imageio.ImageIO;
+
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+/**
+ * Calculates Mandelbrot set tiles in-process.
+ * Mirrors the Go worker's calculator so tiles rendered by either look identical.
+ */
+public class FractalCalculator {
+
+    /**
+     * Iteration count of a point given by its tile coordinates
+     */
+    @FunctionalInterface
+    private interface PointKernel {
+        int iterations(double x, double y, int maxIterations);
+    }
+
+    /**
+     * Calculate a tile and encode it as a PNG result, together with its
+     * iteration counts so it can be colored again
+     */
+    public TileResult calculateTile(TileSpec spec) {
+        long startTime = System.currentTimeMillis();
+
+        int[] counts = new int[spec.getWidth() * spec.getHeight()];
+        PointKernel kernel = kernel(spec);
+
+        // Calculate the pixel size in fractal coordinates
+        double pixelWidth = (spec.getXMax() - spec.getXMin()) / spec.getWidth();
+        double pixelHeight = (spec.getYMax() - spec.getYMin()) / spec.getHeight();
+
+        for (int y = 0; y < spec.getHeight(); y++) {
+            for (int x = 0; x < spec.getWidth(); x++) {
+                // Convert pixel coordinates to fractal coordinates
+                double cx = spec.getXMin() + x * pixelWidth;
+                double cy = spec.getYMin() + y * pixelHeight;
+
+                counts[y * spec.getWidth() + x] = kernel.iterations(cx, cy, spec.getMaxIterations());
+            }
+        }
+
+        return toResult(spec, counts, startTime);
+    }
+
+    // Iterate in the tile's precision tier; double-double tiles add their
+    // coordinates to the reference point, if any, in double-double
+    private static PointKernel kernel(TileSpec spec) {
+        return switch (spec.getPrecision()) {
+            case FLOAT32 -> (x, y, maxIterations) -> calculateMandelbrotFloat32((float) x, (float) y, maxIterations);
+            case DOUBLE -> FractalCalculator::calculateMandelbrot;
+            case DOUBLE_DOUBLE -> {
+                DoubleDouble referenceX = spec.hasReference()
+                    ? DoubleDouble.valueOf(new BigDecimal(spec.getReferenceX()))
+                    : DoubleDouble.ZERO;
+                DoubleDouble referenceY = spec.hasReference()
+                    ? DoubleDouble.valueOf(new BigDecimal(spec.getReferenceY()))
+                    : DoubleDouble.ZERO;
+                yield (x, y, maxIterations) -> calculateMandelbrot(referenceX.add(x), referenceY.add(y), maxIterations);
+            }
+        };
+    }
+
+    /**
+     * Calculate a deep zoom tile, whose bounds are offsets from the reference
+     * point of the given orbit, by perturbation
+     */
+    public TileResult calculatePerturbedTile(TileSpec spec, ReferenceOrbit orbit) {
+        long startTime = System.currentTimeMillis();
+
+        int[] counts = new int[spec.getWidth() * spec.getHeight()];
+        double pixelWidth = (spec.getXMax() - spec.getXMin()) / spec.getWidth();
+        double pixelHeight = (spec.getYMax() - spec.getYMin()) / spec.getHeight();
+
+        for (int y = 0; y < spec.getHeight(); y++) {
+            for (int x = 0; x < spec.getWidth(); x++) {
+                double dcx = spec.getXMin() + x * pixelWidth;
+                double dcy = spec.getYMin() + y * pixelHeight;
+                counts[y * spec.getWidth() + x] = orbit.iterate(dcx, dcy, spec.getMaxIterations());
+            }
+        }
+
+        return toResult(spec, counts, startTime);
+    }
+
+    /**
+     * Calculate a tile in passes from coarse to full resolution, handing each
+     * coarse pass to the handler as soon as it is ready. Every pass halves
+     * the scale and only calculates the pixels earlier passes didn't, so all
+     * passes together cost about as much as calculating the tile once.
+     *
+     * @param coarsestScale pixels a side each pixel of the first pass covers,
+     *                      rounded down to a power of two; 1 calculates the tile at once
+     * @return the full resolution result
+     */
+    public TileResult calculateTileProgressive(TileSpec spec, int coarsestScale, Consumer<TileResult> passHandler) {
+        long startTime = System.currentTimeMillis();
+
+        int width = spec.getWidth();
+        int[] counts = new int[width * spec.getHeight()];
+        int[] palette = palette(spec.getMaxIterations(), spec.getColorScheme());
+        PointKernel kernel = kernel(spec);
+
+        double pixelWidth = (spec.getXMax() - spec.getXMin()) / width;
+        double pixelHeight = (spec.getYMax() - spec.getYMin()) / spec.getHeight();
+
+        int coarsest = Integer.highestOneBit(Math.max(coarsestScale, 1));
+        for (int scale = coarsest; scale >= 1; scale /= 2) {
+            for (int y = 0; y < spec.getHeight(); y += scale) {
+                for (int x = 0; x < width; x += scale) {
+                    // Pixels on the previous pass's grid are already calculated
+                    if (scale < coarsest && x % (scale * 2) == 0 && y % (scale * 2) == 0) {
+                        continue;
+                    }
+                    double cx = spec.getXMin() + x * pixelWidth;
+                    double cy = spec.getYMin() + y * pixelHeight;
+                    counts[y * width + x] = kernel.iterations(cx, cy, spec.getMaxIterations());
+                }
+            }
+            if (scale > 1) {
+                byte[] imageData = encodeSamples(counts, width, spec.getHeight(), scale, palette);
+                TileResult pass = TileResult.fromCalculation(spec, imageData, System.currentTimeMillis() - startTime);
+                pass.setScale(scale);
+                passHandler.accept(pass);
+            }
+        }
+
+        return toResult(spec, counts, startTime);
+    }
+
+    /**
+     * Render a tile whose pixels all share one iteration count without
+     * calculating them
+     */
+    public TileResult fillTile(TileSpec spec, int iterations) {
+        long startTime = System.currentTimeMillis();
+
+        int[] counts = new int[spec.getWidth() * spec.getHeight()];
+        Arrays.fill(counts, iterations);
+        return toResult(spec, counts, startTime);
+    }
+
+    private static TileResult toResult(TileSpec spec, int[] counts, long startTime) {
+        IterationBuffer buffer = new IterationBuffer(spec.getWidth(), spec.getHeight(), spec.getMaxIterations(), counts);
+        byte[] imageData = colorize(buffer, palette(spec.getMaxIterations(), spec.getColorScheme()));
+        TileResult result = TileResult.fromCalculation(spec, imageData, System.currentTimeMillis() - startTime);
+        result.setIterations(buffer.encode());
+        return result;
+    }
+
+    /**
+     * Colors of every iteration count from 0 to maxIterations in a scheme,
+     * so coloring a pixel is a single lookup
+     */
+    public static int[] palette(int maxIterations, String scheme) {
+        int[] palette = new int[Math.max(maxIterations, 0) + 1];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = applyColorMap(i, maxIterations, scheme);
+        }
+        return palette;
+    }
+
+    /**
+     * Color iteration counts with a palette from {@link #palette} and encode them as PNG
+     */
+    public static byte[] colorize(IterationBuffer buffer, int[] palette) {
+        return encodeSamples(buffer.getCounts(), buffer.getWidth(), buffer.getHeight(), 1, palette);
+    }
+
+    // Color every scale-th count of each scale-th row into an image that many times smaller
+    private static byte[] encodeSamples(int[] counts, int width, int height, int scale, int[] palette) {
+        int sampledWidth = (width + scale - 1) / scale;
+        int sampledHeight = (height + scale - 1) / scale;
+        int[] argb = new int[sampledWidth * sampledHeight];
+        int last = palette.length - 1;
+        for (int y = 0; y < sampledHeight; y++) {
+            for (int x = 0; x < sampledWidth; x++) {
+                int count = counts[y * scale * width + x * scale];
+                argb[y * sampledWidth + x] = palette[Math.min(Math.max(count, 0), last)];
+            }
+        }
+        BufferedImage image = new BufferedImage(sampledWidth, sampledHeight, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, sampledWidth, sampledHeight, argb, 0, sampledWidth);
+        return encodePng(image);
+    }
+
+    /**
+     * Calculate the Mandelbrot set iteration count for a point
+     */
+    public static int calculateMandelbrot(double cx, double cy, int maxIterations) {
+        if (inCardioidOrBulb(cx, cy)) {
+            return maxIterations;
+        }
+
+        // Standard Mandelbrot iteration
+        double x = 0.0;
+        double y = 0.0;
+        int iteration = 0;
+
+        while (x * x + y * y < 4.0 && iteration < maxIterations) {
+            double xtemp = x * x - y * y + cx;
+            y = 2 * x * y + cy;
+            x = xtemp;
+            iteration++;
+        }
+
+        return iteration;
+    }
+
+    /**
+     * Calculate the iteration count for a point in single precision
+     */
+    public static int calculateMandelbrotFloat32(float cx, float cy, int maxIterations) {
+        if (inCardioidOrBulb(cx, cy)) {
+            return maxIterations;
+        }
+
+        float x = 0.0f;
+        float y = 0.0f;
+        int iteration = 0;
+
+        while (x * x + y * y < 4.0f && iteration < maxIterations) {
+            float xtemp = x * x - y * y + cx;
+            y = 2 * x * y + cy;
+            x = xtemp;
+            iteration++;
+        }
+
+        return iteration;
+    }
+
+    /**
+     * Calculate the iteration count for a point in double-double precision
+     */
+    public static int calculateMandelbrot(DoubleDouble cx, DoubleDouble cy, int maxIterations) {
+        if (inCardioidOrBulb(cx.doubleValue(), cy.doubleValue())) {
+            return maxIterations;
+        }
+
+        DoubleDouble x = DoubleDouble.ZERO;
+        DoubleDouble y = DoubleDouble.ZERO;
+        int iteration = 0;
+
+        while (iteration < maxIterations) {
+            DoubleDouble xx = x.square();
+            DoubleDouble yy = y.square();
+            // The escape test needs no more than double precision
+            if (xx.hi() + yy.hi() >= 4.0) {
+                break;
+            }
+            DoubleDouble xy = x.multiply(y);
+            x = xx.subtract(yy).add(cx);
+            y = xy.twice().add(cy);
+            iteration++;
+        }
+
+        return iteration;
+    }
+
+    /**
+     * Number of iterations calculating a point actually costs. Points in the
+     * main cardioid or period-2 bulb are answered without iterating.
+     */
+    public static int iterationCost(double cx, double cy, int maxIterations) {
+        return inCardioidOrBulb(cx, cy) ? 0 : calculateMandelbrot(cx, cy, maxIterations);
+    }
+
+    private static boolean inCardioidOrBulb(double cx, double cy) {
+        // Cardioid and period-2 bulb optimization
+        double q = (cx - 0.25) * (cx - 0.25) + cy * cy;
+        if (q * (q + (cx - 0.25)) < 0.25 * cy * cy) {
+            return true;
+        }
+
+        // Period doubling bulb
+        return (cx + 1.0) * (cx + 1.0) + cy * cy < 0.0625;
+    }
+
+    /**
+     * Map an iteration count to an ARGB color
+     */
+    public static int applyColorMap(int iterations, int maxIterations, String scheme) {
+        if (iterations == maxIterations) {
+            return 0xFF000000;
+        }
+
+        double ratio = (double) iterations / maxIterations;
+        switch (scheme != null ? scheme : "classic") {
+            case "fire":
+                return rgb((int) (255.0 * Math.min(1.0, ratio * 2.0)), (int) (255.0 * Math.min(1.0, ratio)), 0);
+            case "ocean":
+                return rgb(0, (int) (255.0 * Math.min(1.0, ratio)), (int) (255.0 * Math.min(1.0, ratio * 1.5)));
+            case "grayscale":
+                int value = (int) ((1.0 - ratio) * 255);
+                return rgb(value, value, value);
+            case "rainbow":
+                return hsbToRgb(ratio, 0.85, 1.0);
+            default:
+                return hsbToRgb(0.7 + 0.3 * ratio, 0.8, 1.0);
+        }
+    }
+
+    /**
+     * Encode an image as PNG bytes
+     */
+    public static byte[] encodePng(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode image", e);
+        }
+    }
+
+    // Convert HSB color to ARGB, truncating channels the same way the Go worker does
+    private static int hsbToRgb(double h, double s, double v) {
+        if (s == 0) {
+            int value = (int) (v * 255);
+            return rgb(value, value, value);
+        }
+
+        h *= 6; // Sector in the color wheel (0 to 6)
+        int i = (int) h;
+        double f = h - i; // Fractional part
+
+        double p = v * (1 - s);
+        double q = v * (1 - s * f);
+        double t = v * (1 - s * (1 - f));
+
+        double r, g, b;
+        switch (i % 6) {
+            case 0: r = v; g = t; b = p; break;
+            case 1: r = q; g = v; b = p; break;
+            case 2: r = p; g = v; b = t; break;
+            case 3: r = p; g = q; b = v; break;
+            case 4: r = t; g = p; b = v; break;
+            default: r = v; g = p; b = q; break;
+        }
+
+        return rgb((int) (r * 255), (int) (g * 255), (int) (b * 255));
+    }
+
+    private static int rgb(int r, int g, int b) {
+        return 0xFF000000 | ((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF);
+    }
+}
@@ -0,0 +1,143 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Per-pixel iteration counts of a tile, kept so the tile can be colored
+ * with any scheme without calculating it again. Encoded compactly and
+ * identically by the Go worker: a header of the bytes per count (1, 2 or 4,
+ * the fewest that hold maxIterations), then maxIterations, width and height
+ * as little-endian 32-bit integers, followed by the row-major counts in
+ * little-endian order, zlib-compressed.
+ */
+public class IterationBuffer {
+
+    private static final int HEADER_SIZE = 13;
+
+    private final int width;
+    private final int height;
+    private final int maxIterations;
+    private final int[] counts;
+
+    public IterationBuffer(int width, int height, int maxIterations, int[] counts) {
+        if (counts.length != width * height) {
+            throw new IllegalArgumentException(
+                "Expected " + width * height + " iteration counts, got " + counts.length);
+        }
+        this.width = width;
+        this.height = height;
+        this.maxIterations = maxIterations;
+        this.counts = counts;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public int[] getCounts() {
+        return counts;
+    }
+
+    /**
+     * Fewest bytes that hold every count up to maxIterations
+     */
+    static int bytesPerCount(int maxIterations) {
+        if (maxIterations <= 0xFF) {
+            return 1;
+        }
+        return maxIterations <= 0xFFFF ? 2 : 4;
+    }
+
+    public byte[] encode() {
+        int bytesPerCount = bytesPerCount(maxIterations);
+        ByteBuffer raw = ByteBuffer.allocate(counts.length * bytesPerCount).order(ByteOrder.LITTLE_ENDIAN);
+        for (int count : counts) {
+            switch (bytesPerCount) {
+                case 1 -> raw.put((byte) count);
+                case 2 -> raw.putShort((short) count);
+                default -> raw.putInt(count);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + raw.capacity() / 4);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put((byte) bytesPerCount).putInt(maxIterations).putInt(width).putInt(height);
+        out.writeBytes(header.array());
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw.array());
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the data is not a valid iteration buffer
+     */
+    public static IterationBuffer decode(byte[] data) {
+        if (data == null || data.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Iteration buffer too short");
+        }
+        ByteBuffer header = ByteBuffer.wrap(data, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int bytesPerCount = header.get();
+        int maxIterations = header.getInt();
+        int width = header.getInt();
+        int height = header.getInt();
+        if ((bytesPerCount != 1 && bytesPerCount != 2 && bytesPerCount != 4)
+            || width <= 0 || height <= 0 || (long) width * height * bytesPerCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid iteration buffer header");
+        }
+
+        byte[] raw = new byte[width * height * bytesPerCount];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, HEADER_SIZE, data.length - HEADER_SIZE);
+            int read = 0;
+            while (read < raw.length) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length) {
+                throw new IllegalArgumentException("Iteration buffer truncated");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt iteration buffer", e);
+        } finally {
+            inflater.end();
+        }
+
+        ByteBuffer counts = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        int[] decoded = new int[width * height];
+        for (int i = 0; i < decoded.length; i++) {
+            decoded[i] = switch (bytesPerCount) {
+                case 1 -> counts.get() & 0xFF;
+                case 2 -> counts.getShort() & 0xFFFF;
+                default -> counts.getInt();
+            };
+        }
+        return new IterationBuffer(width, height, maxIterations, decoded);
+    }
+}
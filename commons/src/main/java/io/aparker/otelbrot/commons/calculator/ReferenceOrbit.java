@@ -0,0 +1,149 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Orbit of a deep zoom's reference point, calculated once per job in
+ * arbitrary precision and rounded to doubles. Pixels are then iterated as
+ * small offsets from the reference in double precision (perturbation),
+ * which stays accurate far past the zoom where doubles run out of digits
+ * for the pixel coordinates themselves.
+ * <p>
+ * Encoded identically for the Go worker: the number of orbit points as a
+ * little-endian 32-bit integer, followed by each point's real and
+ * imaginary part as little-endian doubles.
+ */
+public class ReferenceOrbit {
+
+    // Digits kept beyond those needed to tell the pixels apart
+    private static final int GUARD_DIGITS = 20;
+
+    private static final BigDecimal ESCAPE_RADIUS_SQUARED = BigDecimal.valueOf(4);
+
+    private final double[] re;
+    private final double[] im;
+
+    ReferenceOrbit(double[] re, double[] im) {
+        this.re = re;
+        this.im = im;
+    }
+
+    /**
+     * Decimal digits needed for a view of the given half-width
+     */
+    public static int precisionDigits(double zoom) {
+        return Math.max(GUARD_DIGITS, (int) Math.ceil(-Math.log10(zoom)) + GUARD_DIGITS);
+    }
+
+    /**
+     * Calculate the orbit of a reference point up to maxIterations or until it escapes
+     */
+    public static ReferenceOrbit compute(BigDecimal cx, BigDecimal cy, int maxIterations, int precisionDigits) {
+        MathContext mc = new MathContext(precisionDigits);
+        double[] re = new double[maxIterations + 1];
+        double[] im = new double[maxIterations + 1];
+
+        BigDecimal x = BigDecimal.ZERO;
+        BigDecimal y = BigDecimal.ZERO;
+        int n = 0;
+        while (n < maxIterations) {
+            BigDecimal xx = x.multiply(x, mc);
+            BigDecimal yy = y.multiply(y, mc);
+            if (xx.add(yy, mc).compareTo(ESCAPE_RADIUS_SQUARED) >= 0) {
+                break;
+            }
+            BigDecimal xy = x.multiply(y, mc);
+            x = xx.subtract(yy, mc).add(cx, mc);
+            y = xy.add(xy, mc).add(cy, mc);
+            n++;
+            re[n] = x.doubleValue();
+            im[n] = y.doubleValue();
+        }
+
+        double[] orbitRe = new double[n + 1];
+        double[] orbitIm = new double[n + 1];
+        System.arraycopy(re, 0, orbitRe, 0, n + 1);
+        System.arraycopy(im, 0, orbitIm, 0, n + 1);
+        return new ReferenceOrbit(orbitRe, orbitIm);
+    }
+
+    /**
+     * Number of points in the orbit, starting with the origin
+     */
+    public int length() {
+        return re.length;
+    }
+
+    /**
+     * Iteration count of the point at offset (dcx, dcy) from the reference,
+     * the same as {@link FractalCalculator#calculateMandelbrot} would give for
+     * the point itself with enough precision.
+     * <p>
+     * The offset dz from the reference orbit follows dz' = 2 Z dz + dz^2 + dc.
+     * When the full value Z + dz gets smaller than dz, the orbit has come
+     * close to zero where the offset loses precision (a glitch), and when
+     * the reference escaped there is no more Z to follow; both rebase the
+     * offset onto the start of the reference orbit, dz = Z + dz.
+     */
+    public int iterate(double dcx, double dcy, int maxIterations) {
+        int last = re.length - 1;
+        double dzx = 0.0;
+        double dzy = 0.0;
+        int m = 0;
+        for (int n = 0; n < maxIterations; n++) {
+            double zx = re[m];
+            double zy = im[m];
+            double nextDzx = 2 * (zx * dzx - zy * dzy) + dzx * dzx - dzy * dzy + dcx;
+            double nextDzy = 2 * (zx * dzy + zy * dzx) + 2 * dzx * dzy + dcy;
+            dzx = nextDzx;
+            dzy = nextDzy;
+            m++;
+
+            double x = re[m] + dzx;
+            double y = im[m] + dzy;
+            double magnitude = x * x + y * y;
+            if (magnitude >= 4.0) {
+                return n + 1;
+            }
+            if (magnitude < dzx * dzx + dzy * dzy || m == last) {
+                dzx = x;
+                dzy = y;
+                m = 0;
+            }
+        }
+        return maxIterations;
+    }
+
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + re.length * 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(re.length);
+        for (int i = 0; i < re.length; i++) {
+            buffer.putDouble(re[i]).putDouble(im[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the data is not a valid reference orbit
+     */
+    public static ReferenceOrbit decode(byte[] data) {
+        if (data == null || data.length < 4) {
+            throw new IllegalArgumentException("Reference orbit too short");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        int length = buffer.getInt();
+        if (length < 1 || (long) length * 16 != data.length - 4) {
+            throw new IllegalArgumentException("Invalid reference orbit length");
+        }
+        double[] re = new double[length];
+        double[] im = new double[length];
+        for (int i = 0; i < length; i++) {
+            re[i] = buffer.getDouble();
+            im[i] = buffer.getDouble();
+        }
+        return new ReferenceOrbit(re, im);
+    }
+}
@@ -0,0 +1,64 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+/**
+ * Finds tiles that render as a single color by calculating only their
+ * boundary pixels. The points escaping after at least k iterations form a
+ * connected region without holes that contains the origin, so when every
+ * boundary pixel has the same count k, no pixel inside can have a different
+ * one: a lower count would be a hole, and a higher count would have to reach
+ * the origin through the boundary. Inside the set this holds for any tile;
+ * for an escape band the tile must not contain the origin.
+ */
+public class UniformTileDetector {
+    public static final int NOT_UNIFORM = -1;
+
+    private UniformTileDetector() {
+    }
+
+    /**
+     * Iteration count every pixel of the tile shares, or {@link #NOT_UNIFORM}.
+     * Stops at the first boundary pixel that disagrees, so tiles with detail
+     * along their edge cost a handful of points.
+     */
+    public static int uniformIterations(TileSpec spec) {
+        int width = spec.getWidth();
+        int height = spec.getHeight();
+        if (width <= 0 || height <= 0) {
+            return NOT_UNIFORM;
+        }
+
+        int iterations = iterationsAt(spec, 0, 0);
+        if (iterations < spec.getMaxIterations() && containsOrigin(spec)) {
+            return NOT_UNIFORM;
+        }
+
+        // Top and bottom rows, then the left and right columns between them
+        for (int x = 0; x < width; x++) {
+            if (iterationsAt(spec, x, 0) != iterations || iterationsAt(spec, x, height - 1) != iterations) {
+                return NOT_UNIFORM;
+            }
+        }
+        for (int y = 1; y < height - 1; y++) {
+            if (iterationsAt(spec, 0, y) != iterations || iterationsAt(spec, width - 1, y) != iterations) {
+                return NOT_UNIFORM;
+            }
+        }
+        return iterations;
+    }
+
+    // Map pixels to points exactly like FractalCalculator.calculateTile
+    private static int iterationsAt(TileSpec spec, int x, int y) {
+        double pixelWidth = (spec.getXMax() - spec.getXMin()) / spec.getWidth();
+        double pixelHeight = (spec.getYMax() - spec.getYMin()) / spec.getHeight();
+        return FractalCalculator.calculateMandelbrot(
+                spec.getXMin() + x * pixelWidth,
+                spec.getYMin() + y * pixelHeight,
+                spec.getMaxIterations());
+    }
+
+    private static boolean containsOrigin(TileSpec spec) {
+        return spec.getXMin() <= 0 && spec.getXMax() >= 0 && spec.getYMin() <= 0 && spec.getYMax() >= 0;
+    }
+}
@@ -0,0 +1,72 @@
+package io.aparker.otelbrot.commons.model;
+
+/**
+ * Arithmetic a tile's pixels are iterated in. The orchestrator picks the
+ * cheapest tier whose mantissa still tells neighbouring pixels apart;
+ * views that even double-double can't resolve fall back to perturbation.
+ */
+public enum PrecisionTier {
+    /** Single precision, for shallow views */
+    FLOAT32(24),
+    /** Double precision, down to pixel spacings of about 1e-11 */
+    DOUBLE(53),
+    /** Pairs of doubles carrying about 106 bits, down to pixel spacings of about 1e-27 */
+    DOUBLE_DOUBLE(106);
+
+    // Bits kept beyond those that tell the pixels apart, absorbing the
+    // rounding error that iterating adds
+    private static final int GUARD_BITS = 12;
+
+    // Points stay within the escape radius, so no coordinate needs less precision than 2 does
+    private static final double MIN_MAGNITUDE = 2.0;
+
+    private final int mantissaBits;
+
+    PrecisionTier(int mantissaBits) {
+        this.mantissaBits = mantissaBits;
+    }
+
+    public int getMantissaBits() {
+        return mantissaBits;
+    }
+
+    /**
+     * Tier for a request's or worker environment's name, or null if none is given
+     */
+    public static PrecisionTier fromId(String id) {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        return valueOf(id.trim().toUpperCase().replace('-', '_'));
+    }
+
+    /**
+     * Mantissa bits needed to tell apart pixels the given distance apart
+     * at coordinates up to the given magnitude
+     */
+    public static int requiredBits(double magnitude, double pixelSpacing) {
+        double ratio = Math.max(Math.abs(magnitude), MIN_MAGNITUDE) / Math.abs(pixelSpacing);
+        return (int) Math.ceil(Math.log(ratio) / Math.log(2)) + GUARD_BITS;
+    }
+
+    /**
+     * Cheapest tier that tells apart pixels the given distance apart at
+     * coordinates up to the given magnitude, or null if none does
+     */
+    public static PrecisionTier forPixelSpacing(double magnitude, double pixelSpacing) {
+        int bits = requiredBits(magnitude, pixelSpacing);
+        for (PrecisionTier tier : values()) {
+            if (tier.mantissaBits >= bits) {
+                return tier;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Short lowercase name used in requests and logs
+     */
+    public String getId() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,81 @@
+package io.aparker.otelbrot.commons.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A group of tiles computed one after another by a single worker, so small
+ * tiles share one pod startup instead of paying for one each
+ */
+public class TileBatch {
+    // Environment variable carrying the batch's tile specs as a JSON array
+    public static final String TILE_SPECS_ENV = "TILE_SPECS_JSON";
+
+    private final String batchId;
+    private final List<TileSpec> tiles;
+
+    @JsonCreator
+    public TileBatch(
+            @JsonProperty("batchId") String batchId,
+            @JsonProperty("tiles") List<TileSpec> tiles) {
+        this.batchId = batchId;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Estimated cost of a tile in pixel iterations
+     */
+    public static long work(TileSpec tile) {
+        return (long) tile.getWidth() * tile.getHeight() * Math.max(tile.getMaxIterations(), 1);
+    }
+
+    /**
+     * Pack tiles in order into batches of at most maxTiles tiles whose
+     * combined work stays within workBudget. A tile that exceeds the budget
+     * on its own gets a batch to itself.
+     */
+    public static List<TileBatch> partition(List<TileSpec> tiles, long workBudget, int maxTiles) {
+        List<TileBatch> batches = new ArrayList<>();
+        List<TileSpec> current = new ArrayList<>();
+        long currentWork = 0;
+
+        for (TileSpec tile : tiles) {
+            long tileWork = work(tile);
+            if (!current.isEmpty() && (current.size() >= maxTiles || currentWork + tileWork > workBudget)) {
+                batches.add(of(current));
+                current = new ArrayList<>();
+                currentWork = 0;
+            }
+            current.add(tile);
+            currentWork += tileWork;
+        }
+        if (!current.isEmpty()) {
+            batches.add(of(current));
+        }
+        return batches;
+    }
+
+    private static TileBatch of(List<TileSpec> tiles) {
+        // The first tile id is unique within the job, so it names the batch
+        return new TileBatch("batch-" + tiles.get(0).getTileId(), tiles);
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public String getJobId() {
+        return tiles.isEmpty() ? null : tiles.get(0).getJobId();
+    }
+
+    public List<TileSpec> getTiles() {
+        return tiles;
+    }
+
+    public int size() {
+        return tiles.size();
+    }
+}
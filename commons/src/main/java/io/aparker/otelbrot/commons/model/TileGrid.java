@@ -0,0 +1,351 @@
+package io.aparker.otelbrot.commons.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic layout of a render's detail tiles. Tiles are numbered in
+ * row-major order, so a worker that only knows the grid parameters and its
+ * index computes exactly the tile the orchestrator would have built. The
+ * grid's {@link TileOrder} decides the order tiles are dispatched in.
+ */
+public class TileGrid {
+    public static final int MIN_TILE_SIZE = 64;
+    public static final int MAX_TILE_SIZE = 512;
+
+    // Large renders may ask for tiles up to this size, to keep their tile count down
+    public static final int MAX_LARGE_TILE_SIZE = 2048;
+
+    private final String jobId;
+    private final double xMin;
+    private final double yMin;
+    private final double xMax;
+    private final double yMax;
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int maxIterations;
+    private final String colorScheme;
+    private final TileOrder order;
+    // Reference point of a deep zoom the bounds are offsets from, if any
+    private final String referenceX;
+    private final String referenceY;
+    private final PrecisionTier precision;
+    private final boolean largeRender;
+
+    private final int tilesX;
+    private final int tilesY;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int focusTileX;
+    private final int focusTileY;
+
+    // Row-major tile indices in dispatch order
+    private final int[] sequence;
+
+    private TileGrid(Builder builder) {
+        this.jobId = builder.jobId;
+        this.xMin = builder.xMin;
+        this.yMin = builder.yMin;
+        this.xMax = builder.xMax;
+        this.yMax = builder.yMax;
+        this.width = builder.width;
+        this.height = builder.height;
+        this.largeRender = builder.largeRender;
+        this.tileSize = Math.min(Math.max(builder.tileSize, MIN_TILE_SIZE),
+            largeRender ? MAX_LARGE_TILE_SIZE : MAX_TILE_SIZE);
+        this.maxIterations = builder.maxIterations;
+        this.colorScheme = builder.colorScheme;
+        this.referenceX = builder.referenceX;
+        this.referenceY = builder.referenceY;
+        this.precision = builder.precision != null ? builder.precision : PrecisionTier.DOUBLE;
+
+        // Determine how many tiles we need in each dimension
+        this.tilesX = (int) Math.ceil((double) width / tileSize);
+        this.tilesY = (int) Math.ceil((double) height / tileSize);
+
+        // Tile size in pixels, spreading the image evenly across the tiles
+        this.tileWidth = (int) Math.ceil((double) width / tilesX);
+        this.tileHeight = (int) Math.ceil((double) height / tilesY);
+
+        // The focus point picks the tile a spiral starts from, the center by default
+        this.order = builder.order != null ? builder.order : TileOrder.RASTER;
+        this.focusTileX = builder.focusX != null
+            ? focusTile(builder.focusX, xMin, xMax, tilesX)
+            : (tilesX - 1) / 2;
+        this.focusTileY = builder.focusY != null
+            ? focusTile(builder.focusY, yMin, yMax, tilesY)
+            : (tilesY - 1) / 2;
+        this.sequence = order.sequence(tilesX, tilesY, focusTileX, focusTileY);
+    }
+
+    private static int focusTile(double focus, double min, double max, int tiles) {
+        int tile = (int) Math.floor((focus - min) / (max - min) * tiles);
+        return Math.min(Math.max(tile, 0), tiles - 1);
+    }
+
+    /**
+     * Tile id for the tile at the given index
+     */
+    public static String tileId(int index) {
+        return "tile-" + index;
+    }
+
+    public int getTileCount() {
+        return tilesX * tilesY;
+    }
+
+    /**
+     * Build the spec for the tile at the given row-major index
+     */
+    public TileSpec tileAt(int index) {
+        if (index < 0 || index >= getTileCount()) {
+            throw new IndexOutOfBoundsException("Tile index " + index + " outside grid of " + getTileCount());
+        }
+        int tx = index % tilesX;
+        int ty = index / tilesX;
+
+        // Calculate tile size in coordinate space
+        double tileRangeX = (xMax - xMin) / tilesX;
+        double tileRangeY = (yMax - yMin) / tilesY;
+
+        double tileXMin = xMin + tx * tileRangeX;
+        double tileYMin = yMin + ty * tileRangeY;
+
+        // Calculate pixel offsets and actual dimensions (handling edge tiles)
+        int pixelStartX = tx * tileWidth;
+        int pixelStartY = ty * tileHeight;
+
+        return new TileSpec.Builder()
+                .jobId(jobId)
+                .tileId(tileId(index))
+                .xMin(tileXMin)
+                .yMin(tileYMin)
+                .xMax(tileXMin + tileRangeX)
+                .yMax(tileYMin + tileRangeY)
+                .width(Math.min(tileWidth, width - pixelStartX))
+                .height(Math.min(tileHeight, height - pixelStartY))
+                .maxIterations(maxIterations)
+                .colorScheme(colorScheme)
+                .pixelStartX(pixelStartX)
+                .pixelStartY(pixelStartY)
+                .reference(referenceX, referenceY)
+                .precision(precision)
+                .build();
+    }
+
+    /**
+     * Build the spec for the tile at the given position of the dispatch order
+     */
+    public TileSpec tileInOrder(int position) {
+        if (position < 0 || position >= sequence.length) {
+            throw new IndexOutOfBoundsException("Tile position " + position + " outside grid of " + sequence.length);
+        }
+        return tileAt(sequence[position]);
+    }
+
+    /**
+     * All tiles of the grid in dispatch order
+     */
+    public List<TileSpec> tiles() {
+        List<TileSpec> tiles = new ArrayList<>(getTileCount());
+        for (int i = 0; i < getTileCount(); i++) {
+            tiles.add(tileInOrder(i));
+        }
+        return tiles;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public double getXMin() {
+        return xMin;
+    }
+
+    public double getYMin() {
+        return yMin;
+    }
+
+    public double getXMax() {
+        return xMax;
+    }
+
+    public double getYMax() {
+        return yMax;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public String getColorScheme() {
+        return colorScheme;
+    }
+
+    public String getReferenceX() {
+        return referenceX;
+    }
+
+    public String getReferenceY() {
+        return referenceY;
+    }
+
+    /**
+     * Whether the grid's bounds are offsets from a reference point
+     */
+    public boolean hasReference() {
+        return referenceX != null && referenceY != null;
+    }
+
+    public PrecisionTier getPrecision() {
+        return precision;
+    }
+
+    public boolean isLargeRender() {
+        return largeRender;
+    }
+
+    public int getTilesX() {
+        return tilesX;
+    }
+
+    public int getTilesY() {
+        return tilesY;
+    }
+
+    public TileOrder getOrder() {
+        return order;
+    }
+
+    public int getFocusTileX() {
+        return focusTileX;
+    }
+
+    public int getFocusTileY() {
+        return focusTileY;
+    }
+
+    // Builder pattern
+    public static class Builder {
+        private String jobId;
+        private double xMin;
+        private double yMin;
+        private double xMax;
+        private double yMax;
+        private int width;
+        private int height;
+        private int tileSize = 256;
+        private int maxIterations;
+        private String colorScheme;
+        private TileOrder order;
+        private Double focusX;
+        private Double focusY;
+        private String referenceX;
+        private String referenceY;
+        private PrecisionTier precision;
+        private boolean largeRender;
+
+        public Builder jobId(String jobId) {
+            this.jobId = jobId;
+            return this;
+        }
+
+        public Builder xMin(double xMin) {
+            this.xMin = xMin;
+            return this;
+        }
+
+        public Builder yMin(double yMin) {
+            this.yMin = yMin;
+            return this;
+        }
+
+        public Builder xMax(double xMax) {
+            this.xMax = xMax;
+            return this;
+        }
+
+        public Builder yMax(double yMax) {
+            this.yMax = yMax;
+            return this;
+        }
+
+        public Builder width(int width) {
+            this.width = width;
+            return this;
+        }
+
+        public Builder height(int height) {
+            this.height = height;
+            return this;
+        }
+
+        public Builder tileSize(int tileSize) {
+            this.tileSize = tileSize;
+            return this;
+        }
+
+        public Builder maxIterations(int maxIterations) {
+            this.maxIterations = maxIterations;
+            return this;
+        }
+
+        public Builder colorScheme(String colorScheme) {
+            this.colorScheme = colorScheme;
+            return this;
+        }
+
+        public Builder order(TileOrder order) {
+            this.order = order;
+            return this;
+        }
+
+        /**
+         * Point in fractal coordinates the spiral order starts from
+         */
+        public Builder focus(Double focusX, Double focusY) {
+            this.focusX = focusX;
+            this.focusY = focusY;
+            return this;
+        }
+
+        /**
+         * Reference point of a deep zoom the bounds are offsets from
+         */
+        public Builder reference(String referenceX, String referenceY) {
+            this.referenceX = referenceX;
+            this.referenceY = referenceY;
+            return this;
+        }
+
+        public Builder precision(PrecisionTier precision) {
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Allow tiles up to {@link TileGrid#MAX_LARGE_TILE_SIZE} instead of {@link TileGrid#MAX_TILE_SIZE}
+         */
+        public Builder largeRender(boolean largeRender) {
+            this.largeRender = largeRender;
+            return this;
+        }
+
+        public TileGrid build() {
+            return new TileGrid(this);
+        }
+    }
+}
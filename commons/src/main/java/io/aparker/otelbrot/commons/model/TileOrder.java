@@ -0,0 +1,112 @@
+package io.aparker.otelbrot.commons.model;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Order in which a grid's tiles are dispatched. Orders are computed with
+ * integer arithmetic only, so the Go worker derives exactly the same sequence.
+ */
+public enum TileOrder {
+    /** Row by row from the top-left corner */
+    RASTER,
+    /** Square spiral outwards from the focus tile */
+    SPIRAL,
+    /** Along a Hilbert curve, keeping consecutive tiles next to each other */
+    HILBERT;
+
+    /**
+     * Order for a request's name, or null if none is given
+     */
+    public static TileOrder fromId(String id) {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        return valueOf(id.trim().toUpperCase());
+    }
+
+    /**
+     * Row-major tile indices in dispatch order
+     */
+    public int[] sequence(int tilesX, int tilesY, int focusX, int focusY) {
+        return switch (this) {
+            case RASTER -> IntStream.range(0, tilesX * tilesY).toArray();
+            case SPIRAL -> spiral(tilesX, tilesY, focusX, focusY);
+            case HILBERT -> hilbert(tilesX, tilesY);
+        };
+    }
+
+    private static int[] spiral(int tilesX, int tilesY, int focusX, int focusY) {
+        int count = tilesX * tilesY;
+        int[] order = new int[count];
+        int added = 0;
+
+        // Walk right, down, left, up with legs of 1, 1, 2, 2, 3, 3, ... and
+        // keep the positions that fall inside the grid
+        int[][] directions = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+        int x = focusX;
+        int y = focusY;
+        int leg = 1;
+        int direction = 0;
+        if (count > 0) {
+            order[added++] = y * tilesX + x;
+        }
+        while (added < count) {
+            for (int turn = 0; turn < 2 && added < count; turn++) {
+                for (int step = 0; step < leg && added < count; step++) {
+                    x += directions[direction][0];
+                    y += directions[direction][1];
+                    if (x >= 0 && x < tilesX && y >= 0 && y < tilesY) {
+                        order[added++] = y * tilesX + x;
+                    }
+                }
+                direction = (direction + 1) % 4;
+            }
+            leg++;
+        }
+        return order;
+    }
+
+    private static int[] hilbert(int tilesX, int tilesY) {
+        int side = 1;
+        while (side < Math.max(tilesX, tilesY)) {
+            side <<= 1;
+        }
+        int n = side;
+        return IntStream.range(0, tilesX * tilesY)
+            .boxed()
+            .sorted(Comparator.comparingInt(i -> hilbertIndex(n, i % tilesX, i / tilesX)))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    /**
+     * Distance along the Hilbert curve filling an n by n square, n a power of two
+     */
+    public static int hilbertIndex(int n, int x, int y) {
+        int d = 0;
+        for (int s = n / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += s * s * ((3 * rx) ^ ry);
+            // Rotate the quadrant so the curve stays continuous
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = n - 1 - x;
+                    y = n - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Short lowercase name used in requests, configuration and worker environments
+     */
+    public String getId() {
+        return name().toLowerCase();
+    }
+}
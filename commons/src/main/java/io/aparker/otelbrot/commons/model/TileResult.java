@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -19,6 +20,13 @@ public class TileResult {
     private int pixelStartY;
     private long calculationTimeMs;
     private TileStatus status;
+    // Per-pixel iteration counts as encoded by IterationBuffer, so the tile
+    // can be colored again without recalculating it; null if not sent
+    private byte[] iterations;
+    // Pixels a side each pixel of the image covers: above 1 for a coarse
+    // pass of a tile refined progressively, whose image is that many times
+    // smaller (rounded up), and 1 for the full resolution result
+    private int scale = 1;
 
     // Default constructor for Jackson deserialization
     public TileResult() {
@@ -34,7 +42,9 @@ public class TileResult {
             @JsonProperty("pixelStartX") int pixelStartX,
             @JsonProperty("pixelStartY") int pixelStartY,
             @JsonProperty("calculationTimeMs") long calculationTimeMs,
-            @JsonProperty("status") String status) {
+            @JsonProperty("status") String status,
+            @JsonProperty("iterations") byte[] iterations,
+            @JsonProperty("scale") Integer scale) {
         this.jobId = jobId;
         this.tileId = tileId;
         this.width = width;
@@ -44,6 +54,8 @@ public class TileResult {
         this.pixelStartY = pixelStartY;
         this.calculationTimeMs = calculationTimeMs;
         this.status = status != null ? TileStatus.valueOf(status) : TileStatus.COMPLETED;
+        this.iterations = iterations;
+        this.scale = scale != null && scale > 1 ? scale : 1;
     }
 
     private TileResult(Builder builder) {
@@ -56,6 +68,8 @@ public class TileResult {
         this.pixelStartY = builder.pixelStartY;
         this.calculationTimeMs = builder.calculationTimeMs;
         this.status = builder.status;
+        this.iterations = builder.iterations;
+        this.scale = builder.scale;
     }
 
     // Getters and setters for Jackson serialization/deserialization
@@ -141,6 +155,31 @@ public class TileResult {
         }
     }
 
+    public byte[] getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(byte[] iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public void setScale(int scale) {
+        this.scale = Math.max(scale, 1);
+    }
+
+    /**
+     * Whether this is a coarse pass of a tile, to show until the tile's full
+     * resolution result arrives
+     */
+    @JsonIgnore
+    public boolean isCoarsePass() {
+        return scale > 1;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -196,6 +235,8 @@ public class TileResult {
         private int pixelStartY;
         private long calculationTimeMs;
         private TileStatus status = TileStatus.COMPLETED;
+        private byte[] iterations;
+        private int scale = 1;
 
         public Builder jobId(String jobId) {
             this.jobId = jobId;
@@ -242,6 +283,16 @@ public class TileResult {
             return this;
         }
 
+        public Builder iterations(byte[] iterations) {
+            this.iterations = iterations;
+            return this;
+        }
+
+        public Builder scale(int scale) {
+            this.scale = Math.max(scale, 1);
+            return this;
+        }
+
         public TileResult build() {
             return new TileResult(this);
         }
@@ -3,6 +3,7 @@ package io.aparker.otelbrot.commons.model;
 import java.util.Objects;
 import java.util.UUID;
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
@@ -21,6 +22,13 @@ public class TileSpec {
     private String colorScheme;
     private int pixelStartX;
     private int pixelStartY;
+    // Reference point of a deep zoom, as exact decimal strings; when set, the
+    // bounds are offsets from it and the tile is calculated by perturbation
+    // against the job's reference orbit
+    private String referenceX;
+    private String referenceY;
+    // Arithmetic the pixels are iterated in
+    private PrecisionTier precision = PrecisionTier.DOUBLE;
     // Not storing trace context in TileSpec anymore - using environment variables instead
 
     // Default constructor for Jackson deserialization
@@ -40,7 +48,10 @@ public class TileSpec {
             @JsonProperty("maxIterations") int maxIterations,
             @JsonProperty("colorScheme") String colorScheme,
             @JsonProperty("pixelStartX") int pixelStartX,
-            @JsonProperty("pixelStartY") int pixelStartY) {
+            @JsonProperty("pixelStartY") int pixelStartY,
+            @JsonProperty("referenceX") String referenceX,
+            @JsonProperty("referenceY") String referenceY,
+            @JsonProperty("precision") String precision) {
         this.jobId = jobId;
         this.tileId = tileId;
         this.xMin = xMin;
@@ -53,6 +64,9 @@ public class TileSpec {
         this.colorScheme = colorScheme;
         this.pixelStartX = pixelStartX;
         this.pixelStartY = pixelStartY;
+        this.referenceX = referenceX;
+        this.referenceY = referenceY;
+        this.precision = precision != null ? PrecisionTier.fromId(precision) : PrecisionTier.DOUBLE;
     }
     
     private TileSpec(Builder builder) {
@@ -68,6 +82,9 @@ public class TileSpec {
         this.colorScheme = builder.colorScheme;
         this.pixelStartX = builder.pixelStartX;
         this.pixelStartY = builder.pixelStartY;
+        this.referenceX = builder.referenceX;
+        this.referenceY = builder.referenceY;
+        this.precision = builder.precision != null ? builder.precision : PrecisionTier.DOUBLE;
     }
 
     // Static factory method to create from environment variables
@@ -102,7 +119,9 @@ public class TileSpec {
                 .maxIterations(Integer.parseInt(maxIterationsStr))
                 .colorScheme(System.getenv("TILE_SPEC_COLOR_SCHEME"))
                 .pixelStartX(Integer.parseInt(pixelStartXStr))
-                .pixelStartY(Integer.parseInt(pixelStartYStr));
+                .pixelStartY(Integer.parseInt(pixelStartYStr))
+                .reference(System.getenv("TILE_SPEC_REFERENCE_X"), System.getenv("TILE_SPEC_REFERENCE_Y"))
+                .precision(PrecisionTier.fromId(System.getenv("TILE_SPEC_PRECISION")));
                 
         // Not adding trace context to TileSpec anymore - using environment variables directly
         
@@ -126,34 +145,42 @@ public class TileSpec {
         this.tileId = tileId;
     }
 
+    @JsonProperty("xMin")
     public double getXMin() {
         return xMin;
     }
     
+    @JsonProperty("xMin")
     public void setXMin(double xMin) {
         this.xMin = xMin;
     }
 
+    @JsonProperty("yMin")
     public double getYMin() {
         return yMin;
     }
     
+    @JsonProperty("yMin")
     public void setYMin(double yMin) {
         this.yMin = yMin;
     }
 
+    @JsonProperty("xMax")
     public double getXMax() {
         return xMax;
     }
     
+    @JsonProperty("xMax")
     public void setXMax(double xMax) {
         this.xMax = xMax;
     }
 
+    @JsonProperty("yMax")
     public double getYMax() {
         return yMax;
     }
     
+    @JsonProperty("yMax")
     public void setYMax(double yMax) {
         this.yMax = yMax;
     }
@@ -205,6 +232,48 @@ public class TileSpec {
     public void setPixelStartY(int pixelStartY) {
         this.pixelStartY = pixelStartY;
     }
+
+    public String getReferenceX() {
+        return referenceX;
+    }
+
+    public void setReferenceX(String referenceX) {
+        this.referenceX = referenceX;
+    }
+
+    public String getReferenceY() {
+        return referenceY;
+    }
+
+    public void setReferenceY(String referenceY) {
+        this.referenceY = referenceY;
+    }
+
+    public PrecisionTier getPrecision() {
+        return precision;
+    }
+
+    public void setPrecision(PrecisionTier precision) {
+        this.precision = precision != null ? precision : PrecisionTier.DOUBLE;
+    }
+
+    /**
+     * Whether the tile's bounds are offsets from a reference point
+     */
+    @JsonIgnore
+    public boolean hasReference() {
+        return referenceX != null && referenceY != null;
+    }
+
+    /**
+     * Whether the tile is a deep zoom calculated by perturbation against
+     * its job's reference orbit; double-double tiles add their offsets to
+     * the reference point instead
+     */
+    @JsonIgnore
+    public boolean isPerturbed() {
+        return hasReference() && precision != PrecisionTier.DOUBLE_DOUBLE;
+    }
     
     // Trace context is now handled via environment variables, not stored in TileSpec
 
@@ -236,6 +305,9 @@ public class TileSpec {
         private String colorScheme;
         private int pixelStartX;
         private int pixelStartY;
+        private String referenceX;
+        private String referenceY;
+        private PrecisionTier precision;
         public Builder jobId(String jobId) {
             this.jobId = jobId;
             return this;
@@ -296,6 +368,20 @@ public class TileSpec {
             return this;
         }
 
+        /**
+         * Reference point of a deep zoom the bounds are offsets from
+         */
+        public Builder reference(String referenceX, String referenceY) {
+            this.referenceX = referenceX;
+            this.referenceY = referenceY;
+            return this;
+        }
+
+        public Builder precision(PrecisionTier precision) {
+            this.precision = precision;
+            return this;
+        }
+
         public TileSpec build() {
             return new TileSpec(this);
         }
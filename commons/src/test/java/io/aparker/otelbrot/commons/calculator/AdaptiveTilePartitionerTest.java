@@ -0,0 +1,114 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.aparker.otelbrot.commons.model.TileGrid;
+import io.aparker.otelbrot.commons.model.TileOrder;
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+class AdaptiveTilePartitionerTest {
+
+    private TileGrid grid(int width, int height, TileOrder order) {
+        return new TileGrid.Builder()
+                .jobId("test-job")
+                .xMin(-2.0)
+                .yMin(-1.5)
+                .xMax(1.0)
+                .yMax(1.5)
+                .width(width)
+                .height(height)
+                .tileSize(128)
+                .maxIterations(200)
+                .colorScheme("classic")
+                .order(order)
+                .build();
+    }
+
+    @Test
+    void tilesCoverImageExactlyOnce() {
+        TileGrid grid = grid(1000, 600, TileOrder.RASTER);
+        List<TileSpec> tiles = new AdaptiveTilePartitioner().partition(grid);
+
+        int[][] covered = new int[600][1000];
+        for (TileSpec tile : tiles) {
+            assertTrue(tile.getWidth() <= TileGrid.MAX_TILE_SIZE && tile.getHeight() <= TileGrid.MAX_TILE_SIZE);
+            for (int y = tile.getPixelStartY(); y < tile.getPixelStartY() + tile.getHeight(); y++) {
+                for (int x = tile.getPixelStartX(); x < tile.getPixelStartX() + tile.getWidth(); x++) {
+                    covered[y][x]++;
+                }
+            }
+        }
+        for (int[] row : covered) {
+            for (int count : row) {
+                assertEquals(1, count);
+            }
+        }
+        assertEquals("tile-0", tiles.get(0).getTileId());
+        assertEquals(0, tiles.get(0).getPixelStartX() + tiles.get(0).getPixelStartY());
+    }
+
+    @Test
+    void balancesCostBetterThanUniformGrid() {
+        TileGrid grid = grid(1024, 1024, TileOrder.RASTER);
+        List<TileSpec> adaptive = new AdaptiveTilePartitioner().partition(grid);
+
+        long uniformMax = grid.tiles().stream().mapToLong(this::actualCost).max().orElseThrow();
+        long adaptiveMax = adaptive.stream().mapToLong(this::actualCost).max().orElseThrow();
+        assertTrue(adaptiveMax < uniformMax, adaptiveMax + " >= " + uniformMax);
+
+        int smallest = adaptive.stream().mapToInt(t -> t.getWidth() * t.getHeight()).min().orElseThrow();
+        int largest = adaptive.stream().mapToInt(t -> t.getWidth() * t.getHeight()).max().orElseThrow();
+        assertTrue(largest > smallest);
+    }
+
+    @Test
+    void largeTileSizesRaiseTheLargestTile() {
+        TileGrid grid = new TileGrid.Builder()
+                .jobId("test-job")
+                .xMin(-2.0)
+                .yMin(-1.5)
+                .xMax(1.0)
+                .yMax(1.5)
+                .width(8192)
+                .height(8192)
+                .tileSize(2048)
+                .largeRender(true)
+                .maxIterations(200)
+                .colorScheme("classic")
+                .order(TileOrder.RASTER)
+                .build();
+        List<TileSpec> tiles = new AdaptiveTilePartitioner().partition(grid);
+
+        assertTrue(tiles.stream().allMatch(t -> t.getWidth() <= 2048 && t.getHeight() <= 2048));
+        assertTrue(tiles.stream().anyMatch(t -> t.getWidth() > TileGrid.MAX_TILE_SIZE));
+    }
+
+    @Test
+    void spiralOrderStartsNearCenter() {
+        TileGrid grid = grid(1024, 1024, TileOrder.SPIRAL);
+        TileSpec first = new AdaptiveTilePartitioner().partition(grid).get(0);
+        int centerX = first.getPixelStartX() + first.getWidth() / 2;
+        int centerY = first.getPixelStartY() + first.getHeight() / 2;
+        assertTrue(Math.abs(centerX - 448) <= 256 && Math.abs(centerY - 448) <= 256);
+    }
+
+    private long actualCost(TileSpec tile) {
+        double pixelWidth = (tile.getXMax() - tile.getXMin()) / tile.getWidth();
+        double pixelHeight = (tile.getYMax() - tile.getYMin()) / tile.getHeight();
+        long cost = 0;
+        for (int y = 0; y < tile.getHeight(); y++) {
+            for (int x = 0; x < tile.getWidth(); x++) {
+                cost += FractalCalculator.iterationCost(
+                        tile.getXMin() + x * pixelWidth,
+                        tile.getYMin() + y * pixelHeight,
+                        tile.getMaxIterations()) + 4;
+            }
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,79 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import org.junit.jupiter.api.Test;
+
+class DoubleDoubleTest {
+
+    // Relative error double-double arithmetic should stay within, about 2^-100
+    private static final BigDecimal TOLERANCE = new BigDecimal("1e-30");
+    private static final MathContext EXACT = new MathContext(100);
+
+    private static final BigDecimal A = new BigDecimal("-1.7497219321804067608491149541234");
+    private static final BigDecimal B = new BigDecimal("0.0000000000000000012345678901234567890123");
+
+    @Test
+    void keepsDigitsBeyondDouble() {
+        DoubleDouble value = DoubleDouble.valueOf(A);
+        assertClose(A, value.toBigDecimal());
+        assertEquals(A.doubleValue(), value.hi());
+        assertTrue(value.lo() != 0.0);
+    }
+
+    @Test
+    void arithmeticMatchesBigDecimal() {
+        DoubleDouble a = DoubleDouble.valueOf(A);
+        DoubleDouble b = DoubleDouble.valueOf(B);
+
+        assertClose(A.add(B, EXACT), a.add(b).toBigDecimal());
+        assertClose(A.subtract(B, EXACT), a.subtract(b).toBigDecimal());
+        assertClose(A.multiply(B, EXACT), a.multiply(b).toBigDecimal());
+        assertClose(A.multiply(A, EXACT), a.square().toBigDecimal());
+        assertClose(A.add(new BigDecimal(1e-20), EXACT), a.add(1e-20).toBigDecimal());
+        assertClose(A.multiply(BigDecimal.valueOf(2)), a.twice().toBigDecimal());
+    }
+
+    @Test
+    void mandelbrotMatchesBigDecimalIteration() {
+        // Pixels 1e-20 apart near the boundary, far closer than doubles resolve
+        BigDecimal cy = new BigDecimal("0.0000000000000000000000000001");
+        for (int i = 0; i < 8; i++) {
+            BigDecimal cx = A.add(new BigDecimal("1e-20").multiply(BigDecimal.valueOf(i)));
+            assertEquals(
+                    bigDecimalMandelbrot(cx, cy, 400),
+                    FractalCalculator.calculateMandelbrot(DoubleDouble.valueOf(cx), DoubleDouble.valueOf(cy), 400),
+                    "pixel " + i);
+        }
+    }
+
+    private static int bigDecimalMandelbrot(BigDecimal cx, BigDecimal cy, int maxIterations) {
+        MathContext mc = new MathContext(60);
+        BigDecimal four = BigDecimal.valueOf(4);
+        BigDecimal x = BigDecimal.ZERO;
+        BigDecimal y = BigDecimal.ZERO;
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            BigDecimal xx = x.multiply(x, mc);
+            BigDecimal yy = y.multiply(y, mc);
+            if (xx.add(yy, mc).compareTo(four) >= 0) {
+                break;
+            }
+            BigDecimal xy = x.multiply(y, mc);
+            x = xx.subtract(yy, mc).add(cx, mc);
+            y = xy.add(xy, mc).add(cy, mc);
+            iteration++;
+        }
+        return iteration;
+    }
+
+    private static void assertClose(BigDecimal expected, BigDecimal actual) {
+        BigDecimal error = expected.subtract(actual).abs();
+        BigDecimal bound = expected.abs().multiply(TOLERANCE);
+        assertTrue(error.compareTo(bound) <= 0, "expected " + expected + " but got " + actual);
+    }
+}
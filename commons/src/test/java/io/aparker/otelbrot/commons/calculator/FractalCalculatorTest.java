@@ -0,0 +1,130 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.commons.model.TileStatus;
+
+class FractalCalculatorTest {
+
+    private static final int BLACK = 0xFF000000;
+
+    @Test
+    void calculateTile() {
+        TileSpec spec = new TileSpec.Builder()
+                .jobId("test-job")
+                .tileId("test-tile")
+                .xMin(-2.0)
+                .yMin(-1.5)
+                .xMax(1.0)
+                .yMax(1.5)
+                .width(100)
+                .height(100)
+                .maxIterations(100)
+                .colorScheme("classic")
+                .build();
+
+        TileResult result = new FractalCalculator().calculateTile(spec);
+
+        assertEquals("test-job", result.getJobId());
+        assertEquals("test-tile", result.getTileId());
+        assertEquals(100, result.getWidth());
+        assertEquals(100, result.getHeight());
+        assertEquals(TileStatus.COMPLETED, result.getStatus());
+        assertTrue(result.getImageData().length > 0);
+    }
+
+    @Test
+    void calculateMandelbrotMatchesGoWorker() {
+        assertEquals(100, FractalCalculator.calculateMandelbrot(0, 0, 100));
+        assertEquals(1, FractalCalculator.calculateMandelbrot(10, 10, 100));
+        assertEquals(1, FractalCalculator.calculateMandelbrot(-2, 0, 100));
+        assertEquals(5, FractalCalculator.calculateMandelbrot(0.5, 0, 100));
+    }
+
+    @Test
+    void colorMaps() {
+        for (String scheme : new String[] {"classic", "fire", "ocean", "grayscale", "rainbow", "unknown"}) {
+            assertEquals(BLACK, FractalCalculator.applyColorMap(100, 100, scheme), scheme);
+            assertNotEquals(BLACK, FractalCalculator.applyColorMap(99, 100, scheme), scheme);
+            assertNotEquals(BLACK, FractalCalculator.applyColorMap(50, 100, scheme), scheme);
+        }
+    }
+
+    @Test
+    void progressivePassesEndInTheSameTile() {
+        TileSpec spec = new TileSpec.Builder()
+                .jobId("test-job")
+                .tileId("test-tile")
+                .xMin(-2.0)
+                .yMin(-1.5)
+                .xMax(1.0)
+                .yMax(1.5)
+                .width(100)
+                .height(60)
+                .maxIterations(100)
+                .colorScheme("classic")
+                .build();
+
+        List<TileResult> passes = new ArrayList<>();
+        TileResult result = new FractalCalculator().calculateTileProgressive(spec, 10, passes::add);
+
+        assertEquals(List.of(8, 4, 2), passes.stream().map(TileResult::getScale).toList());
+        assertTrue(passes.stream().allMatch(TileResult::isCoarsePass));
+        assertEquals(1, result.getScale());
+        assertArrayEquals(
+                IterationBuffer.decode(new FractalCalculator().calculateTile(spec).getIterations()).getCounts(),
+                IterationBuffer.decode(result.getIterations()).getCounts());
+    }
+
+    @Test
+    void doubleDoubleTilesResolvePixelsDoublesCannot() {
+        // 32 pixels 1e-20 apart, offsets from a point doubles can't represent
+        TileSpec spec = new TileSpec.Builder()
+                .xMin(-1.6e-19)
+                .yMin(-1.6e-19)
+                .xMax(1.6e-19)
+                .yMax(1.6e-19)
+                .width(32)
+                .height(32)
+                .maxIterations(1000)
+                .reference("-1.7497219321804067608491149541", "0.0000000000000000000000000001")
+                .precision(PrecisionTier.DOUBLE_DOUBLE)
+                .build();
+
+        int[] counts = IterationBuffer.decode(new FractalCalculator().calculateTile(spec).getIterations()).getCounts();
+
+        assertTrue(Arrays.stream(counts).distinct().count() > 1, "expected detail, got a single iteration count");
+    }
+
+    @Test
+    void float32TilesMatchDoublesAtShallowZoom() {
+        TileSpec.Builder spec = new TileSpec.Builder()
+                .xMin(-2.0)
+                .yMin(-1.5)
+                .xMax(1.0)
+                .yMax(1.5)
+                .width(64)
+                .height(64)
+                .maxIterations(50);
+        int[] doubles = IterationBuffer.decode(
+                new FractalCalculator().calculateTile(spec.build()).getIterations()).getCounts();
+        int[] floats = IterationBuffer.decode(
+                new FractalCalculator().calculateTile(spec.precision(PrecisionTier.FLOAT32).build()).getIterations()).getCounts();
+
+        long differing = IntStream.range(0, doubles.length).filter(i -> doubles[i] != floats[i]).count();
+        assertTrue(differing < doubles.length / 100, differing + " pixels differ");
+    }
+}
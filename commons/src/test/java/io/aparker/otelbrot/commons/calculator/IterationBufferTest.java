@@ -0,0 +1,99 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+class IterationBufferTest {
+
+    @Test
+    void countsReadBackAsEncoded() {
+        // The limits and counts of the Go worker's EncodeIterations test
+        int[][] cases = {{100, 1}, {1000, 2}, {100000, 4}};
+        for (int[] c : cases) {
+            int maxIterations = c[0];
+            int[] counts = counts(6, 4, maxIterations);
+
+            byte[] encoded = new IterationBuffer(6, 4, maxIterations, counts).encode();
+
+            assertEquals(c[1], encoded[0], "bytes per count for " + maxIterations);
+            IterationBuffer decoded = IterationBuffer.decode(encoded);
+            assertEquals(6, decoded.getWidth());
+            assertEquals(4, decoded.getHeight());
+            assertEquals(maxIterations, decoded.getMaxIterations());
+            assertArrayEquals(counts, decoded.getCounts());
+        }
+    }
+
+    @Test
+    void countsAtTheLimitOfEachWidthReadBackUnsigned() {
+        for (int maxIterations : new int[] {0xFF, 0xFFFF, Integer.MAX_VALUE}) {
+            int[] counts = {0, 1, maxIterations / 2, maxIterations};
+
+            IterationBuffer decoded = IterationBuffer.decode(new IterationBuffer(2, 2, maxIterations, counts).encode());
+
+            assertArrayEquals(counts, decoded.getCounts(), "maxIterations " + maxIterations);
+        }
+    }
+
+    @Test
+    void decodesTheGoWorkerLayout() throws IOException {
+        // Built the way go-worker/internal/calculator/iterations.go writes it
+        for (int maxIterations : new int[] {100, 1000, 100000}) {
+            int[] counts = counts(6, 4, maxIterations);
+            int bytesPerCount = IterationBuffer.bytesPerCount(maxIterations);
+
+            ByteBuffer raw = ByteBuffer.allocate(counts.length * bytesPerCount).order(ByteOrder.LITTLE_ENDIAN);
+            for (int count : counts) {
+                switch (bytesPerCount) {
+                    case 1 -> raw.put((byte) count);
+                    case 2 -> raw.putShort((short) count);
+                    default -> raw.putInt(count);
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.writeBytes(ByteBuffer.allocate(13).order(ByteOrder.LITTLE_ENDIAN)
+                .put((byte) bytesPerCount).putInt(maxIterations).putInt(6).putInt(4).array());
+            try (DeflaterOutputStream zlib = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED))) {
+                zlib.write(raw.array());
+            }
+
+            IterationBuffer decoded = IterationBuffer.decode(out.toByteArray());
+
+            assertEquals(maxIterations, decoded.getMaxIterations());
+            assertArrayEquals(counts, decoded.getCounts(), "maxIterations " + maxIterations);
+        }
+    }
+
+    @Test
+    void invalidBuffersAreRejected() {
+        byte[] encoded = new IterationBuffer(6, 4, 100, counts(6, 4, 100)).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> IterationBuffer.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> IterationBuffer.decode(Arrays.copyOf(encoded, 12)));
+        // The header and the zlib header, but none of the counts
+        assertThrows(IllegalArgumentException.class, () -> IterationBuffer.decode(Arrays.copyOf(encoded, 15)));
+
+        byte[] badWidth = encoded.clone();
+        badWidth[0] = 3;
+        assertThrows(IllegalArgumentException.class, () -> IterationBuffer.decode(badWidth));
+    }
+
+    private static int[] counts(int width, int height, int maxIterations) {
+        int[] counts = new int[width * height];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (i * 37) % (maxIterations + 1);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,70 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+class ReferenceOrbitTest {
+
+    @Test
+    void perturbationMatchesDirectIterationAtShallowZoom() {
+        double refX = -0.75;
+        double refY = 0.1;
+        ReferenceOrbit orbit = ReferenceOrbit.compute(
+                new BigDecimal(refX), new BigDecimal(refY), 500, ReferenceOrbit.precisionDigits(0.01));
+
+        for (double dx = -0.01; dx <= 0.01; dx += 0.0025) {
+            for (double dy = -0.01; dy <= 0.01; dy += 0.0025) {
+                assertEquals(
+                        FractalCalculator.calculateMandelbrot(refX + dx, refY + dy, 500),
+                        orbit.iterate(dx, dy, 500),
+                        1,
+                        "offset " + dx + ", " + dy);
+            }
+        }
+    }
+
+    @Test
+    void pixelsStayDistinctPastDoublePrecision() {
+        // A view 1e-20 wide around a point on the boundary, where doubles
+        // can't tell any of the pixels apart
+        BigDecimal cx = new BigDecimal("-1.7497219321804067608491149541");
+        BigDecimal cy = new BigDecimal("0.0000000000000000000000000001");
+        double zoom = 1e-20;
+        ReferenceOrbit orbit = ReferenceOrbit.compute(cx, cy, 2000, ReferenceOrbit.precisionDigits(zoom));
+
+        TileSpec spec = new TileSpec.Builder()
+                .xMin(-zoom)
+                .yMin(-zoom)
+                .xMax(zoom)
+                .yMax(zoom)
+                .width(32)
+                .height(32)
+                .maxIterations(2000)
+                .reference(cx.toPlainString(), cy.toPlainString())
+                .build();
+        int[] counts = IterationBuffer.decode(
+                new FractalCalculator().calculatePerturbedTile(spec, orbit).getIterations()).getCounts();
+
+        long distinct = Arrays.stream(counts).distinct().count();
+        assertTrue(distinct > 1, "expected detail, got a single iteration count");
+    }
+
+    @Test
+    void encodeRoundTrip() {
+        ReferenceOrbit orbit = ReferenceOrbit.compute(new BigDecimal("0.25"), new BigDecimal("0.5"), 100, 30);
+        ReferenceOrbit decoded = ReferenceOrbit.decode(orbit.encode());
+
+        assertEquals(orbit.length(), decoded.length());
+        assertArrayEquals(orbit.encode(), decoded.encode());
+        assertThrows(IllegalArgumentException.class, () -> ReferenceOrbit.decode(new byte[] {1, 0, 0, 0}));
+    }
+}
@@ -0,0 +1,66 @@
+package io.aparker.otelbrot.commons.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+class UniformTileDetectorTest {
+
+    private TileSpec tile(double xMin, double yMin, double xMax, double yMax) {
+        return new TileSpec.Builder()
+                .jobId("test-job")
+                .tileId("tile-0")
+                .xMin(xMin)
+                .yMin(yMin)
+                .xMax(xMax)
+                .yMax(yMax)
+                .width(64)
+                .height(64)
+                .maxIterations(200)
+                .colorScheme("classic")
+                .build();
+    }
+
+    @Test
+    void detectsTilesInsideTheSet() {
+        assertEquals(200, UniformTileDetector.uniformIterations(tile(-0.3, -0.2, -0.1, 0.0)));
+        assertEquals(200, UniformTileDetector.uniformIterations(tile(-0.1, -0.1, 0.1, 0.1)));
+    }
+
+    @Test
+    void detectsTilesInOneEscapeBand() {
+        assertEquals(1, UniformTileDetector.uniformIterations(tile(2.1, 0.0, 2.5, 0.4)));
+    }
+
+    @Test
+    void rejectsTilesWithDetail() {
+        assertEquals(UniformTileDetector.NOT_UNIFORM, UniformTileDetector.uniformIterations(tile(-2.0, -1.5, 1.0, 1.5)));
+        assertEquals(UniformTileDetector.NOT_UNIFORM, UniformTileDetector.uniformIterations(tile(-0.8, 0.0, -0.7, 0.1)));
+        // A band around the set never encloses pixels of other counts, unless it contains the origin
+        assertEquals(UniformTileDetector.NOT_UNIFORM, UniformTileDetector.uniformIterations(tile(-4.0, -4.0, 4.0, 4.0)));
+    }
+
+    @Test
+    void filledTileMatchesCalculatedTile() throws IOException {
+        TileSpec spec = tile(-0.3, -0.2, -0.1, 0.0);
+        FractalCalculator calculator = new FractalCalculator();
+
+        int[] calculated = pixels(calculator.calculateTile(spec).getImageData());
+        int[] filled = pixels(calculator.fillTile(spec, UniformTileDetector.uniformIterations(spec)).getImageData());
+        assertArrayEquals(calculated, filled);
+    }
+
+    private int[] pixels(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
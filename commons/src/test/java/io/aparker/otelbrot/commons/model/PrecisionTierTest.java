@@ -0,0 +1,32 @@
+package io.aparker.otelbrot.commons.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class PrecisionTierTest {
+
+    @Test
+    void picksTheCheapestTierThatResolvesThePixels() {
+        assertEquals(PrecisionTier.FLOAT32, PrecisionTier.forPixelSpacing(2.5, 3.0 / 1024));
+        assertEquals(PrecisionTier.DOUBLE, PrecisionTier.forPixelSpacing(2.5, 1e-6));
+        assertEquals(PrecisionTier.DOUBLE, PrecisionTier.forPixelSpacing(2.5, 1e-11));
+        assertEquals(PrecisionTier.DOUBLE_DOUBLE, PrecisionTier.forPixelSpacing(2.5, 1e-14));
+        assertEquals(PrecisionTier.DOUBLE_DOUBLE, PrecisionTier.forPixelSpacing(2.5, 1e-26));
+        assertNull(PrecisionTier.forPixelSpacing(2.5, 1e-30));
+    }
+
+    @Test
+    void smallCoordinatesStillNeedTheEscapeRadiusResolved() {
+        assertEquals(PrecisionTier.forPixelSpacing(2.0, 1e-14), PrecisionTier.forPixelSpacing(1e-20, 1e-14));
+    }
+
+    @Test
+    void parsesRequestAndEnvironmentNames() {
+        assertEquals(PrecisionTier.DOUBLE_DOUBLE, PrecisionTier.fromId("double-double"));
+        assertEquals(PrecisionTier.DOUBLE_DOUBLE, PrecisionTier.fromId("DOUBLE_DOUBLE"));
+        assertEquals(PrecisionTier.FLOAT32, PrecisionTier.fromId(PrecisionTier.FLOAT32.getId()));
+        assertNull(PrecisionTier.fromId(" "));
+    }
+}
@@ -0,0 +1,54 @@
+package io.aparker.otelbrot.commons.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TileBatchTest {
+
+    private TileSpec tile(int index, int size, int maxIterations) {
+        return new TileSpec.Builder()
+                .jobId("test-job")
+                .tileId("tile-" + index)
+                .width(size)
+                .height(size)
+                .maxIterations(maxIterations)
+                .build();
+    }
+
+    @Test
+    void smallTilesArePacked() {
+        List<TileSpec> tiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tiles.add(tile(i, 64, 100));
+        }
+
+        List<TileBatch> batches = TileBatch.partition(tiles, Long.MAX_VALUE, 4);
+        assertEquals(3, batches.size());
+        assertEquals(4, batches.get(0).size());
+        assertEquals(2, batches.get(2).size());
+        assertEquals("batch-tile-4", batches.get(1).getBatchId());
+        assertEquals("test-job", batches.get(1).getJobId());
+    }
+
+    @Test
+    void workBudgetLimitsBatch() {
+        // 64 * 64 * 100 = 409600 pixel iterations per tile
+        List<TileSpec> tiles = List.of(tile(0, 64, 100), tile(1, 64, 100), tile(2, 64, 100));
+        List<TileBatch> batches = TileBatch.partition(tiles, 2 * 409600, 16);
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+    }
+
+    @Test
+    void expensiveTileGetsItsOwnBatch() {
+        List<TileSpec> tiles = List.of(tile(0, 512, 10000), tile(1, 64, 100), tile(2, 64, 100));
+        List<TileBatch> batches = TileBatch.partition(tiles, 1_000_000, 16);
+        assertEquals(2, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(2, batches.get(1).size());
+    }
+}
@@ -0,0 +1,140 @@
+package io.aparker.otelbrot.commons.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TileGridTest {
+
+    private TileGrid grid(int width, int height, int tileSize) {
+        return builder(width, height, tileSize).build();
+    }
+
+    private TileGrid.Builder builder(int width, int height, int tileSize) {
+        return new TileGrid.Builder()
+                .jobId("test-job")
+                .xMin(-2.0)
+                .yMin(-1.5)
+                .xMax(1.0)
+                .yMax(1.5)
+                .width(width)
+                .height(height)
+                .tileSize(tileSize)
+                .maxIterations(100)
+                .colorScheme("classic");
+    }
+
+    @Test
+    void tilesCoverImageExactlyOnce() {
+        TileGrid grid = grid(1000, 600, 256);
+        assertEquals(4, grid.getTilesX());
+        assertEquals(3, grid.getTilesY());
+
+        int[][] covered = new int[600][1000];
+        for (TileSpec tile : grid.tiles()) {
+            for (int y = tile.getPixelStartY(); y < tile.getPixelStartY() + tile.getHeight(); y++) {
+                for (int x = tile.getPixelStartX(); x < tile.getPixelStartX() + tile.getWidth(); x++) {
+                    covered[y][x]++;
+                }
+            }
+        }
+        for (int[] row : covered) {
+            for (int count : row) {
+                assertEquals(1, count);
+            }
+        }
+    }
+
+    @Test
+    void tileAtIsRowMajor() {
+        TileGrid grid = grid(512, 512, 128);
+        List<TileSpec> tiles = grid.tiles();
+        assertEquals(16, tiles.size());
+
+        TileSpec tile = grid.tileAt(6);
+        assertEquals("tile-6", tile.getTileId());
+        assertEquals("test-job", tile.getJobId());
+        assertEquals(256, tile.getPixelStartX());
+        assertEquals(128, tile.getPixelStartY());
+        assertEquals(-2.0 + 2 * 0.75, tile.getXMin(), 1e-12);
+        assertEquals(-1.5 + 0.75, tile.getYMin(), 1e-12);
+        assertEquals(tiles.get(6).getXMax(), tile.getXMax());
+    }
+
+    @Test
+    void tileSizeIsClamped() {
+        assertEquals(TileGrid.MIN_TILE_SIZE, grid(100, 100, 8).getTileSize());
+        assertEquals(TileGrid.MAX_TILE_SIZE, grid(100, 100, 4096).getTileSize());
+        assertThrows(IndexOutOfBoundsException.class, () -> grid(100, 100, 64).tileAt(4));
+    }
+
+    @Test
+    void largeRendersAllowLargerTiles() {
+        assertEquals(2048, builder(100, 100, 2048).largeRender(true).build().getTileSize());
+        assertEquals(TileGrid.MAX_LARGE_TILE_SIZE, builder(100, 100, 4096).largeRender(true).build().getTileSize());
+        assertEquals(TileGrid.MAX_TILE_SIZE, builder(100, 100, 2048).build().getTileSize());
+    }
+
+    @Test
+    void spiralStartsAtCenterAndVisitsEveryTileOnce() {
+        TileGrid grid = builder(1000, 600, 128).order(TileOrder.SPIRAL).build();
+        assertEquals(8, grid.getTilesX());
+        assertEquals(5, grid.getTilesY());
+
+        List<TileSpec> tiles = grid.tiles();
+        assertEquals("tile-" + (2 * 8 + 3), tiles.get(0).getTileId());
+        // The first ring surrounds the center tile
+        for (int i = 1; i <= 8; i++) {
+            int index = Integer.parseInt(tiles.get(i).getTileId().substring(5));
+            assertTrue(Math.abs(index % 8 - 3) <= 1 && Math.abs(index / 8 - 2) <= 1);
+        }
+        assertEquals(grid.getTileCount(), distinctIds(tiles));
+    }
+
+    @Test
+    void focusPointMovesSpiralStart() {
+        TileGrid grid = builder(512, 512, 128)
+                .order(TileOrder.SPIRAL)
+                .focus(0.9, -1.4)
+                .build();
+        assertEquals(3, grid.getFocusTileX());
+        assertEquals(0, grid.getFocusTileY());
+        assertEquals("tile-3", grid.tileInOrder(0).getTileId());
+        assertEquals(16, distinctIds(grid.tiles()));
+    }
+
+    @Test
+    void hilbertOrderKeepsConsecutiveTilesAdjacent() {
+        TileGrid grid = builder(1024, 1024, 128).order(TileOrder.HILBERT).build();
+        List<TileSpec> tiles = grid.tiles();
+        assertEquals(64, distinctIds(tiles));
+        for (int i = 1; i < tiles.size(); i++) {
+            TileSpec a = tiles.get(i - 1);
+            TileSpec b = tiles.get(i);
+            int distance = Math.abs(a.getPixelStartX() - b.getPixelStartX())
+                    + Math.abs(a.getPixelStartY() - b.getPixelStartY());
+            assertEquals(128, distance);
+        }
+    }
+
+    @Test
+    void sequencesMatchGoWorker() {
+        assertArrayEquals(new int[] {4, 5, 8, 7, 6, 3, 0, 1, 2}, TileOrder.SPIRAL.sequence(3, 3, 1, 1));
+        assertArrayEquals(new int[] {0, 2, 3, 1}, TileOrder.HILBERT.sequence(2, 2, 0, 0));
+    }
+
+    private int distinctIds(List<TileSpec> tiles) {
+        Set<String> ids = new HashSet<>();
+        for (TileSpec tile : tiles) {
+            ids.add(tile.getTileId());
+        }
+        return ids.size();
+    }
+}
@@ -10,6 +10,7 @@ interface TileMessage {
   height: number
   imageDataBase64: string
   resolution?: number // Optional resolution level (1=low, 2=medium, 3=high)
+  scale?: number // Above 1 for a coarse pass, whose image is that many times smaller
 }
 
 interface TileData {
@@ -22,6 +23,7 @@ interface TileData {
   loaded: boolean // Whether the image data is fully loaded
   position: string // A string key like "x:y:width:height" to identify tiles covering the same area
   tileId: string   // The ID of the tile from the server
+  scale: number    // Scale of the pass shown, refined passes have smaller ones
 }
 
 /**
@@ -41,9 +43,12 @@ export class TileManager {
    */
   addTile(message: TileMessage): { imageData: ImageData; x: number; y: number } | null {
     const { tileId, x, y, width, height, imageDataBase64, jobId } = message
+    const scale = message.scale ?? 1
     
-    // Skip processing if we already have this tile (avoid duplicates)
-    if (this.tileCache.has(tileId)) {
+    // Skip processing if we already have this tile (avoid duplicates), unless
+    // this is a finer pass of a tile refined progressively
+    const cached = this.tileCache.get(tileId)
+    if (cached && cached.scale <= scale) {
       return null;
     }
     
@@ -58,26 +63,28 @@ export class TileManager {
     // Create a position key to identify tiles that cover the same area
     const positionKey = `${x}:${y}:${width}:${height}`;
     
-    // Decode the Base64 image data - pass the coordinates for async handling
-    const imageData = this.decodeImageData(imageDataBase64, width, height, x, y, resolution, tileId);
-    
-    // Create the tile data object
+    // Create the tile data object; a finer pass keeps showing the previous
+    // pass until its own image has loaded
     const tileData: TileData = {
-      imageData,
+      imageData: cached?.loaded ? cached.imageData : new ImageData(width, height),
       x,
       y,
       width,
       height,
       resolution,
-      loaded: false,
+      loaded: cached?.loaded ?? false,
       position: positionKey,
-      tileId: tileId
+      tileId: tileId,
+      scale
     };
     
-    // Add to the cache
+    // Add to the cache before decoding, which fills in the image once loaded
     this.tileCache.set(tileId, tileData);
     this.pendingTiles.delete(tileId);
     
+    // Decode the Base64 image data - pass the coordinates for async handling
+    const imageData = this.decodeImageData(imageDataBase64, width, height, x, y, resolution, tileId, scale);
+    
     // Periodically clean up old tiles - only when we have a lot of tiles
     // Increased threshold to prevent premature clearing when sizing down tiles
     if (jobId && this.tileCache.size > 200) {
@@ -465,7 +472,8 @@ export class TileManager {
     x: number = 0, 
     y: number = 0, 
     resolution: number = 1,
-    tileId: string
+    tileId: string,
+    scale: number = 1
   ): ImageData {
     // Only log for the first few tiles to reduce console spam
     if (this.tileCache.size < 10) {
@@ -496,16 +504,17 @@ export class TileManager {
     new Promise<ImageData>((resolve) => {
       // Set up what happens when the image loads
       img.onload = () => {
-        // Draw the image on the canvas
-        ctx.drawImage(img, 0, 0);
+        // Draw the image on the canvas, stretching coarse passes over the tile
+        ctx.drawImage(img, 0, 0, width, height);
         
         // Get the image data from the canvas
         try {
           const data = ctx.getImageData(0, 0, width, height);
           
           // Mark the tile as loaded and update all its properties
+          // A coarser pass decoded late must not replace a finer one
           const tile = this.tileCache.get(tileId);
-          if (tile) {
+          if (tile && tile.scale === scale) {
             tile.loaded = true;
             tile.imageData = data;
             tile.x = x;
@@ -546,13 +555,14 @@ export class TileManager {
     // Otherwise, create an empty ImageData to return for now
     if (img.complete) {
       try {
-        ctx.drawImage(img, 0, 0);
+        ctx.drawImage(img, 0, 0, width, height);
         imageData = ctx.getImageData(0, 0, width, height);
         
         // Mark the tile as loaded right away and ensure coordinates are set
         const tile = this.tileCache.get(tileId);
-        if (tile) {
+        if (tile && tile.scale === scale) {
           tile.loaded = true;
+          tile.imageData = imageData;
           tile.x = x;
           tile.y = y;
           tile.position = positionKey;
@@ -10,6 +10,7 @@ interface TileMessage {
   height: number;
   imageDataBase64: string;
   resolution?: number;
+  scale?: number;
 }
 
 interface TileResult {
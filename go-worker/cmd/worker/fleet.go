@@ -0,0 +1,148 @@
+package main
+
+import (
+	"context"
+	"log"
+	"sync"
+	"time"
+
+	"github.com/austinlparker/otelbrot/go-worker/internal/calculator"
+	"github.com/austinlparker/otelbrot/go-worker/internal/config"
+	"github.com/austinlparker/otelbrot/go-worker/internal/lease"
+	"github.com/austinlparker/otelbrot/go-worker/internal/models"
+	"github.com/austinlparker/otelbrot/go-worker/internal/orbit"
+	"github.com/austinlparker/otelbrot/go-worker/internal/telemetry"
+	"go.opentelemetry.io/otel/attribute"
+	"go.opentelemetry.io/otel/trace"
+)
+
+// runFleet keeps leasing tiles from the orchestrator and computing them,
+// MaxWorkers at a time, until ctx is canceled
+func runFleet(ctx context.Context, cfg *config.Config, tel *telemetry.Telemetry, calc *calculator.FractalCalculator, logger *log.Logger) {
+	client := lease.NewClient(cfg.Orchestrator.URL, cfg.Worker.ID, tel.NewHTTPClient(), logger)
+	orbits := orbit.NewClient(cfg.Orchestrator.URL, tel.NewHTTPClient())
+	logger.Printf("Running as fleet worker %s with %d concurrent tiles", cfg.Worker.ID, cfg.Fractal.MaxWorkers)
+
+	// Leases currently being computed, renewed by the heartbeat loop
+	var held sync.Map
+	var startHeartbeat sync.Once
+	heartbeatCtx, stopHeartbeat := context.WithCancel(context.WithoutCancel(ctx))
+	defer stopHeartbeat()
+
+	slots := make(chan struct{}, cfg.Fractal.MaxWorkers)
+	var wg sync.WaitGroup
+	backoff := time.Second
+
+	for ctx.Err() == nil {
+		// Only ask for as many tiles as we have free slots
+		free := cap(slots) - len(slots)
+		if free == 0 {
+			select {
+			case slots <- struct{}{}:
+				<-slots
+			case <-ctx.Done():
+			}
+			continue
+		}
+		if free > cfg.Worker.LeaseBatchSize {
+			free = cfg.Worker.LeaseBatchSize
+		}
+
+		leases, timeout, err := client.Lease(ctx, free, time.Duration(cfg.Worker.LeaseWaitMs)*time.Millisecond)
+		if err != nil {
+			if ctx.Err() != nil {
+				break
+			}
+			logger.Printf("Failed to lease tiles, retrying in %v: %v", backoff, err)
+			select {
+			case <-time.After(backoff):
+			case <-ctx.Done():
+			}
+			backoff = min(backoff*2, 30*time.Second)
+			continue
+		}
+		backoff = time.Second
+
+		// Heartbeat well within the lease timeout the orchestrator hands out
+		startHeartbeat.Do(func() {
+			if timeout <= 0 {
+				timeout = 30 * time.Second
+			}
+			go heartbeatLoop(heartbeatCtx, client, &held, timeout/3, logger)
+		})
+
+		for _, l := range leases {
+			held.Store(l.LeaseID, struct{}{})
+			slots <- struct{}{}
+			wg.Add(1)
+			go func(l lease.Lease) {
+				defer wg.Done()
+				defer func() { <-slots }()
+				defer held.Delete(l.LeaseID)
+				computeLease(ctx, client, orbits, tel, calc, l, logger)
+			}(l)
+		}
+	}
+
+	// Finish the tiles already leased so they are not recomputed elsewhere
+	wg.Wait()
+	logger.Printf("Fleet worker %s stopped", cfg.Worker.ID)
+}
+
+// computeLease computes a leased tile and reports the result
+func computeLease(ctx context.Context, client *lease.Client, orbits *orbit.Client, tel *telemetry.Telemetry, calc *calculator.FractalCalculator, l lease.Lease, logger *log.Logger) {
+	// Continue the trace the tile was queued under rather than the worker's own
+	tileCtx := telemetry.ContextWithTraceparent(context.WithoutCancel(ctx), l.Traceparent, l.Tracestate)
+	tileCtx, span := tel.StartSpan(tileCtx, "process_leased_tile", trace.WithAttributes(
+		attribute.String("lease.id", l.LeaseID),
+		attribute.String("jobId", l.TileSpec.JobID),
+		attribute.String("tileId", l.TileSpec.TileID),
+	))
+	defer span.End()
+
+	spec := l.TileSpec
+	result, err := calculateTile(tileCtx, calc, orbits, &spec, 1, nil)
+	if err != nil {
+		span.RecordError(err)
+		logger.Printf("Failed to calculate tile %s: %v", spec.TileID, err)
+		result = models.NewTileResultFromError(&spec, err.Error())
+	}
+
+	if err := client.Complete(tileCtx, l.LeaseID, result); err != nil {
+		// The lease expires and the tile is handed to another worker
+		span.RecordError(err)
+		logger.Printf("Failed to complete lease %s: %v", l.LeaseID, err)
+	}
+}
+
+// heartbeatLoop periodically extends the leases this worker holds
+func heartbeatLoop(ctx context.Context, client *lease.Client, held *sync.Map, interval time.Duration, logger *log.Logger) {
+	ticker := time.NewTicker(interval)
+	defer ticker.Stop()
+
+	for {
+		select {
+		case <-ctx.Done():
+			return
+		case <-ticker.C:
+		}
+
+		var ids []string
+		held.Range(func(key, _ interface{}) bool {
+			ids = append(ids, key.(string))
+			return true
+		})
+		if len(ids) == 0 {
+			continue
+		}
+
+		renewed, err := client.Heartbeat(ctx, ids)
+		if err != nil {
+			logger.Printf("Failed to send lease heartbeat: %v", err)
+			continue
+		}
+		if renewed < len(ids) {
+			logger.Printf("Lost %d of %d leases", len(ids)-renewed, len(ids))
+		}
+	}
+}
@@ -12,6 +12,7 @@ import (
 	"github.com/austinlparker/otelbrot/go-worker/internal/calculator"
 	"github.com/austinlparker/otelbrot/go-worker/internal/config"
 	"github.com/austinlparker/otelbrot/go-worker/internal/models"
+	"github.com/austinlparker/otelbrot/go-worker/internal/orbit"
 	"github.com/austinlparker/otelbrot/go-worker/internal/sender"
 	"github.com/austinlparker/otelbrot/go-worker/internal/telemetry"
 )
@@ -60,33 +61,87 @@ func main() {
 
 	// Create calculator and result sender
 	calc := calculator.NewFractalCalculator(logger)
-	resultSender := sender.NewResultSender(cfg.Orchestrator.URL, logger, tel)
 
-	// Try to get tile spec from environment variables
-	tileSpec, err := models.NewTileSpecFromEnvironment()
+	// In fleet mode the worker keeps leasing tiles instead of computing one
+	if cfg.Worker.Mode == "fleet" {
+		runFleet(ctx, cfg, tel, calc, logger)
+		span.End()
+		cancel()
+		if err := tel.ShutdownWithTimeout(5 * time.Second); err != nil {
+			logger.Printf("Warning: Error during telemetry shutdown: %v", err)
+		}
+		return
+	}
+
+	resultSender := sender.NewResultSender(cfg.Orchestrator.URL, logger, tel)
+	orbits := orbit.NewClient(cfg.Orchestrator.URL, tel.NewHTTPClient())
+
+	// Batch Jobs carry several tile specs as JSON, pods of an Indexed Job
+	// derive their tile from the grid and their completion index, and
+	// one-shot Jobs get the tile spec directly
+	var tileSpecs []*models.TileSpec
+	if models.IsBatch() {
+		tileSpecs, err = models.NewTileSpecsFromEnvironment()
+	} else {
+		var tileSpec *models.TileSpec
+		if models.IsIndexedJob() {
+			tileSpec, err = models.NewTileSpecFromIndexedJob()
+		} else {
+			tileSpec, err = models.NewTileSpecFromEnvironment()
+		}
+		tileSpecs = []*models.TileSpec{tileSpec}
+	}
 	if err != nil {
 		logger.Fatalf("Failed to get tile spec from environment: %v", err)
 	}
 
-	logger.Printf("Processing tile: job=%s, tile=%s", tileSpec.JobID, tileSpec.TileID)
+	// Compute the tiles one after another, sending each result as soon as it
+	// is ready. A batch keeps going past a failed tile; its result is reported
+	// as failed rather than retrying the whole pod and duplicating the rest.
+	sendFailures := 0
+	for _, tileSpec := range tileSpecs {
+		logger.Printf("Processing tile: job=%s, tile=%s", tileSpec.JobID, tileSpec.TileID)
+
+		// Process the tile; a single tile sends coarse passes first so it
+		// shows up before it is done, while a batch's tiles are small
+		startTime := time.Now()
+		scale := 1
+		if len(tileSpecs) == 1 {
+			scale = cfg.Fractal.ProgressiveScale
+		}
+		result, err := calculateTile(ctx, calc, orbits, tileSpec, scale, func(pass *models.TileResult) {
+			if err := resultSender.SendResult(ctx, pass); err != nil {
+				logger.Printf("Failed to send pass at scale %d for tile %s: %v", pass.Scale, tileSpec.TileID, err)
+			}
+		})
+		if err != nil {
+			span.RecordError(err)
+			if len(tileSpecs) == 1 {
+				logger.Fatalf("Failed to calculate tile: %v", err)
+			}
+			logger.Printf("Failed to calculate tile %s: %v", tileSpec.TileID, err)
+			result = models.NewTileResultFromError(tileSpec, err.Error())
+		} else {
+			logger.Printf("Tile calculation completed in %d ms", time.Since(startTime).Milliseconds())
+		}
 
-	// Process the tile
-	startTime := time.Now()
-	result, err := calc.CalculateTile(ctx, tileSpec)
-	if err != nil {
-		span.RecordError(err)
-		logger.Fatalf("Failed to calculate tile: %v", err)
+		// Send the result
+		if err := resultSender.SendResult(ctx, result); err != nil {
+			span.RecordError(err)
+			if len(tileSpecs) == 1 {
+				logger.Fatalf("Failed to send result: %v", err)
+			}
+			logger.Printf("Failed to send result for tile %s: %v", tileSpec.TileID, err)
+			sendFailures++
+		}
 	}
 
-	logger.Printf("Tile calculation completed in %d ms", time.Since(startTime).Milliseconds())
-
-	// Send the result
-	if err := resultSender.SendResult(ctx, result); err != nil {
-		span.RecordError(err)
-		logger.Fatalf("Failed to send result: %v", err)
+	// Only retry a batch when nothing got through, so no tile is reported twice
+	if sendFailures > 0 && sendFailures == len(tileSpecs) {
+		logger.Fatalf("Failed to send any of %d results", len(tileSpecs))
 	}
 
-	logger.Println("Result sent successfully, finishing worker process")
+	logger.Println("Results sent, finishing worker process")
 
 	// End main span
 	span.End()
@@ -103,3 +158,17 @@ func main() {
 
 	logger.Println("Worker completed successfully")
 }
+
+// calculateTile calculates a tile, by perturbation against its job's
+// reference orbit for a deep zoom and otherwise in passes from coarsestScale
+func calculateTile(ctx context.Context, calc *calculator.FractalCalculator, orbits *orbit.Client,
+	spec *models.TileSpec, coarsestScale int, onPass func(*models.TileResult)) (*models.TileResult, error) {
+	if !spec.IsPerturbed() {
+		return calc.CalculateTileProgressive(ctx, spec, coarsestScale, onPass)
+	}
+	referenceOrbit, err := orbits.Get(ctx, spec.JobID)
+	if err != nil {
+		return nil, err
+	}
+	return calc.CalculateTilePerturbed(ctx, spec, referenceOrbit)
+}
@@ -33,6 +33,16 @@ func NewFractalCalculator(logger *log.Logger) *FractalCalculator {
 
 // CalculateTile calculates a fractal tile based on the provided specification
 func (c *FractalCalculator) CalculateTile(ctx context.Context, spec *models.TileSpec) (*models.TileResult, error) {
+	return c.CalculateTileProgressive(ctx, spec, 1, nil)
+}
+
+// CalculateTileProgressive calculates a tile in passes from coarse to full
+// resolution, handing each coarse pass to onPass as soon as it is ready.
+// Every pass halves the scale and only calculates the pixels earlier passes
+// didn't, so all passes together cost about as much as one calculation.
+// coarsestScale is rounded down to a power of two; 1 calculates the tile at once.
+func (c *FractalCalculator) CalculateTileProgressive(ctx context.Context, spec *models.TileSpec,
+	coarsestScale int, onPass func(*models.TileResult)) (*models.TileResult, error) {
 	ctx, span := c.tracer.Start(ctx, "FractalCalculator.CalculateTile",
 		trace.WithAttributes(
 			attribute.String("jobId", spec.JobID),
@@ -48,57 +58,109 @@ func (c *FractalCalculator) CalculateTile(ctx context.Context, spec *models.Tile
 		spec.JobID, spec.TileID, spec.Width, spec.Height)
 	startTime := time.Now()
 
-	// Create the image
-	img := image.NewRGBA(image.Rect(0, 0, spec.Width, spec.Height))
+	kernel, err := c.pointKernel(spec)
+	if err != nil {
+		span.RecordError(err)
+		return nil, err
+	}
+
+	// Keep the iteration counts so the tile can be colored again
+	counts := make([]int, spec.Width*spec.Height)
 
 	// Calculate the pixel size in fractal coordinates
 	pixelWidth := (spec.XMax - spec.XMin) / float64(spec.Width)
 	pixelHeight := (spec.YMax - spec.YMin) / float64(spec.Height)
 
-	// Calculate the fractal
-	for y := 0; y < spec.Height; y++ {
-		for x := 0; x < spec.Width; x++ {
-			// Convert pixel coordinates to fractal coordinates
-			cx := spec.XMin + float64(x)*pixelWidth
-			cy := spec.YMin + float64(y)*pixelHeight
-
-			// Calculate the number of iterations
-			iterations := c.calculateMandelbrot(cx, cy, spec.MaxIterations)
-
-			// Map the iteration count to a color
-			col := c.applyColorMap(iterations, spec.MaxIterations, spec.ColorScheme)
+	coarsest := 1
+	for coarsest*2 <= coarsestScale {
+		coarsest *= 2
+	}
+	span.SetAttributes(attribute.Int("coarsestScale", coarsest))
+
+	// Calculate the fractal, every scale-th pixel of every scale-th row per pass
+	for scale := coarsest; scale >= 1; scale /= 2 {
+		for y := 0; y < spec.Height; y += scale {
+			for x := 0; x < spec.Width; x += scale {
+				// Pixels on the previous pass's grid are already calculated
+				if scale < coarsest && x%(scale*2) == 0 && y%(scale*2) == 0 {
+					continue
+				}
+
+				// Convert pixel coordinates to fractal coordinates
+				cx := spec.XMin + float64(x)*pixelWidth
+				cy := spec.YMin + float64(y)*pixelHeight
+
+				// Calculate the number of iterations
+				counts[y*spec.Width+x] = kernel(cx, cy)
+			}
+		}
 
-			// Set the pixel color
-			img.Set(x, y, col)
+		if scale > 1 && onPass != nil {
+			imageData, err := c.encodeSamples(counts, spec, scale)
+			if err != nil {
+				span.RecordError(err)
+				return nil, fmt.Errorf("failed to encode pass image: %w", err)
+			}
+			pass := models.NewTileResultFromCalculation(spec, imageData, time.Since(startTime).Milliseconds())
+			pass.Scale = scale
+			onPass(pass)
 		}
 	}
 
-	// Encode the image to PNG
-	var buf bytes.Buffer
-	if err := png.Encode(&buf, img); err != nil {
+	return c.buildResult(span, spec, counts, startTime)
+}
+
+// buildResult colors a tile's iteration counts into its full resolution
+// image and packs them alongside it
+func (c *FractalCalculator) buildResult(span trace.Span, spec *models.TileSpec, counts []int, startTime time.Time) (*models.TileResult, error) {
+	// Map the iteration counts to colors and encode the image to PNG
+	imageData, err := c.encodeSamples(counts, spec, 1)
+	if err != nil {
 		span.SetStatus(codes.Error, "Failed to encode image")
 		span.RecordError(err)
 		return nil, fmt.Errorf("failed to encode image: %w", err)
 	}
 
+	iterationData, err := EncodeIterations(counts, spec.MaxIterations, spec.Width, spec.Height)
+	if err != nil {
+		span.SetStatus(codes.Error, "Failed to encode iterations")
+		span.RecordError(err)
+		return nil, fmt.Errorf("failed to encode iterations: %w", err)
+	}
+
 	// Create the result
 	calculationTime := time.Since(startTime).Milliseconds()
 	c.logger.Printf("Calculated tile in %d ms", calculationTime)
 	span.SetAttributes(attribute.Int64("calculationTimeMs", calculationTime))
 
-	return models.NewTileResultFromCalculation(spec, buf.Bytes(), calculationTime), nil
+	result := models.NewTileResultFromCalculation(spec, imageData, calculationTime)
+	result.Iterations = iterationData
+	return result, nil
 }
 
-// calculateMandelbrot calculates the Mandelbrot set iteration count for a point
-func (c *FractalCalculator) calculateMandelbrot(cx, cy float64, maxIterations int) int {
-	// Cardioid and period-2 bulb optimization
-	q := (cx-0.25)*(cx-0.25) + cy*cy
-	if q*(q+(cx-0.25)) < 0.25*cy*cy {
-		return maxIterations
+// encodeSamples colors every scale-th count of every scale-th row into a
+// PNG image that many times smaller than the tile
+func (c *FractalCalculator) encodeSamples(counts []int, spec *models.TileSpec, scale int) ([]byte, error) {
+	sampledWidth := (spec.Width + scale - 1) / scale
+	sampledHeight := (spec.Height + scale - 1) / scale
+	img := image.NewRGBA(image.Rect(0, 0, sampledWidth, sampledHeight))
+	for y := 0; y < sampledHeight; y++ {
+		for x := 0; x < sampledWidth; x++ {
+			iterations := counts[y*scale*spec.Width+x*scale]
+			img.Set(x, y, c.applyColorMap(iterations, spec.MaxIterations, spec.ColorScheme))
+		}
 	}
 
-	// Period doubling bulb
-	if (cx+1.0)*(cx+1.0)+cy*cy < 0.0625 {
+	var buf bytes.Buffer
+	if err := png.Encode(&buf, img); err != nil {
+		return nil, err
+	}
+	return buf.Bytes(), nil
+}
+
+// calculateMandelbrot calculates the Mandelbrot set iteration count for a point
+func (c *FractalCalculator) calculateMandelbrot(cx, cy float64, maxIterations int) int {
+	if inCardioidOrBulb(cx, cy) {
 		return maxIterations
 	}
 
@@ -116,6 +178,19 @@ func (c *FractalCalculator) calculateMandelbrot(cx, cy float64, maxIterations in
 	return iteration
 }
 
+// inCardioidOrBulb reports whether a point lies in the main cardioid or the
+// period-2 bulb, which never escape
+func inCardioidOrBulb(cx, cy float64) bool {
+	// Cardioid and period-2 bulb optimization
+	q := (cx-0.25)*(cx-0.25) + cy*cy
+	if q*(q+(cx-0.25)) < 0.25*cy*cy {
+		return true
+	}
+
+	// Period doubling bulb
+	return (cx+1.0)*(cx+1.0)+cy*cy < 0.0625
+}
+
 // applyColorMap maps an iteration count to a color
 func (c *FractalCalculator) applyColorMap(iterations, maxIterations int, scheme string) color.Color {
 	if iterations == maxIterations {
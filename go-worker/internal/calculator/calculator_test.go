@@ -1,6 +1,7 @@
 package calculator
 
 import (
+	"bytes"
 	"context"
 	"image/color"
 	"log"
@@ -13,10 +14,10 @@ import (
 func TestCalculateTile(t *testing.T) {
 	// Create a logger for testing
 	logger := log.New(os.Stdout, "TEST: ", log.LstdFlags)
-	
+
 	// Create a calculator
 	calc := NewFractalCalculator(logger)
-	
+
 	// Create a test tile spec
 	spec := &models.TileSpec{
 		JobID:         "test-job",
@@ -32,38 +33,38 @@ func TestCalculateTile(t *testing.T) {
 		PixelStartX:   0,
 		PixelStartY:   0,
 	}
-	
+
 	// Calculate tile
 	result, err := calc.CalculateTile(context.Background(), spec)
 	if err != nil {
 		t.Fatalf("Error calculating tile: %v", err)
 	}
-	
+
 	// Basic checks
 	if result == nil {
 		t.Fatal("Expected result, got nil")
 	}
-	
+
 	if result.JobID != "test-job" {
 		t.Errorf("Expected JobID to be 'test-job', got '%s'", result.JobID)
 	}
-	
+
 	if result.TileID != "test-tile" {
 		t.Errorf("Expected TileID to be 'test-tile', got '%s'", result.TileID)
 	}
-	
+
 	if result.Width != 100 {
 		t.Errorf("Expected Width to be 100, got %d", result.Width)
 	}
-	
+
 	if result.Height != 100 {
 		t.Errorf("Expected Height to be 100, got %d", result.Height)
 	}
-	
+
 	if result.Status != models.TileStatusCompleted {
 		t.Errorf("Expected Status to be %s, got %s", models.TileStatusCompleted, result.Status)
 	}
-	
+
 	if len(result.ImageData) == 0 {
 		t.Error("Expected ImageData to be non-empty")
 	}
@@ -72,10 +73,10 @@ func TestCalculateTile(t *testing.T) {
 func TestCalculateMandelbrot(t *testing.T) {
 	// Create a logger for testing
 	logger := log.New(os.Stdout, "TEST: ", log.LstdFlags)
-	
+
 	// Create a calculator
 	calc := NewFractalCalculator(logger)
-	
+
 	// Test cases
 	testCases := []struct {
 		x, y          float64
@@ -88,11 +89,11 @@ func TestCalculateMandelbrot(t *testing.T) {
 		{-2, 0, 100, 1, "On boundary of the set"},  // Corrected expectation
 		{0.5, 0, 100, 5, "Outside but close"},     // Corrected expectation
 	}
-	
+
 	for i, tc := range testCases {
 		result := calc.calculateMandelbrot(tc.x, tc.y, tc.maxIterations)
 		if result != tc.expected {
-			t.Errorf("Test case %d (%s): Expected %d iterations, got %d for point (%f, %f)", 
+			t.Errorf("Test case %d (%s): Expected %d iterations, got %d for point (%f, %f)",
 				i, tc.description, tc.expected, result, tc.x, tc.y)
 		}
 	}
@@ -101,26 +102,26 @@ func TestCalculateMandelbrot(t *testing.T) {
 func TestColorMaps(t *testing.T) {
 	// Create a logger for testing
 	logger := log.New(os.Stdout, "TEST: ", log.LstdFlags)
-	
+
 	// Create a calculator
 	calc := NewFractalCalculator(logger)
-	
+
 	// Test all color maps
 	colorMaps := []string{"classic", "fire", "ocean", "grayscale", "rainbow", "unknown"}
-	
+
 	for _, scheme := range colorMaps {
 		// Test in-set color (maxIterations)
 		inSetColor := calc.applyColorMap(100, 100, scheme)
 		if inSetColor != color.Black {
 			t.Errorf("Expected in-set color for scheme '%s' to be black", scheme)
 		}
-		
+
 		// Test border color (maxIterations-1)
 		borderColor := calc.applyColorMap(99, 100, scheme)
 		if borderColor == color.Black {
 			t.Errorf("Expected border color for scheme '%s' to not be black", scheme)
 		}
-		
+
 		// Test color away from border (maxIterations/2)
 		midColor := calc.applyColorMap(50, 100, scheme)
 		if midColor == color.Black {
@@ -141,15 +142,54 @@ func TestHSBToRGB(t *testing.T) {
 		{1.0/3.0, 1, 1, 0, 255, 0}, // Green
 		{2.0/3.0, 1, 1, 0, 0, 255}, // Blue
 	}
-	
+
 	for i, tc := range testCases {
 		result := hsbToRGB(tc.h, tc.s, tc.v)
 		r, g, b, _ := result.RGBA()
 		r, g, b = r>>8, g>>8, b>>8 // Convert to 8-bit
-		
+
 		if r != uint32(tc.r) || g != uint32(tc.g) || b != uint32(tc.b) {
-			t.Errorf("Test case %d: Expected RGB(%d,%d,%d), got RGB(%d,%d,%d) for HSB(%f,%f,%f)", 
+			t.Errorf("Test case %d: Expected RGB(%d,%d,%d), got RGB(%d,%d,%d) for HSB(%f,%f,%f)",
 				i, tc.r, tc.g, tc.b, r, g, b, tc.h, tc.s, tc.v)
 		}
 	}
-}
\ No newline at end of file
+}
+
+func TestCalculateTileProgressive(t *testing.T) {
+	calc := NewFractalCalculator(log.New(os.Stdout, "TEST: ", log.LstdFlags))
+	spec := &models.TileSpec{
+		JobID:         "test-job",
+		TileID:        "test-tile",
+		XMin:          -2.0,
+		YMin:          -1.5,
+		XMax:          1.0,
+		YMax:          1.5,
+		Width:         100,
+		Height:        60,
+		MaxIterations: 100,
+		ColorScheme:   "classic",
+	}
+
+	var scales []int
+	result, err := calc.CalculateTileProgressive(context.Background(), spec, 10, func(pass *models.TileResult) {
+		scales = append(scales, pass.Scale)
+	})
+	if err != nil {
+		t.Fatalf("Error calculating tile: %v", err)
+	}
+	if len(scales) != 3 || scales[0] != 8 || scales[1] != 4 || scales[2] != 2 {
+		t.Errorf("Expected passes at scales 8, 4 and 2, got %v", scales)
+	}
+	if result.Scale != 0 {
+		t.Errorf("Expected the full resolution result to have no scale, got %d", result.Scale)
+	}
+
+	// Refining reuses earlier passes' pixels, so it ends with the same counts
+	once, err := calc.CalculateTile(context.Background(), spec)
+	if err != nil {
+		t.Fatalf("Error calculating tile: %v", err)
+	}
+	if !bytes.Equal(once.Iterations, result.Iterations) {
+		t.Error("Expected progressive and single pass iteration counts to match")
+	}
+}
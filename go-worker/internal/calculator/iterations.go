@@ -0,0 +1,59 @@
+package calculator
+
+import (
+	"bytes"
+	"compress/zlib"
+	"encoding/binary"
+	"fmt"
+)
+
+// EncodeIterations packs per-pixel iteration counts so the orchestrator can
+// color the tile again without recalculating it. The layout matches the
+// orchestrator's IterationBuffer: one byte giving the bytes per count (1, 2
+// or 4, the fewest that hold maxIterations), maxIterations, width and height
+// as little-endian 32-bit integers, then the row-major counts in
+// little-endian order, zlib-compressed.
+func EncodeIterations(counts []int, maxIterations, width, height int) ([]byte, error) {
+	if len(counts) != width*height {
+		return nil, fmt.Errorf("expected %d iteration counts, got %d", width*height, len(counts))
+	}
+
+	bytesPerCount := 4
+	if maxIterations <= 0xFF {
+		bytesPerCount = 1
+	} else if maxIterations <= 0xFFFF {
+		bytesPerCount = 2
+	}
+
+	raw := make([]byte, len(counts)*bytesPerCount)
+	for i, count := range counts {
+		switch bytesPerCount {
+		case 1:
+			raw[i] = byte(count)
+		case 2:
+			binary.LittleEndian.PutUint16(raw[i*2:], uint16(count))
+		default:
+			binary.LittleEndian.PutUint32(raw[i*4:], uint32(count))
+		}
+	}
+
+	var buf bytes.Buffer
+	header := make([]byte, 13)
+	header[0] = byte(bytesPerCount)
+	binary.LittleEndian.PutUint32(header[1:], uint32(maxIterations))
+	binary.LittleEndian.PutUint32(header[5:], uint32(width))
+	binary.LittleEndian.PutUint32(header[9:], uint32(height))
+	buf.Write(header)
+
+	w, err := zlib.NewWriterLevel(&buf, zlib.BestSpeed)
+	if err != nil {
+		return nil, err
+	}
+	if _, err := w.Write(raw); err != nil {
+		return nil, err
+	}
+	if err := w.Close(); err != nil {
+		return nil, err
+	}
+	return buf.Bytes(), nil
+}
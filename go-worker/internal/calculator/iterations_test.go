@@ -0,0 +1,73 @@
+package calculator
+
+import (
+	"bytes"
+	"compress/zlib"
+	"encoding/binary"
+	"io"
+	"testing"
+)
+
+func TestEncodeIterations(t *testing.T) {
+	testCases := []struct {
+		maxIterations int
+		bytesPerCount int
+	}{
+		{100, 1},
+		{1000, 2},
+		{100000, 4},
+	}
+
+	for _, tc := range testCases {
+		counts := make([]int, 6*4)
+		for i := range counts {
+			counts[i] = (i * 37) % (tc.maxIterations + 1)
+		}
+
+		data, err := EncodeIterations(counts, tc.maxIterations, 6, 4)
+		if err != nil {
+			t.Fatalf("Error encoding iterations: %v", err)
+		}
+
+		if int(data[0]) != tc.bytesPerCount {
+			t.Errorf("Expected %d bytes per count, got %d", tc.bytesPerCount, data[0])
+		}
+		if got := binary.LittleEndian.Uint32(data[1:]); int(got) != tc.maxIterations {
+			t.Errorf("Expected maxIterations %d, got %d", tc.maxIterations, got)
+		}
+		if w, h := binary.LittleEndian.Uint32(data[5:]), binary.LittleEndian.Uint32(data[9:]); w != 6 || h != 4 {
+			t.Errorf("Expected 6x4, got %dx%d", w, h)
+		}
+
+		r, err := zlib.NewReader(bytes.NewReader(data[13:]))
+		if err != nil {
+			t.Fatalf("Error opening compressed counts: %v", err)
+		}
+		raw, err := io.ReadAll(r)
+		if err != nil {
+			t.Fatalf("Error reading compressed counts: %v", err)
+		}
+		if len(raw) != len(counts)*tc.bytesPerCount {
+			t.Fatalf("Expected %d bytes of counts, got %d", len(counts)*tc.bytesPerCount, len(raw))
+		}
+		last := len(counts) - 1
+		var lastCount int
+		switch tc.bytesPerCount {
+		case 1:
+			lastCount = int(raw[last])
+		case 2:
+			lastCount = int(binary.LittleEndian.Uint16(raw[last*2:]))
+		default:
+			lastCount = int(binary.LittleEndian.Uint32(raw[last*4:]))
+		}
+		if lastCount != counts[last] {
+			t.Errorf("Expected last count %d, got %d", counts[last], lastCount)
+		}
+	}
+}
+
+func TestEncodeIterationsRejectsWrongSize(t *testing.T) {
+	if _, err := EncodeIterations(make([]int, 5), 100, 2, 2); err == nil {
+		t.Error("Expected an error for the wrong number of counts")
+	}
+}
@@ -0,0 +1,101 @@
+package calculator
+
+import (
+	"context"
+	"encoding/binary"
+	"fmt"
+	"math"
+	"time"
+
+	"github.com/austinlparker/otelbrot/go-worker/internal/models"
+	"go.opentelemetry.io/otel/attribute"
+	"go.opentelemetry.io/otel/trace"
+)
+
+// ReferenceOrbit is the orbit of a deep zoom's reference point, calculated
+// once per job by the orchestrator in arbitrary precision and rounded to
+// float64. Pixels are iterated as small offsets from it (perturbation).
+type ReferenceOrbit struct {
+	re []float64
+	im []float64
+}
+
+// DecodeReferenceOrbit parses an orbit as the orchestrator's ReferenceOrbit
+// encodes it: the number of points as a little-endian 32-bit integer, then
+// each point's real and imaginary part as little-endian float64s
+func DecodeReferenceOrbit(data []byte) (*ReferenceOrbit, error) {
+	if len(data) < 4 {
+		return nil, fmt.Errorf("reference orbit too short")
+	}
+	length := int(binary.LittleEndian.Uint32(data))
+	if length < 1 || length*16 != len(data)-4 {
+		return nil, fmt.Errorf("invalid reference orbit length %d for %d bytes", length, len(data))
+	}
+	orbit := &ReferenceOrbit{re: make([]float64, length), im: make([]float64, length)}
+	for i := 0; i < length; i++ {
+		offset := 4 + i*16
+		orbit.re[i] = math.Float64frombits(binary.LittleEndian.Uint64(data[offset:]))
+		orbit.im[i] = math.Float64frombits(binary.LittleEndian.Uint64(data[offset+8:]))
+	}
+	return orbit, nil
+}
+
+// Iterate returns the iteration count of the point at offset (dcx, dcy)
+// from the reference. The offset dz follows dz' = 2 Z dz + dz^2 + dc; when
+// Z + dz gets smaller than dz the offset loses precision (a glitch), and
+// when the reference escaped there is no Z left to follow, so both rebase
+// the offset onto the start of the orbit.
+func (o *ReferenceOrbit) Iterate(dcx, dcy float64, maxIterations int) int {
+	last := len(o.re) - 1
+	dzx, dzy := 0.0, 0.0
+	m := 0
+	for n := 0; n < maxIterations; n++ {
+		zx, zy := o.re[m], o.im[m]
+		dzx, dzy = 2*(zx*dzx-zy*dzy)+dzx*dzx-dzy*dzy+dcx, 2*(zx*dzy+zy*dzx)+2*dzx*dzy+dcy
+		m++
+
+		x := o.re[m] + dzx
+		y := o.im[m] + dzy
+		magnitude := x*x + y*y
+		if magnitude >= 4.0 {
+			return n + 1
+		}
+		if magnitude < dzx*dzx+dzy*dzy || m == last {
+			dzx, dzy = x, y
+			m = 0
+		}
+	}
+	return maxIterations
+}
+
+// CalculateTilePerturbed calculates a deep zoom tile, whose bounds are
+// offsets from the reference point of the given orbit
+func (c *FractalCalculator) CalculateTilePerturbed(ctx context.Context, spec *models.TileSpec, orbit *ReferenceOrbit) (*models.TileResult, error) {
+	_, span := c.tracer.Start(ctx, "FractalCalculator.CalculateTilePerturbed",
+		trace.WithAttributes(
+			attribute.String("jobId", spec.JobID),
+			attribute.String("tileId", spec.TileID),
+			attribute.Int("width", spec.Width),
+			attribute.Int("height", spec.Height),
+			attribute.Int("maxIterations", spec.MaxIterations),
+			attribute.Int("orbitLength", len(orbit.re)),
+		))
+	defer span.End()
+
+	c.logger.Printf("Calculating deep zoom tile for job: %s, tile: %s, dimensions: %dx%d",
+		spec.JobID, spec.TileID, spec.Width, spec.Height)
+	startTime := time.Now()
+
+	counts := make([]int, spec.Width*spec.Height)
+	pixelWidth := (spec.XMax - spec.XMin) / float64(spec.Width)
+	pixelHeight := (spec.YMax - spec.YMin) / float64(spec.Height)
+	for y := 0; y < spec.Height; y++ {
+		for x := 0; x < spec.Width; x++ {
+			dcx := spec.XMin + float64(x)*pixelWidth
+			dcy := spec.YMin + float64(y)*pixelHeight
+			counts[y*spec.Width+x] = orbit.Iterate(dcx, dcy, spec.MaxIterations)
+		}
+	}
+
+	return c.buildResult(span, spec, counts, startTime)
+}
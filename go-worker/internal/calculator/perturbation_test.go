@@ -0,0 +1,93 @@
+package calculator
+
+import (
+	"context"
+	"encoding/binary"
+	"log"
+	"math"
+	"os"
+	"testing"
+
+	"github.com/austinlparker/otelbrot/go-worker/internal/models"
+)
+
+// encodeOrbit calculates a reference orbit in float64 and encodes it the
+// way the orchestrator does, which is exact enough at shallow zooms
+func encodeOrbit(cx, cy float64, maxIterations int) []byte {
+	points := [][2]float64{{0, 0}}
+	x, y := 0.0, 0.0
+	for len(points) <= maxIterations && x*x+y*y < 4.0 {
+		x, y = x*x-y*y+cx, 2*x*y+cy
+		points = append(points, [2]float64{x, y})
+	}
+	data := make([]byte, 4+len(points)*16)
+	binary.LittleEndian.PutUint32(data, uint32(len(points)))
+	for i, p := range points {
+		binary.LittleEndian.PutUint64(data[4+i*16:], math.Float64bits(p[0]))
+		binary.LittleEndian.PutUint64(data[12+i*16:], math.Float64bits(p[1]))
+	}
+	return data
+}
+
+func TestIterateMatchesDirectCalculation(t *testing.T) {
+	calc := NewFractalCalculator(log.New(os.Stdout, "[test] ", 0))
+	refX, refY := -0.75, 0.1
+
+	orbit, err := DecodeReferenceOrbit(encodeOrbit(refX, refY, 500))
+	if err != nil {
+		t.Fatalf("DecodeReferenceOrbit returned error: %v", err)
+	}
+
+	for dx := -0.01; dx <= 0.01; dx += 0.0025 {
+		for dy := -0.01; dy <= 0.01; dy += 0.0025 {
+			direct := calc.calculateMandelbrot(refX+dx, refY+dy, 500)
+			perturbed := orbit.Iterate(dx, dy, 500)
+			if diff := direct - perturbed; diff < -1 || diff > 1 {
+				t.Errorf("offset (%g, %g): expected about %d iterations, got %d", dx, dy, direct, perturbed)
+			}
+		}
+	}
+}
+
+func TestDecodeReferenceOrbitRejectsBadLength(t *testing.T) {
+	if _, err := DecodeReferenceOrbit([]byte{1, 0, 0, 0}); err == nil {
+		t.Error("expected an error for an orbit without its points")
+	}
+	if _, err := DecodeReferenceOrbit(nil); err == nil {
+		t.Error("expected an error for an empty orbit")
+	}
+}
+
+func TestCalculateTilePerturbed(t *testing.T) {
+	calc := NewFractalCalculator(log.New(os.Stdout, "[test] ", 0))
+	orbit, err := DecodeReferenceOrbit(encodeOrbit(-0.75, 0.1, 200))
+	if err != nil {
+		t.Fatalf("DecodeReferenceOrbit returned error: %v", err)
+	}
+
+	spec := &models.TileSpec{
+		JobID:         "test-job",
+		TileID:        "test-tile",
+		XMin:          -0.01,
+		YMin:          -0.01,
+		XMax:          0.01,
+		YMax:          0.01,
+		Width:         16,
+		Height:        16,
+		MaxIterations: 200,
+		ColorScheme:   "classic",
+		ReferenceX:    "-0.75",
+		ReferenceY:    "0.1",
+	}
+
+	result, err := calc.CalculateTilePerturbed(context.Background(), spec, orbit)
+	if err != nil {
+		t.Fatalf("CalculateTilePerturbed returned error: %v", err)
+	}
+	if len(result.ImageData) == 0 || len(result.Iterations) == 0 {
+		t.Error("expected an image and iteration counts")
+	}
+	if result.Status != models.TileStatusCompleted {
+		t.Errorf("expected status %s, got %s", models.TileStatusCompleted, result.Status)
+	}
+}
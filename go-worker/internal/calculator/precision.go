@@ -0,0 +1,147 @@
+package calculator
+
+import (
+	"fmt"
+	"math"
+	"math/big"
+
+	"github.com/austinlparker/otelbrot/go-worker/internal/models"
+)
+
+// doubleDouble is the unevaluated sum hi + lo of two float64s, carrying
+// about 106 bits of mantissa, matching DoubleDouble in the orchestrator's
+// commons module
+type doubleDouble struct {
+	hi, lo float64
+}
+
+// parseDoubleDouble returns the nearest double-double to a decimal string
+func parseDoubleDouble(value string) (doubleDouble, error) {
+	f, _, err := big.ParseFloat(value, 10, 128, big.ToNearestEven)
+	if err != nil {
+		return doubleDouble{}, fmt.Errorf("invalid decimal %q: %w", value, err)
+	}
+	hi, _ := f.Float64()
+	if math.IsInf(hi, 0) {
+		return doubleDouble{}, fmt.Errorf("decimal %q out of range", value)
+	}
+	lo, _ := new(big.Float).SetPrec(128).Sub(f, big.NewFloat(hi)).Float64()
+	return quickTwoSum(hi, lo), nil
+}
+
+// quickTwoSum renormalizes hi + lo, for |hi| >= |lo|
+func quickTwoSum(hi, lo float64) doubleDouble {
+	s := hi + lo
+	return doubleDouble{s, lo - (s - hi)}
+}
+
+func (a doubleDouble) add(b doubleDouble) doubleDouble {
+	s := a.hi + b.hi
+	bb := s - a.hi
+	e := (a.hi - (s - bb)) + (b.hi - bb)
+	t := a.lo + b.lo
+	cc := t - a.lo
+	f := (a.lo - (t - cc)) + (b.lo - cc)
+	e += t
+	s2 := s + e
+	e = e - (s2 - s)
+	e += f
+	return quickTwoSum(s2, e)
+}
+
+func (a doubleDouble) addFloat(b float64) doubleDouble {
+	s := a.hi + b
+	bb := s - a.hi
+	e := (a.hi - (s - bb)) + (b - bb) + a.lo
+	return quickTwoSum(s, e)
+}
+
+func (a doubleDouble) sub(b doubleDouble) doubleDouble {
+	return a.add(doubleDouble{-b.hi, -b.lo})
+}
+
+func (a doubleDouble) mul(b doubleDouble) doubleDouble {
+	p := a.hi * b.hi
+	e := math.FMA(a.hi, b.hi, -p)
+	e += a.hi*b.lo + a.lo*b.hi
+	return quickTwoSum(p, e)
+}
+
+func (a doubleDouble) sqr() doubleDouble {
+	p := a.hi * a.hi
+	e := math.FMA(a.hi, a.hi, -p)
+	e += 2 * a.hi * a.lo
+	return quickTwoSum(p, e)
+}
+
+// pointKernel returns the function iterating a point given by its tile
+// coordinates in the tile's precision tier. Double-double tiles add their
+// coordinates to the reference point, if any, in double-double.
+func (c *FractalCalculator) pointKernel(spec *models.TileSpec) (func(x, y float64) int, error) {
+	switch spec.Precision {
+	case models.PrecisionFloat32:
+		return func(x, y float64) int {
+			return c.calculateMandelbrotFloat32(float32(x), float32(y), spec.MaxIterations)
+		}, nil
+	case models.PrecisionDoubleDouble:
+		var refX, refY doubleDouble
+		if spec.HasReference() {
+			var err error
+			if refX, err = parseDoubleDouble(spec.ReferenceX); err != nil {
+				return nil, err
+			}
+			if refY, err = parseDoubleDouble(spec.ReferenceY); err != nil {
+				return nil, err
+			}
+		}
+		return func(x, y float64) int {
+			return c.calculateMandelbrotDoubleDouble(refX.addFloat(x), refY.addFloat(y), spec.MaxIterations)
+		}, nil
+	case "", models.PrecisionDouble:
+		return func(x, y float64) int {
+			return c.calculateMandelbrot(x, y, spec.MaxIterations)
+		}, nil
+	default:
+		return nil, fmt.Errorf("unknown precision %q", spec.Precision)
+	}
+}
+
+// calculateMandelbrotFloat32 calculates the iteration count for a point in single precision
+func (c *FractalCalculator) calculateMandelbrotFloat32(cx, cy float32, maxIterations int) int {
+	if inCardioidOrBulb(float64(cx), float64(cy)) {
+		return maxIterations
+	}
+
+	var x, y float32
+	iteration := 0
+	for x*x+y*y < 4.0 && iteration < maxIterations {
+		xtemp := x*x - y*y + cx
+		y = 2*x*y + cy
+		x = xtemp
+		iteration++
+	}
+	return iteration
+}
+
+// calculateMandelbrotDoubleDouble calculates the iteration count for a point in double-double precision
+func (c *FractalCalculator) calculateMandelbrotDoubleDouble(cx, cy doubleDouble, maxIterations int) int {
+	if inCardioidOrBulb(cx.hi+cx.lo, cy.hi+cy.lo) {
+		return maxIterations
+	}
+
+	var x, y doubleDouble
+	iteration := 0
+	for iteration < maxIterations {
+		xx := x.sqr()
+		yy := y.sqr()
+		// The escape test needs no more than double precision
+		if xx.hi+yy.hi >= 4.0 {
+			break
+		}
+		xy := x.mul(y)
+		x = xx.sub(yy).add(cx)
+		y = doubleDouble{2 * xy.hi, 2 * xy.lo}.add(cy)
+		iteration++
+	}
+	return iteration
+}
@@ -0,0 +1,82 @@
+package calculator
+
+import (
+	"log"
+	"math/big"
+	"os"
+	"testing"
+
+	"github.com/austinlparker/otelbrot/go-worker/internal/models"
+)
+
+func TestParseDoubleDoubleKeepsDigitsBeyondFloat64(t *testing.T) {
+	value := "-1.7497219321804067608491149541234"
+	dd, err := parseDoubleDouble(value)
+	if err != nil {
+		t.Fatalf("parseDoubleDouble returned error: %v", err)
+	}
+	if dd.lo == 0 {
+		t.Error("expected a low part")
+	}
+
+	exact, _, _ := big.ParseFloat(value, 10, 200, big.ToNearestEven)
+	sum := new(big.Float).SetPrec(200).Add(big.NewFloat(dd.hi), big.NewFloat(dd.lo))
+	diff, _ := new(big.Float).Sub(exact, sum).Float64()
+	if diff > 1e-30 || diff < -1e-30 {
+		t.Errorf("expected %s, off by %g", value, diff)
+	}
+
+	if _, err := parseDoubleDouble("not a number"); err == nil {
+		t.Error("expected an error for an invalid decimal")
+	}
+}
+
+func TestDoubleDoubleResolvesPixelsFloat64Cannot(t *testing.T) {
+	calc := NewFractalCalculator(log.New(os.Stdout, "[test] ", 0))
+	spec := &models.TileSpec{
+		MaxIterations: 1000,
+		ReferenceX:    "-1.7497219321804067608491149541",
+		ReferenceY:    "0.0000000000000000000000000001",
+		Precision:     models.PrecisionDoubleDouble,
+	}
+	kernel, err := calc.pointKernel(spec)
+	if err != nil {
+		t.Fatalf("pointKernel returned error: %v", err)
+	}
+
+	// Pixels 1e-20 apart, which all round to the same float64
+	counts := make(map[int]bool)
+	for i := 0; i < 32; i++ {
+		counts[kernel(float64(i)*1e-20, 0)] = true
+	}
+	if len(counts) < 2 {
+		t.Errorf("expected detail, got a single iteration count")
+	}
+}
+
+func TestFloat32MatchesFloat64AtShallowZoom(t *testing.T) {
+	calc := NewFractalCalculator(log.New(os.Stdout, "[test] ", 0))
+	float32Kernel, err := calc.pointKernel(&models.TileSpec{MaxIterations: 50, Precision: models.PrecisionFloat32})
+	if err != nil {
+		t.Fatalf("pointKernel returned error: %v", err)
+	}
+
+	differing := 0
+	for y := -1.5; y < 1.5; y += 3.0 / 64 {
+		for x := -2.0; x < 1.0; x += 3.0 / 64 {
+			if float32Kernel(x, y) != calc.calculateMandelbrot(x, y, 50) {
+				differing++
+			}
+		}
+	}
+	if differing > 40 {
+		t.Errorf("%d of 4096 pixels differ", differing)
+	}
+}
+
+func TestPointKernelRejectsUnknownPrecision(t *testing.T) {
+	calc := NewFractalCalculator(log.New(os.Stdout, "[test] ", 0))
+	if _, err := calc.pointKernel(&models.TileSpec{Precision: "QUAD"}); err == nil {
+		t.Error("expected an error for an unknown precision")
+	}
+}
@@ -12,6 +12,7 @@ type Config struct {
 	Fractal      FractalConfig    `json:"fractal"`
 	Telemetry    TelemetryConfig  `json:"telemetry"`
 	Orchestrator OrchestratorConfig `json:"orchestrator"`
+	Worker       WorkerConfig     `json:"worker"`
 }
 
 // ServerConfig holds the HTTP server configuration
@@ -24,6 +25,10 @@ type ServerConfig struct {
 type FractalConfig struct {
 	MaxWorkers int `json:"maxWorkers"`
 	QueueSize  int `json:"queueSize"`
+
+	// ProgressiveScale is the scale of the first coarse pass sent for a
+	// single tile before it is refined; 1 sends only the full resolution
+	ProgressiveScale int `json:"progressiveScale"`
 }
 
 // TelemetryConfig holds the OpenTelemetry configuration
@@ -38,6 +43,16 @@ type OrchestratorConfig struct {
 	URL string `json:"url"`
 }
 
+// WorkerConfig holds how the worker receives tiles
+type WorkerConfig struct {
+	// Mode is "job" to compute the single tile in TILE_SPEC_* and exit, or
+	// "fleet" to keep leasing tiles from the orchestrator
+	Mode           string `json:"mode"`
+	ID             string `json:"id"`
+	LeaseBatchSize int    `json:"leaseBatchSize"`
+	LeaseWaitMs    int    `json:"leaseWaitMs"`
+}
+
 // Load loads the configuration from environment variables
 func Load() (*Config, error) {
 	logger := log.New(os.Stdout, "[config] ", log.LstdFlags)
@@ -50,8 +65,9 @@ func Load() (*Config, error) {
 			Port: getEnvAsInt("SERVER_PORT", 8081),
 		},
 		Fractal: FractalConfig{
-			MaxWorkers: getEnvAsInt("MAX_WORKERS", 4),
-			QueueSize:  getEnvAsInt("QUEUE_SIZE", 100),
+			MaxWorkers:       getEnvAsInt("MAX_WORKERS", 4),
+			QueueSize:        getEnvAsInt("QUEUE_SIZE", 100),
+			ProgressiveScale: getEnvAsInt("PROGRESSIVE_SCALE", 1),
 		},
 		Telemetry: TelemetryConfig{
 			ServiceName:        getEnv("SERVICE_NAME", "go-worker"),
@@ -61,6 +77,12 @@ func Load() (*Config, error) {
 		Orchestrator: OrchestratorConfig{
 			URL: getEnv("ORCHESTRATOR_URL", "http://localhost:8080"),
 		},
+		Worker: WorkerConfig{
+			Mode:           getEnv("WORKER_MODE", "job"),
+			ID:             getEnv("WORKER_ID", getEnv("HOSTNAME", "go-worker")),
+			LeaseBatchSize: getEnvAsInt("LEASE_BATCH_SIZE", 4),
+			LeaseWaitMs:    getEnvAsInt("LEASE_WAIT_MS", 5000),
+		},
 	}
 
 	// Log the loaded configuration
@@ -68,6 +90,7 @@ func Load() (*Config, error) {
 	logger.Printf("- Service name: %s", cfg.Telemetry.ServiceName)
 	logger.Printf("- Orchestrator URL: %s", cfg.Orchestrator.URL)
 	logger.Printf("- Max workers: %d", cfg.Fractal.MaxWorkers)
+	logger.Printf("- Worker mode: %s", cfg.Worker.Mode)
 
 	return cfg, nil
 }
@@ -0,0 +1,133 @@
+package lease
+
+import (
+	"bytes"
+	"context"
+	"encoding/json"
+	"fmt"
+	"log"
+	"net/http"
+	"time"
+
+	"github.com/austinlparker/otelbrot/go-worker/internal/models"
+)
+
+// Lease is a tile handed to this worker by the orchestrator
+type Lease struct {
+	LeaseID     string          `json:"leaseId"`
+	TileSpec    models.TileSpec `json:"tileSpec"`
+	Traceparent string          `json:"traceparent"`
+	Tracestate  string          `json:"tracestate"`
+}
+
+type leaseRequest struct {
+	WorkerID string `json:"workerId"`
+	MaxTiles int    `json:"maxTiles"`
+	WaitMs   int64  `json:"waitMs"`
+}
+
+type leaseResponse struct {
+	Leases              []Lease `json:"leases"`
+	LeaseTimeoutSeconds int     `json:"leaseTimeoutSeconds"`
+}
+
+type heartbeatRequest struct {
+	WorkerID string   `json:"workerId"`
+	LeaseIDs []string `json:"leaseIds"`
+}
+
+type heartbeatResponse struct {
+	Renewed int `json:"renewed"`
+}
+
+type completeRequest struct {
+	WorkerID string             `json:"workerId"`
+	LeaseID  string             `json:"leaseId"`
+	Result   *models.TileResult `json:"result"`
+}
+
+// Client talks to the orchestrator's worker lease API
+type Client struct {
+	orchestratorURL string
+	workerID        string
+	client          *http.Client
+	logger          *log.Logger
+}
+
+// NewClient creates a lease client for the given worker
+func NewClient(orchestratorURL, workerID string, client *http.Client, logger *log.Logger) *Client {
+	return &Client{
+		orchestratorURL: orchestratorURL,
+		workerID:        workerID,
+		client:          client,
+		logger:          logger,
+	}
+}
+
+// Lease asks for up to maxTiles tiles, waiting up to wait for work to arrive.
+// It returns the leases and how long they stay valid without a heartbeat.
+func (c *Client) Lease(ctx context.Context, maxTiles int, wait time.Duration) ([]Lease, time.Duration, error) {
+	var resp leaseResponse
+	req := leaseRequest{
+		WorkerID: c.workerID,
+		MaxTiles: maxTiles,
+		WaitMs:   wait.Milliseconds(),
+	}
+	if err := c.post(ctx, "/api/worker/lease", req, http.StatusOK, &resp); err != nil {
+		return nil, 0, err
+	}
+	return resp.Leases, time.Duration(resp.LeaseTimeoutSeconds) * time.Second, nil
+}
+
+// Heartbeat extends the given leases and returns how many are still held
+func (c *Client) Heartbeat(ctx context.Context, leaseIDs []string) (int, error) {
+	var resp heartbeatResponse
+	req := heartbeatRequest{
+		WorkerID: c.workerID,
+		LeaseIDs: leaseIDs,
+	}
+	if err := c.post(ctx, "/api/worker/lease/heartbeat", req, http.StatusOK, &resp); err != nil {
+		return 0, err
+	}
+	return resp.Renewed, nil
+}
+
+// Complete reports the result for a leased tile
+func (c *Client) Complete(ctx context.Context, leaseID string, result *models.TileResult) error {
+	req := completeRequest{
+		WorkerID: c.workerID,
+		LeaseID:  leaseID,
+		Result:   result,
+	}
+	return c.post(ctx, "/api/worker/lease/complete", req, http.StatusAccepted, nil)
+}
+
+func (c *Client) post(ctx context.Context, path string, body interface{}, expectedStatus int, out interface{}) error {
+	payload, err := json.Marshal(body)
+	if err != nil {
+		return fmt.Errorf("failed to marshal request: %w", err)
+	}
+
+	req, err := http.NewRequestWithContext(ctx, http.MethodPost, c.orchestratorURL+path, bytes.NewBuffer(payload))
+	if err != nil {
+		return fmt.Errorf("failed to create request: %w", err)
+	}
+	req.Header.Set("Content-Type", "application/json")
+
+	resp, err := c.client.Do(req)
+	if err != nil {
+		return fmt.Errorf("failed to send request: %w", err)
+	}
+	defer resp.Body.Close()
+
+	if resp.StatusCode != expectedStatus {
+		return fmt.Errorf("unexpected status code from %s: %d", path, resp.StatusCode)
+	}
+
+	if out != nil {
+		if err := json.NewDecoder(resp.Body).Decode(out); err != nil {
+			return fmt.Errorf("failed to decode response: %w", err)
+		}
+	}
+	return nil
+}
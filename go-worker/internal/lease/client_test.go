@@ -0,0 +1,130 @@
+package lease
+
+import (
+	"context"
+	"encoding/json"
+	"log"
+	"net/http"
+	"net/http/httptest"
+	"os"
+	"testing"
+	"time"
+
+	"github.com/austinlparker/otelbrot/go-worker/internal/models"
+)
+
+func TestClient(t *testing.T) {
+	logger := log.New(os.Stdout, "TEST: ", log.LstdFlags)
+
+	t.Run("Lease", func(t *testing.T) {
+		server := httptest.NewServer(http.HandlerFunc(func(w http.ResponseWriter, r *http.Request) {
+			if r.URL.Path != "/api/worker/lease" {
+				t.Errorf("Expected path to be '/api/worker/lease', got '%s'", r.URL.Path)
+			}
+
+			var req leaseRequest
+			if err := json.NewDecoder(r.Body).Decode(&req); err != nil {
+				t.Fatalf("Error decoding request: %v", err)
+			}
+			if req.WorkerID != "worker-1" || req.MaxTiles != 4 || req.WaitMs != 2000 {
+				t.Errorf("Unexpected lease request: %+v", req)
+			}
+
+			w.Header().Set("Content-Type", "application/json")
+			w.Write([]byte(`{"leaseTimeoutSeconds":30,"leases":[{"leaseId":"1-0","traceparent":"00-abc-def-01",` +
+				`"tileSpec":{"jobId":"job","tileId":"tile","xMin":-2,"yMin":-1.5,"xMax":1,"yMax":1.5,` +
+				`"width":64,"height":32,"maxIterations":100,"colorScheme":"fire","pixelStartX":64,"pixelStartY":0}}]}`))
+		}))
+		defer server.Close()
+
+		client := NewClient(server.URL, "worker-1", server.Client(), logger)
+		leases, timeout, err := client.Lease(context.Background(), 4, 2*time.Second)
+		if err != nil {
+			t.Fatalf("Error leasing tiles: %v", err)
+		}
+
+		if timeout != 30*time.Second {
+			t.Errorf("Expected lease timeout 30s, got %v", timeout)
+		}
+		if len(leases) != 1 {
+			t.Fatalf("Expected 1 lease, got %d", len(leases))
+		}
+		lease := leases[0]
+		if lease.LeaseID != "1-0" || lease.Traceparent != "00-abc-def-01" {
+			t.Errorf("Unexpected lease: %+v", lease)
+		}
+		if lease.TileSpec.XMin != -2 || lease.TileSpec.Width != 64 || lease.TileSpec.PixelStartX != 64 {
+			t.Errorf("Unexpected tile spec: %+v", lease.TileSpec)
+		}
+	})
+
+	t.Run("Heartbeat", func(t *testing.T) {
+		server := httptest.NewServer(http.HandlerFunc(func(w http.ResponseWriter, r *http.Request) {
+			if r.URL.Path != "/api/worker/lease/heartbeat" {
+				t.Errorf("Expected path to be '/api/worker/lease/heartbeat', got '%s'", r.URL.Path)
+			}
+
+			var req heartbeatRequest
+			if err := json.NewDecoder(r.Body).Decode(&req); err != nil {
+				t.Fatalf("Error decoding request: %v", err)
+			}
+			if len(req.LeaseIDs) != 2 {
+				t.Errorf("Expected 2 lease IDs, got %d", len(req.LeaseIDs))
+			}
+
+			w.Write([]byte(`{"renewed":1}`))
+		}))
+		defer server.Close()
+
+		client := NewClient(server.URL, "worker-1", server.Client(), logger)
+		renewed, err := client.Heartbeat(context.Background(), []string{"1-0", "2-0"})
+		if err != nil {
+			t.Fatalf("Error sending heartbeat: %v", err)
+		}
+		if renewed != 1 {
+			t.Errorf("Expected 1 renewed lease, got %d", renewed)
+		}
+	})
+
+	t.Run("Complete", func(t *testing.T) {
+		server := httptest.NewServer(http.HandlerFunc(func(w http.ResponseWriter, r *http.Request) {
+			if r.URL.Path != "/api/worker/lease/complete" {
+				t.Errorf("Expected path to be '/api/worker/lease/complete', got '%s'", r.URL.Path)
+			}
+
+			var req map[string]interface{}
+			if err := json.NewDecoder(r.Body).Decode(&req); err != nil {
+				t.Fatalf("Error decoding request: %v", err)
+			}
+			if req["leaseId"] != "1-0" || req["workerId"] != "worker-1" {
+				t.Errorf("Unexpected completion: %v", req)
+			}
+
+			w.WriteHeader(http.StatusAccepted)
+		}))
+		defer server.Close()
+
+		client := NewClient(server.URL, "worker-1", server.Client(), logger)
+		result := &models.TileResult{
+			JobID:     "job",
+			TileID:    "tile",
+			ImageData: []byte("test image data"),
+			Status:    models.TileStatusCompleted,
+		}
+		if err := client.Complete(context.Background(), "1-0", result); err != nil {
+			t.Fatalf("Error completing lease: %v", err)
+		}
+	})
+
+	t.Run("Error Response", func(t *testing.T) {
+		server := httptest.NewServer(http.HandlerFunc(func(w http.ResponseWriter, r *http.Request) {
+			w.WriteHeader(http.StatusInternalServerError)
+		}))
+		defer server.Close()
+
+		client := NewClient(server.URL, "worker-1", server.Client(), logger)
+		if _, _, err := client.Lease(context.Background(), 1, 0); err == nil {
+			t.Fatal("Expected error for 500 response, got nil")
+		}
+	})
+}
@@ -0,0 +1,295 @@
+package models
+
+import (
+	"fmt"
+	"math"
+	"os"
+	"sort"
+	"strconv"
+)
+
+const (
+	minTileSize = 64
+	maxTileSize = 512
+	// Large renders may ask for tiles up to this size, matching TileGrid in
+	// the orchestrator's commons module
+	maxLargeTileSize = 2048
+)
+
+// Tile dispatch orders, matching TileOrder in the orchestrator's commons module
+const (
+	OrderRaster  = "raster"
+	OrderSpiral  = "spiral"
+	OrderHilbert = "hilbert"
+)
+
+// TileGrid is the deterministic tile layout of a render, matching TileGrid in
+// the orchestrator's commons module. Tiles are numbered in row-major order and
+// dispatched in the grid's Order.
+type TileGrid struct {
+	JobID         string
+	XMin          float64
+	YMin          float64
+	XMax          float64
+	YMax          float64
+	Width         int
+	Height        int
+	TileSize      int
+	MaxIterations int
+	ColorScheme   string
+	Order         string
+	FocusTileX    int
+	FocusTileY    int
+	Precision     string
+	LargeRender   bool
+}
+
+// TileCount returns the number of tiles in the grid
+func (g *TileGrid) TileCount() int {
+	tilesX, tilesY := g.dimensions()
+	return tilesX * tilesY
+}
+
+// TileAt builds the spec for the tile at the given row-major index
+func (g *TileGrid) TileAt(index int) (*TileSpec, error) {
+	tilesX, tilesY := g.dimensions()
+	if index < 0 || index >= tilesX*tilesY {
+		return nil, fmt.Errorf("tile index %d outside grid of %d tiles", index, tilesX*tilesY)
+	}
+	tx := index % tilesX
+	ty := index / tilesX
+
+	// Tile size in pixels, spreading the image evenly across the tiles
+	tileWidth := int(math.Ceil(float64(g.Width) / float64(tilesX)))
+	tileHeight := int(math.Ceil(float64(g.Height) / float64(tilesY)))
+
+	// Tile size in coordinate space
+	tileRangeX := (g.XMax - g.XMin) / float64(tilesX)
+	tileRangeY := (g.YMax - g.YMin) / float64(tilesY)
+
+	tileXMin := g.XMin + float64(tx)*tileRangeX
+	tileYMin := g.YMin + float64(ty)*tileRangeY
+	pixelStartX := tx * tileWidth
+	pixelStartY := ty * tileHeight
+
+	return &TileSpec{
+		JobID:         g.JobID,
+		TileID:        fmt.Sprintf("tile-%d", index),
+		XMin:          tileXMin,
+		YMin:          tileYMin,
+		XMax:          tileXMin + tileRangeX,
+		YMax:          tileYMin + tileRangeY,
+		Width:         minInt(tileWidth, g.Width-pixelStartX),
+		Height:        minInt(tileHeight, g.Height-pixelStartY),
+		MaxIterations: g.MaxIterations,
+		ColorScheme:   g.ColorScheme,
+		PixelStartX:   pixelStartX,
+		PixelStartY:   pixelStartY,
+		Precision:     g.Precision,
+	}, nil
+}
+
+// TileInOrder builds the spec for the tile at the given position of the dispatch order
+func (g *TileGrid) TileInOrder(position int) (*TileSpec, error) {
+	sequence := g.Sequence()
+	if position < 0 || position >= len(sequence) {
+		return nil, fmt.Errorf("tile position %d outside grid of %d tiles", position, len(sequence))
+	}
+	return g.TileAt(sequence[position])
+}
+
+// Sequence returns the row-major tile indices in dispatch order
+func (g *TileGrid) Sequence() []int {
+	tilesX, tilesY := g.dimensions()
+	switch g.Order {
+	case OrderSpiral:
+		return spiralSequence(tilesX, tilesY, g.FocusTileX, g.FocusTileY)
+	case OrderHilbert:
+		return hilbertSequence(tilesX, tilesY)
+	default:
+		sequence := make([]int, tilesX*tilesY)
+		for i := range sequence {
+			sequence[i] = i
+		}
+		return sequence
+	}
+}
+
+// spiralSequence walks right, down, left, up with legs of 1, 1, 2, 2, ...
+// from the focus tile and keeps the positions inside the grid
+func spiralSequence(tilesX, tilesY, focusX, focusY int) []int {
+	count := tilesX * tilesY
+	sequence := make([]int, 0, count)
+	if count == 0 {
+		return sequence
+	}
+	directions := [4][2]int{{1, 0}, {0, 1}, {-1, 0}, {0, -1}}
+	x, y := focusX, focusY
+	sequence = append(sequence, y*tilesX+x)
+	leg, direction := 1, 0
+	for len(sequence) < count {
+		for turn := 0; turn < 2 && len(sequence) < count; turn++ {
+			for step := 0; step < leg && len(sequence) < count; step++ {
+				x += directions[direction][0]
+				y += directions[direction][1]
+				if x >= 0 && x < tilesX && y >= 0 && y < tilesY {
+					sequence = append(sequence, y*tilesX+x)
+				}
+			}
+			direction = (direction + 1) % 4
+		}
+		leg++
+	}
+	return sequence
+}
+
+func hilbertSequence(tilesX, tilesY int) []int {
+	side := 1
+	for side < tilesX || side < tilesY {
+		side <<= 1
+	}
+	sequence := make([]int, tilesX*tilesY)
+	keys := make([]int, tilesX*tilesY)
+	for i := range sequence {
+		sequence[i] = i
+		keys[i] = hilbertIndex(side, i%tilesX, i/tilesX)
+	}
+	sort.Slice(sequence, func(a, b int) bool {
+		return keys[sequence[a]] < keys[sequence[b]]
+	})
+	return sequence
+}
+
+// hilbertIndex returns the distance along the Hilbert curve filling an n by n
+// square, n a power of two
+func hilbertIndex(n, x, y int) int {
+	d := 0
+	for s := n / 2; s > 0; s /= 2 {
+		rx, ry := 0, 0
+		if x&s > 0 {
+			rx = 1
+		}
+		if y&s > 0 {
+			ry = 1
+		}
+		d += s * s * ((3 * rx) ^ ry)
+		// Rotate the quadrant so the curve stays continuous
+		if ry == 0 {
+			if rx == 1 {
+				x = n - 1 - x
+				y = n - 1 - y
+			}
+			x, y = y, x
+		}
+	}
+	return d
+}
+
+func (g *TileGrid) dimensions() (int, int) {
+	tileSize := g.TileSize
+	if tileSize < minTileSize {
+		tileSize = minTileSize
+	}
+	if tileSize > maxTileSize && !g.LargeRender {
+		tileSize = maxTileSize
+	}
+	if tileSize > maxLargeTileSize {
+		tileSize = maxLargeTileSize
+	}
+	tilesX := int(math.Ceil(float64(g.Width) / float64(tileSize)))
+	tilesY := int(math.Ceil(float64(g.Height) / float64(tileSize)))
+	return tilesX, tilesY
+}
+
+// NewTileSpecFromIndexedJob builds the tile for this pod of an Indexed Job
+// from the TILE_GRID_* variables and JOB_COMPLETION_INDEX
+func NewTileSpecFromIndexedJob() (*TileSpec, error) {
+	indexStr := os.Getenv("JOB_COMPLETION_INDEX")
+	if indexStr == "" {
+		return nil, fmt.Errorf("JOB_COMPLETION_INDEX not set")
+	}
+	index, err := strconv.Atoi(indexStr)
+	if err != nil {
+		return nil, fmt.Errorf("invalid JOB_COMPLETION_INDEX: %w", err)
+	}
+
+	grid, err := newTileGridFromEnvironment()
+	if err != nil {
+		return nil, err
+	}
+	return grid.TileInOrder(index)
+}
+
+// IsIndexedJob reports whether the worker was started as part of an Indexed Job render
+func IsIndexedJob() bool {
+	return os.Getenv("JOB_COMPLETION_INDEX") != "" && os.Getenv("TILE_GRID_JOB_ID") != ""
+}
+
+func newTileGridFromEnvironment() (*TileGrid, error) {
+	grid := &TileGrid{
+		JobID:       os.Getenv("TILE_GRID_JOB_ID"),
+		ColorScheme: os.Getenv("TILE_GRID_COLOR_SCHEME"),
+		Order:       os.Getenv("TILE_GRID_ORDER"),
+		Precision:   os.Getenv("TILE_GRID_PRECISION"),
+		LargeRender: os.Getenv("TILE_GRID_LARGE_RENDER") == "true",
+	}
+	if grid.JobID == "" {
+		return nil, fmt.Errorf("missing required environment variables for TileGrid")
+	}
+
+	floats := map[string]*float64{
+		"TILE_GRID_X_MIN": &grid.XMin,
+		"TILE_GRID_Y_MIN": &grid.YMin,
+		"TILE_GRID_X_MAX": &grid.XMax,
+		"TILE_GRID_Y_MAX": &grid.YMax,
+	}
+	for name, target := range floats {
+		value, err := strconv.ParseFloat(os.Getenv(name), 64)
+		if err != nil {
+			return nil, fmt.Errorf("invalid %s: %w", name, err)
+		}
+		*target = value
+	}
+
+	ints := map[string]*int{
+		"TILE_GRID_WIDTH":          &grid.Width,
+		"TILE_GRID_HEIGHT":         &grid.Height,
+		"TILE_GRID_TILE_SIZE":      &grid.TileSize,
+		"TILE_GRID_MAX_ITERATIONS": &grid.MaxIterations,
+	}
+	for name, target := range ints {
+		value, err := strconv.Atoi(os.Getenv(name))
+		if err != nil {
+			return nil, fmt.Errorf("invalid %s: %w", name, err)
+		}
+		*target = value
+	}
+
+	// The focus tile only matters for the spiral order; it defaults to the center
+	tilesX, tilesY := grid.dimensions()
+	grid.FocusTileX = (tilesX - 1) / 2
+	grid.FocusTileY = (tilesY - 1) / 2
+	focus := map[string]*int{
+		"TILE_GRID_FOCUS_TILE_X": &grid.FocusTileX,
+		"TILE_GRID_FOCUS_TILE_Y": &grid.FocusTileY,
+	}
+	for name, target := range focus {
+		if os.Getenv(name) == "" {
+			continue
+		}
+		value, err := strconv.Atoi(os.Getenv(name))
+		if err != nil {
+			return nil, fmt.Errorf("invalid %s: %w", name, err)
+		}
+		*target = value
+	}
+
+	return grid, nil
+}
+
+func minInt(a, b int) int {
+	if a < b {
+		return a
+	}
+	return b
+}
@@ -0,0 +1,159 @@
+package models
+
+import (
+	"os"
+	"testing"
+)
+
+func TestTileGrid(t *testing.T) {
+	grid := &TileGrid{
+		JobID:         "test-job",
+		XMin:          -2.0,
+		YMin:          -1.5,
+		XMax:          1.0,
+		YMax:          1.5,
+		Width:         1000,
+		Height:        600,
+		TileSize:      256,
+		MaxIterations: 100,
+		ColorScheme:   "classic",
+	}
+
+	t.Run("Tiles cover image exactly once", func(t *testing.T) {
+		if grid.TileCount() != 12 {
+			t.Fatalf("Expected 12 tiles, got %d", grid.TileCount())
+		}
+
+		covered := make([]int, grid.Width*grid.Height)
+		for i := 0; i < grid.TileCount(); i++ {
+			spec, err := grid.TileAt(i)
+			if err != nil {
+				t.Fatalf("Error building tile %d: %v", i, err)
+			}
+			for y := spec.PixelStartY; y < spec.PixelStartY+spec.Height; y++ {
+				for x := spec.PixelStartX; x < spec.PixelStartX+spec.Width; x++ {
+					covered[y*grid.Width+x]++
+				}
+			}
+		}
+		for i, count := range covered {
+			if count != 1 {
+				t.Fatalf("Pixel %d covered %d times", i, count)
+			}
+		}
+	})
+
+	t.Run("Row-major index", func(t *testing.T) {
+		spec, err := grid.TileAt(5)
+		if err != nil {
+			t.Fatalf("Error building tile: %v", err)
+		}
+		if spec.TileID != "tile-5" {
+			t.Errorf("Expected tile ID 'tile-5', got '%s'", spec.TileID)
+		}
+		if spec.PixelStartX != 250 || spec.PixelStartY != 200 {
+			t.Errorf("Expected pixel start (250, 200), got (%d, %d)", spec.PixelStartX, spec.PixelStartY)
+		}
+		if spec.XMin != -2.0+0.75 || spec.YMin != -1.5+1.0 {
+			t.Errorf("Unexpected coordinates: xMin=%v yMin=%v", spec.XMin, spec.YMin)
+		}
+	})
+
+	t.Run("Index out of range", func(t *testing.T) {
+		if _, err := grid.TileAt(12); err == nil {
+			t.Fatal("Expected error for index outside grid, got nil")
+		}
+	})
+}
+
+func TestNewTileSpecFromIndexedJob(t *testing.T) {
+	env := map[string]string{
+		"JOB_COMPLETION_INDEX":     "3",
+		"TILE_GRID_JOB_ID":         "test-job",
+		"TILE_GRID_X_MIN":          "-2.0",
+		"TILE_GRID_Y_MIN":          "-1.5",
+		"TILE_GRID_X_MAX":          "1.0",
+		"TILE_GRID_Y_MAX":          "1.5",
+		"TILE_GRID_WIDTH":          "512",
+		"TILE_GRID_HEIGHT":         "512",
+		"TILE_GRID_TILE_SIZE":      "256",
+		"TILE_GRID_MAX_ITERATIONS": "100",
+		"TILE_GRID_COLOR_SCHEME":   "fire",
+	}
+	for k, v := range env {
+		original, ok := os.LookupEnv(k)
+		os.Setenv(k, v)
+		defer func(k, original string, ok bool) {
+			if ok {
+				os.Setenv(k, original)
+			} else {
+				os.Unsetenv(k)
+			}
+		}(k, original, ok)
+	}
+
+	if !IsIndexedJob() {
+		t.Fatal("Expected indexed job to be detected")
+	}
+
+	spec, err := NewTileSpecFromIndexedJob()
+	if err != nil {
+		t.Fatalf("Error creating tile spec: %v", err)
+	}
+	if spec.TileID != "tile-3" || spec.PixelStartX != 256 || spec.PixelStartY != 256 {
+		t.Errorf("Unexpected tile spec: %+v", spec)
+	}
+	if spec.Width != 256 || spec.Height != 256 || spec.ColorScheme != "fire" {
+		t.Errorf("Unexpected tile spec: %+v", spec)
+	}
+}
+
+func TestTileGridSequence(t *testing.T) {
+	// The same sequences are asserted by TileGridTest on the orchestrator side
+	grid := &TileGrid{Width: 192, Height: 192, TileSize: 64, Order: OrderSpiral, FocusTileX: 1, FocusTileY: 1}
+	expectSequence(t, grid.Sequence(), []int{4, 5, 8, 7, 6, 3, 0, 1, 2})
+
+	grid = &TileGrid{Width: 128, Height: 128, TileSize: 64, Order: OrderHilbert}
+	expectSequence(t, grid.Sequence(), []int{0, 2, 3, 1})
+
+	grid = &TileGrid{Width: 1000, Height: 600, TileSize: 128, Order: OrderSpiral, FocusTileX: 3, FocusTileY: 2}
+	seen := make(map[int]bool)
+	for _, index := range grid.Sequence() {
+		seen[index] = true
+	}
+	if len(seen) != grid.TileCount() {
+		t.Errorf("Expected spiral to visit %d tiles, visited %d", grid.TileCount(), len(seen))
+	}
+
+	spec, err := grid.TileInOrder(0)
+	if err != nil {
+		t.Fatalf("Error building tile: %v", err)
+	}
+	if spec.TileID != "tile-19" {
+		t.Errorf("Expected spiral to start at 'tile-19', got '%s'", spec.TileID)
+	}
+}
+
+func TestTileGridTileSizeIsClamped(t *testing.T) {
+	// Matches TileGridTest on the orchestrator side: 512 pixels at most, 2048 for large renders
+	grid := &TileGrid{Width: 4096, Height: 4096, TileSize: 4096}
+	if grid.TileCount() != 64 {
+		t.Errorf("Expected 64 tiles of 512 pixels, got %d", grid.TileCount())
+	}
+	grid.LargeRender = true
+	if grid.TileCount() != 4 {
+		t.Errorf("Expected 4 tiles of 2048 pixels for a large render, got %d", grid.TileCount())
+	}
+}
+
+func expectSequence(t *testing.T, actual, expected []int) {
+	t.Helper()
+	if len(actual) != len(expected) {
+		t.Fatalf("Expected sequence %v, got %v", expected, actual)
+	}
+	for i := range expected {
+		if actual[i] != expected[i] {
+			t.Fatalf("Expected sequence %v, got %v", expected, actual)
+		}
+	}
+}
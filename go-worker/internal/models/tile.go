@@ -16,6 +16,13 @@ const (
 	TileStatusProcessing TileStatus = "PROCESSING"
 )
 
+// Precision tiers a tile's pixels are iterated in, named as the orchestrator's PrecisionTier
+const (
+	PrecisionFloat32      = "FLOAT32"
+	PrecisionDouble       = "DOUBLE"
+	PrecisionDoubleDouble = "DOUBLE_DOUBLE"
+)
+
 // TileSpec represents a specification for a fractal tile to be computed
 type TileSpec struct {
 	JobID         string  `json:"jobId"`
@@ -30,6 +37,25 @@ type TileSpec struct {
 	ColorScheme   string  `json:"colorScheme"`
 	PixelStartX   int     `json:"pixelStartX"`
 	PixelStartY   int     `json:"pixelStartY"`
+	// ReferenceX and ReferenceY are the exact decimal reference point of a
+	// deep zoom; when set, the bounds are offsets from it and the tile is
+	// calculated by perturbation against the job's reference orbit
+	ReferenceX    string  `json:"referenceX,omitempty"`
+	ReferenceY    string  `json:"referenceY,omitempty"`
+	// Precision is the tier the pixels are iterated in; empty means double
+	Precision     string  `json:"precision,omitempty"`
+}
+
+// HasReference reports whether the tile's bounds are offsets from a reference point
+func (t *TileSpec) HasReference() bool {
+	return t.ReferenceX != "" && t.ReferenceY != ""
+}
+
+// IsPerturbed reports whether the tile is a deep zoom calculated by
+// perturbation against its job's reference orbit; double-double tiles add
+// their offsets to the reference point instead
+func (t *TileSpec) IsPerturbed() bool {
+	return t.HasReference() && t.Precision != PrecisionDoubleDouble
 }
 
 // TileResult represents the result of a fractal tile computation
@@ -43,6 +69,12 @@ type TileResult struct {
 	PixelStartY       int        `json:"pixelStartY"`
 	CalculationTimeMs int64      `json:"calculationTimeMs"`
 	Status            TileStatus `json:"status"`
+	// Iterations holds the per-pixel iteration counts encoded by
+	// calculator.EncodeIterations, so the tile can be colored again
+	Iterations        []byte     `json:"iterations,omitempty"`
+	// Scale is above 1 for a coarse pass of a tile refined progressively,
+	// whose image is that many times smaller than the tile
+	Scale             int        `json:"scale,omitempty"`
 }
 
 // NewTileSpecFromEnvironment creates a new TileSpec from environment variables
@@ -128,9 +160,39 @@ func NewTileSpecFromEnvironment() (*TileSpec, error) {
 		ColorScheme:   colorScheme,
 		PixelStartX:   pixelStartX,
 		PixelStartY:   pixelStartY,
+		ReferenceX:    os.Getenv("TILE_SPEC_REFERENCE_X"),
+		ReferenceY:    os.Getenv("TILE_SPEC_REFERENCE_Y"),
+		Precision:     os.Getenv("TILE_SPEC_PRECISION"),
 	}, nil
 }
 
+// IsBatch reports whether the worker was given a batch of tiles
+func IsBatch() bool {
+	return os.Getenv("TILE_SPECS_JSON") != ""
+}
+
+// NewTileSpecsFromEnvironment parses the batch of tile specs in TILE_SPECS_JSON
+func NewTileSpecsFromEnvironment() ([]*TileSpec, error) {
+	payload := os.Getenv("TILE_SPECS_JSON")
+	if payload == "" {
+		return nil, fmt.Errorf("missing TILE_SPECS_JSON environment variable")
+	}
+
+	var specs []*TileSpec
+	if err := json.Unmarshal([]byte(payload), &specs); err != nil {
+		return nil, fmt.Errorf("invalid TILE_SPECS_JSON: %w", err)
+	}
+	if len(specs) == 0 {
+		return nil, fmt.Errorf("TILE_SPECS_JSON contains no tiles")
+	}
+	for i, spec := range specs {
+		if spec == nil || spec.JobID == "" || spec.TileID == "" || spec.Width <= 0 || spec.Height <= 0 {
+			return nil, fmt.Errorf("invalid tile spec at index %d in TILE_SPECS_JSON", i)
+		}
+	}
+	return specs, nil
+}
+
 // MarshalJSON custom marshaller that encodes the byte array as base64
 func (r TileResult) MarshalJSON() ([]byte, error) {
 	type Alias TileResult
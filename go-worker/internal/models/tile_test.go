@@ -270,4 +270,44 @@ func TestTileResultMarshalJSON(t *testing.T) {
 // Helper function to check if a string contains a substring
 func contains(s, substr string) bool {
 	return s != "" && s != substr && len(s) > len(substr) && s[:len(substr)] != substr && s[len(s)-len(substr):] != substr && s[1:len(s)-1] != substr
-}
\ No newline at end of file
+}
+
+func TestNewTileSpecsFromEnvironment(t *testing.T) {
+	original, ok := os.LookupEnv("TILE_SPECS_JSON")
+	defer func() {
+		if ok {
+			os.Setenv("TILE_SPECS_JSON", original)
+		} else {
+			os.Unsetenv("TILE_SPECS_JSON")
+		}
+	}()
+
+	t.Run("Valid batch", func(t *testing.T) {
+		os.Setenv("TILE_SPECS_JSON", `[`+
+			`{"jobId":"job","tileId":"tile-0","xMin":-2,"yMin":-1.5,"xMax":-1.25,"yMax":-0.75,"width":64,"height":64,"maxIterations":100,"colorScheme":"classic","pixelStartX":0,"pixelStartY":0},`+
+			`{"jobId":"job","tileId":"tile-1","xMin":-1.25,"yMin":-1.5,"xMax":-0.5,"yMax":-0.75,"width":64,"height":64,"maxIterations":100,"colorScheme":"classic","pixelStartX":64,"pixelStartY":0}]`)
+
+		if !IsBatch() {
+			t.Fatal("Expected batch to be detected")
+		}
+		specs, err := NewTileSpecsFromEnvironment()
+		if err != nil {
+			t.Fatalf("Error parsing batch: %v", err)
+		}
+		if len(specs) != 2 {
+			t.Fatalf("Expected 2 tile specs, got %d", len(specs))
+		}
+		if specs[1].TileID != "tile-1" || specs[1].XMin != -1.25 || specs[1].PixelStartX != 64 {
+			t.Errorf("Unexpected tile spec: %+v", specs[1])
+		}
+	})
+
+	t.Run("Invalid batch", func(t *testing.T) {
+		for _, payload := range []string{`not json`, `[]`, `[{"jobId":"job"}]`} {
+			os.Setenv("TILE_SPECS_JSON", payload)
+			if _, err := NewTileSpecsFromEnvironment(); err == nil {
+				t.Errorf("Expected error for payload %q, got nil", payload)
+			}
+		}
+	})
+}
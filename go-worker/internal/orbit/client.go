@@ -0,0 +1,67 @@
+package orbit
+
+import (
+	"context"
+	"fmt"
+	"io"
+	"net/http"
+	"sync"
+
+	"github.com/austinlparker/otelbrot/go-worker/internal/calculator"
+)
+
+// Client fetches the reference orbits of deep zoom jobs from the
+// orchestrator, once per job however many of its tiles the worker computes
+type Client struct {
+	orchestratorURL string
+	client          *http.Client
+
+	mu     sync.Mutex
+	orbits map[string]*calculator.ReferenceOrbit
+}
+
+// NewClient creates an orbit client
+func NewClient(orchestratorURL string, client *http.Client) *Client {
+	return &Client{
+		orchestratorURL: orchestratorURL,
+		client:          client,
+		orbits:          make(map[string]*calculator.ReferenceOrbit),
+	}
+}
+
+// Get returns the reference orbit of a job, fetching it the first time
+func (c *Client) Get(ctx context.Context, jobID string) (*calculator.ReferenceOrbit, error) {
+	c.mu.Lock()
+	orbit, ok := c.orbits[jobID]
+	c.mu.Unlock()
+	if ok {
+		return orbit, nil
+	}
+
+	endpoint := fmt.Sprintf("%s/api/fractal/job/%s/orbit", c.orchestratorURL, jobID)
+	req, err := http.NewRequestWithContext(ctx, http.MethodGet, endpoint, nil)
+	if err != nil {
+		return nil, fmt.Errorf("failed to create request: %w", err)
+	}
+	resp, err := c.client.Do(req)
+	if err != nil {
+		return nil, fmt.Errorf("failed to fetch reference orbit: %w", err)
+	}
+	defer resp.Body.Close()
+	if resp.StatusCode != http.StatusOK {
+		return nil, fmt.Errorf("unexpected status code fetching reference orbit: %d", resp.StatusCode)
+	}
+	data, err := io.ReadAll(resp.Body)
+	if err != nil {
+		return nil, fmt.Errorf("failed to read reference orbit: %w", err)
+	}
+	orbit, err = calculator.DecodeReferenceOrbit(data)
+	if err != nil {
+		return nil, err
+	}
+
+	c.mu.Lock()
+	c.orbits[jobID] = orbit
+	c.mu.Unlock()
+	return orbit, nil
+}
@@ -0,0 +1,42 @@
+package orbit
+
+import (
+	"context"
+	"net/http"
+	"net/http/httptest"
+	"testing"
+)
+
+func TestGetFetchesEachOrbitOnce(t *testing.T) {
+	requests := 0
+	server := httptest.NewServer(http.HandlerFunc(func(w http.ResponseWriter, r *http.Request) {
+		requests++
+		if r.URL.Path != "/api/fractal/job/job-1/orbit" {
+			t.Errorf("unexpected path %s", r.URL.Path)
+		}
+		// A one point orbit: the origin
+		w.Write(append([]byte{1, 0, 0, 0}, make([]byte, 16)...))
+	}))
+	defer server.Close()
+
+	client := NewClient(server.URL, server.Client())
+	for i := 0; i < 3; i++ {
+		if _, err := client.Get(context.Background(), "job-1"); err != nil {
+			t.Fatalf("Get returned error: %v", err)
+		}
+	}
+	if requests != 1 {
+		t.Errorf("expected 1 request, got %d", requests)
+	}
+}
+
+func TestGetReportsMissingOrbit(t *testing.T) {
+	server := httptest.NewServer(http.HandlerFunc(func(w http.ResponseWriter, r *http.Request) {
+		w.WriteHeader(http.StatusNotFound)
+	}))
+	defer server.Close()
+
+	if _, err := NewClient(server.URL, server.Client()).Get(context.Background(), "job-1"); err == nil {
+		t.Error("expected an error for a job without an orbit")
+	}
+}
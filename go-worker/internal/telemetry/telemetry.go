@@ -78,9 +78,12 @@ func Setup(cfg *config.Config) (*Telemetry, error) {
 
 // ExtractParentContext extracts trace context from environment variables
 func ExtractParentContext(ctx context.Context) context.Context {
-	traceparent := os.Getenv("TRACEPARENT")
-	tracestate := os.Getenv("TRACESTATE")
+	return ContextWithTraceparent(ctx, os.Getenv("TRACEPARENT"), os.Getenv("TRACESTATE"))
+}
 
+// ContextWithTraceparent returns ctx with the remote parent described by the
+// W3C traceparent and tracestate values, or ctx unchanged if traceparent is empty
+func ContextWithTraceparent(ctx context.Context, traceparent, tracestate string) context.Context {
 	if traceparent == "" {
 		return ctx
 	}
@@ -0,0 +1,40 @@
+package io.aparker.otelbrot.orchestrator.config;
+
+import io.aparker.otelbrot.orchestrator.repository.RedisAdmissionStore;
+import io.aparker.otelbrot.orchestrator.service.AdmissionStore;
+import io.aparker.otelbrot.orchestrator.service.InMemoryAdmissionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Selects where worker slots are counted
+ */
+@Configuration
+public class AdmissionConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionConfig.class);
+
+    @Value("${app.admission.store:redis}")
+    private String storeMode;
+
+    /**
+     * The store the admission controller keeps slots in
+     *
+     * @return a Redis store shared by every replica, or an in-memory store for a single orchestrator
+     */
+    @Bean
+    public AdmissionStore admissionStore(StringRedisTemplate stringRedisTemplate) {
+        logger.info("Using '{}' admission store", storeMode);
+        switch (storeMode) {
+            case "memory":
+                return new InMemoryAdmissionStore();
+            case "redis":
+                return new RedisAdmissionStore(stringRedisTemplate);
+            default:
+                throw new IllegalStateException("Unknown admission store: " + storeMode);
+        }
+    }
+}
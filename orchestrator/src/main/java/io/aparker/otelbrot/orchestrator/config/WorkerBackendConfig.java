@@ -0,0 +1,68 @@
+package io.aparker.otelbrot.orchestrator.config;
+
+import io.aparker.otelbrot.orchestrator.worker.HybridWorkerBackend;
+import io.aparker.otelbrot.orchestrator.worker.KubernetesWorkerBackend;
+import io.aparker.otelbrot.orchestrator.worker.LocalWorkerBackend;
+import io.aparker.otelbrot.orchestrator.worker.PullWorkerBackend;
+import io.aparker.otelbrot.orchestrator.worker.WorkerBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Selects the worker backend used to compute tiles
+ */
+@Configuration
+public class WorkerBackendConfig {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerBackendConfig.class);
+
+    @Value("${app.worker.backend:kubernetes}")
+    private String backendMode;
+
+    @Value("${app.worker.hybrid.cluster-backend:kubernetes}")
+    private String hybridClusterBackend;
+
+    @Value("${app.worker.hybrid.local-max-pixels:16384}")
+    private int localMaxPixels;
+
+    @Value("${app.worker.hybrid.local-max-queued:64}")
+    private int localMaxQueued;
+
+    @Value("${app.worker.hybrid.local-preview:true}")
+    private boolean localPreview;
+
+    /**
+     * The backend the orchestrator dispatches tiles to
+     *
+     * @return kubernetes, pull, local or hybrid backend depending on app.worker.backend
+     */
+    @Bean
+    @Primary
+    public WorkerBackend workerBackend(
+            KubernetesWorkerBackend kubernetesWorkerBackend,
+            PullWorkerBackend pullWorkerBackend,
+            LocalWorkerBackend localWorkerBackend) {
+        logger.info("Using '{}' worker backend", backendMode);
+        switch (backendMode) {
+            case "local":
+                return localWorkerBackend;
+            case "pull":
+                return pullWorkerBackend;
+            case "hybrid":
+                return new HybridWorkerBackend(
+                    "pull".equals(hybridClusterBackend) ? pullWorkerBackend : kubernetesWorkerBackend,
+                    localWorkerBackend,
+                    localMaxPixels,
+                    localMaxQueued,
+                    localPreview
+                );
+            case "kubernetes":
+                return kubernetesWorkerBackend;
+            default:
+                throw new IllegalStateException("Unknown worker backend: " + backendMode);
+        }
+    }
+}
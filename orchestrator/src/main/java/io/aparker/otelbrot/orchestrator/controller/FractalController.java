@@ -2,8 +2,14 @@ package io.aparker.otelbrot.orchestrator.controller;
 
 import io.aparker.otelbrot.commons.model.TileResult;
 import io.aparker.otelbrot.orchestrator.model.FractalJob;
+import io.aparker.otelbrot.orchestrator.model.ImageFormat;
+import io.aparker.otelbrot.orchestrator.model.JobStatus;
 import io.aparker.otelbrot.orchestrator.model.RenderRequest;
+import io.aparker.otelbrot.orchestrator.service.ImageExportService;
+import io.aparker.otelbrot.orchestrator.service.LargeRenderService;
+import io.aparker.otelbrot.orchestrator.service.MapTileService;
 import io.aparker.otelbrot.orchestrator.service.OrchestrationService;
+import io.aparker.otelbrot.orchestrator.worker.WorkerInfo;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Context;
@@ -15,8 +21,14 @@ import io.opentelemetry.instrumentation.annotations.SpanAttribute;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -24,10 +36,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * REST controller for fractal rendering operations
@@ -37,7 +58,13 @@ import java.util.Map;
 public class FractalController {
     private static final Logger logger = LoggerFactory.getLogger(FractalController.class);
     
+    // DeepZoom tile names, column_row.format
+    private static final Pattern PYRAMID_TILE = Pattern.compile("(\\d{1,9})_(\\d{1,9})\\.(\\w+)");
+
     private final OrchestrationService orchestrationService;
+    private final MapTileService mapTileService;
+    private final ImageExportService imageExportService;
+    private final LargeRenderService largeRenderService;
     private final Tracer tracer;
     private final TextMapPropagator propagator;
     
@@ -58,8 +85,13 @@ public class FractalController {
             }
         };
 
-    public FractalController(OrchestrationService orchestrationService, Tracer tracer, TextMapPropagator propagator) {
+    public FractalController(OrchestrationService orchestrationService, MapTileService mapTileService,
+                             ImageExportService imageExportService, LargeRenderService largeRenderService,
+                             Tracer tracer, TextMapPropagator propagator) {
         this.orchestrationService = orchestrationService;
+        this.mapTileService = mapTileService;
+        this.imageExportService = imageExportService;
+        this.largeRenderService = largeRenderService;
         this.tracer = tracer;
         this.propagator = propagator;
     }
@@ -135,6 +167,162 @@ public class FractalController {
                         HttpStatus.NOT_FOUND, "Job not found: " + jobId));
     }
 
+    /**
+     * List the workers currently running, as observed by the worker backend
+     */
+    @WithSpan("FractalController.getWorkers")
+    @GetMapping("/workers")
+    public ResponseEntity<List<WorkerInfo>> getWorkers() {
+        return orchestrationService.getRunningWorkers()
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "Worker backend does not observe its workers"));
+    }
+
+    /**
+     * Get a completed tile's image, optionally colored with another scheme
+     * from its iteration counts without rendering it again
+     */
+    @WithSpan("FractalController.getTileImage")
+    @GetMapping(value = "/job/{jobId}/tile/{tileId}/image", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getTileImage(
+            @PathVariable @SpanAttribute("job.id") String jobId,
+            @PathVariable @SpanAttribute("tile.id") String tileId,
+            @RequestParam(required = false) @SpanAttribute("tile.color_scheme") String colorScheme) {
+        return orchestrationService.getTileImage(jobId, tileId, colorScheme)
+                .map(image -> ResponseEntity.ok().contentType(MediaType.IMAGE_PNG).body(image))
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "No stored tile to color: " + jobId + "/" + tileId));
+    }
+
+    /**
+     * Get a completed job's whole image, stitched from its tiles as PNG or
+     * JPEG and streamed out band by band
+     */
+    @WithSpan("FractalController.getImage")
+    @GetMapping("/job/{jobId}/image")
+    public ResponseEntity<StreamingResponseBody> getImage(
+            @PathVariable @SpanAttribute("job.id") String jobId,
+            @RequestParam(required = false) @SpanAttribute("image.format") String format) {
+        ImageFormat imageFormat;
+        try {
+            imageFormat = ImageFormat.fromId(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported image format: " + format);
+        }
+        FractalJob job = orchestrationService.getJobStatus(jobId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Job not found: " + jobId));
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT, "Job not completed: " + jobId + " is " + job.getStatus());
+        }
+
+        if (!imageExportService.canExport(job)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, "Job " + jobId + " was assembled on another orchestrator");
+        }
+
+        StreamingResponseBody body = out -> imageExportService.export(job, imageFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(imageFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(jobId + "." + imageFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Get a large render's DeepZoom descriptor; the pyramid's tiles are at
+     * image_files next to it, where DeepZoom viewers look for them
+     */
+    @WithSpan("FractalController.getDeepZoomDescriptor")
+    @GetMapping(value = "/job/{jobId}/image.dzi", produces = MediaType.APPLICATION_XML_VALUE)
+    public ResponseEntity<Resource> getDeepZoomDescriptor(@PathVariable @SpanAttribute("job.id") String jobId) {
+        return largeRenderService.findDescriptor(jobId)
+                .map(path -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_XML)
+                        .body((Resource) new FileSystemResource(path)))
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "No DeepZoom pyramid for job: " + jobId));
+    }
+
+    /**
+     * Get a tile of a large render's DeepZoom pyramid, once it is written.
+     * Written tiles never change, so clients may cache them.
+     */
+    @WithSpan("FractalController.getDeepZoomTile")
+    @GetMapping("/job/{jobId}/image_files/{level}/{tile}")
+    public ResponseEntity<Resource> getDeepZoomTile(
+            @PathVariable @SpanAttribute("job.id") String jobId,
+            @PathVariable @SpanAttribute("pyramid.level") int level,
+            @PathVariable @SpanAttribute("pyramid.tile") String tile) {
+        Matcher matcher = PYRAMID_TILE.matcher(tile);
+        if (!matcher.matches() || !matcher.group(3).equals(largeRenderService.getPyramidFormat())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No such pyramid tile: " + tile);
+        }
+        int column = Integer.parseInt(matcher.group(1));
+        int row = Integer.parseInt(matcher.group(2));
+        return largeRenderService.findPyramidTile(jobId, level, column, row)
+                .map(path -> ResponseEntity.ok()
+                        .contentType(MediaTypeFactory.getMediaType(tile).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(1)))
+                        .body((Resource) new FileSystemResource(path)))
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Pyramid tile not written yet: " + level + "/" + tile));
+    }
+
+    /**
+     * Get a deep zoom job's reference orbit, which workers iterate their
+     * pixels against
+     */
+    @WithSpan("FractalController.getReferenceOrbit")
+    @GetMapping(value = "/job/{jobId}/orbit", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getReferenceOrbit(@PathVariable @SpanAttribute("job.id") String jobId) {
+        return orchestrationService.getReferenceOrbit(jobId)
+                .map(orbit -> ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(orbit))
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "No reference orbit for job: " + jobId));
+    }
+
+    /**
+     * Get a map tile at zoom level z, column x and row y, rendering it if
+     * it isn't cached. Map tiles never change, so clients may cache them.
+     */
+    @WithSpan("FractalController.getMapTile")
+    @GetMapping(value = "/tiles/{scheme}/{z}/{x}/{y}", produces = MediaType.IMAGE_PNG_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> getMapTile(
+            @PathVariable @SpanAttribute("tile.color_scheme") String scheme,
+            @PathVariable @SpanAttribute("map.z") int z,
+            @PathVariable @SpanAttribute("map.x") long x,
+            @PathVariable @SpanAttribute("map.y") long y) {
+        if (scheme.isEmpty() || scheme.length() > 50) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Color scheme name must be between 1 and 50 characters");
+        }
+        CompletableFuture<byte[]> tile;
+        try {
+            tile = mapTileService.getTile(scheme, z, x, y);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return tile
+                .thenApply(image -> ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_PNG)
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePublic())
+                        .body(image))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        throw new ResponseStatusException(
+                                HttpStatus.GATEWAY_TIMEOUT, "Map tile not rendered in time: " + z + "/" + x + "/" + y);
+                    }
+                    throw new ResponseStatusException(
+                            HttpStatus.INTERNAL_SERVER_ERROR, "Failed to render map tile: " + cause.getMessage());
+                });
+    }
+
     /**
      * Cancel a job
      */
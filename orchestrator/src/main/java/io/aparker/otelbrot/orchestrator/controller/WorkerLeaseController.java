@@ -0,0 +1,126 @@
+package io.aparker.otelbrot.orchestrator.controller;
+
+import io.aparker.otelbrot.orchestrator.model.LeaseCompletion;
+import io.aparker.otelbrot.orchestrator.model.LeaseHeartbeat;
+import io.aparker.otelbrot.orchestrator.model.LeaseRequest;
+import io.aparker.otelbrot.orchestrator.model.TileLease;
+import io.aparker.otelbrot.orchestrator.service.TileLeaseService;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller used by long-running workers to lease tiles
+ */
+@RestController
+@RequestMapping("/api/worker")
+public class WorkerLeaseController {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerLeaseController.class);
+
+    private final TileLeaseService tileLeaseService;
+    private final TextMapPropagator propagator;
+
+    // Getter for extracting context from HTTP headers
+    private static final TextMapGetter<HttpHeaders> GETTER =
+        new TextMapGetter<>() {
+            @Override
+            public Iterable<String> keys(HttpHeaders carrier) {
+                return carrier.keySet();
+            }
+
+            @Override
+            public String get(HttpHeaders carrier, String key) {
+                if (carrier.containsKey(key)) {
+                    return carrier.getFirst(key);
+                }
+                return null;
+            }
+        };
+
+    public WorkerLeaseController(TileLeaseService tileLeaseService, TextMapPropagator propagator) {
+        this.tileLeaseService = tileLeaseService;
+        this.propagator = propagator;
+    }
+
+    /**
+     * Lease a batch of tiles
+     */
+    @WithSpan("WorkerLeaseController.lease")
+    @PostMapping("/lease")
+    public ResponseEntity<Map<String, Object>> lease(@Valid @RequestBody LeaseRequest request) {
+        Span.current().setAttribute("worker.id", request.getWorkerId());
+
+        List<TileLease> leases = tileLeaseService.lease(
+            request.getWorkerId(),
+            request.getMaxTiles() != null ? request.getMaxTiles() : 1,
+            request.getWaitMs() != null ? request.getWaitMs() : 0
+        );
+
+        return ResponseEntity.ok(Map.of(
+            "leases", leases,
+            "leaseTimeoutSeconds", tileLeaseService.getLeaseTimeoutSeconds()
+        ));
+    }
+
+    /**
+     * Extend the leases a worker is still computing
+     */
+    @WithSpan("WorkerLeaseController.heartbeat")
+    @PostMapping("/lease/heartbeat")
+    public ResponseEntity<Map<String, Object>> heartbeat(@Valid @RequestBody LeaseHeartbeat heartbeat) {
+        int renewed = tileLeaseService.heartbeat(heartbeat.getWorkerId(), heartbeat.getLeaseIds());
+
+        return ResponseEntity.ok(Map.of(
+            "renewed", renewed
+        ));
+    }
+
+    /**
+     * Complete a lease with its tile result
+     */
+    @WithSpan("WorkerLeaseController.complete")
+    @PostMapping("/lease/complete")
+    public ResponseEntity<Map<String, String>> complete(
+            @Valid @RequestBody LeaseCompletion completion,
+            @RequestHeader HttpHeaders headers) {
+
+        // Extract context from headers if present
+        Context extractedContext = propagator.extract(Context.current(), headers, GETTER);
+
+        // Switch to the extracted context to maintain trace continuity
+        try (Scope scope = extractedContext.makeCurrent()) {
+            logger.debug("Received lease completion {} from worker {}",
+                completion.getLeaseId(), completion.getWorkerId());
+
+            Span.current().setAttribute("job.id", completion.getResult().getJobId());
+            Span.current().setAttribute("tile.id", completion.getResult().getTileId());
+
+            boolean processed = tileLeaseService.complete(
+                completion.getWorkerId(),
+                completion.getLeaseId(),
+                completion.getResult()
+            );
+
+            // Duplicates are still accepted so the worker moves on
+            return ResponseEntity.accepted().body(Map.of(
+                "status", processed ? "accepted" : "duplicate",
+                "message", processed ? "Tile result processed successfully" : "Tile result already received"
+            ));
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package io.aparker.otelbrot.orchestrator.model;
 
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileOrder;
+import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.Objects;
 import java.util.UUID;
@@ -18,6 +21,13 @@ public class FractalJob {
     private final String colorScheme;
     private final Integer tileSize;
     private final Integer maxConcurrency;
+    private final TileLane lane;
+    private final TileOrder tileOrder;
+    private final Double focusX;
+    private final Double focusY;
+    private final String preciseCenterX;
+    private final String preciseCenterY;
+    private final boolean largeRender;
     private JobStatus status;
     private final ZonedDateTime createdAt;
     private ZonedDateTime updatedAt;
@@ -35,6 +45,13 @@ public class FractalJob {
         this.colorScheme = builder.colorScheme;
         this.tileSize = builder.tileSize;
         this.maxConcurrency = builder.maxConcurrency;
+        this.lane = builder.lane != null ? builder.lane : TileLane.INTERACTIVE;
+        this.tileOrder = builder.tileOrder;
+        this.focusX = builder.focusX;
+        this.focusY = builder.focusY;
+        this.preciseCenterX = builder.preciseCenterX;
+        this.preciseCenterY = builder.preciseCenterY;
+        this.largeRender = builder.largeRender;
         this.status = builder.status;
         this.createdAt = builder.createdAt;
         this.updatedAt = builder.updatedAt;
@@ -55,6 +72,11 @@ public class FractalJob {
                 .colorScheme(request.getColorScheme())
                 .tileSize(request.getTileSize())
                 .maxConcurrency(request.getMaxConcurrency())
+                .lane(TileLane.fromId(request.getPriority()))
+                .tileOrder(TileOrder.fromId(request.getTileOrder()))
+                .focus(request.getFocusX(), request.getFocusY())
+                .preciseCenter(request.getPreciseCenterX(), request.getPreciseCenterY())
+                .largeRender(request.isLargeRender())
                 .status(JobStatus.CREATED)
                 .createdAt(ZonedDateTime.now())
                 .updatedAt(ZonedDateTime.now())
@@ -104,6 +126,95 @@ public class FractalJob {
         return maxConcurrency;
     }
 
+    /**
+     * Priority lane the job's detail tiles are queued in
+     */
+    public TileLane getLane() {
+        return lane;
+    }
+
+    /**
+     * Order the detail tiles are dispatched in, or null for the configured default
+     */
+    public TileOrder getTileOrder() {
+        return tileOrder;
+    }
+
+    public Double getFocusX() {
+        return focusX;
+    }
+
+    public Double getFocusY() {
+        return focusY;
+    }
+
+    /**
+     * Center in full precision for a deep zoom, or null if the double center is exact enough
+     */
+    public String getPreciseCenterX() {
+        return preciseCenterX;
+    }
+
+    public String getPreciseCenterY() {
+        return preciseCenterY;
+    }
+
+    public boolean hasPreciseCenter() {
+        return preciseCenterX != null && preciseCenterY != null;
+    }
+
+    /**
+     * Whether the job's tiles are assembled into a mosaic file and a DeepZoom
+     * pyramid on disk rather than kept in Redis
+     */
+    public boolean isLargeRender() {
+        return largeRender;
+    }
+
+    // Cheapest tier that tells the job's pixels apart, or null if none does
+    private PrecisionTier requiredPrecision() {
+        double magnitude = Math.max(Math.abs(centerX), Math.abs(centerY)) + zoom;
+        return PrecisionTier.forPixelSpacing(magnitude, 2 * zoom / Math.max(Math.max(width, height), 1));
+    }
+
+    /**
+     * Arithmetic the job's tiles iterate their pixels in
+     */
+    public PrecisionTier getPrecision() {
+        PrecisionTier precision = requiredPrecision();
+        return precision != null ? precision : PrecisionTier.DOUBLE;
+    }
+
+    /**
+     * Whether the job is too deep for double-double, and renders by
+     * perturbation against a reference orbit
+     */
+    public boolean isPerturbed() {
+        return requiredPrecision() == null;
+    }
+
+    /**
+     * Point the tile bounds are offsets from, for jobs beyond double
+     * precision: the precise center if given, else the exact value of the
+     * double center. Null when the bounds are absolute.
+     */
+    public String getReferenceX() {
+        return needsReference() ? referenceOf(preciseCenterX, centerX) : null;
+    }
+
+    public String getReferenceY() {
+        return needsReference() ? referenceOf(preciseCenterY, centerY) : null;
+    }
+
+    private boolean needsReference() {
+        PrecisionTier precision = requiredPrecision();
+        return precision == null || precision == PrecisionTier.DOUBLE_DOUBLE;
+    }
+
+    private String referenceOf(String precise, double center) {
+        return hasPreciseCenter() ? precise : new BigDecimal(center).toPlainString();
+    }
+
     public JobStatus getStatus() {
         return status;
     }
@@ -186,6 +297,13 @@ public class FractalJob {
         private String colorScheme;
         private Integer tileSize;
         private Integer maxConcurrency;
+        private TileLane lane;
+        private TileOrder tileOrder;
+        private Double focusX;
+        private Double focusY;
+        private String preciseCenterX;
+        private String preciseCenterY;
+        private boolean largeRender;
         private JobStatus status = JobStatus.CREATED;
         private ZonedDateTime createdAt = ZonedDateTime.now();
         private ZonedDateTime updatedAt = ZonedDateTime.now();
@@ -242,6 +360,33 @@ public class FractalJob {
             return this;
         }
 
+        public Builder lane(TileLane lane) {
+            this.lane = lane;
+            return this;
+        }
+
+        public Builder tileOrder(TileOrder tileOrder) {
+            this.tileOrder = tileOrder;
+            return this;
+        }
+
+        public Builder focus(Double focusX, Double focusY) {
+            this.focusX = focusX;
+            this.focusY = focusY;
+            return this;
+        }
+
+        public Builder preciseCenter(String preciseCenterX, String preciseCenterY) {
+            this.preciseCenterX = preciseCenterX;
+            this.preciseCenterY = preciseCenterY;
+            return this;
+        }
+
+        public Builder largeRender(boolean largeRender) {
+            this.largeRender = largeRender;
+            return this;
+        }
+
         public Builder status(JobStatus status) {
             this.status = status;
             return this;
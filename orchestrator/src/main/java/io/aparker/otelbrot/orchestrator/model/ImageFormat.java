@@ -0,0 +1,36 @@
+package io.aparker.otelbrot.orchestrator.model;
+
+/**
+ * Formats a finished render can be exported in
+ */
+public enum ImageFormat {
+    PNG("image/png", "png"),
+    JPEG("image/jpeg", "jpg");
+
+    private final String contentType;
+    private final String extension;
+
+    ImageFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Format for a request's format name, PNG if none is given; jpg is taken for JPEG
+     */
+    public static ImageFormat fromId(String id) {
+        if (id == null || id.isBlank()) {
+            return PNG;
+        }
+        String name = id.trim().toUpperCase();
+        return "JPG".equals(name) ? JPEG : valueOf(name);
+    }
+}
@@ -0,0 +1,30 @@
+package io.aparker.otelbrot.orchestrator.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+/**
+ * A tile handed to a worker whose result has not come back yet, kept so the
+ * tile can be dispatched again if its worker is lost
+ */
+public class InFlightTile {
+    private final TileLane lane;
+    private final TileSpec tileSpec;
+
+    @JsonCreator
+    public InFlightTile(
+            @JsonProperty("lane") TileLane lane,
+            @JsonProperty("tileSpec") TileSpec tileSpec) {
+        this.lane = lane;
+        this.tileSpec = tileSpec;
+    }
+
+    public TileLane getLane() {
+        return lane;
+    }
+
+    public TileSpec getTileSpec() {
+        return tileSpec;
+    }
+}
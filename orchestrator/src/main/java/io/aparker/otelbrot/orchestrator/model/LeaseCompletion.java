@@ -0,0 +1,53 @@
+package io.aparker.otelbrot.orchestrator.model;
+
+import io.aparker.otelbrot.commons.model.TileResult;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A leased tile's result reported back by a pull-based worker
+ */
+public class LeaseCompletion {
+
+    @NotBlank
+    private String workerId;
+
+    @NotBlank
+    private String leaseId;
+
+    @NotNull
+    private TileResult result;
+
+    public LeaseCompletion() {
+    }
+
+    public LeaseCompletion(String workerId, String leaseId, TileResult result) {
+        this.workerId = workerId;
+        this.leaseId = leaseId;
+        this.result = result;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+
+    public String getLeaseId() {
+        return leaseId;
+    }
+
+    public void setLeaseId(String leaseId) {
+        this.leaseId = leaseId;
+    }
+
+    public TileResult getResult() {
+        return result;
+    }
+
+    public void setResult(TileResult result) {
+        this.result = result;
+    }
+}
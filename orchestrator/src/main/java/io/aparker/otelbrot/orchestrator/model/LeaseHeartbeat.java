@@ -0,0 +1,40 @@
+package io.aparker.otelbrot.orchestrator.model;
+
+import jakarta.validation.constraints.NotBlank;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heartbeat from a pull-based worker extending the leases it still holds
+ */
+public class LeaseHeartbeat {
+
+    @NotBlank
+    private String workerId;
+
+    private List<String> leaseIds = new ArrayList<>();
+
+    public LeaseHeartbeat() {
+    }
+
+    public LeaseHeartbeat(String workerId, List<String> leaseIds) {
+        this.workerId = workerId;
+        this.leaseIds = leaseIds;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+
+    public List<String> getLeaseIds() {
+        return leaseIds;
+    }
+
+    public void setLeaseIds(List<String> leaseIds) {
+        this.leaseIds = leaseIds;
+    }
+}
@@ -0,0 +1,55 @@
+package io.aparker.otelbrot.orchestrator.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Request from a pull-based worker for a batch of tiles
+ */
+public class LeaseRequest {
+
+    @NotBlank
+    private String workerId;
+
+    @Min(value = 1, message = "Max tiles must be at least 1")
+    @Max(value = 256, message = "Max tiles cannot exceed 256")
+    private Integer maxTiles = 1;
+
+    @Min(value = 0, message = "Wait time cannot be negative")
+    @Max(value = 30000, message = "Wait time cannot exceed 30000ms")
+    private Integer waitMs = 0;
+
+    public LeaseRequest() {
+    }
+
+    public LeaseRequest(String workerId, Integer maxTiles, Integer waitMs) {
+        this.workerId = workerId;
+        this.maxTiles = maxTiles;
+        this.waitMs = waitMs;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+
+    public Integer getMaxTiles() {
+        return maxTiles;
+    }
+
+    public void setMaxTiles(Integer maxTiles) {
+        this.maxTiles = maxTiles;
+    }
+
+    public Integer getWaitMs() {
+        return waitMs;
+    }
+
+    public void setWaitMs(Integer waitMs) {
+        this.waitMs = waitMs;
+    }
+}
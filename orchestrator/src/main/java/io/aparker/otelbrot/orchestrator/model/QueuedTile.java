@@ -0,0 +1,49 @@
+package io.aparker.otelbrot.orchestrator.model;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+/**
+ * A tile read from the job queue together with the trace context it was queued under
+ */
+public class QueuedTile {
+    private final TileLane lane;
+    private final String recordId;
+    private final TileSpec tileSpec;
+    private final String traceparent;
+    private final String tracestate;
+
+    public QueuedTile(TileLane lane, String recordId, TileSpec tileSpec, String traceparent, String tracestate) {
+        this.lane = lane;
+        this.recordId = recordId;
+        this.tileSpec = tileSpec;
+        this.traceparent = traceparent;
+        this.tracestate = tracestate;
+    }
+
+    public TileLane getLane() {
+        return lane;
+    }
+
+    public String getRecordId() {
+        return recordId;
+    }
+
+    /**
+     * Id of the entry across all lanes, in the form lane:recordId
+     */
+    public String getQueueId() {
+        return lane.getId() + ":" + recordId;
+    }
+
+    public TileSpec getTileSpec() {
+        return tileSpec;
+    }
+
+    public String getTraceparent() {
+        return traceparent;
+    }
+
+    public String getTracestate() {
+        return tracestate;
+    }
+}
@@ -1,14 +1,26 @@
 package io.aparker.otelbrot.orchestrator.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 /**
  * Represents a request to render a fractal with specific parameters
  */
 public class RenderRequest {
+
+    // Plain or scientific decimal notation, as BigDecimal parses it
+    private static final String DECIMAL = "[-+]?[0-9]+(\\.[0-9]+)?([eE][-+]?[0-9]+)?";
+
+    // Limits of a render shown in the browser; large renders go up to the
+    // limits on the fields, the largest a JPEG export can hold, into a
+    // mosaic file on disk instead of Redis
+    public static final int MAX_DIMENSION = 4096;
+    public static final int MAX_TILE_SIZE = 512;
     
     @NotNull
     private Double centerX;
@@ -27,12 +39,12 @@ public class RenderRequest {
     
     @NotNull
     @Min(value = 1, message = "Width must be at least 1")
-    @Max(value = 4096, message = "Width cannot exceed 4096")
+    @Max(value = 65535, message = "Width cannot exceed 65535")
     private Integer width;
     
     @NotNull
     @Min(value = 1, message = "Height must be at least 1")
-    @Max(value = 4096, message = "Height cannot exceed 4096")
+    @Max(value = 65535, message = "Height cannot exceed 65535")
     private Integer height;
     
     @NotNull
@@ -40,12 +52,37 @@ public class RenderRequest {
     private String colorScheme;
     
     @Min(value = 64, message = "Tile size must be at least 64")
-    @Max(value = 512, message = "Tile size cannot exceed 512")
+    @Max(value = 2048, message = "Tile size cannot exceed 2048")
     private Integer tileSize;
     
     @Min(value = 1, message = "Max concurrency must be at least 1")
     @Max(value = 100, message = "Max concurrency cannot exceed 100")
     private Integer maxConcurrency = 10;
+
+    // Queue lane for the detail tiles; background renders yield to interactive ones
+    @Pattern(regexp = "(?i)interactive|background", message = "Priority must be interactive or background")
+    private String priority;
+
+    // Order the detail tiles are dispatched in, and the point a spiral starts from
+    @Pattern(regexp = "(?i)raster|spiral|hilbert", message = "Tile order must be raster, spiral or hilbert")
+    private String tileOrder;
+
+    private Double focusX;
+
+    private Double focusY;
+
+    // Center as decimal strings with as many digits as the zoom needs; when
+    // both are set, zooms beyond double precision render around that point
+    // and centerX/centerY only need to be its nearest doubles
+    @Pattern(regexp = DECIMAL, message = "Precise center X must be a decimal number")
+    @Size(max = 400, message = "Precise center X cannot exceed 400 characters")
+    private String preciseCenterX;
+
+    @Pattern(regexp = DECIMAL, message = "Precise center Y must be a decimal number")
+    @Size(max = 400, message = "Precise center Y cannot exceed 400 characters")
+    private String preciseCenterY;
+
+    private Boolean largeRender;
     
     // Constructors
     public RenderRequest() {}
@@ -159,4 +196,74 @@ public class RenderRequest {
     public void setMaxConcurrency(Integer maxConcurrency) {
         this.maxConcurrency = maxConcurrency;
     }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public String getTileOrder() {
+        return tileOrder;
+    }
+
+    public void setTileOrder(String tileOrder) {
+        this.tileOrder = tileOrder;
+    }
+
+    public Double getFocusX() {
+        return focusX;
+    }
+
+    public void setFocusX(Double focusX) {
+        this.focusX = focusX;
+    }
+
+    public Double getFocusY() {
+        return focusY;
+    }
+
+    public void setFocusY(Double focusY) {
+        this.focusY = focusY;
+    }
+
+    public String getPreciseCenterX() {
+        return preciseCenterX;
+    }
+
+    public void setPreciseCenterX(String preciseCenterX) {
+        this.preciseCenterX = preciseCenterX;
+    }
+
+    public String getPreciseCenterY() {
+        return preciseCenterY;
+    }
+
+    public void setPreciseCenterY(String preciseCenterY) {
+        this.preciseCenterY = preciseCenterY;
+    }
+
+    public Boolean getLargeRender() {
+        return largeRender;
+    }
+
+    public void setLargeRender(Boolean largeRender) {
+        this.largeRender = largeRender;
+    }
+
+    @JsonIgnore
+    public boolean isLargeRender() {
+        return Boolean.TRUE.equals(largeRender);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Width and height cannot exceed 4096 and tile size 512 unless largeRender is set")
+    public boolean isWithinSizeLimits() {
+        return isLargeRender()
+            || ((width == null || width <= MAX_DIMENSION)
+                && (height == null || height <= MAX_DIMENSION)
+                && (tileSize == null || tileSize <= MAX_TILE_SIZE));
+    }
 }
\ No newline at end of file
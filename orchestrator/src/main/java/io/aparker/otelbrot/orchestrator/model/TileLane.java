@@ -0,0 +1,50 @@
+package io.aparker.otelbrot.orchestrator.model;
+
+/**
+ * Priority lanes for queued tiles, highest priority first. Each lane is its
+ * own Redis Stream; the interactive lane keeps the original stream name.
+ */
+public enum TileLane {
+    PREVIEW("otelbrot-jobs:preview"),
+    INTERACTIVE("otelbrot-jobs"),
+    BACKGROUND("otelbrot-jobs:background");
+
+    private final String streamName;
+
+    TileLane(String streamName) {
+        this.streamName = streamName;
+    }
+
+    public String getStreamName() {
+        return streamName;
+    }
+
+    /**
+     * Short lowercase name used in requests, configuration and lease ids
+     */
+    public String getId() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Lane for a request's priority name, interactive if none is given
+     */
+    public static TileLane fromId(String id) {
+        if (id == null || id.isBlank()) {
+            return INTERACTIVE;
+        }
+        return valueOf(id.trim().toUpperCase());
+    }
+
+    /**
+     * Lane whose stream has the given name
+     */
+    public static TileLane fromStreamName(String streamName) {
+        for (TileLane lane : values()) {
+            if (lane.streamName.equals(streamName)) {
+                return lane;
+            }
+        }
+        throw new IllegalArgumentException("Unknown tile stream: " + streamName);
+    }
+}
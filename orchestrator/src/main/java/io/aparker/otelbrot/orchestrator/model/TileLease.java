@@ -0,0 +1,65 @@
+package io.aparker.otelbrot.orchestrator.model;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+/**
+ * A tile handed to a pull-based worker. The lease id must be sent back with
+ * heartbeats and the completed result.
+ */
+public class TileLease {
+    private String leaseId;
+    private TileSpec tileSpec;
+    private String traceparent;
+    private String tracestate;
+
+    public TileLease() {
+    }
+
+    public TileLease(String leaseId, TileSpec tileSpec, String traceparent, String tracestate) {
+        this.leaseId = leaseId;
+        this.tileSpec = tileSpec;
+        this.traceparent = traceparent;
+        this.tracestate = tracestate;
+    }
+
+    public static TileLease fromQueuedTile(QueuedTile queuedTile) {
+        return new TileLease(
+            queuedTile.getQueueId(),
+            queuedTile.getTileSpec(),
+            queuedTile.getTraceparent(),
+            queuedTile.getTracestate()
+        );
+    }
+
+    public String getLeaseId() {
+        return leaseId;
+    }
+
+    public void setLeaseId(String leaseId) {
+        this.leaseId = leaseId;
+    }
+
+    public TileSpec getTileSpec() {
+        return tileSpec;
+    }
+
+    public void setTileSpec(TileSpec tileSpec) {
+        this.tileSpec = tileSpec;
+    }
+
+    public String getTraceparent() {
+        return traceparent;
+    }
+
+    public void setTraceparent(String traceparent) {
+        this.traceparent = traceparent;
+    }
+
+    public String getTracestate() {
+        return tracestate;
+    }
+
+    public void setTracestate(String tracestate) {
+        this.tracestate = tracestate;
+    }
+}
@@ -0,0 +1,119 @@
+package io.aparker.otelbrot.orchestrator.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.InFlightTile;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Leases on tiles handed to push-based workers. Each in-flight tile has a
+ * deadline in a sorted set and its spec in a hash, so a tile whose worker
+ * was lost can be found and dispatched again by any orchestrator instance.
+ */
+@Repository
+public class InFlightTileRepository {
+    private static final Logger logger = LoggerFactory.getLogger(InFlightTileRepository.class);
+
+    public static final String DEADLINES_KEY = "otelbrot:inflight";
+    public static final String TILES_KEY = "otelbrot:inflight:tiles";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public InFlightTileRepository(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Lease a tile until the deadline, replacing any earlier lease on it
+     */
+    public void track(TileSpec tileSpec, TileLane lane, Instant deadline) {
+        String member = member(tileSpec.getJobId(), tileSpec.getTileId());
+        try {
+            String json = objectMapper.writeValueAsString(new InFlightTile(lane, tileSpec));
+            redisTemplate.opsForHash().put(TILES_KEY, member, json);
+            redisTemplate.opsForZSet().add(DEADLINES_KEY, member, deadline.toEpochMilli());
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize in-flight tile {}: {}", member, e.getMessage());
+        }
+    }
+
+    /**
+     * Release the lease of a tile whose result came in
+     *
+     * @return true if the tile was still leased
+     */
+    public boolean complete(String jobId, String tileId) {
+        String member = member(jobId, tileId);
+        Long removed = redisTemplate.opsForZSet().remove(DEADLINES_KEY, member);
+        redisTemplate.opsForHash().delete(TILES_KEY, member);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * End a tile's lease now, when its worker is known to be lost, so the
+     * next reclaim pass dispatches it again
+     *
+     * @return true if the tile was still leased
+     */
+    public boolean expire(String jobId, String tileId) {
+        String member = member(jobId, tileId);
+        if (redisTemplate.opsForZSet().score(DEADLINES_KEY, member) == null) {
+            return false;
+        }
+        // A tile completed meanwhile leaves a deadline without a spec, which
+        // claimExpired drops
+        redisTemplate.opsForZSet().add(DEADLINES_KEY, member, 0);
+        return true;
+    }
+
+    /**
+     * Take over up to count tiles whose lease ran out. Removing the deadline
+     * is the claim, so each expired tile goes to exactly one caller.
+     */
+    public List<InFlightTile> claimExpired(Instant now, int count) {
+        List<InFlightTile> claimed = new ArrayList<>();
+        Set<String> expired = redisTemplate.opsForZSet()
+            .rangeByScore(DEADLINES_KEY, 0, now.toEpochMilli(), 0, count);
+        if (expired == null) {
+            return claimed;
+        }
+
+        for (String member : expired) {
+            Long removed = redisTemplate.opsForZSet().remove(DEADLINES_KEY, member);
+            if (removed == null || removed == 0) {
+                continue; // Claimed by another instance, or completed meanwhile
+            }
+            Object json = redisTemplate.opsForHash().get(TILES_KEY, member);
+            redisTemplate.opsForHash().delete(TILES_KEY, member);
+            if (json == null) {
+                continue;
+            }
+            try {
+                claimed.add(objectMapper.readValue(json.toString(), InFlightTile.class));
+            } catch (JsonProcessingException e) {
+                logger.warn("Dropping unreadable in-flight tile {}: {}", member, e.getMessage());
+            }
+        }
+        return claimed;
+    }
+
+    public long count() {
+        Long size = redisTemplate.opsForZSet().size(DEADLINES_KEY);
+        return size != null ? size : 0;
+    }
+
+    private static String member(String jobId, String tileId) {
+        return jobId + ":" + tileId;
+    }
+}
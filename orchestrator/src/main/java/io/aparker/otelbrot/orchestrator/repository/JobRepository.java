@@ -1,7 +1,9 @@
 package io.aparker.otelbrot.orchestrator.repository;
 
+import io.aparker.otelbrot.commons.model.TileOrder;
 import io.aparker.otelbrot.orchestrator.model.FractalJob;
 import io.aparker.otelbrot.orchestrator.model.JobStatus;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -45,6 +47,27 @@ public class JobRepository {
         jobMap.put("updatedAt", DATETIME_FORMATTER.format(job.getUpdatedAt()));
         jobMap.put("completedTiles", String.valueOf(job.getCompletedTiles()));
         jobMap.put("totalTiles", String.valueOf(job.getTotalTiles()));
+        jobMap.put("lane", job.getLane().name());
+        if (job.getTileOrder() != null) {
+            jobMap.put("tileOrder", job.getTileOrder().name());
+        }
+        if (job.getFocusX() != null && job.getFocusY() != null) {
+            jobMap.put("focusX", String.valueOf(job.getFocusX()));
+            jobMap.put("focusY", String.valueOf(job.getFocusY()));
+        }
+        if (job.hasPreciseCenter()) {
+            jobMap.put("preciseCenterX", job.getPreciseCenterX());
+            jobMap.put("preciseCenterY", job.getPreciseCenterY());
+        }
+        if (job.isLargeRender()) {
+            jobMap.put("largeRender", "true");
+        }
+        if (job.getTileSize() != null) {
+            jobMap.put("tileSize", String.valueOf(job.getTileSize()));
+        }
+        if (job.getMaxConcurrency() != null) {
+            jobMap.put("maxConcurrency", String.valueOf(job.getMaxConcurrency()));
+        }
         
         redisTemplate.opsForHash().putAll(key, jobMap);
     }
@@ -76,28 +99,67 @@ public class JobRepository {
         }
     }
 
+    /**
+     * Update the total tile count of a job
+     * Only the total is written so tiles completed in the meantime are not overwritten
+     */
+    public void updateTotalTiles(String jobId, int totalTiles) {
+        String key = getJobKey(jobId);
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            return;
+        }
+        redisTemplate.opsForHash().putAll(key, Map.of(
+                "totalTiles", String.valueOf(totalTiles),
+                "updatedAt", DATETIME_FORMATTER.format(ZonedDateTime.now())));
+    }
+
     /**
      * Update the status of a job
+     * Only the status fields are written so concurrent tile updates are not overwritten
      */
     public void updateStatus(String jobId, JobStatus status) {
-        Optional<FractalJob> optionalJob = findById(jobId);
-        if (optionalJob.isPresent()) {
-            FractalJob job = optionalJob.get();
-            job.setStatus(status);
-            save(job);
+        String key = getJobKey(jobId);
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            return;
         }
+        redisTemplate.opsForHash().putAll(key, Map.of(
+                "status", status.name(),
+                "updatedAt", DATETIME_FORMATTER.format(ZonedDateTime.now())));
     }
 
     /**
-     * Increment completed tiles count
+     * Atomically increment completed tiles count
+     *
+     * @return the completed tile count after the increment, or 0 if the job doesn't exist
      */
-    public void incrementCompletedTiles(String jobId) {
-        Optional<FractalJob> optionalJob = findById(jobId);
-        if (optionalJob.isPresent()) {
-            FractalJob job = optionalJob.get();
-            job.incrementCompletedTiles();
-            save(job);
+    public long incrementCompletedTiles(String jobId) {
+        String key = getJobKey(jobId);
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            return 0;
         }
+        Long completed = redisTemplate.opsForHash().increment(key, "completedTiles", 1);
+        redisTemplate.opsForHash().put(key, "updatedAt", DATETIME_FORMATTER.format(ZonedDateTime.now()));
+        return completed != null ? completed : 0;
+    }
+
+    /**
+     * Record that a tile of the job has reported a result
+     *
+     * @return true the first time, false for a duplicate result of the same tile
+     */
+    public boolean markTileCompleted(String jobId, String tileId) {
+        Long added = redisTemplate.opsForSet().add(getJobKey(jobId) + ":completed", tileId);
+        return added != null && added > 0;
+    }
+
+    /**
+     * Count another dispatch of a tile whose worker was lost
+     *
+     * @return the number of times the tile has been dispatched again
+     */
+    public long incrementTileRetries(String jobId, String tileId) {
+        Long retries = redisTemplate.opsForHash().increment(getJobKey(jobId) + ":retries", tileId, 1);
+        return retries != null ? retries : 0;
     }
 
     private String getJobKey(String jobId) {
@@ -119,6 +181,13 @@ public class JobRepository {
                 .updatedAt(ZonedDateTime.parse(getString(jobMap, "updatedAt"), DATETIME_FORMATTER))
                 .completedTiles(getInteger(jobMap, "completedTiles"))
                 .totalTiles(getInteger(jobMap, "totalTiles"))
+                .tileSize(getInteger(jobMap, "tileSize"))
+                .maxConcurrency(getInteger(jobMap, "maxConcurrency"))
+                .lane(getString(jobMap, "lane") != null ? TileLane.valueOf(getString(jobMap, "lane")) : null)
+                .tileOrder(getString(jobMap, "tileOrder") != null ? TileOrder.valueOf(getString(jobMap, "tileOrder")) : null)
+                .focus(getDouble(jobMap, "focusX"), getDouble(jobMap, "focusY"))
+                .preciseCenter(getString(jobMap, "preciseCenterX"), getString(jobMap, "preciseCenterY"))
+                .largeRender(Boolean.parseBoolean(getString(jobMap, "largeRender")))
                 .build();
     }
 
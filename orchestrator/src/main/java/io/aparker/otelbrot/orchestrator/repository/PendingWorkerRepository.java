@@ -0,0 +1,87 @@
+package io.aparker.otelbrot.orchestrator.repository;
+
+import io.aparker.otelbrot.orchestrator.worker.WorkerInfo;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Workers an orchestrator submitted whose Job isn't created yet, published
+ * so that every orchestrator counts them as observed. Each has a deadline
+ * in a sorted set and its name and tiles in a hash, keyed by its slot; the
+ * orchestrator creating it renews the deadline while the create is held
+ * back, so the workers of a replica that went away drop out on their own.
+ */
+@Repository
+public class PendingWorkerRepository {
+
+    public static final String DEADLINES_KEY = "otelbrot:workers:pending";
+    public static final String WORKERS_KEY = "otelbrot:workers:pending:info";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public PendingWorkerRepository(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Publish a pending worker until the deadline, replacing any earlier deadline
+     */
+    public void publish(WorkerInfo worker, Instant deadline) {
+        String slotKey = slotKey(worker);
+        redisTemplate.opsForHash().put(WORKERS_KEY, slotKey,
+            worker.getName() + "|" + String.join(",", worker.getTileIds()));
+        redisTemplate.opsForZSet().add(DEADLINES_KEY, slotKey, deadline.toEpochMilli());
+    }
+
+    /**
+     * Withdraw a worker whose Job was created, or could not be
+     */
+    public void remove(String slotKey) {
+        redisTemplate.opsForZSet().remove(DEADLINES_KEY, slotKey);
+        redisTemplate.opsForHash().delete(WORKERS_KEY, slotKey);
+    }
+
+    /**
+     * Workers published by any orchestrator whose deadline hasn't passed,
+     * dropping those whose deadline has
+     */
+    public List<WorkerInfo> findPending(Instant now) {
+        Set<String> expired = redisTemplate.opsForZSet().rangeByScore(DEADLINES_KEY, 0, now.toEpochMilli());
+        if (expired != null && !expired.isEmpty()) {
+            redisTemplate.opsForZSet().remove(DEADLINES_KEY, expired.toArray());
+            redisTemplate.opsForHash().delete(WORKERS_KEY, expired.toArray());
+        }
+
+        List<WorkerInfo> workers = new ArrayList<>();
+        Set<String> live = redisTemplate.opsForZSet().rangeByScore(DEADLINES_KEY, now.toEpochMilli(), Double.MAX_VALUE);
+        if (live == null || live.isEmpty()) {
+            return workers;
+        }
+        List<String> slotKeys = new ArrayList<>(live);
+        List<Object> infos = redisTemplate.opsForHash().multiGet(WORKERS_KEY, new ArrayList<>(slotKeys));
+        for (int i = 0; i < slotKeys.size(); i++) {
+            Object info = infos.get(i);
+            int separator = slotKeys.get(i).indexOf(':');
+            if (info == null || separator < 0) {
+                continue;
+            }
+            String[] parts = info.toString().split("\\|", 2);
+            workers.add(new WorkerInfo(
+                parts[0],
+                slotKeys.get(i).substring(0, separator),
+                slotKeys.get(i).substring(separator + 1),
+                parts.length < 2 || parts[1].isEmpty() ? List.of() : Arrays.asList(parts[1].split(","))
+            ));
+        }
+        return workers;
+    }
+
+    public static String slotKey(WorkerInfo worker) {
+        return worker.getJobId() + ":" + worker.getSlotId();
+    }
+}
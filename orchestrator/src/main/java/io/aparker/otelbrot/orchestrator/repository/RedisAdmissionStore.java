@@ -0,0 +1,202 @@
+package io.aparker.otelbrot.orchestrator.repository;
+
+import io.aparker.otelbrot.orchestrator.service.AdmissionStore;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Admission store shared by every orchestrator replica. Slot counts and
+ * outstanding tiles live in Redis and each change is one Lua script, so
+ * the limits hold across replicas and a slot taken by one replica can be
+ * given back by whichever replica receives its last result.
+ * <p>
+ * A job's slots and tiles are in keys of their own, so a job is removed by
+ * deleting them. Every key a script touches is passed in KEYS, and all of
+ * them share the {otelbrot:admission} hash tag: each script also updates
+ * the global slot count, so on Redis Cluster they must be in one slot.
+ */
+public class RedisAdmissionStore implements AdmissionStore {
+
+    private static final String PREFIX = "{otelbrot:admission}:";
+
+    // Slots held across all jobs, and a hash of the slots held per job
+    public static final String ACTIVE_KEY = PREFIX + "active";
+    public static final String JOBS_KEY = PREFIX + "jobs";
+
+    // Gives back one of a job's slots; KEYS[1] active, KEYS[2] jobs
+    private static final String GIVE_BACK =
+        "local function giveBack(jobId)\n"
+        + "  local held = tonumber(redis.call('HGET', KEYS[2], jobId) or '0')\n"
+        + "  if held <= 0 then return end\n"
+        + "  if held == 1 then redis.call('HDEL', KEYS[2], jobId)\n"
+        + "  else redis.call('HINCRBY', KEYS[2], jobId, -1) end\n"
+        + "  if tonumber(redis.call('GET', KEYS[1]) or '0') > 0 then redis.call('DECR', KEYS[1]) end\n"
+        + "end\n";
+
+    // KEYS: active, jobs, job slots, job tiles
+    // ARGV: jobId, slotKey, jobLimit, globalLimit, bypass, tileIds...
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+        "if redis.call('HEXISTS', KEYS[3], ARGV[2]) == 1 then return 3 end\n"
+        + "if ARGV[5] ~= '1' then\n"
+        + "  if tonumber(redis.call('GET', KEYS[1]) or '0') >= tonumber(ARGV[4]) then return 1 end\n"
+        + "  if tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0') >= tonumber(ARGV[3]) then return 2 end\n"
+        + "end\n"
+        + "redis.call('INCR', KEYS[1])\n"
+        + "redis.call('HINCRBY', KEYS[2], ARGV[1], 1)\n"
+        + "redis.call('HSET', KEYS[3], ARGV[2], #ARGV - 5)\n"
+        + "for i = 6, #ARGV do\n"
+        + "  redis.call('HSET', KEYS[4], ARGV[i], ARGV[2])\n"
+        + "end\n"
+        + "return 0\n",
+        Long.class
+    );
+
+    // KEYS: active, jobs, job slots, job tiles; ARGV: jobId, tileId
+    private static final RedisScript<Long> RELEASE_TILE = new DefaultRedisScript<>(
+        GIVE_BACK
+        + "local slotKey = redis.call('HGET', KEYS[4], ARGV[2])\n"
+        + "if not slotKey then return 0 end\n"
+        + "redis.call('HDEL', KEYS[4], ARGV[2])\n"
+        + "if redis.call('HEXISTS', KEYS[3], slotKey) == 0 then return 0 end\n"
+        + "if redis.call('HINCRBY', KEYS[3], slotKey, -1) > 0 then return 0 end\n"
+        + "redis.call('HDEL', KEYS[3], slotKey)\n"
+        + "giveBack(ARGV[1])\n"
+        + "return 1\n",
+        Long.class
+    );
+
+    // KEYS: active, jobs, job slots, job tiles; ARGV: jobId, slotKey
+    // Returns an empty list if the slot wasn't held, else "held" and the outstanding tiles
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RELEASE_SLOT = new DefaultRedisScript<>(
+        GIVE_BACK
+        + "if redis.call('HDEL', KEYS[3], ARGV[2]) == 0 then return {} end\n"
+        + "local result = {'held'}\n"
+        + "local tiles = redis.call('HGETALL', KEYS[4])\n"
+        + "for i = 1, #tiles, 2 do\n"
+        + "  if tiles[i + 1] == ARGV[2] then\n"
+        + "    redis.call('HDEL', KEYS[4], tiles[i])\n"
+        + "    table.insert(result, tiles[i])\n"
+        + "  end\n"
+        + "end\n"
+        + "giveBack(ARGV[1])\n"
+        + "return result\n",
+        List.class
+    );
+
+    // KEYS: active, jobs, job slots, job tiles; ARGV: jobId
+    private static final RedisScript<Long> REMOVE_JOB = new DefaultRedisScript<>(
+        "redis.call('DEL', KEYS[3], KEYS[4])\n"
+        + "local held = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')\n"
+        + "redis.call('HDEL', KEYS[2], ARGV[1])\n"
+        + "local active = tonumber(redis.call('GET', KEYS[1]) or '0')\n"
+        + "redis.call('DECRBY', KEYS[1], math.min(held, active))\n"
+        + "return held\n",
+        Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisAdmissionStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public int acquire(String jobId, String slotKey, List<String> tileIds, int jobLimit, int globalLimit, boolean bypassLimits) {
+        List<String> args = new ArrayList<>(tileIds.size() + 5);
+        args.add(jobId);
+        args.add(slotKey);
+        args.add(String.valueOf(jobLimit));
+        args.add(String.valueOf(globalLimit));
+        args.add(bypassLimits ? "1" : "0");
+        args.addAll(tileIds);
+        Long result = redisTemplate.execute(
+            ACQUIRE,
+            jobKeys(jobId),
+            args.toArray()
+        );
+        return result != null ? result.intValue() : REJECTED_GLOBAL;
+    }
+
+    @Override
+    public boolean releaseTile(String jobId, String tileId) {
+        Long released = redisTemplate.execute(
+            RELEASE_TILE,
+            jobKeys(jobId),
+            jobId,
+            tileId
+        );
+        return released != null && released == 1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> releaseSlot(String jobId, String slotKey) {
+        List<String> result = redisTemplate.execute(
+            RELEASE_SLOT,
+            jobKeys(jobId),
+            jobId,
+            slotKey
+        );
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        return List.copyOf(result.subList(1, result.size()));
+    }
+
+    @Override
+    public int removeJob(String jobId) {
+        Long held = redisTemplate.execute(
+            REMOVE_JOB,
+            jobKeys(jobId),
+            jobId
+        );
+        return held != null ? held.intValue() : 0;
+    }
+
+    @Override
+    public int getActiveCount() {
+        String active = redisTemplate.opsForValue().get(ACTIVE_KEY);
+        return active != null ? Integer.parseInt(active) : 0;
+    }
+
+    @Override
+    public int getActiveCount(String jobId) {
+        Object active = redisTemplate.opsForHash().get(JOBS_KEY, jobId);
+        return active != null ? Integer.parseInt(active.toString()) : 0;
+    }
+
+    @Override
+    public Set<String> getSlotKeys() {
+        Set<String> slotKeys = new HashSet<>();
+        for (Object jobId : redisTemplate.opsForHash().keys(JOBS_KEY)) {
+            for (Object slotKey : redisTemplate.opsForHash().keys(jobSlotsKey(jobId.toString()))) {
+                slotKeys.add(slotKey.toString());
+            }
+        }
+        return slotKeys;
+    }
+
+    /**
+     * Hash of a job's held slots and how many of their tiles are outstanding
+     */
+    public static String jobSlotsKey(String jobId) {
+        return PREFIX + "job:" + jobId + ":slots";
+    }
+
+    /**
+     * Hash of a job's outstanding tiles and the slot each is waiting in
+     */
+    public static String jobTilesKey(String jobId) {
+        return PREFIX + "job:" + jobId + ":tiles";
+    }
+
+    private static List<String> jobKeys(String jobId) {
+        return List.of(ACTIVE_KEY, JOBS_KEY, jobSlotsKey(jobId), jobTilesKey(jobId));
+    }
+}
@@ -0,0 +1,71 @@
+package io.aparker.otelbrot.orchestrator.repository;
+
+import io.aparker.otelbrot.commons.calculator.ReferenceOrbit;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository for the reference orbits of deep zoom jobs, shared in Redis
+ * with every replica and worker that calculates the job's tiles
+ */
+@Repository
+public class ReferenceOrbitRepository {
+    private static final String ORBIT_KEY_PREFIX = "orbit:";
+    private static final Duration ORBIT_TTL = Duration.ofDays(1);
+
+    // Orbits of the most recent jobs, so tiles calculated in-process don't decode the orbit each time
+    private static final int CACHED_ORBITS = 8;
+
+    private final RedisTemplate<String, byte[]> byteRedisTemplate;
+    private final Map<String, ReferenceOrbit> recentOrbits = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReferenceOrbit> eldest) {
+            return size() > CACHED_ORBITS;
+        }
+    };
+
+    public ReferenceOrbitRepository(RedisTemplate<String, byte[]> byteRedisTemplate) {
+        this.byteRedisTemplate = byteRedisTemplate;
+    }
+
+    /**
+     * Save the reference orbit of a job
+     */
+    public void save(String jobId, ReferenceOrbit orbit) {
+        byteRedisTemplate.opsForValue().set(ORBIT_KEY_PREFIX + jobId, orbit.encode(), ORBIT_TTL);
+        synchronized (recentOrbits) {
+            recentOrbits.put(jobId, orbit);
+        }
+    }
+
+    /**
+     * Reference orbit of a job as encoded for workers
+     */
+    public Optional<byte[]> findEncoded(String jobId) {
+        return Optional.ofNullable(byteRedisTemplate.opsForValue().get(ORBIT_KEY_PREFIX + jobId));
+    }
+
+    /**
+     * Reference orbit of a job
+     */
+    public Optional<ReferenceOrbit> findByJobId(String jobId) {
+        synchronized (recentOrbits) {
+            ReferenceOrbit orbit = recentOrbits.get(jobId);
+            if (orbit != null) {
+                return Optional.of(orbit);
+            }
+        }
+        Optional<ReferenceOrbit> orbit = findEncoded(jobId).map(ReferenceOrbit::decode);
+        orbit.ifPresent(found -> {
+            synchronized (recentOrbits) {
+                recentOrbits.put(jobId, found);
+            }
+        });
+        return orbit;
+    }
+}
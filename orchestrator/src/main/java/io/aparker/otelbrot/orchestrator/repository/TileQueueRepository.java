@@ -0,0 +1,523 @@
+package io.aparker.otelbrot.orchestrator.repository;
+
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.QueuedTile;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for the Redis Streams of tiles waiting for a worker, one per {@link TileLane}
+ */
+@Repository
+public class TileQueueRepository {
+    private static final Logger logger = LoggerFactory.getLogger(TileQueueRepository.class);
+
+    public static final String STREAM_NAME = TileLane.INTERACTIVE.getStreamName();
+    public static final String CONSUMER_GROUP = "worker-group";
+
+    private static final TileLane[] LANES = TileLane.values();
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Relative share of reads each lane gets while several lanes have tiles waiting
+    private final int[] laneWeights;
+    private final int totalWeight;
+
+    // Smooth weighted round-robin state, one credit per lane
+    private final int[] laneCredits = new int[LANES.length];
+
+    // Whether the streams and consumer groups are known to exist
+    private volatile boolean initialized = false;
+
+    public TileQueueRepository(
+        StringRedisTemplate redisTemplate,
+        @Value("${app.queue.lane-weights.preview:8}") int previewWeight,
+        @Value("${app.queue.lane-weights.interactive:4}") int interactiveWeight,
+        @Value("${app.queue.lane-weights.background:1}") int backgroundWeight
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.laneWeights = new int[] {
+            Math.max(previewWeight, 1),
+            Math.max(interactiveWeight, 1),
+            Math.max(backgroundWeight, 1)
+        };
+        int total = 0;
+        for (int weight : laneWeights) {
+            total += weight;
+        }
+        this.totalWeight = total;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Initialize the Redis Stream and Consumer Group of every lane
+     * @return true if all streams and consumer groups are ready, false otherwise
+     */
+    public boolean initialize() {
+        boolean ready = true;
+        for (TileLane lane : LANES) {
+            ready &= initializeLane(lane.getStreamName());
+        }
+        initialized = ready;
+        return ready;
+    }
+
+    private boolean initializeLane(String streamName) {
+        logger.info("Initializing Redis Stream: {} and Consumer Group: {}", streamName, CONSUMER_GROUP);
+
+        try {
+            // First check if the stream exists
+            Boolean streamExists = redisTemplate.hasKey(streamName);
+
+            // Create a simple initialization message
+            Map<String, String> initMessage = new HashMap<>();
+            initMessage.put("init", "true");
+            initMessage.put("timestamp", String.valueOf(System.currentTimeMillis()));
+
+            // Add the message to Redis - this will create the stream if it doesn't exist
+            try {
+                redisTemplate.opsForStream().add(streamName, initMessage);
+                if (streamExists == null || !streamExists) {
+                    logger.info("Created new Redis Stream: {}", streamName);
+                } else {
+                    logger.info("Added initialization message to existing Redis Stream: {}", streamName);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to create/access Redis Stream: {}", e.getMessage(), e);
+                return false; // Cannot proceed without a stream
+            }
+
+            // Create the consumer group directly, handling the case where it already exists
+            try {
+                redisTemplate.opsForStream().createGroup(streamName, ReadOffset.from("0"), CONSUMER_GROUP);
+                logger.info("Successfully created Redis Stream consumer group: {}", CONSUMER_GROUP);
+                return true;
+            } catch (Exception createEx) {
+                // Check if it's because the group already exists
+                if (createEx.getMessage() != null && createEx.getMessage().contains("BUSYGROUP")) {
+                    logger.info("Consumer group '{}' already exists for stream '{}'",
+                        CONSUMER_GROUP, streamName);
+                    return true;
+                }
+                logger.error("Failed to create consumer group: {}", createEx.getMessage(), createEx);
+                return false;
+            }
+        } catch (Exception e) {
+            logger.error("Unexpected error during Redis Stream initialization: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Clean up the Redis Streams by trimming old messages and resetting consumer group state
+     * This prevents the streams from growing indefinitely and ensures a fresh state on application restart
+     */
+    public void cleanup() {
+        for (TileLane lane : LANES) {
+            cleanupLane(lane.getStreamName());
+        }
+    }
+
+    private void cleanupLane(String streamName) {
+        logger.info("Cleaning up Redis Stream: {} on application startup", streamName);
+
+        try {
+            // Check if the stream exists
+            Boolean streamExists = redisTemplate.hasKey(streamName);
+            if (streamExists == null || !streamExists) {
+                logger.info("Redis Stream {} doesn't exist yet, no cleanup needed", streamName);
+                return;
+            }
+
+            try {
+                // Delete any existing consumer groups for a fresh start
+                StreamInfo.XInfoGroups groups = redisTemplate.opsForStream().groups(streamName);
+
+                if (groups != null && !groups.isEmpty()) {
+                    logger.info("Found {} existing consumer groups in stream: {}", groups.size(), streamName);
+
+                    // Iterate through each group info and destroy the group
+                    for (StreamInfo.XInfoGroup groupInfo : groups) {
+                        String groupName = groupInfo.groupName();
+                        try {
+                            redisTemplate.opsForStream().destroyGroup(streamName, groupName);
+                            logger.info("Deleted consumer group: {} from stream: {}", groupName, streamName);
+                        } catch (Exception e) {
+                            logger.warn("Error deleting consumer group {}: {}", groupName, e.getMessage());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("Error listing/deleting consumer groups: {}", e.getMessage());
+            }
+
+            // Trim the stream to keep only the most recent initialization message
+            try {
+                Long streamLength = redisTemplate.opsForStream().size(streamName);
+                if (streamLength != null && streamLength > 0) {
+                    logger.info("Redis Stream {} contains {} messages, trimming to keep only 1 message",
+                                streamName, streamLength);
+
+                    // XTRIM with MAXLEN ~ 1 (the ~ means approximate trim, which is more efficient)
+                    redisTemplate.opsForStream().trim(streamName, 1, true);
+                    logger.info("Successfully trimmed Redis Stream to approximately 1 message");
+                } else {
+                    logger.info("Redis Stream {} is empty, no trimming needed", streamName);
+                }
+            } catch (Exception e) {
+                logger.warn("Error trimming stream: {}", e.getMessage());
+            }
+
+            logger.info("Redis Stream cleanup completed successfully");
+        } catch (Exception e) {
+            logger.error("Error during Redis Stream cleanup: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add a tile to a lane's stream together with the trace context it should continue
+     */
+    public RecordId enqueue(TileSpec tileSpec, TileLane lane, String traceparent, String tracestate) {
+        Map<String, String> jobData = new HashMap<>();
+        jobData.put("jobId", tileSpec.getJobId());
+        jobData.put("tileId", tileSpec.getTileId());
+        jobData.put("xMin", String.valueOf(tileSpec.getXMin()));
+        jobData.put("yMin", String.valueOf(tileSpec.getYMin()));
+        jobData.put("xMax", String.valueOf(tileSpec.getXMax()));
+        jobData.put("yMax", String.valueOf(tileSpec.getYMax()));
+        jobData.put("width", String.valueOf(tileSpec.getWidth()));
+        jobData.put("height", String.valueOf(tileSpec.getHeight()));
+        jobData.put("maxIterations", String.valueOf(tileSpec.getMaxIterations()));
+        jobData.put("colorScheme", tileSpec.getColorScheme());
+        jobData.put("pixelStartX", String.valueOf(tileSpec.getPixelStartX()));
+        jobData.put("pixelStartY", String.valueOf(tileSpec.getPixelStartY()));
+        if (tileSpec.hasReference()) {
+            jobData.put("referenceX", tileSpec.getReferenceX());
+            jobData.put("referenceY", tileSpec.getReferenceY());
+        }
+        jobData.put("precision", tileSpec.getPrecision().name());
+
+        // Add trace context
+        jobData.put("traceparent", traceparent != null ? traceparent : "");
+        jobData.put("tracestate", tracestate != null ? tracestate : "");
+
+        return redisTemplate.opsForStream().add(lane.getStreamName(), jobData);
+    }
+
+    /**
+     * Put a tile that was read but not handed out back at the end of its lane
+     */
+    public void requeue(QueuedTile queuedTile) {
+        enqueue(queuedTile.getTileSpec(), queuedTile.getLane(), queuedTile.getTraceparent(), queuedTile.getTracestate());
+        acknowledge(queuedTile.getLane(), queuedTile.getRecordId());
+    }
+
+    /**
+     * Read up to count new tiles for a consumer with XREADGROUP, sharing the
+     * reads between lanes by weight. Higher lanes get the larger share but
+     * lower lanes always get their turn, and capacity a lane cannot use goes
+     * to the others. If the streams or group have disappeared, they are
+     * recreated and the read retried once.
+     */
+    public List<QueuedTile> read(String consumerName, int count, Duration block) {
+        if (!initialized && !initialize()) {
+            logger.warn("Stream or consumer group not ready, skipping read");
+            return List.of();
+        }
+
+        try {
+            return doRead(consumerName, count, block);
+        } catch (Exception e) {
+            // Specific handling for stream/group not found errors
+            if (e.getMessage() != null &&
+                (e.getMessage().contains("NOGROUP") || e.getMessage().contains("No such key"))) {
+                logger.warn("Stream or group not found during read, reinitializing: {}", e.getMessage());
+                initialized = false;
+                if (initialize()) {
+                    logger.info("Successfully reinitialized Redis Stream and Consumer Group after error");
+                    return doRead(consumerName, count, block);
+                }
+                logger.warn("Failed to reinitialize Redis Stream and Consumer Group");
+                return List.of();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Take over entries that other consumers have held for longer than minIdle,
+     * so tiles leased by a worker that died are handed out again. Higher lanes
+     * are reclaimed first.
+     */
+    public List<QueuedTile> claimExpired(String consumerName, Duration minIdle, int count) {
+        List<QueuedTile> tiles = new ArrayList<>();
+        for (TileLane lane : LANES) {
+            if (tiles.size() >= count) {
+                break;
+            }
+            PendingMessages pending = redisTemplate.opsForStream()
+                .pending(lane.getStreamName(), CONSUMER_GROUP, Range.unbounded(), count - tiles.size());
+            if (pending == null || pending.isEmpty()) {
+                continue;
+            }
+
+            RecordId[] expired = pending.stream()
+                .filter(p -> p.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0)
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+            if (expired.length == 0) {
+                continue;
+            }
+
+            // XCLAIM re-checks the idle time, so concurrent claimers cannot both win
+            List<MapRecord<String, Object, Object>> claimed = redisTemplate.opsForStream()
+                .claim(lane.getStreamName(), CONSUMER_GROUP, consumerName, minIdle, expired);
+            tiles.addAll(toQueuedTiles(claimed));
+        }
+        return tiles;
+    }
+
+    /**
+     * Reset the idle time of entries still held by a consumer
+     * @param queueIds entry ids as returned by {@link QueuedTile#getQueueId()}
+     * @return the number of entries the consumer still owns
+     */
+    public int renew(String consumerName, List<String> queueIds) {
+        if (queueIds == null || queueIds.isEmpty()) {
+            return 0;
+        }
+        Map<TileLane, List<String>> recordIdsByLane = new EnumMap<>(TileLane.class);
+        for (String queueId : queueIds) {
+            recordIdsByLane.computeIfAbsent(laneOf(queueId), k -> new ArrayList<>()).add(recordIdOf(queueId));
+        }
+
+        int renewed = 0;
+        for (Map.Entry<TileLane, List<String>> entry : recordIdsByLane.entrySet()) {
+            renewed += renewLane(entry.getKey().getStreamName(), consumerName, entry.getValue());
+        }
+        return renewed;
+    }
+
+    private int renewLane(String streamName, String consumerName, List<String> recordIds) {
+        // Only renew entries this consumer still owns, so a reclaimed lease is not stolen back
+        PendingMessages owned = redisTemplate.opsForStream()
+            .pending(streamName, Consumer.from(CONSUMER_GROUP, consumerName), Range.unbounded(), Long.MAX_VALUE);
+        if (owned == null || owned.isEmpty()) {
+            return 0;
+        }
+        Set<String> ownedIds = owned.stream()
+            .map(PendingMessage::getIdAsString)
+            .collect(Collectors.toSet());
+        RecordId[] renewable = recordIds.stream()
+            .filter(ownedIds::contains)
+            .map(RecordId::of)
+            .toArray(RecordId[]::new);
+        if (renewable.length == 0) {
+            return 0;
+        }
+
+        List<MapRecord<String, Object, Object>> claimed = redisTemplate.opsForStream()
+            .claim(streamName, CONSUMER_GROUP, consumerName, Duration.ZERO, renewable);
+        return claimed != null ? claimed.size() : 0;
+    }
+
+    /**
+     * Acknowledge a processed entry (XACK)
+     * @param queueId entry id as returned by {@link QueuedTile#getQueueId()}
+     * @return true if the entry was still pending, false if it had already been acknowledged
+     */
+    public boolean acknowledge(String queueId) {
+        return acknowledge(laneOf(queueId), recordIdOf(queueId));
+    }
+
+    /**
+     * Acknowledge a processed entry of a lane (XACK)
+     * @return true if the entry was still pending, false if it had already been acknowledged
+     */
+    public boolean acknowledge(TileLane lane, String recordId) {
+        Long acknowledged = redisTemplate.opsForStream()
+            .acknowledge(lane.getStreamName(), CONSUMER_GROUP, RecordId.of(recordId));
+        return acknowledged != null && acknowledged > 0;
+    }
+
+    // Entries queued before lanes existed carry a bare record id
+    private static TileLane laneOf(String queueId) {
+        int separator = queueId.indexOf(':');
+        return separator < 0 ? TileLane.INTERACTIVE : TileLane.fromId(queueId.substring(0, separator));
+    }
+
+    private static String recordIdOf(String queueId) {
+        return queueId.substring(queueId.indexOf(':') + 1);
+    }
+
+    private List<QueuedTile> doRead(String consumerName, int count, Duration block) {
+        List<QueuedTile> tiles = new ArrayList<>();
+        boolean[] exhausted = new boolean[LANES.length];
+
+        // First pass: each lane reads its weighted share
+        int[] quotas = planReads(count);
+        for (int i = 0; i < LANES.length; i++) {
+            if (quotas[i] > 0) {
+                List<MapRecord<String, Object, Object>> records = readLane(consumerName, LANES[i], quotas[i]);
+                exhausted[i] = records.size() < quotas[i];
+                tiles.addAll(toQueuedTiles(records));
+            }
+        }
+
+        // Second pass: capacity a lane could not use goes to the others, highest lane first
+        for (int i = 0; i < LANES.length && tiles.size() < count; i++) {
+            if (!exhausted[i]) {
+                List<MapRecord<String, Object, Object>> records = readLane(consumerName, LANES[i], count - tiles.size());
+                tiles.addAll(toQueuedTiles(records));
+            }
+        }
+
+        if (tiles.isEmpty() && block != null) {
+            tiles.addAll(blockingRead(consumerName, count, block));
+        }
+        return tiles;
+    }
+
+    /**
+     * Wait on all lanes at once for the first new tiles
+     */
+    List<QueuedTile> blockingRead(String consumerName, int count, Duration block) {
+        @SuppressWarnings("unchecked")
+        StreamOffset<String>[] offsets = new StreamOffset[LANES.length];
+        for (int i = 0; i < LANES.length; i++) {
+            // Use special ID ">" to read only new messages never delivered to any consumer
+            offsets[i] = StreamOffset.create(LANES[i].getStreamName(), ReadOffset.from(">"));
+        }
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+            .read(Consumer.from(CONSUMER_GROUP, consumerName),
+                  StreamReadOptions.empty().count(count).block(block),
+                  offsets);
+
+        // Each stream can return up to count entries; keep the highest lanes and put the rest back
+        List<QueuedTile> tiles = new ArrayList<>(toQueuedTiles(records));
+        tiles.sort(Comparator.comparing(QueuedTile::getLane));
+        while (tiles.size() > count) {
+            requeue(tiles.remove(tiles.size() - 1));
+        }
+        return tiles;
+    }
+
+    private List<MapRecord<String, Object, Object>> readLane(String consumerName, TileLane lane, int count) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+            .read(Consumer.from(CONSUMER_GROUP, consumerName),
+                  StreamReadOptions.empty().count(count),
+                  StreamOffset.create(lane.getStreamName(), ReadOffset.from(">")));
+        return records != null ? records : List.of();
+    }
+
+    /**
+     * Split count reads between the lanes with smooth weighted round-robin.
+     * The credits carry over between calls, so even single-tile reads reach
+     * the lower lanes in proportion to their weight.
+     */
+    synchronized int[] planReads(int count) {
+        int[] quotas = new int[LANES.length];
+        for (int n = 0; n < count; n++) {
+            int chosen = 0;
+            for (int i = 0; i < LANES.length; i++) {
+                laneCredits[i] += laneWeights[i];
+                if (laneCredits[i] > laneCredits[chosen]) {
+                    chosen = i;
+                }
+            }
+            laneCredits[chosen] -= totalWeight;
+            quotas[chosen]++;
+        }
+        return quotas;
+    }
+
+    private List<QueuedTile> toQueuedTiles(List<MapRecord<String, Object, Object>> records) {
+        List<QueuedTile> tiles = new ArrayList<>();
+        if (records == null) {
+            return tiles;
+        }
+
+        for (MapRecord<String, Object, Object> record : records) {
+            TileLane lane = TileLane.fromStreamName(record.getStream());
+            Map<Object, Object> jobData = record.getValue();
+
+            // Skip initialization messages
+            if (jobData.containsKey("init") && "true".equals(jobData.get("init").toString())) {
+                acknowledge(lane, record.getId().getValue());
+                continue;
+            }
+
+            try {
+                // Convert the Object map to String map for easier handling
+                Map<String, String> stringJobData = jobData.entrySet().stream()
+                    .collect(Collectors.toMap(
+                        e -> e.getKey().toString(),
+                        e -> e.getValue() != null ? e.getValue().toString() : ""
+                    ));
+
+                tiles.add(new QueuedTile(
+                    lane,
+                    record.getId().getValue(),
+                    buildTileSpecFromMap(stringJobData),
+                    stringJobData.get("traceparent"),
+                    stringJobData.get("tracestate")
+                ));
+            } catch (Exception e) {
+                logger.error("Dropping malformed entry {} from stream: {}", record.getId(), e.getMessage());
+                // Acknowledge the message to avoid reprocessing a bad message
+                acknowledge(lane, record.getId().getValue());
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Build a TileSpec from Redis Stream job data map
+     */
+    private TileSpec buildTileSpecFromMap(Map<String, String> jobData) {
+        return new TileSpec.Builder()
+            .jobId(jobData.get("jobId"))
+            .tileId(jobData.get("tileId"))
+            .xMin(Double.parseDouble(jobData.get("xMin")))
+            .yMin(Double.parseDouble(jobData.get("yMin")))
+            .xMax(Double.parseDouble(jobData.get("xMax")))
+            .yMax(Double.parseDouble(jobData.get("yMax")))
+            .width(Integer.parseInt(jobData.get("width")))
+            .height(Integer.parseInt(jobData.get("height")))
+            .maxIterations(Integer.parseInt(jobData.get("maxIterations")))
+            .colorScheme(jobData.get("colorScheme"))
+            .pixelStartX(Integer.parseInt(jobData.get("pixelStartX")))
+            .pixelStartY(Integer.parseInt(jobData.get("pixelStartY")))
+            .reference(jobData.get("referenceX"), jobData.get("referenceY"))
+            // Entries queued before precision was stored are double precision tiles
+            .precision(jobData.containsKey("precision") ? PrecisionTier.valueOf(jobData.get("precision")) : null)
+            .build();
+    }
+}
@@ -5,10 +5,12 @@ import io.aparker.otelbrot.commons.model.TileStatus;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -18,6 +20,18 @@ import java.util.stream.Collectors;
 public class TileRepository {
     private static final String TILE_KEY_PREFIX = "tile:";
     private static final String TILE_DATA_KEY_PREFIX = "tiledata:";
+    private static final String TILE_ITERATIONS_KEY_PREFIX = "tileiter:";
+
+    // Cached tile images and iteration counts by content key, and the content keys ordered by last use
+    private static final String CACHE_DATA_KEY_PREFIX = "tilecache:data:";
+    private static final String CACHE_INDEX_KEY = "tilecache:index";
+
+    // Content key of each tile still being computed, per job
+    private static final String CACHE_PENDING_KEY_PREFIX = "tilecache:pending:";
+    private static final Duration CACHE_PENDING_TTL = Duration.ofDays(1);
+
+    // Job rendering each map tile, so concurrent requests on any replica wait on one render
+    private static final String MAP_TILE_CLAIM_KEY_PREFIX = "maptile:claim:";
     
     private final RedisTemplate<String, Object> redisTemplate;
     private final RedisTemplate<String, byte[]> byteRedisTemplate;
@@ -51,6 +65,13 @@ public class TileRepository {
         // Save image data separately
         String dataKey = getTileDataKey(result.getJobId(), result.getTileId());
         byteRedisTemplate.opsForValue().set(dataKey, result.getImageData());
+
+        // Keep the iteration counts, already compact, to color the tile again
+        if (result.getIterations() != null) {
+            byteRedisTemplate.opsForValue().set(
+                    TILE_ITERATIONS_KEY_PREFIX + result.getJobId() + ":" + result.getTileId(),
+                    result.getIterations());
+        }
     }
 
     /**
@@ -90,6 +111,17 @@ public class TileRepository {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Find where each tile of a job lies, without loading any image data
+     */
+    public List<TileResult> findTileLayoutByJobId(String jobId) {
+        return scanKeys(TILE_KEY_PREFIX + jobId + ":*").stream()
+                .map(key -> redisTemplate.opsForHash().entries(key))
+                .filter(tileMap -> tileMap != null && !tileMap.isEmpty())
+                .map(tileMap -> mapToTileResult(tileMap, null))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get image data for a specific tile
      */
@@ -98,6 +130,94 @@ public class TileRepository {
         return byteRedisTemplate.opsForValue().get(dataKey);
     }
 
+    /**
+     * Get the encoded iteration counts of a specific tile, if its worker sent them
+     */
+    public Optional<byte[]> getTileIterations(String jobId, String tileId) {
+        return Optional.ofNullable(
+                byteRedisTemplate.opsForValue().get(TILE_ITERATIONS_KEY_PREFIX + jobId + ":" + tileId));
+    }
+
+    /**
+     * Find cached tile data by content key, marking it as just used
+     */
+    public Optional<byte[]> findCachedData(String cacheKey) {
+        byte[] data = byteRedisTemplate.opsForValue().get(CACHE_DATA_KEY_PREFIX + cacheKey);
+        if (data == null) {
+            return Optional.empty();
+        }
+        redisTemplate.opsForZSet().add(CACHE_INDEX_KEY, cacheKey, System.currentTimeMillis());
+        return Optional.of(data);
+    }
+
+    /**
+     * Cache tile data by content key, evicting the least recently used
+     * entries beyond maxEntries
+     *
+     * @return the number of entries evicted
+     */
+    public int cacheData(String cacheKey, byte[] data, int maxEntries) {
+        byteRedisTemplate.opsForValue().set(CACHE_DATA_KEY_PREFIX + cacheKey, data);
+        redisTemplate.opsForZSet().add(CACHE_INDEX_KEY, cacheKey, System.currentTimeMillis());
+
+        Long size = redisTemplate.opsForZSet().zCard(CACHE_INDEX_KEY);
+        if (size == null || size <= maxEntries) {
+            return 0;
+        }
+        Set<Object> evicted = redisTemplate.opsForZSet().range(CACHE_INDEX_KEY, 0, size - maxEntries - 1);
+        if (evicted == null || evicted.isEmpty()) {
+            return 0;
+        }
+        redisTemplate.opsForZSet().remove(CACHE_INDEX_KEY, evicted.toArray());
+        byteRedisTemplate.delete(evicted.stream()
+                .map(key -> CACHE_DATA_KEY_PREFIX + key)
+                .collect(Collectors.toList()));
+        return evicted.size();
+    }
+
+    /**
+     * Remember the content key of a tile until its result comes in
+     */
+    public void rememberCacheKey(String jobId, String tileId, String cacheKey) {
+        String pendingKey = CACHE_PENDING_KEY_PREFIX + jobId;
+        redisTemplate.opsForHash().put(pendingKey, tileId, cacheKey);
+        redisTemplate.expire(pendingKey, CACHE_PENDING_TTL);
+    }
+
+    /**
+     * Take the content key remembered for a tile
+     */
+    public Optional<String> takeCacheKey(String jobId, String tileId) {
+        String pendingKey = CACHE_PENDING_KEY_PREFIX + jobId;
+        Object cacheKey = redisTemplate.opsForHash().get(pendingKey, tileId);
+        if (cacheKey == null) {
+            return Optional.empty();
+        }
+        redisTemplate.opsForHash().delete(pendingKey, tileId);
+        return Optional.of(cacheKey.toString());
+    }
+
+    /**
+     * Forget the content keys remembered for a job's tiles
+     */
+    public void forgetCacheKeys(String jobId) {
+        redisTemplate.delete(CACHE_PENDING_KEY_PREFIX + jobId);
+    }
+
+    /**
+     * Claim rendering a map tile for a job, unless another job already renders it
+     *
+     * @return the job rendering the tile
+     */
+    public String claimMapTile(String mapTileKey, String jobId, Duration ttl) {
+        String claimKey = MAP_TILE_CLAIM_KEY_PREFIX + mapTileKey;
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(claimKey, jobId, ttl))) {
+            return jobId;
+        }
+        Object holder = redisTemplate.opsForValue().get(claimKey);
+        return holder != null ? holder.toString() : jobId;
+    }
+
     private String getTileKey(String jobId, String tileId) {
         return TILE_KEY_PREFIX + jobId + ":" + tileId;
     }
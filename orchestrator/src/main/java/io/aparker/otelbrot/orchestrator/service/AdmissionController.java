@@ -0,0 +1,184 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out worker slots against a global limit and a per-job limit.
+ * Each slot is keyed jobId:slotId and waits for a set of tiles, and is
+ * given back once the last of them is done. The counts themselves live in
+ * an {@link AdmissionStore}, so replicas sharing a store share the limits.
+ */
+@Component
+public class AdmissionController {
+
+    private final int maxConcurrentWorkers;
+    private final AdmissionStore store;
+
+    // Each job's own limit
+    private final Map<String, Integer> jobLimits = new ConcurrentHashMap<>();
+
+    private final Counter admitted;
+    private final Counter rejectedGlobal;
+    private final Counter rejectedJob;
+    private final Counter bypassed;
+
+    public AdmissionController(int maxConcurrentWorkers, MeterRegistry meterRegistry) {
+        this(maxConcurrentWorkers, new InMemoryAdmissionStore(), meterRegistry);
+    }
+
+    @Autowired
+    public AdmissionController(
+        @Value("${app.worker.max-concurrent:100}") int maxConcurrentWorkers,
+        AdmissionStore store,
+        MeterRegistry meterRegistry
+    ) {
+        this.maxConcurrentWorkers = maxConcurrentWorkers;
+        this.store = store;
+
+        Gauge.builder("otelbrot.admission.active", store, AdmissionStore::getActiveCount)
+            .description("Worker slots in use")
+            .register(meterRegistry);
+        Gauge.builder("otelbrot.admission.limit", this, c -> c.maxConcurrentWorkers)
+            .description("Maximum concurrent worker slots")
+            .register(meterRegistry);
+        Gauge.builder("otelbrot.admission.jobs", jobLimits, Map::size)
+            .description("Jobs with a registered concurrency limit")
+            .register(meterRegistry);
+
+        this.admitted = decisionCounter(meterRegistry, "admitted");
+        this.rejectedGlobal = decisionCounter(meterRegistry, "rejected_global");
+        this.rejectedJob = decisionCounter(meterRegistry, "rejected_job");
+        this.bypassed = decisionCounter(meterRegistry, "bypassed");
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("otelbrot.admission.decisions")
+            .description("Admission decisions for worker slots")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Set the number of slots a job may hold at once. Jobs without a limit
+     * of their own are only bound by the global limit.
+     */
+    public void registerJob(String jobId, Integer maxConcurrency) {
+        int limit = maxConcurrency != null && maxConcurrency > 0
+            ? maxConcurrency
+            : maxConcurrentWorkers;
+        jobLimits.put(jobId, limit);
+    }
+
+    public boolean isRegistered(String jobId) {
+        return jobLimits.containsKey(jobId);
+    }
+
+    /**
+     * Take a slot waiting for the given tiles if both the global and the job's limit allow it
+     *
+     * @return true if the slot was taken and will be given back by {@link #releaseTile} or {@link #releaseSlot}
+     */
+    public boolean tryAcquire(String jobId, String slotKey, List<String> tileIds) {
+        int result = store.acquire(jobId, slotKey, tileIds, getJobLimit(jobId), maxConcurrentWorkers, false);
+        switch (result) {
+            case AdmissionStore.ADMITTED:
+                admitted.increment();
+                return true;
+            case AdmissionStore.REJECTED_JOB:
+                rejectedJob.increment();
+                return false;
+            case AdmissionStore.REJECTED_GLOBAL:
+                rejectedGlobal.increment();
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Take a slot regardless of the limits. Used for priority tiles such as
+     * the preview, which must never wait behind detail tiles, and for
+     * running workers adopted by reconciliation.
+     *
+     * @return false if the slot was already held
+     */
+    public boolean acquire(String jobId, String slotKey, List<String> tileIds) {
+        if (store.acquire(jobId, slotKey, tileIds, getJobLimit(jobId), maxConcurrentWorkers, true)
+            == AdmissionStore.ALREADY_HELD) {
+            return false;
+        }
+        bypassed.increment();
+        return true;
+    }
+
+    /**
+     * Count a tile as done, giving back its slot if it was the slot's last tile
+     *
+     * @return true if a slot was given back
+     */
+    public boolean releaseTile(String jobId, String tileId) {
+        return store.releaseTile(jobId, tileId);
+    }
+
+    /**
+     * Give back a slot whether or not its tiles are done
+     *
+     * @return the slot's tiles still outstanding, or null if the slot wasn't held
+     */
+    public List<String> releaseSlot(String jobId, String slotKey) {
+        return store.releaseSlot(jobId, slotKey);
+    }
+
+    /**
+     * Forget a finished or cancelled job, giving back any slots it still holds
+     *
+     * @return the number of slots that were given back
+     */
+    public int removeJob(String jobId) {
+        jobLimits.remove(jobId);
+        return store.removeJob(jobId);
+    }
+
+    /**
+     * Keys of every slot held, by this orchestrator or any sharing its store
+     */
+    public Set<String> getSlotKeys() {
+        return store.getSlotKeys();
+    }
+
+    public int getActiveCount() {
+        return store.getActiveCount();
+    }
+
+    public int getActiveCount(String jobId) {
+        return store.getActiveCount(jobId);
+    }
+
+    public int getAvailableSlots() {
+        return Math.max(0, maxConcurrentWorkers - getActiveCount());
+    }
+
+    /**
+     * Slots the job could take right now under both limits
+     */
+    public int getAvailableSlots(String jobId) {
+        return Math.max(0, Math.min(getAvailableSlots(), getJobLimit(jobId) - getActiveCount(jobId)));
+    }
+
+    public int getMaxConcurrentWorkers() {
+        return maxConcurrentWorkers;
+    }
+
+    public int getJobLimit(String jobId) {
+        return jobLimits.getOrDefault(jobId, maxConcurrentWorkers);
+    }
+}
@@ -0,0 +1,56 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Where the admission controller keeps worker slots: how many each job and
+ * all jobs hold, and which tiles each slot is still waiting for. A slot is
+ * keyed jobId:slotId, and every change is atomic so that any orchestrator
+ * sharing the store can take a slot or give one back.
+ */
+public interface AdmissionStore {
+
+    int ADMITTED = 0;
+    int REJECTED_GLOBAL = 1;
+    int REJECTED_JOB = 2;
+    int ALREADY_HELD = 3;
+
+    /**
+     * Take a slot waiting for the given tiles if both limits allow it, or
+     * regardless of them when bypassing
+     *
+     * @return ADMITTED, REJECTED_GLOBAL, REJECTED_JOB, or ALREADY_HELD if the slot is taken
+     */
+    int acquire(String jobId, String slotKey, List<String> tileIds, int jobLimit, int globalLimit, boolean bypassLimits);
+
+    /**
+     * Count a tile of a slot as done, giving the slot back after its last tile
+     *
+     * @return true if the slot was given back
+     */
+    boolean releaseTile(String jobId, String tileId);
+
+    /**
+     * Give back a slot whether or not its tiles are done
+     *
+     * @return the slot's tiles still outstanding, or null if the slot wasn't held
+     */
+    List<String> releaseSlot(String jobId, String slotKey);
+
+    /**
+     * Give back every slot of a job
+     *
+     * @return the number of slots given back
+     */
+    int removeJob(String jobId);
+
+    int getActiveCount();
+
+    int getActiveCount(String jobId);
+
+    /**
+     * Keys of every slot held
+     */
+    Set<String> getSlotKeys();
+}
@@ -0,0 +1,316 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+/**
+ * DeepZoom image pyramid of a mosaic, as viewers such as OpenSeadragon
+ * read it: a descriptor name.dzi and tiles name_files/level/column_row.
+ * Level maxLevel is the full image, and every level below halves it down
+ * to a single pixel at level 0.
+ * <p>
+ * The pyramid is written as the mosaic fills up: a full resolution tile
+ * once all of its pixels are in the mosaic, and a tile of a lower level
+ * once all of its children are written, by averaging them down. Tiles are
+ * written to a temporary file and moved into place, so a viewer reading
+ * the pyramid meanwhile never sees half a tile.
+ * <p>
+ * Every lower level is averaged from the exact pixels of the level above,
+ * never from its encoded tiles, so lossy formats don't compound their
+ * artifacts level after level. Those pixels are kept in a mosaic file per
+ * level beside the pyramid until it is closed.
+ */
+class DeepZoomPyramid implements Closeable {
+
+    private final MosaicFile mosaic;
+    private final Path filesDirectory;
+    private final Path levelsDirectory;
+    private final int tileSize;
+    private final String format;
+    private final int maxLevel;
+
+    // Per level, the columns and rows of tiles and what each tile still
+    // waits for: pixels at the full resolution level, children below it
+    private final int[] columns;
+    private final int[] rows;
+    private final int[][] remaining;
+    private int remainingTiles;
+
+    // Exact pixels of every level, the mosaic itself at the full resolution
+    private final MosaicFile[] levels;
+
+    DeepZoomPyramid(MosaicFile mosaic, Path directory, String name, int tileSize, String format) throws IOException {
+        if (!ImageIO.getImageWritersByFormatName(format).hasNext()) {
+            throw new IllegalArgumentException("Unsupported tile format: " + format);
+        }
+        this.mosaic = mosaic;
+        this.filesDirectory = directory.resolve(name + "_files");
+        this.levelsDirectory = directory.resolve(name + "_levels");
+        this.tileSize = tileSize;
+        this.format = format;
+
+        int width = mosaic.getWidth();
+        int height = mosaic.getHeight();
+        this.maxLevel = maxLevel(width, height);
+        this.columns = new int[maxLevel + 1];
+        this.rows = new int[maxLevel + 1];
+        this.remaining = new int[maxLevel + 1][];
+        for (int level = maxLevel; level >= 0; level--) {
+            columns[level] = ceilDiv(levelWidth(level), tileSize);
+            rows[level] = ceilDiv(levelHeight(level), tileSize);
+            remaining[level] = new int[columns[level] * rows[level]];
+            remainingTiles += remaining[level].length;
+            for (int row = 0; row < rows[level]; row++) {
+                for (int column = 0; column < columns[level]; column++) {
+                    remaining[level][row * columns[level] + column] = level == maxLevel
+                        ? tileWidth(level, column) * tileHeight(level, row)
+                        : childCount(level, column, row);
+                }
+            }
+        }
+
+        this.levels = new MosaicFile[maxLevel + 1];
+        levels[maxLevel] = mosaic;
+        Files.createDirectories(levelsDirectory);
+        try {
+            for (int level = 0; level < maxLevel; level++) {
+                levels[level] = MosaicFile.create(
+                    levelsDirectory.resolve(level + ".rgb"), levelWidth(level), levelHeight(level));
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+
+        Files.createDirectories(filesDirectory);
+        String descriptor = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<Image xmlns=\"http://schemas.microsoft.com/deepzoom/2008\" TileSize=\"" + tileSize
+            + "\" Overlap=\"0\" Format=\"" + format + "\">\n"
+            + "  <Size Width=\"" + width + "\" Height=\"" + height + "\"/>\n"
+            + "</Image>\n";
+        writeAtomically(directory.resolve(name + ".dzi"), descriptor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Level of the full resolution image, the first whose size reaches 1x1 halving down to 0
+     */
+    static int maxLevel(int width, int height) {
+        int size = Math.max(width, height);
+        return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    int getMaxLevel() {
+        return maxLevel;
+    }
+
+    int getColumns(int level) {
+        return columns[level];
+    }
+
+    int getRows(int level) {
+        return rows[level];
+    }
+
+    /**
+     * Path of a tile, whether it is written yet or not
+     */
+    Path tilePath(int level, int column, int row) {
+        return filesDirectory.resolve(level + "/" + column + "_" + row + "." + format);
+    }
+
+    synchronized boolean isComplete() {
+        return remainingTiles == 0;
+    }
+
+    /**
+     * Record a region of the mosaic as written, writing every tile, at any
+     * level, that it completes. Regions must not overlap.
+     *
+     * @return the number of tiles written
+     */
+    int addRegion(int x, int y, int regionWidth, int regionHeight) throws IOException {
+        List<int[]> completed = new ArrayList<>();
+        synchronized (this) {
+            int fromColumn = Math.max(0, x / tileSize);
+            int toColumn = Math.min(columns[maxLevel] - 1, (x + regionWidth - 1) / tileSize);
+            int fromRow = Math.max(0, y / tileSize);
+            int toRow = Math.min(rows[maxLevel] - 1, (y + regionHeight - 1) / tileSize);
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int column = fromColumn; column <= toColumn; column++) {
+                    int overlapWidth = Math.min(x + regionWidth, (column + 1) * tileSize) - Math.max(x, column * tileSize);
+                    int overlapHeight = Math.min(y + regionHeight, (row + 1) * tileSize) - Math.max(y, row * tileSize);
+                    if (overlapWidth > 0 && overlapHeight > 0
+                            && countDown(maxLevel, column, row, overlapWidth * overlapHeight)) {
+                        completed.add(new int[] {column, row});
+                    }
+                }
+            }
+        }
+
+        // Write outside the lock, so other regions are added meanwhile
+        int written = 0;
+        for (int[] tile : completed) {
+            int level = maxLevel;
+            int column = tile[0];
+            int row = tile[1];
+            writeFullResolutionTile(column, row);
+            written++;
+            while (level > 0 && childWritten(level, column, row)) {
+                level--;
+                column /= 2;
+                row /= 2;
+                writeReducedTile(level, column, row);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    // Count a written child of the tile above, true if that completes it
+    private synchronized boolean childWritten(int level, int column, int row) {
+        return countDown(level - 1, column / 2, row / 2, 1);
+    }
+
+    private boolean countDown(int level, int column, int row, int count) {
+        int index = row * columns[level] + column;
+        if (remaining[level][index] <= 0) {
+            return false;
+        }
+        remaining[level][index] -= count;
+        if (remaining[level][index] > 0) {
+            return false;
+        }
+        remainingTiles--;
+        return true;
+    }
+
+    private void writeFullResolutionTile(int column, int row) throws IOException {
+        int width = tileWidth(maxLevel, column);
+        int height = tileHeight(maxLevel, row);
+        BufferedImage tile = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = new int[width * height];
+        mosaic.read(column * tileSize, row * tileSize, width, height, pixels, 0, width);
+        tile.setRGB(0, 0, width, height, pixels, 0, width);
+        writeTile(maxLevel, column, row, tile);
+    }
+
+    /**
+     * Write a tile below the full resolution level by averaging each 2x2
+     * block of its children's pixels, or fewer at the image's edges
+     */
+    private void writeReducedTile(int level, int column, int row) throws IOException {
+        int width = tileWidth(level, column);
+        int height = tileHeight(level, row);
+
+        // The children's exact pixels, read from the level above
+        int sourceX = 2 * column * tileSize;
+        int sourceY = 2 * row * tileSize;
+        int sourceWidth = Math.min(2 * width, levelWidth(level + 1) - sourceX);
+        int sourceHeight = Math.min(2 * height, levelHeight(level + 1) - sourceY);
+        int[] source = new int[sourceWidth * sourceHeight];
+        levels[level + 1].read(sourceX, sourceY, sourceWidth, sourceHeight, source, 0, sourceWidth);
+
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = 0;
+                int g = 0;
+                int b = 0;
+                int count = 0;
+                for (int sy = 2 * y; sy < Math.min(2 * y + 2, sourceHeight); sy++) {
+                    for (int sx = 2 * x; sx < Math.min(2 * x + 2, sourceWidth); sx++) {
+                        int rgb = source[sy * sourceWidth + sx];
+                        r += (rgb >> 16) & 0xFF;
+                        g += (rgb >> 8) & 0xFF;
+                        b += rgb & 0xFF;
+                        count++;
+                    }
+                }
+                pixels[y * width + x] = (r / count) << 16 | (g / count) << 8 | (b / count);
+            }
+        }
+        BufferedImage tile = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        tile.setRGB(0, 0, width, height, pixels, 0, width);
+        // The exact pixels go in before the tile counts as written, for its parent to read
+        levels[level].write(column * tileSize, row * tileSize, tile);
+        writeTile(level, column, row, tile);
+    }
+
+    private void writeTile(int level, int column, int row, BufferedImage tile) throws IOException {
+        Path path = tilePath(level, column, row);
+        Files.createDirectories(path.getParent());
+        Path temporary = Files.createTempFile(path.getParent(), column + "_" + row, ".tmp");
+        try {
+            if (!ImageIO.write(tile, format, temporary.toFile())) {
+                throw new IOException("No writer for tile format " + format);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Release and delete the lower levels' pixels, once the pyramid is
+     * complete or will not be; the mosaic is left to its owner
+     */
+    @Override
+    public void close() throws IOException {
+        for (int level = 0; level < maxLevel; level++) {
+            if (levels[level] != null) {
+                levels[level].close();
+            }
+        }
+        if (Files.isDirectory(levelsDirectory)) {
+            try (Stream<Path> paths = Files.walk(levelsDirectory)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private static void writeAtomically(Path path, byte[] data) throws IOException {
+        Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, data);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private int childCount(int level, int column, int row) {
+        return Math.min(2, columns[level + 1] - 2 * column) * Math.min(2, rows[level + 1] - 2 * row);
+    }
+
+    private int levelWidth(int level) {
+        return ceilDiv(mosaic.getWidth(), 1 << (maxLevel - level));
+    }
+
+    private int levelHeight(int level) {
+        return ceilDiv(mosaic.getHeight(), 1 << (maxLevel - level));
+    }
+
+    private int tileWidth(int level, int column) {
+        return Math.min(tileSize, levelWidth(level) - column * tileSize);
+    }
+
+    private int tileHeight(int level, int row) {
+        return Math.min(tileSize, levelHeight(level) - row * tileSize);
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
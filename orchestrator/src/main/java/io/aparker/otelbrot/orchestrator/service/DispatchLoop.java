@@ -0,0 +1,96 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a dispatch step over and over on its own virtual thread. The loop
+ * sleeps until it is signalled that capacity was freed or work was queued,
+ * so whoever signals never waits on dispatch itself. A step that launched
+ * something runs again straight away, and an idle loop still wakes up
+ * periodically for changes nobody signalled.
+ */
+public class DispatchLoop {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchLoop.class);
+
+    private final String name;
+    private final IntSupplier step;
+    private volatile long idleNanos;
+
+    // Set by signal and cleared before each step, so a signal that arrives
+    // while a step runs is never lost
+    private final AtomicBoolean signalled = new AtomicBoolean();
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    /**
+     * @param step dispatch step returning how many tiles it launched
+     * @param idleInterval longest time to sleep without a signal
+     */
+    public DispatchLoop(String name, IntSupplier step, Duration idleInterval) {
+        this.name = name;
+        this.step = step;
+        this.idleNanos = idleInterval.toNanos();
+    }
+
+    public void setIdleInterval(Duration idleInterval) {
+        this.idleNanos = idleInterval.toNanos();
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = Thread.ofVirtual().name(name).start(this::run);
+        logger.info("Started dispatch loop {}", name);
+    }
+
+    /**
+     * Wake the loop for another step. Never blocks.
+     */
+    public void signal() {
+        signalled.set(true);
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+        thread = null;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            signalled.set(false);
+            int launched = 0;
+            try {
+                launched = step.getAsInt();
+            } catch (RuntimeException e) {
+                logger.error("Dispatch step {} failed: {}", name, e.getMessage(), e);
+            }
+
+            // An unpark between the check and the park makes the park return at once
+            if (launched == 0 && !signalled.get() && running) {
+                LockSupport.parkNanos(this, idleNanos);
+            }
+        }
+        logger.info("Stopped dispatch loop {}", name);
+    }
+}
@@ -0,0 +1,182 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.orchestrator.model.QueuedTile;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares dispatch between jobs with deficit round robin. Tiles read from the
+ * queue are buffered per job and lane, and every round each job with tiles
+ * waiting gets as many tiles as its lane's weight, so a small render is
+ * served alongside a large backlog instead of behind it. A job at its
+ * concurrency limit is passed over without banking credit.
+ */
+@Component
+public class FairShareScheduler {
+
+    private final Map<TileLane, Integer> laneWeights = new EnumMap<>(TileLane.class);
+
+    // Flows with tiles waiting, in round robin order, and the same flows by key
+    private final Deque<Flow> rotation = new ArrayDeque<>();
+    private final Map<String, Flow> flows = new HashMap<>();
+
+    private int buffered;
+
+    public FairShareScheduler(
+        @Value("${app.queue.lane-weights.preview:8}") int previewWeight,
+        @Value("${app.queue.lane-weights.interactive:4}") int interactiveWeight,
+        @Value("${app.queue.lane-weights.background:1}") int backgroundWeight,
+        MeterRegistry meterRegistry
+    ) {
+        laneWeights.put(TileLane.PREVIEW, Math.max(previewWeight, 1));
+        laneWeights.put(TileLane.INTERACTIVE, Math.max(interactiveWeight, 1));
+        laneWeights.put(TileLane.BACKGROUND, Math.max(backgroundWeight, 1));
+
+        Gauge.builder("otelbrot.scheduler.buffered", this, FairShareScheduler::getBufferedCount)
+            .description("Tiles read from the queue waiting for their turn")
+            .register(meterRegistry);
+        Gauge.builder("otelbrot.scheduler.flows", this, FairShareScheduler::getFlowCount)
+            .description("Jobs with tiles waiting for their turn")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Buffer tiles read from the queue behind the tiles of the same job
+     */
+    public synchronized void offer(List<QueuedTile> tiles) {
+        for (QueuedTile tile : tiles) {
+            String key = flowKey(tile.getLane(), tile.getTileSpec().getJobId());
+            Flow flow = flows.get(key);
+            if (flow == null) {
+                flow = new Flow(key, tile.getTileSpec().getJobId(), laneWeights.get(tile.getLane()));
+                flows.put(key, flow);
+                rotation.addLast(flow);
+            }
+            flow.tiles.addLast(tile);
+            buffered++;
+        }
+    }
+
+    /**
+     * Take up to count tiles in fair order
+     *
+     * @param capacity number of tiles each job may still start now
+     */
+    public synchronized List<QueuedTile> next(int count, ToIntFunction<String> capacity) {
+        List<QueuedTile> picked = new ArrayList<>();
+        Map<String, Integer> room = new HashMap<>();
+
+        // Stop once a whole rotation went by without a tile taken
+        int idle = 0;
+        while (picked.size() < count && idle < rotation.size()) {
+            Flow flow = rotation.pollFirst();
+            int jobRoom = room.computeIfAbsent(flow.jobId, capacity::applyAsInt);
+            if (jobRoom <= 0) {
+                flow.deficit = 0;
+                rotation.addLast(flow);
+                idle++;
+                continue;
+            }
+
+            // A flow cut short by count keeps its credit for the next call
+            if (flow.deficit == 0) {
+                flow.deficit = flow.quantum;
+            }
+            int taken = 0;
+            while (flow.deficit > 0 && jobRoom > 0 && picked.size() < count && !flow.tiles.isEmpty()) {
+                picked.add(flow.tiles.pollFirst());
+                flow.deficit--;
+                jobRoom--;
+                taken++;
+            }
+            room.put(flow.jobId, jobRoom);
+            buffered -= taken;
+
+            if (flow.tiles.isEmpty()) {
+                flows.remove(flow.key);
+            } else if (flow.deficit > 0 && jobRoom > 0) {
+                rotation.addFirst(flow);
+            } else {
+                flow.deficit = 0;
+                rotation.addLast(flow);
+            }
+            idle = taken > 0 ? 0 : idle + 1;
+        }
+        return picked;
+    }
+
+    /**
+     * Drop the buffered tiles of a cancelled job
+     *
+     * @return the dropped tiles, still to be acknowledged in the queue
+     */
+    public synchronized List<QueuedTile> removeJob(String jobId) {
+        List<QueuedTile> removed = new ArrayList<>();
+        Iterator<Flow> iterator = rotation.iterator();
+        while (iterator.hasNext()) {
+            Flow flow = iterator.next();
+            if (flow.jobId.equals(jobId)) {
+                iterator.remove();
+                flows.remove(flow.key);
+                removed.addAll(flow.tiles);
+            }
+        }
+        buffered -= removed.size();
+        return removed;
+    }
+
+    /**
+     * Queue ids of the buffered tiles, which stay pending in the queue under
+     * this orchestrator's consumer until they are launched
+     */
+    public synchronized List<String> getBufferedQueueIds() {
+        List<String> queueIds = new ArrayList<>(buffered);
+        for (Flow flow : rotation) {
+            for (QueuedTile tile : flow.tiles) {
+                queueIds.add(tile.getQueueId());
+            }
+        }
+        return queueIds;
+    }
+
+    public synchronized int getBufferedCount() {
+        return buffered;
+    }
+
+    public synchronized int getFlowCount() {
+        return flows.size();
+    }
+
+    private static String flowKey(TileLane lane, String jobId) {
+        return lane.getId() + ":" + jobId;
+    }
+
+    /**
+     * Buffered tiles of one job in one lane
+     */
+    private static class Flow {
+        final String key;
+        final String jobId;
+        final int quantum;
+        final Deque<QueuedTile> tiles = new ArrayDeque<>();
+        int deficit;
+
+        Flow(String key, String jobId, int quantum) {
+            this.key = key;
+            this.jobId = jobId;
+            this.quantum = quantum;
+        }
+    }
+}
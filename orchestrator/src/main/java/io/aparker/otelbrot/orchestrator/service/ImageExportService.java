@@ -0,0 +1,200 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.orchestrator.model.FractalJob;
+import io.aparker.otelbrot.orchestrator.model.ImageFormat;
+import io.aparker.otelbrot.orchestrator.repository.TileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stitches a job's tiles into one image and streams it out. The canvas is
+ * swept top to bottom in bands of rows: a tile is decoded when the sweep
+ * reaches it and dropped once the sweep has passed it, and every band is
+ * handed to a streaming encoder. Memory stays at a band and the tiles it
+ * crosses rather than the whole canvas. Large renders are already stitched
+ * in their mosaic, which is streamed the same way.
+ */
+@Service
+public class ImageExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageExportService.class);
+
+    // Black where a tile is missing or failed
+    private static final int BACKGROUND = 0x000000;
+
+    private final TileRepository tileRepository;
+    private final LargeRenderService largeRenderService;
+    private final int bandRows;
+    private final int jpegQuality;
+    private final Timer exportTimer;
+
+    public ImageExportService(
+        TileRepository tileRepository,
+        LargeRenderService largeRenderService,
+        @Value("${app.export.band-rows:64}") int bandRows,
+        @Value("${app.export.jpeg-quality:90}") int jpegQuality,
+        MeterRegistry meterRegistry
+    ) {
+        this.tileRepository = tileRepository;
+        this.largeRenderService = largeRenderService;
+        this.bandRows = Math.max(1, bandRows);
+        this.jpegQuality = jpegQuality;
+        this.exportTimer = Timer.builder("otelbrot.image.export")
+            .description("Time to stitch and stream a job's image")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Whether a job's image can be exported from this replica; large renders
+     * are read from their mosaic, which only the replica assembling it has
+     */
+    public boolean canExport(FractalJob job) {
+        return !job.isLargeRender() || largeRenderService.hasMosaic(job.getJobId());
+    }
+
+    /**
+     * Stream a job's tiles as one image of the job's size
+     */
+    public void export(FractalJob job, ImageFormat format, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start();
+        try {
+            // Encoders write a byte at a time
+            OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+            StreamingImageEncoder encoder = format == ImageFormat.JPEG
+                ? new JpegStreamEncoder(buffered, job.getWidth(), job.getHeight(), jpegQuality)
+                : new PngStreamEncoder(buffered, job.getWidth(), job.getHeight());
+            if (job.isLargeRender()) {
+                try (MosaicFile mosaic = largeRenderService.openMosaic(job)
+                        .orElseThrow(() -> new IOException("No mosaic of job " + job.getJobId()))) {
+                    copy(mosaic, bandRows, encoder);
+                }
+            } else {
+                stitch(detailTiles(job.getJobId()), tile -> tileRepository.getTileImage(tile.getJobId(), tile.getTileId()),
+                    job.getWidth(), job.getHeight(), bandRows, encoder);
+            }
+        } finally {
+            sample.stop(exportTimer);
+        }
+    }
+
+    /**
+     * The job's detail tiles, by the row they start on; the preview covers
+     * the whole canvas at a lower resolution and is left out
+     */
+    private List<TileResult> detailTiles(String jobId) {
+        List<TileResult> tiles = new ArrayList<>(tileRepository.findTileLayoutByJobId(jobId));
+        tiles.removeIf(tile -> tile.getTileId() == null || tile.getTileId().contains("preview"));
+        tiles.sort(Comparator.comparingInt(TileResult::getPixelStartY));
+        return tiles;
+    }
+
+    /**
+     * Stitch tiles sorted by the row they start on, loading each tile's
+     * PNG image once the sweep reaches it
+     */
+    static void stitch(List<TileResult> tiles, Function<TileResult, byte[]> images, int width, int height,
+                       int bandRows, StreamingImageEncoder encoder) throws IOException {
+        int[] band = new int[width * Math.min(bandRows, height)];
+        List<PlacedTile> active = new ArrayList<>();
+        int next = 0;
+
+        for (int bandY = 0; bandY < height; bandY += bandRows) {
+            int rows = Math.min(bandRows, height - bandY);
+            int bandEnd = bandY + rows;
+
+            // Decode the tiles the band reaches and drop the ones it has passed
+            while (next < tiles.size() && tiles.get(next).getPixelStartY() < bandEnd) {
+                TileResult tile = tiles.get(next++);
+                if (tile.getPixelStartY() + tile.getHeight() > bandY) {
+                    PlacedTile placed = decode(tile, images.apply(tile));
+                    if (placed != null) {
+                        active.add(placed);
+                    }
+                }
+            }
+            final int top = bandY;
+            active.removeIf(placed -> placed.bottom() <= top);
+
+            Arrays.fill(band, 0, width * rows, BACKGROUND);
+            for (PlacedTile placed : active) {
+                placed.copyInto(band, width, bandY, bandEnd);
+            }
+            encoder.writeRows(band, rows);
+        }
+        encoder.finish();
+    }
+
+    /**
+     * Stream a mosaic, already stitched, band by band
+     */
+    static void copy(MosaicFile mosaic, int bandRows, StreamingImageEncoder encoder) throws IOException {
+        int width = mosaic.getWidth();
+        int height = mosaic.getHeight();
+        int[] band = new int[width * Math.min(bandRows, height)];
+        for (int bandY = 0; bandY < height; bandY += bandRows) {
+            int rows = Math.min(bandRows, height - bandY);
+            mosaic.read(0, bandY, width, rows, band, 0, width);
+            encoder.writeRows(band, rows);
+        }
+        encoder.finish();
+    }
+
+    private static PlacedTile decode(TileResult tile, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+            if (image == null) {
+                logger.warn("Tile {} of job {} is not an image, leaving it blank", tile.getTileId(), tile.getJobId());
+                return null;
+            }
+            return new PlacedTile(tile.getPixelStartX(), tile.getPixelStartY(),
+                Math.min(tile.getWidth(), image.getWidth()), Math.min(tile.getHeight(), image.getHeight()), image);
+        } catch (IOException e) {
+            logger.warn("Failed to decode tile {} of job {}, leaving it blank", tile.getTileId(), tile.getJobId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * A decoded tile and where it lies on the canvas
+     */
+    record PlacedTile(int x, int y, int width, int height, BufferedImage image) {
+
+        int bottom() {
+            return y + height;
+        }
+
+        /**
+         * Copy the tile's rows between bandY and bandEnd into a band of the given width
+         */
+        void copyInto(int[] band, int bandWidth, int bandY, int bandEnd) {
+            int fromY = Math.max(y, bandY);
+            int toY = Math.min(bottom(), bandEnd);
+            int fromX = Math.max(x, 0);
+            int toX = Math.min(x + width, bandWidth);
+            if (fromY >= toY || fromX >= toX) {
+                return;
+            }
+            image.getRGB(fromX - x, fromY - y, toX - fromX, toY - fromY,
+                band, (fromY - bandY) * bandWidth + fromX, bandWidth);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission store for a single orchestrator. Counts are plain atomic
+ * counters updated with compare-and-set, so callers never block and no
+ * lock is held while they launch workers.
+ */
+public class InMemoryAdmissionStore implements AdmissionStore {
+
+    // Slots in use across all jobs, and per job
+    private final AtomicInteger active = new AtomicInteger();
+    private final Map<String, AtomicInteger> activeByJob = new ConcurrentHashMap<>();
+
+    // Outstanding tiles per slot, and the slot of each outstanding tile keyed by jobId:tileId
+    private final Map<String, Set<String>> slotTiles = new ConcurrentHashMap<>();
+    private final Map<String, String> tileSlots = new ConcurrentHashMap<>();
+
+    @Override
+    public int acquire(String jobId, String slotKey, List<String> tileIds, int jobLimit, int globalLimit, boolean bypassLimits) {
+        if (slotTiles.containsKey(slotKey)) {
+            return ALREADY_HELD;
+        }
+        AtomicInteger jobActive = activeByJob.computeIfAbsent(jobId, k -> new AtomicInteger());
+        if (bypassLimits) {
+            active.incrementAndGet();
+            jobActive.incrementAndGet();
+        } else {
+            if (!incrementBelow(active, globalLimit)) {
+                return REJECTED_GLOBAL;
+            }
+            if (!incrementBelow(jobActive, jobLimit)) {
+                decrementAboveZero(active);
+                return REJECTED_JOB;
+            }
+        }
+
+        Set<String> tiles = ConcurrentHashMap.newKeySet();
+        tiles.addAll(tileIds);
+        if (slotTiles.putIfAbsent(slotKey, tiles) != null) {
+            giveBack(jobId);
+            return ALREADY_HELD;
+        }
+        for (String tileId : tileIds) {
+            tileSlots.put(jobId + ":" + tileId, slotKey);
+        }
+        return ADMITTED;
+    }
+
+    @Override
+    public boolean releaseTile(String jobId, String tileId) {
+        String slotKey = tileSlots.remove(jobId + ":" + tileId);
+        Set<String> tiles = slotKey != null ? slotTiles.get(slotKey) : null;
+        if (tiles == null) {
+            return false;
+        }
+        tiles.remove(tileId);
+        // Only one of the callers seeing the slot empty removes it
+        if (tiles.isEmpty() && slotTiles.remove(slotKey, tiles)) {
+            giveBack(jobId);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public List<String> releaseSlot(String jobId, String slotKey) {
+        Set<String> tiles = slotTiles.remove(slotKey);
+        if (tiles == null) {
+            return null;
+        }
+        for (String tileId : tiles) {
+            tileSlots.remove(jobId + ":" + tileId, slotKey);
+        }
+        giveBack(jobId);
+        return List.copyOf(tiles);
+    }
+
+    @Override
+    public int removeJob(String jobId) {
+        String prefix = jobId + ":";
+        slotTiles.keySet().removeIf(key -> key.startsWith(prefix));
+        tileSlots.keySet().removeIf(key -> key.startsWith(prefix));
+        AtomicInteger jobActive = activeByJob.remove(jobId);
+        if (jobActive == null) {
+            return 0;
+        }
+        int held = jobActive.getAndSet(0);
+        for (int i = 0; i < held; i++) {
+            decrementAboveZero(active);
+        }
+        return held;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    @Override
+    public int getActiveCount(String jobId) {
+        AtomicInteger jobActive = activeByJob.get(jobId);
+        return jobActive != null ? jobActive.get() : 0;
+    }
+
+    @Override
+    public Set<String> getSlotKeys() {
+        return Set.copyOf(slotTiles.keySet());
+    }
+
+    private void giveBack(String jobId) {
+        AtomicInteger jobActive = activeByJob.get(jobId);
+        // A job removed in the meantime already gave back all of its slots
+        if (jobActive != null && decrementAboveZero(jobActive)) {
+            decrementAboveZero(active);
+        }
+    }
+
+    private static boolean incrementBelow(AtomicInteger counter, int limit) {
+        while (true) {
+            int current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean decrementAboveZero(AtomicInteger counter) {
+        while (true) {
+            int current = counter.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import javax.imageio.plugins.jpeg.JPEGHuffmanTable;
+import javax.imageio.plugins.jpeg.JPEGQTable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a baseline JPEG, YCbCr without chroma subsampling, with the
+ * standard quantization and Huffman tables. Rows are buffered until a row
+ * of 8x8 blocks is complete and then encoded, so only eight rows are kept,
+ * where ImageIO's writer needs the whole image as one raster.
+ */
+class JpegStreamEncoder implements StreamingImageEncoder {
+
+    // Position in zigzag order of each coefficient in natural order
+    private static final int[] ZIGZAG = {
+        0, 1, 5, 6, 14, 15, 27, 28,
+        2, 4, 7, 13, 16, 26, 29, 42,
+        3, 8, 12, 17, 25, 30, 41, 43,
+        9, 11, 18, 24, 31, 40, 44, 53,
+        10, 19, 23, 32, 39, 45, 52, 54,
+        20, 22, 33, 38, 46, 51, 55, 60,
+        21, 34, 37, 47, 50, 56, 59, 61,
+        35, 36, 48, 49, 57, 58, 62, 63
+    };
+
+    // Scale factors of the AAN forward DCT
+    private static final double[] AAN_SCALE = {
+        1.0, 1.387039845, 1.306562965, 1.175875602, 1.0, 0.785694958, 0.541196100, 0.275899379
+    };
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+
+    private final int[] lumaQuant;
+    private final int[] chromaQuant;
+    private final double[] lumaDivisors;
+    private final double[] chromaDivisors;
+
+    // Huffman codes and code lengths by symbol
+    private final int[][] dcLuma;
+    private final int[][] acLuma;
+    private final int[][] dcChroma;
+    private final int[][] acChroma;
+
+    // Eight rows of pixels, the last one repeated past the bottom of the image
+    private final int[] blockRows;
+    private int bufferedRows;
+    private int rowsWritten;
+
+    private final double[] block = new double[64];
+    private final int[] coefficients = new int[64];
+    private int previousY;
+    private int previousCb;
+    private int previousCr;
+
+    private long bitBuffer;
+    private int bitCount;
+
+    /**
+     * @param quality from 1 to 100, as in libjpeg
+     */
+    JpegStreamEncoder(OutputStream out, int width, int height, int quality) throws IOException {
+        if (width <= 0 || height <= 0 || width > 65535 || height > 65535) {
+            throw new IllegalArgumentException("Invalid JPEG size: " + width + "x" + height);
+        }
+        if (quality < 1 || quality > 100) {
+            throw new IllegalArgumentException("JPEG quality must be between 1 and 100");
+        }
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.blockRows = new int[width * 8];
+
+        float scale = quality < 50 ? 50f / quality : (200 - 2 * quality) / 100f;
+        this.lumaQuant = JPEGQTable.K1Luminance.getScaledInstance(scale, true).getTable();
+        this.chromaQuant = JPEGQTable.K2Chrominance.getScaledInstance(scale, true).getTable();
+        this.lumaDivisors = divisors(lumaQuant);
+        this.chromaDivisors = divisors(chromaQuant);
+
+        this.dcLuma = huffmanCodes(JPEGHuffmanTable.StdDCLuminance);
+        this.acLuma = huffmanCodes(JPEGHuffmanTable.StdACLuminance);
+        this.dcChroma = huffmanCodes(JPEGHuffmanTable.StdDCChrominance);
+        this.acChroma = huffmanCodes(JPEGHuffmanTable.StdACChrominance);
+
+        writeHeaders();
+    }
+
+    @Override
+    public void writeRows(int[] pixels, int rows) throws IOException {
+        if (rowsWritten + rows > height) {
+            throw new IllegalStateException("Image has only " + height + " rows");
+        }
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(pixels, row * width, blockRows, bufferedRows * width, width);
+            bufferedRows++;
+            if (bufferedRows == 8) {
+                encodeBlockRow();
+            }
+        }
+        rowsWritten += rows;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rowsWritten != height) {
+            throw new IllegalStateException("Wrote " + rowsWritten + " of " + height + " rows");
+        }
+        if (bufferedRows > 0) {
+            for (int row = bufferedRows; row < 8; row++) {
+                System.arraycopy(blockRows, (bufferedRows - 1) * width, blockRows, row * width, width);
+            }
+            encodeBlockRow();
+        }
+
+        // Pad the last byte with ones
+        if (bitCount > 0) {
+            writeBits((1 << (8 - bitCount)) - 1, 8 - bitCount);
+        }
+        writeMarker(0xD9);
+        out.flush();
+    }
+
+    private void encodeBlockRow() throws IOException {
+        for (int blockX = 0; blockX < width; blockX += 8) {
+            previousY = encodeBlock(blockX, 0, lumaDivisors, previousY, dcLuma, acLuma);
+            previousCb = encodeBlock(blockX, 1, chromaDivisors, previousCb, dcChroma, acChroma);
+            previousCr = encodeBlock(blockX, 2, chromaDivisors, previousCr, dcChroma, acChroma);
+        }
+        bufferedRows = 0;
+    }
+
+    /**
+     * Encode one component of the 8x8 block at blockX, repeating the last
+     * column past the right edge of the image
+     *
+     * @return the block's DC coefficient, which the next block is coded against
+     */
+    private int encodeBlock(int blockX, int component, double[] divisors, int previousDc,
+                            int[][] dcCodes, int[][] acCodes) throws IOException {
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                int rgb = blockRows[y * width + Math.min(blockX + x, width - 1)];
+                int r = (rgb >> 16) & 0xFF;
+                int g = (rgb >> 8) & 0xFF;
+                int b = rgb & 0xFF;
+                block[y * 8 + x] = switch (component) {
+                    case 0 -> 0.299 * r + 0.587 * g + 0.114 * b - 128;
+                    case 1 -> -0.16874 * r - 0.33126 * g + 0.5 * b;
+                    default -> 0.5 * r - 0.41869 * g - 0.08131 * b;
+                };
+            }
+        }
+        forwardDct(block);
+        for (int i = 0; i < 64; i++) {
+            coefficients[ZIGZAG[i]] = (int) Math.round(block[i] / divisors[i]);
+        }
+
+        int dc = coefficients[0];
+        writeValue(dcCodes, 0, dc - previousDc);
+
+        int last = 63;
+        while (last > 0 && coefficients[last] == 0) {
+            last--;
+        }
+        int zeros = 0;
+        for (int i = 1; i <= last; i++) {
+            if (coefficients[i] == 0) {
+                zeros++;
+                continue;
+            }
+            while (zeros >= 16) {
+                writeCode(acCodes[0xF0]);
+                zeros -= 16;
+            }
+            writeValue(acCodes, zeros << 4, coefficients[i]);
+            zeros = 0;
+        }
+        if (last < 63) {
+            writeCode(acCodes[0x00]);
+        }
+        return dc;
+    }
+
+    /**
+     * Write a coefficient as the code of its run and bit length, then its bits
+     */
+    private void writeValue(int[][] codes, int run, int value) throws IOException {
+        int magnitude = Math.abs(value);
+        int length = 32 - Integer.numberOfLeadingZeros(magnitude);
+        writeCode(codes[run | length]);
+        if (length > 0) {
+            writeBits(value < 0 ? value - 1 : value, length);
+        }
+    }
+
+    private void writeCode(int[] code) throws IOException {
+        writeBits(code[0], code[1]);
+    }
+
+    private void writeBits(int bits, int length) throws IOException {
+        bitBuffer = (bitBuffer << length) | (bits & ((1L << length) - 1));
+        bitCount += length;
+        while (bitCount >= 8) {
+            int b = (int) (bitBuffer >> (bitCount - 8)) & 0xFF;
+            out.write(b);
+            if (b == 0xFF) {
+                out.write(0); // byte stuffing
+            }
+            bitCount -= 8;
+        }
+        bitBuffer &= (1L << bitCount) - 1;
+    }
+
+    /**
+     * Separable floating point AAN forward DCT, as in libjpeg's jfdctflt,
+     * leaving the AAN scale factors to the quantization divisors
+     */
+    private static void forwardDct(double[] data) {
+        for (int pass = 0; pass < 2; pass++) {
+            int step = pass == 0 ? 1 : 8;
+            int next = pass == 0 ? 8 : 1;
+            for (int line = 0; line < 8; line++) {
+                int o = line * next;
+                double tmp0 = data[o] + data[o + 7 * step];
+                double tmp7 = data[o] - data[o + 7 * step];
+                double tmp1 = data[o + step] + data[o + 6 * step];
+                double tmp6 = data[o + step] - data[o + 6 * step];
+                double tmp2 = data[o + 2 * step] + data[o + 5 * step];
+                double tmp5 = data[o + 2 * step] - data[o + 5 * step];
+                double tmp3 = data[o + 3 * step] + data[o + 4 * step];
+                double tmp4 = data[o + 3 * step] - data[o + 4 * step];
+
+                // Even part
+                double tmp10 = tmp0 + tmp3;
+                double tmp13 = tmp0 - tmp3;
+                double tmp11 = tmp1 + tmp2;
+                double tmp12 = tmp1 - tmp2;
+                data[o] = tmp10 + tmp11;
+                data[o + 4 * step] = tmp10 - tmp11;
+                double z1 = (tmp12 + tmp13) * 0.707106781;
+                data[o + 2 * step] = tmp13 + z1;
+                data[o + 6 * step] = tmp13 - z1;
+
+                // Odd part
+                tmp10 = tmp4 + tmp5;
+                tmp11 = tmp5 + tmp6;
+                tmp12 = tmp6 + tmp7;
+                double z5 = (tmp10 - tmp12) * 0.382683433;
+                double z2 = 0.541196100 * tmp10 + z5;
+                double z4 = 1.306562965 * tmp12 + z5;
+                double z3 = tmp11 * 0.707106781;
+                double z11 = tmp7 + z3;
+                double z13 = tmp7 - z3;
+                data[o + 5 * step] = z13 + z2;
+                data[o + 3 * step] = z13 - z2;
+                data[o + step] = z11 + z4;
+                data[o + 7 * step] = z11 - z4;
+            }
+        }
+    }
+
+    private static double[] divisors(int[] quant) {
+        double[] divisors = new double[64];
+        for (int i = 0; i < 64; i++) {
+            divisors[i] = quant[i] * AAN_SCALE[i / 8] * AAN_SCALE[i % 8] * 8;
+        }
+        return divisors;
+    }
+
+    /**
+     * Canonical Huffman codes of a table, as {code, length} by symbol
+     */
+    private static int[][] huffmanCodes(JPEGHuffmanTable table) {
+        short[] lengths = table.getLengths();
+        short[] values = table.getValues();
+        int[][] codes = new int[256][];
+        int code = 0;
+        int k = 0;
+        for (int length = 1; length <= 16; length++) {
+            for (int i = 0; i < lengths[length - 1]; i++) {
+                codes[values[k++]] = new int[] {code++, length};
+            }
+            code <<= 1;
+        }
+        return codes;
+    }
+
+    private void writeHeaders() throws IOException {
+        writeMarker(0xD8);
+
+        // JFIF, no thumbnail
+        writeMarker(0xE0);
+        writeShort(16);
+        out.write(new byte[] {'J', 'F', 'I', 'F', 0, 1, 1, 0, 0, 1, 0, 1, 0, 0});
+
+        writeMarker(0xDB);
+        writeShort(2 + 2 * 65);
+        writeQuantTable(0, lumaQuant);
+        writeQuantTable(1, chromaQuant);
+
+        // Baseline frame with three full resolution components
+        writeMarker(0xC0);
+        writeShort(17);
+        out.write(8);
+        writeShort(height);
+        writeShort(width);
+        out.write(3);
+        for (int component = 1; component <= 3; component++) {
+            out.write(component);
+            out.write(0x11);
+            out.write(component == 1 ? 0 : 1);
+        }
+
+        JPEGHuffmanTable[] tables = {
+            JPEGHuffmanTable.StdDCLuminance, JPEGHuffmanTable.StdACLuminance,
+            JPEGHuffmanTable.StdDCChrominance, JPEGHuffmanTable.StdACChrominance
+        };
+        int[] tableIds = {0x00, 0x10, 0x01, 0x11};
+        int length = 2;
+        for (JPEGHuffmanTable table : tables) {
+            length += 1 + 16 + table.getValues().length;
+        }
+        writeMarker(0xC4);
+        writeShort(length);
+        for (int i = 0; i < tables.length; i++) {
+            out.write(tableIds[i]);
+            for (short count : tables[i].getLengths()) {
+                out.write(count);
+            }
+            for (short value : tables[i].getValues()) {
+                out.write(value);
+            }
+        }
+
+        writeMarker(0xDA);
+        writeShort(12);
+        out.write(3);
+        out.write(new byte[] {1, 0x00, 2, 0x11, 3, 0x11});
+        out.write(new byte[] {0, 63, 0});
+    }
+
+    private void writeQuantTable(int id, int[] quant) throws IOException {
+        out.write(id);
+        byte[] zigzag = new byte[64];
+        for (int i = 0; i < 64; i++) {
+            zigzag[ZIGZAG[i]] = (byte) quant[i];
+        }
+        out.write(zigzag);
+    }
+
+    private void writeMarker(int marker) throws IOException {
+        out.write(0xFF);
+        out.write(marker);
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value >> 8);
+        out.write(value);
+    }
+}
@@ -0,0 +1,296 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.model.TileGrid;
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.orchestrator.model.FractalJob;
+import io.aparker.otelbrot.orchestrator.repository.JobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Assembles the detail tiles of large renders on local disk instead of in
+ * Redis. Each tile is written into the job's memory-mapped mosaic as it
+ * arrives, and the job's DeepZoom pyramid grows with every tile it
+ * completes, so a render far bigger than the heap is viewable while it is
+ * still being calculated. A job's files are removed once it hasn't been
+ * updated for the retention period, or once the job itself is gone.
+ * <p>
+ * A job's mosaic is assembled by the replica that created it; results of
+ * large renders must reach that replica, or the directory be shared.
+ */
+@Service
+public class LargeRenderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LargeRenderService.class);
+
+    static final String MOSAIC_FILE = "mosaic.rgb";
+    static final String PYRAMID_NAME = "image";
+
+    // Job ids become directory names, so anything but a plain id is refused
+    private static final Pattern JOB_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    // Tile sizes grow in these steps until a large render fits in maxTiles
+    private static final int TILE_SIZE_STEP = 64;
+
+    private final JobRepository jobRepository;
+    private final Path directory;
+    private final int pyramidTileSize;
+    private final String pyramidFormat;
+    private final int maxTiles;
+    private final Duration retention;
+    private final Timer assembleTimer;
+
+    private final Map<String, LargeRender> renders = new ConcurrentHashMap<>();
+
+    private record LargeRender(MosaicFile mosaic, DeepZoomPyramid pyramid) {}
+
+    public LargeRenderService(
+        JobRepository jobRepository,
+        @Value("${app.large-render.directory:${java.io.tmpdir}/otelbrot-renders}") String directory,
+        @Value("${app.large-render.tile-size:256}") int pyramidTileSize,
+        @Value("${app.large-render.tile-format:jpg}") String pyramidFormat,
+        @Value("${app.large-render.max-tiles:4096}") int maxTiles,
+        @Value("${app.large-render.retention-hours:24}") long retentionHours,
+        MeterRegistry meterRegistry
+    ) {
+        this.jobRepository = jobRepository;
+        this.directory = Paths.get(directory);
+        this.pyramidTileSize = pyramidTileSize;
+        this.pyramidFormat = pyramidFormat;
+        this.maxTiles = maxTiles;
+        this.retention = Duration.ofHours(retentionHours);
+        this.assembleTimer = Timer.builder("otelbrot.large_render.assemble")
+            .description("Time to write a tile into its mosaic and pyramid")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Detail tile size of a large render: the requested size, grown until the
+     * render has at most maxTiles tiles or the tiles reach the largest size
+     * a large render grid allows
+     */
+    public int detailTileSize(int width, int height, int tileSize) {
+        int size = Math.min(Math.max(tileSize, 1), TileGrid.MAX_LARGE_TILE_SIZE);
+        while (size < TileGrid.MAX_LARGE_TILE_SIZE
+            && (long) Math.ceilDiv(width, size) * Math.ceilDiv(height, size) > maxTiles) {
+            size = Math.min((size / TILE_SIZE_STEP + 1) * TILE_SIZE_STEP, TileGrid.MAX_LARGE_TILE_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * Create a job's empty mosaic and pyramid, before any of its tiles can arrive
+     */
+    @WithSpan("LargeRenderService.start")
+    public void start(FractalJob job) {
+        Path jobDirectory = jobDirectory(job.getJobId())
+            .orElseThrow(() -> new IllegalArgumentException("Invalid job id: " + job.getJobId()));
+        MosaicFile mosaic = null;
+        try {
+            Files.createDirectories(jobDirectory);
+            mosaic = MosaicFile.create(jobDirectory.resolve(MOSAIC_FILE), job.getWidth(), job.getHeight());
+            DeepZoomPyramid pyramid = new DeepZoomPyramid(
+                mosaic, jobDirectory, PYRAMID_NAME, pyramidTileSize, pyramidFormat);
+            renders.put(job.getJobId(), new LargeRender(mosaic, pyramid));
+            Span.current().setAttribute("pyramid.levels", pyramid.getMaxLevel() + 1);
+            logger.info("Assembling {}x{} job {} in {}", job.getWidth(), job.getHeight(), job.getJobId(), jobDirectory);
+        } catch (IOException e) {
+            closeQuietly(mosaic);
+            throw new UncheckedIOException("Failed to create the mosaic of job " + job.getJobId(), e);
+        }
+    }
+
+    /**
+     * Write a detail tile into its job's mosaic and pyramid. A failed tile
+     * leaves its region black but still counts towards the pyramid.
+     *
+     * @return false if the tile's job isn't a large render assembled here
+     */
+    @WithSpan("LargeRenderService.addTile")
+    public boolean addTile(@SpanAttribute("job.id") String jobId, TileResult result) {
+        LargeRender render = renders.get(jobId);
+        if (render == null) {
+            return false;
+        }
+        assembleTimer.record(() -> {
+            try {
+                if (result.getImageData() != null) {
+                    BufferedImage image = ImageIO.read(new ByteArrayInputStream(result.getImageData()));
+                    if (image != null) {
+                        render.mosaic().write(result.getPixelStartX(), result.getPixelStartY(),
+                            image.getWidth() > result.getWidth() || image.getHeight() > result.getHeight()
+                                ? image.getSubimage(0, 0, Math.min(image.getWidth(), result.getWidth()),
+                                    Math.min(image.getHeight(), result.getHeight()))
+                                : image);
+                    }
+                }
+                int written = render.pyramid().addRegion(result.getPixelStartX(), result.getPixelStartY(),
+                    result.getWidth(), result.getHeight());
+                Span.current().setAttribute("pyramid.tiles_written", written);
+            } catch (IOException e) {
+                logger.error("Failed to assemble tile {} of job {}", result.getTileId(), jobId, e);
+                Span.current().recordException(e);
+            }
+        });
+        if (render.pyramid().isComplete()) {
+            finish(jobId);
+        }
+        return true;
+    }
+
+    /**
+     * Write out and release a job's mosaic, and drop the pixels its pyramid
+     * kept for its lower levels, once it is complete or cancelled
+     */
+    public void finish(String jobId) {
+        LargeRender render = renders.remove(jobId);
+        if (render == null) {
+            return;
+        }
+        render.mosaic().force();
+        closeQuietly(render.pyramid());
+        closeQuietly(render.mosaic());
+        logger.info("Finished assembling job {}", jobId);
+    }
+
+    /**
+     * Open a job's mosaic to read it
+     *
+     * @return empty if the job has no mosaic on this replica
+     */
+    Optional<MosaicFile> openMosaic(FractalJob job) {
+        Optional<Path> path = jobDirectory(job.getJobId()).map(dir -> dir.resolve(MOSAIC_FILE)).filter(Files::isRegularFile);
+        if (path.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(MosaicFile.open(path.get(), job.getWidth(), job.getHeight()));
+        } catch (IOException e) {
+            logger.warn("Failed to open the mosaic of job {}: {}", job.getJobId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public boolean hasMosaic(String jobId) {
+        return jobDirectory(jobId).map(dir -> Files.isRegularFile(dir.resolve(MOSAIC_FILE))).orElse(false);
+    }
+
+    /**
+     * A job's DeepZoom descriptor, if it is assembled on this replica
+     */
+    public Optional<Path> findDescriptor(String jobId) {
+        return jobDirectory(jobId)
+            .map(dir -> dir.resolve(PYRAMID_NAME + ".dzi"))
+            .filter(Files::isRegularFile);
+    }
+
+    /**
+     * A written tile of a job's DeepZoom pyramid
+     */
+    public Optional<Path> findPyramidTile(String jobId, int level, int column, int row) {
+        if (level < 0 || column < 0 || row < 0) {
+            return Optional.empty();
+        }
+        return jobDirectory(jobId)
+            .map(dir -> dir.resolve(PYRAMID_NAME + "_files")
+                .resolve(level + "/" + column + "_" + row + "." + pyramidFormat))
+            .filter(Files::isRegularFile);
+    }
+
+    public String getPyramidFormat() {
+        return pyramidFormat;
+    }
+
+    @Scheduled(fixedDelayString = "${app.large-render.cleanup-interval-ms:600000}")
+    private void removeExpiredRenders() {
+        try {
+            removeExpiredRenders(ZonedDateTime.now().minus(retention));
+        } catch (Exception e) {
+            logger.warn("Failed to remove expired large renders: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the files of the large renders not assembling here whose job is
+     * gone or was last updated before the cutoff
+     *
+     * @return the number of renders removed
+     */
+    int removeExpiredRenders(ZonedDateTime cutoff) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        List<Path> jobDirectories;
+        try (Stream<Path> entries = Files.list(directory)) {
+            jobDirectories = entries.filter(Files::isDirectory).toList();
+        }
+
+        int removed = 0;
+        for (Path jobDirectory : jobDirectories) {
+            String jobId = jobDirectory.getFileName().toString();
+            if (!JOB_ID.matcher(jobId).matches() || renders.containsKey(jobId)) {
+                continue;
+            }
+            Optional<FractalJob> job = jobRepository.findById(jobId);
+            if (job.isPresent() && !job.get().getUpdatedAt().isBefore(cutoff)) {
+                continue;
+            }
+            deleteRecursively(jobDirectory);
+            removed++;
+            logger.info("Removed large render of {} job {}", job.map(j -> j.getStatus().name()).orElse("deleted"), jobId);
+        }
+        return removed;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path file : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Optional<Path> jobDirectory(String jobId) {
+        if (jobId == null || !JOB_ID.matcher(jobId).matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(directory.resolve(jobId));
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close {}: {}", closeable.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+}
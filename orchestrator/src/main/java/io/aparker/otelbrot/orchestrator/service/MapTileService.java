@@ -0,0 +1,189 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import io.aparker.otelbrot.orchestrator.repository.TileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves the map tiles of a {@link TilePyramid}, so panning and zooming
+ * reuse tiles instead of rendering every view. Tiles come from the tile
+ * cache; a missing tile is rendered as a single tile job, and requests for
+ * a tile already being rendered, on this replica or another, wait for that
+ * render.
+ */
+@Service
+public class MapTileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MapTileService.class);
+
+    // Map tile jobs are told apart from render jobs on the tile update channels
+    private static final String MAP_JOB_PREFIX = "map-";
+    private static final String MAP_TILE_ID = "map";
+    private static final String TILE_UPDATES_CHANNEL = "tile_updates:";
+
+    private final OrchestrationService orchestrationService;
+    private final TileCache tileCache;
+    private final TileRepository tileRepository;
+    private final TilePyramid pyramid;
+    private final long renderTimeoutMs;
+
+    // Render in progress per map tile, and per job rendering one
+    private final Map<String, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<byte[]>> renders = new ConcurrentHashMap<>();
+
+    private final Counter cachedTiles;
+    private final Counter renderedTiles;
+    private final Counter coalescedTiles;
+
+    public MapTileService(
+        OrchestrationService orchestrationService,
+        TileCache tileCache,
+        TileRepository tileRepository,
+        RedisMessageListenerContainer listenerContainer,
+        @Value("${app.tiles.tile-size:256}") int tileSize,
+        @Value("${app.tiles.base-iterations:256}") int baseIterations,
+        @Value("${app.tiles.iterations-per-level:64}") int iterationsPerLevel,
+        @Value("${app.tiles.max-zoom:40}") int maxZoom,
+        @Value("${app.tiles.render-timeout-ms:60000}") long renderTimeoutMs,
+        MeterRegistry meterRegistry
+    ) {
+        this.orchestrationService = orchestrationService;
+        this.tileCache = tileCache;
+        this.tileRepository = tileRepository;
+        this.pyramid = new TilePyramid(tileSize, baseIterations, iterationsPerLevel, maxZoom);
+        this.renderTimeoutMs = renderTimeoutMs;
+
+        this.cachedTiles = Counter.builder("otelbrot.map_tiles.requests")
+            .description("Map tile requests")
+            .tag("result", "cached")
+            .register(meterRegistry);
+        this.renderedTiles = Counter.builder("otelbrot.map_tiles.requests")
+            .description("Map tile requests")
+            .tag("result", "rendered")
+            .register(meterRegistry);
+        this.coalescedTiles = Counter.builder("otelbrot.map_tiles.requests")
+            .description("Map tile requests")
+            .tag("result", "coalesced")
+            .register(meterRegistry);
+        Gauge.builder("otelbrot.map_tiles.pending", pending, Map::size)
+            .description("Map tiles being rendered for requests on this replica")
+            .register(meterRegistry);
+
+        // The replica that received the result publishes it, whichever replica launched the job
+        MessageListener completion = (message, pattern) -> renderCompleted(
+            new String(message.getChannel(), StandardCharsets.UTF_8)
+                .substring(TILE_UPDATES_CHANNEL.length())
+        );
+        listenerContainer.addMessageListener(completion, new PatternTopic(TILE_UPDATES_CHANNEL + MAP_JOB_PREFIX + "*"));
+    }
+
+    /**
+     * PNG image of the map tile at z/x/y in a color scheme, rendered if it
+     * isn't cached. Completes exceptionally with a TimeoutException if the
+     * render takes longer than the render timeout.
+     *
+     * @throws IllegalArgumentException if the tile is outside the pyramid
+     */
+    @WithSpan("MapTileService.getTile")
+    public CompletableFuture<byte[]> getTile(
+        @SpanAttribute("tile.color_scheme") String colorScheme,
+        @SpanAttribute("map.z") int z,
+        @SpanAttribute("map.x") long x,
+        @SpanAttribute("map.y") long y
+    ) {
+        String jobId = MAP_JOB_PREFIX + UUID.randomUUID();
+        TileSpec tile = pyramid.tileSpec(jobId, MAP_TILE_ID, colorScheme, z, x, y);
+        String mapTileKey = colorScheme + "/" + z + "/" + x + "/" + y;
+
+        CompletableFuture<byte[]> render = pending.get(mapTileKey);
+        if (render != null) {
+            coalescedTiles.increment();
+            Span.current().setAttribute("map.coalesced", true);
+            return render;
+        }
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        render = pending.putIfAbsent(mapTileKey, created);
+        if (render != null) {
+            coalescedTiles.increment();
+            Span.current().setAttribute("map.coalesced", true);
+            return render;
+        }
+        created.orTimeout(renderTimeoutMs, TimeUnit.MILLISECONDS)
+            .whenComplete((image, error) -> pending.remove(mapTileKey, created));
+
+        try {
+            startRender(mapTileKey, tile, created);
+        } catch (Exception e) {
+            logger.warn("Failed to render map tile {}: {}", mapTileKey, e.getMessage());
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private void startRender(String mapTileKey, TileSpec tile, CompletableFuture<byte[]> render) {
+        Optional<TileResult> cached = tileCache.lookup(tile);
+        if (cached.isPresent()) {
+            cachedTiles.increment();
+            Span.current().setAttribute("tile.cached", true);
+            render.complete(cached.get().getImageData());
+            return;
+        }
+
+        // Requests for the tile on other replicas find the claim and wait on this render
+        String renderJobId = tileRepository.claimMapTile(
+            mapTileKey, tile.getJobId(), Duration.ofMillis(renderTimeoutMs));
+        renders.put(renderJobId, render);
+        render.whenComplete((image, error) -> renders.remove(renderJobId, render));
+
+        if (renderJobId.equals(tile.getJobId())) {
+            renderedTiles.increment();
+            orchestrationService.createTileJob(tile, TileLane.INTERACTIVE);
+            logger.debug("Rendering map tile {} in job {}", mapTileKey, renderJobId);
+            return;
+        }
+
+        // Another replica renders the tile, which may already be done
+        coalescedTiles.increment();
+        Span.current().setAttribute("map.coalesced", true);
+        tileCache.removeJob(tile.getJobId());
+        renderCompleted(renderJobId);
+    }
+
+    private void renderCompleted(String jobId) {
+        CompletableFuture<byte[]> render = renders.get(jobId);
+        if (render == null) {
+            return;
+        }
+        try {
+            byte[] image = tileRepository.getTileImage(jobId, MAP_TILE_ID);
+            if (image != null) {
+                render.complete(image);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to read rendered map tile of job {}: {}", jobId, e.getMessage());
+            render.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Worker slots the backend observed no worker for. A slot is only given
+ * back once it went unobserved at two reconciliations in a row, so a worker
+ * the backend hasn't caught up with yet keeps its slot.
+ */
+class MissingSlots {
+
+    // Held slots that were unobserved at the last reconciliation
+    private final Set<String> missing = new HashSet<>();
+
+    /**
+     * Compare the slots held with the slots of the workers observed
+     *
+     * @return the held slots unobserved now and at the last reconciliation
+     */
+    synchronized List<String> reconcile(Set<String> held, Set<String> observed) {
+        List<String> gone = new ArrayList<>();
+        for (String slotKey : held) {
+            if (observed.contains(slotKey)) {
+                missing.remove(slotKey);
+            } else if (!missing.add(slotKey)) {
+                missing.remove(slotKey);
+                gone.add(slotKey);
+            }
+        }
+        missing.retainAll(held);
+        return gone;
+    }
+}
@@ -0,0 +1,156 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Raw RGB image on local disk, three bytes per pixel row after row, mapped
+ * into memory so tiles are written straight into place and regions read
+ * back without the image ever being on the heap. The file is sparse until
+ * written, and the operating system pages it in and out as needed.
+ * <p>
+ * Tiles cover disjoint regions, so they are written concurrently without
+ * locking; readers must only read regions whose tiles have been written.
+ */
+class MosaicFile implements Closeable {
+
+    static final int BYTES_PER_PIXEL = 3;
+
+    // A single mapping is limited to 2GB, so the file is mapped in segments of whole rows
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int rowsPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    private MosaicFile(FileChannel channel, int width, int height, boolean writable) throws IOException {
+        this.channel = channel;
+        this.width = width;
+        this.height = height;
+        long rowBytes = (long) width * BYTES_PER_PIXEL;
+        this.rowsPerSegment = (int) Math.max(1, MAX_SEGMENT_BYTES / rowBytes);
+        this.segments = new MappedByteBuffer[(height + rowsPerSegment - 1) / rowsPerSegment];
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for (int i = 0; i < segments.length; i++) {
+            int rows = Math.min(rowsPerSegment, height - i * rowsPerSegment);
+            segments[i] = channel.map(mode, i * rowsPerSegment * rowBytes, rows * rowBytes);
+        }
+    }
+
+    /**
+     * Create an empty, black mosaic, replacing any file at the path
+     */
+    static MosaicFile create(Path path, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid mosaic size: " + width + "x" + height);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SPARSE);
+        try {
+            return new MosaicFile(channel, width, height, true);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open an existing mosaic to read it
+     *
+     * @throws IOException if the file doesn't hold a mosaic of this size
+     */
+    static MosaicFile open(Path path, int width, int height) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() != (long) width * height * BYTES_PER_PIXEL) {
+                throw new IOException("Mosaic " + path + " is not " + width + "x" + height);
+            }
+            return new MosaicFile(channel, width, height, false);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Write an image with its top left corner at (x, y), clipped to the mosaic
+     */
+    void write(int x, int y, BufferedImage image) {
+        int fromX = Math.max(x, 0);
+        int toX = Math.min(x + image.getWidth(), width);
+        int fromY = Math.max(y, 0);
+        int toY = Math.min(y + image.getHeight(), height);
+        if (fromX >= toX || fromY >= toY) {
+            return;
+        }
+        int[] pixels = new int[toX - fromX];
+        byte[] bytes = new byte[pixels.length * BYTES_PER_PIXEL];
+        for (int row = fromY; row < toY; row++) {
+            image.getRGB(fromX - x, row - y, pixels.length, 1, pixels, 0, pixels.length);
+            for (int i = 0; i < pixels.length; i++) {
+                bytes[i * 3] = (byte) (pixels[i] >> 16);
+                bytes[i * 3 + 1] = (byte) (pixels[i] >> 8);
+                bytes[i * 3 + 2] = (byte) pixels[i];
+            }
+            segment(row).put(offset(row, fromX), bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Read a region as RGB ints, row after row, into pixels at offset with
+     * the given number of ints per row
+     */
+    void read(int x, int y, int regionWidth, int regionHeight, int[] pixels, int offset, int scanSize) {
+        if (x < 0 || y < 0 || x + regionWidth > width || y + regionHeight > height) {
+            throw new IllegalArgumentException("Region outside the mosaic");
+        }
+        byte[] bytes = new byte[regionWidth * BYTES_PER_PIXEL];
+        for (int row = 0; row < regionHeight; row++) {
+            segment(y + row).get(offset(y + row, x), bytes, 0, bytes.length);
+            int start = offset + row * scanSize;
+            for (int i = 0; i < regionWidth; i++) {
+                pixels[start + i] = (bytes[i * 3] & 0xFF) << 16 | (bytes[i * 3 + 1] & 0xFF) << 8 | (bytes[i * 3 + 2] & 0xFF);
+            }
+        }
+    }
+
+    /**
+     * Write the mapped pages out to the file
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            if (!segment.isReadOnly()) {
+                segment.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Mappings stay valid until collected; only the channel can be closed
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(int row) {
+        return segments[row / rowsPerSegment];
+    }
+
+    private int offset(int row, int x) {
+        return ((row % rowsPerSegment) * width + x) * BYTES_PER_PIXEL;
+    }
+}
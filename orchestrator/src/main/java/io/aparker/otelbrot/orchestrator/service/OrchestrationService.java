@@ -1,15 +1,27 @@
 package io.aparker.otelbrot.orchestrator.service;
 
+import io.aparker.otelbrot.commons.calculator.AdaptiveTilePartitioner;
+import io.aparker.otelbrot.commons.calculator.FractalCalculator;
+import io.aparker.otelbrot.commons.calculator.ReferenceOrbit;
+import io.aparker.otelbrot.commons.calculator.UniformTileDetector;
+import io.aparker.otelbrot.commons.model.TileBatch;
+import io.aparker.otelbrot.commons.model.TileGrid;
+import io.aparker.otelbrot.commons.model.TileOrder;
 import io.aparker.otelbrot.commons.model.TileResult;
 import io.aparker.otelbrot.commons.model.TileSpec;
 import io.aparker.otelbrot.orchestrator.model.FractalJob;
+import io.aparker.otelbrot.orchestrator.model.InFlightTile;
 import io.aparker.otelbrot.orchestrator.model.JobStatus;
+import io.aparker.otelbrot.orchestrator.model.QueuedTile;
 import io.aparker.otelbrot.orchestrator.model.RenderRequest;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import io.aparker.otelbrot.orchestrator.repository.InFlightTileRepository;
 import io.aparker.otelbrot.orchestrator.repository.JobRepository;
+import io.aparker.otelbrot.orchestrator.repository.ReferenceOrbitRepository;
+import io.aparker.otelbrot.orchestrator.repository.TileQueueRepository;
 import io.aparker.otelbrot.orchestrator.repository.TileRepository;
-import io.fabric8.kubernetes.api.model.batch.v1.Job;
-import io.fabric8.kubernetes.api.model.batch.v1.JobBuilder;
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.aparker.otelbrot.orchestrator.worker.WorkerBackend;
+import io.aparker.otelbrot.orchestrator.worker.WorkerInfo;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
@@ -17,27 +29,28 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.instrumentation.annotations.SpanAttribute;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.connection.stream.Consumer;
-import org.springframework.data.redis.connection.stream.MapRecord;
-import org.springframework.data.domain.Range;
-import org.springframework.data.redis.connection.stream.ReadOffset;
-import org.springframework.data.redis.connection.stream.Record;
-import org.springframework.data.redis.connection.stream.StreamOffset;
-import org.springframework.data.redis.connection.stream.StreamReadOptions;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -51,128 +64,186 @@ public class OrchestrationService {
         OrchestrationService.class
     );
 
-    private final KubernetesClient kubernetesClient;
+    private final WorkerBackend workerBackend;
     private final JobRepository jobRepository;
     private final TileRepository tileRepository;
     private final WebSocketService webSocketService;
     private final TextMapPropagator propagator;
-    private final StringRedisTemplate redisTemplate;
-
-    @Value("${kubernetes.namespace:otelbrot}")
-    private String namespace;
-
-    // Redis Stream configuration - use hardcoded defaults since environment variables aren't set
-    private final String streamName = "otelbrot-jobs";
-    private final String consumerGroup = "worker-group";
+    private final TileQueueRepository tileQueueRepository;
+    private final AdmissionController admissionController;
+    private final FairShareScheduler fairShareScheduler;
+    private final InFlightTileRepository inFlightTileRepository;
+    private final StragglerDetector stragglerDetector;
+    private final TileCache tileCache;
+    private final TileColorizer tileColorizer;
+    private final ReferenceOrbitRepository referenceOrbitRepository;
+    private final LargeRenderService largeRenderService;
+
+    // Consumer name prefix used when the orchestrator reads its own queue
     private final String consumerName = "orchestrator";
 
-    // Configurable values
-    @Value("${app.worker.image:otel-monte/worker:latest}")
-    private String workerImage;
+    // Tiles buffered by the fair-share scheduler stay pending under this
+    // instance's consumer until they are launched. The name is stable across
+    // restarts of the same replica, such as a StatefulSet pod's hostname
+    private final String instanceConsumerName;
 
-    @Value("${app.worker.cpu.request:1000m}")
-    private String workerCpuRequest;
+    // Buffered tiles are renewed this often; tiles a dead replica buffered
+    // are taken over once they sat unrenewed for orphan-idle
+    @Value("${app.queue.orphan-idle-ms:60000}")
+    private long orphanIdleMs;
 
-    @Value("${app.worker.memory.request:1024Mi}")
-    private String workerMemoryRequest;
+    // Queued tiles read ahead for fair sharing between jobs; a job's tiles
+    // beyond this backlog wait their turn in stream order
+    @Value("${app.queue.fair-share.buffer-size:10000}")
+    private int fairShareBufferSize;
 
+    // Configurable values
     @Value("${app.tile.max-size:256}")
     private int maxTileSize;
 
+    // Dispatch order for jobs that don't ask for one
+    @Value("${app.tile.order:spiral}")
+    private String defaultTileOrder;
+
+    // uniform splits the image into equal squares, adaptive into tiles of
+    // equal estimated cost from a coarse sample of the view
+    @Value("${app.tile.partitioning:adaptive}")
+    private String tilePartitioning;
+
+    @Value("${app.tile.adaptive.sample-resolution:64}")
+    private int adaptiveSampleResolution;
+
+    // Complete tiles whose boundary is a single color without a worker
+    @Value("${app.tile.skip-uniform:true}")
+    private boolean skipUniformTiles;
+
+    // Renders the tiles completed without a worker
+    private final FractalCalculator fractalCalculator = new FractalCalculator();
+
+    // Classifies detail tiles as uniform, cached or needing a worker after
+    // createRenderJob returns, dispatching them a chunk at a time
+    private final ExecutorService tileClassifier;
+    private static final int CLASSIFY_CHUNK_TILES = 64;
+
     @Value("${app.worker.max-concurrent:100}")
     private int maxConcurrentWorkers;
 
-    @Value("${app.worker.image-pull-policy:Never}")
-    private String imagePullPolicy;
-    
     @Value("${app.redis.stream-read-timeout:5}")
     private int redisStreamReadTimeoutSeconds;
 
-    // Keep track of active worker count
-    private int activeWorkerCount = 0;
+    // Drains the job queue on its own thread, woken when capacity is freed
+    // or tiles are queued
+    private final DispatchLoop dispatchLoop;
+
+    // Longest the dispatcher sleeps without being signalled
+    @Value("${app.dispatcher.idle-interval-ms:1000}")
+    private long dispatcherIdleIntervalMs;
+
+    // Small tiles are packed into one worker up to this many tiles and
+    // pixel iterations; 1 disables batching
+    @Value("${app.worker.batch.max-tiles:8}")
+    private int maxBatchTiles;
+
+    @Value("${app.worker.batch.work-budget:50000000}")
+    private long batchWorkBudget;
+
+    // A tile handed to a push-based worker is dispatched again if no result
+    // came back within the lease, up to max-retries times
+    @Value("${app.worker.tile-lease.timeout-seconds:300}")
+    private int tileLeaseTimeoutSeconds;
+
+    @Value("${app.worker.tile-lease.max-retries:3}")
+    private int maxTileRetries;
+
+    // Tiles running far longer than the rest of their job get a second,
+    // speculative copy when there is spare capacity
+    @Value("${app.worker.speculation.enabled:true}")
+    private boolean speculationEnabled;
+
+    // A tile's speculative copy holds a slot of its own, keyed by
+    // jobId:tileId plus this suffix, until the tile's first result comes in
+    private static final String SPECULATIVE_SLOT_SUFFIX = ":speculative";
+
+    // Slots the backend didn't observe a worker for at the last
+    // reconciliation; released if they are still missing at the next one
+    private final MissingSlots missingSlots = new MissingSlots();
+
+    // Settles the tiles whose lease expired without a result
+    private final TileReclaimer tileReclaimer;
 
     // Flag to indicate if cleanup is enabled
     @Value("${app.worker.cleanup-completed:true}")
     private boolean cleanupCompletedJobs;
 
     public OrchestrationService(
-        KubernetesClient kubernetesClient,
+        WorkerBackend workerBackend,
         JobRepository jobRepository,
         TileRepository tileRepository,
         WebSocketService webSocketService,
         Tracer tracer,
         TextMapPropagator propagator,
-        StringRedisTemplate redisTemplate
+        TileQueueRepository tileQueueRepository,
+        AdmissionController admissionController,
+        FairShareScheduler fairShareScheduler,
+        InFlightTileRepository inFlightTileRepository,
+        StragglerDetector stragglerDetector,
+        TileCache tileCache,
+        TileColorizer tileColorizer,
+        ReferenceOrbitRepository referenceOrbitRepository,
+        LargeRenderService largeRenderService,
+        @Value("${app.orchestrator.instance-id:${HOSTNAME:}}") String instanceId,
+        @Value("${app.queue.reset-on-startup:false}") boolean resetQueueOnStartup,
+        @Value("${app.tile.classifier-threads:2}") int classifierThreads
     ) {
-        this.kubernetesClient = kubernetesClient;
+        this.workerBackend = workerBackend;
         this.jobRepository = jobRepository;
         this.tileRepository = tileRepository;
         this.webSocketService = webSocketService;
         this.propagator = propagator;
-        this.redisTemplate = redisTemplate;
-        
-        // Clean up Redis Stream first to remove old messages
-        cleanupRedisStream();
+        this.tileQueueRepository = tileQueueRepository;
+        this.admissionController = admissionController;
+        this.fairShareScheduler = fairShareScheduler;
+        this.inFlightTileRepository = inFlightTileRepository;
+        this.stragglerDetector = stragglerDetector;
+        this.tileCache = tileCache;
+        this.tileColorizer = tileColorizer;
+        this.referenceOrbitRepository = referenceOrbitRepository;
+        this.largeRenderService = largeRenderService;
+        this.tileReclaimer = new TileReclaimer(inFlightTileRepository, jobRepository);
+        this.instanceConsumerName = consumerName + "-" + (instanceId == null || instanceId.isBlank()
+            ? UUID.randomUUID().toString().substring(0, 8)
+            : instanceId);
+        this.tileClassifier = Executors.newFixedThreadPool(
+            Math.max(1, classifierThreads),
+            Thread.ofPlatform().name("tile-classifier-", 0).daemon().factory()
+        );
+        this.dispatchLoop = new DispatchLoop(
+            "tile-dispatcher",
+            this::processJobQueue,
+            Duration.ofSeconds(1)
+        );
+
+        // Results computed in-process are processed just like worker callbacks
+        workerBackend.setResultHandler(
+            result -> processTileResult(result.getJobId(), result.getTileId(), result)
+        );
+
+        // Tiles of workers the backend saw fail or vanish are dispatched again
+        workerBackend.setWorkerLostHandler(this::handleLostWorker);
         
+        // Clean up Redis Stream first to remove old messages. Only a lone
+        // orchestrator may, since it destroys the consumer groups other
+        // replicas are reading
+        if (resetQueueOnStartup) {
+            tileQueueRepository.cleanup();
+        }
+
         // Initialize Redis Stream consumer group if it doesn't exist
-        boolean success = initializeRedisStreamConsumerGroup();
+        boolean success = tileQueueRepository.initialize();
         if (!success) {
             logger.warn("Redis Stream initialization failed during service startup - will retry during job processing");
-            redisStreamInitialized = false;
         } else {
             logger.info("Redis Stream and Consumer Group successfully initialized during startup");
-            redisStreamInitialized = true;
-        }
-    }
-    
-    /**
-     * Initialize Redis Stream and Consumer Group with a simpler approach
-     * @return true if the stream and consumer group are ready, false otherwise
-     */
-    private boolean initializeRedisStreamConsumerGroup() {
-        logger.info("Initializing Redis Stream: {} and Consumer Group: {}", streamName, consumerGroup);
-        
-        try {
-            // First check if the stream exists
-            Boolean streamExists = redisTemplate.hasKey(streamName);
-            
-            // Create a simple initialization message
-            Map<String, String> initMessage = new HashMap<>();
-            initMessage.put("init", "true");
-            initMessage.put("timestamp", String.valueOf(System.currentTimeMillis()));
-            
-            // Add the message to Redis - this will create the stream if it doesn't exist
-            try {
-                redisTemplate.opsForStream().add(streamName, initMessage);
-                if (streamExists == null || !streamExists) {
-                    logger.info("Created new Redis Stream: {}", streamName);
-                } else {
-                    logger.info("Added initialization message to existing Redis Stream: {}", streamName);
-                }
-            } catch (Exception e) {
-                logger.error("Failed to create/access Redis Stream: {}", e.getMessage(), e);
-                return false; // Cannot proceed without a stream
-            }
-            
-            // Create the consumer group directly, handling the case where it already exists
-            try {
-                redisTemplate.opsForStream().createGroup(streamName, ReadOffset.from("0"), consumerGroup);
-                logger.info("Successfully created Redis Stream consumer group: {}", consumerGroup);
-                return true;
-            } catch (Exception createEx) {
-                // Check if it's because the group already exists
-                if (createEx.getMessage() != null && createEx.getMessage().contains("BUSYGROUP")) {
-                    logger.info("Consumer group '{}' already exists for stream '{}'", 
-                        consumerGroup, streamName);
-                    return true;
-                } else {
-                    logger.error("Failed to create consumer group: {}", createEx.getMessage(), createEx);
-                    return false;
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Unexpected error during Redis Stream initialization: {}", e.getMessage(), e);
-            return false;
         }
     }
 
@@ -203,29 +274,102 @@ public class OrchestrationService {
         // Create and save the job
         FractalJob job = FractalJob.fromRenderRequest(request);
         jobRepository.save(job);
+        admissionController.registerJob(job.getJobId(), job.getMaxConcurrency());
 
         // Set current span attributes
         Span.current().setAttribute("job.id", job.getJobId());
         logger.info("Created new fractal job: {}", job.getJobId());
 
-        // Calculate total tiles (1 preview + detail tiles)
-        int detailTileCount = calculateTileCount(job);
-        int totalTiles = 1 + detailTileCount; // Preview tile + detail tiles
-        
-        // Initialize job progress tracking with correct total count
-        jobRepository.updateProgress(job.getJobId(), 0, totalTiles);
-        logger.info("Job {} will have {} total tiles (1 preview + {} detail)", 
-            job.getJobId(), totalTiles, detailTileCount);
+        // Tiles iterate in the cheapest precision that resolves the view;
+        // beyond double-double they all need the reference orbit first
+        Span.current().setAttribute("job.precision", job.isPerturbed() ? "perturbation" : job.getPrecision().getId());
+        if (job.isPerturbed()) {
+            computeReferenceOrbit(job);
+        }
+
+        // Large renders get their mosaic before any detail tile can arrive
+        if (job.isLargeRender()) {
+            largeRenderService.start(job);
+        }
 
-        // Initialize preview job
+        // Initialize preview job first so planning the detail tiles never delays it
         createPreviewJob(job);
 
-        // Initialize detailed tiles
-        createDetailJobs(job);
+        // Plan the detail tiles and calculate total tiles (1 preview + detail tiles)
+        TileGrid grid = buildTileGrid(job);
+        List<TileSpec> detailTiles = planDetailTiles(grid);
+        int totalTiles = 1 + detailTiles.size(); // Preview tile + detail tiles
+
+        // Only the total is written, the preview may already have completed
+        jobRepository.updateTotalTiles(job.getJobId(), totalTiles);
+        job.setTotalTiles(totalTiles);
+        logger.info("Job {} will have {} total tiles (1 preview + {} detail)",
+            job.getJobId(), totalTiles, detailTiles.size());
 
-        // Send initial progress update
+        // Send initial progress update, before any detail tile can complete
         webSocketService.sendProgressUpdate(job, 0);
 
+        // Initialize detailed tiles
+        createDetailJobs(job, grid, detailTiles);
+
+        return job;
+    }
+
+    /**
+     * Calculate a deep zoom's reference orbit at its reference point, once
+     * for every tile of the job
+     */
+    @WithSpan("OrchestrationService.computeReferenceOrbit")
+    private void computeReferenceOrbit(FractalJob job) {
+        int precisionDigits = ReferenceOrbit.precisionDigits(job.getZoom());
+        ReferenceOrbit orbit = ReferenceOrbit.compute(
+            new BigDecimal(job.getReferenceX()),
+            new BigDecimal(job.getReferenceY()),
+            job.getMaxIterations(),
+            precisionDigits
+        );
+        referenceOrbitRepository.save(job.getJobId(), orbit);
+        Span.current().setAttribute("orbit.precision_digits", precisionDigits);
+        Span.current().setAttribute("orbit.length", orbit.length());
+        logger.info("Computed reference orbit of {} points for deep zoom job {}", orbit.length(), job.getJobId());
+    }
+
+    /**
+     * Reference orbit of a deep zoom job, as encoded for workers
+     */
+    public Optional<byte[]> getReferenceOrbit(String jobId) {
+        return referenceOrbitRepository.findEncoded(jobId);
+    }
+
+    /**
+     * Render a single tile as a job of its own, for callers that want one
+     * tile rather than a view. The tile names the job, and its result is
+     * published like any other job's.
+     */
+    @WithSpan("OrchestrationService.createTileJob")
+    public FractalJob createTileJob(TileSpec tile, TileLane lane) {
+        double halfWidth = (tile.getXMax() - tile.getXMin()) / 2;
+        FractalJob job = new FractalJob.Builder()
+            .jobId(tile.getJobId())
+            .centerX(tile.getXMin() + halfWidth)
+            .centerY(tile.getYMin() + (tile.getYMax() - tile.getYMin()) / 2)
+            .zoom(halfWidth)
+            .maxIterations(tile.getMaxIterations())
+            .width(tile.getWidth())
+            .height(tile.getHeight())
+            .colorScheme(tile.getColorScheme())
+            .maxConcurrency(1)
+            .lane(lane)
+            .status(JobStatus.PROCESSING)
+            .totalTiles(1)
+            .build();
+        jobRepository.save(job);
+        admissionController.registerJob(job.getJobId(), job.getMaxConcurrency());
+        Span.current().setAttribute("job.id", job.getJobId());
+        Span.current().setAttribute("tile.id", tile.getTileId());
+
+        createWorkerJob(tile, lane);
+        logger.debug("Created single tile job: {}", job.getJobId());
         return job;
     }
 
@@ -237,6 +381,26 @@ public class OrchestrationService {
         @SpanAttribute("job.id") String jobId,
         @SpanAttribute("tile.id") String tileId,
         TileResult result
+    ) {
+        // Coarse passes of a tile refined progressively are only shown; the
+        // tile completes with its full resolution result
+        if (result.isCoarsePass()) {
+            Span.current().setAttribute("tile.scale", result.getScale());
+            webSocketService.sendTileUpdate(result);
+            return;
+        }
+        recordTileResult(jobId, tileId, result, true);
+    }
+
+    /**
+     * Record a tile result and advance the job. Tiles completed without a
+     * worker hold no slot and have no worker resources to release.
+     */
+    private void recordTileResult(
+        String jobId,
+        String tileId,
+        TileResult result,
+        boolean fromWorker
     ) {
         // Preview tiles are important enough to log at INFO level
         boolean isPreviewTile = tileId.equals("preview") || tileId.contains("preview");
@@ -253,36 +417,63 @@ public class OrchestrationService {
             );
         }
 
-        // Save the tile result
-        tileRepository.saveTileResult(result);
+        // Only the first result of a tile counts; a tile dispatched again
+        // after its lease expired, or speculatively, may report twice
+        inFlightTileRepository.complete(jobId, tileId);
+        releaseSpeculativeSlot(jobId, tileId);
+        if (!jobRepository.markTileCompleted(jobId, tileId)) {
+            logger.info("Dropping duplicate result for job: {}, tile: {}", jobId, tileId);
+            Span.current().addEvent("Duplicate tile result dropped");
+            if (fromWorker) {
+                decrementActiveWorkerCount(jobId, tileId);
+            }
+            return;
+        }
+
+        stragglerDetector.finished(jobId, tileId, System.currentTimeMillis());
+
+        // Save the tile result, and keep computed images for other jobs;
+        // large renders assemble their detail tiles on disk instead
+        boolean assembled = !isPreviewTile && largeRenderService.addTile(jobId, result);
+        if (!assembled) {
+            tileRepository.saveTileResult(result);
+            if (fromWorker) {
+                tileCache.store(result);
+            }
+        }
 
         // Update job progress
-        jobRepository.incrementCompletedTiles(jobId);
+        long completedTiles = jobRepository.incrementCompletedTiles(jobId);
 
         // Decrement active worker count and clean up the K8s job if needed
-        decrementActiveWorkerCount(jobId, tileId);
+        if (fromWorker) {
+            decrementActiveWorkerCount(jobId, tileId);
+        }
 
         // Get updated job state
         Optional<FractalJob> jobOpt = jobRepository.findById(jobId);
         if (jobOpt.isPresent()) {
             FractalJob job = jobOpt.get();
 
-            // Update job status if needed
+            // Status transitions key off the count returned by the atomic increment,
+            // so they happen exactly once even when results arrive concurrently;
+            // a single tile job goes straight to completed
             if (
-                job.getCompletedTiles() == 1 &&
+                completedTiles == 1 &&
+                job.getTotalTiles() != 1 &&
                 job.getStatus() == JobStatus.PROCESSING
             ) {
                 // First tile completed - set to preview ready
+                jobRepository.updateStatus(jobId, JobStatus.PREVIEW_READY);
                 job.setStatus(JobStatus.PREVIEW_READY);
-                jobRepository.save(job);
                 Span.current().setAttribute("job.status", "PREVIEW_READY");
             } else if (
-                job.getCompletedTiles() == job.getTotalTiles() &&
+                completedTiles == job.getTotalTiles() &&
                 job.getTotalTiles() > 0
             ) {
                 // All tiles completed - mark job as completed
+                jobRepository.updateStatus(jobId, JobStatus.COMPLETED);
                 job.setStatus(JobStatus.COMPLETED);
-                jobRepository.save(job);
                 Span.current().setAttribute("job.status", "COMPLETED");
                 Span.current()
                     .setAttribute("job.tiles.total", job.getTotalTiles());
@@ -293,9 +484,14 @@ public class OrchestrationService {
                     job.getTotalTiles()
                 );
 
-                // Clean up all Kubernetes jobs for this completed job
+                admissionController.removeJob(jobId);
+                stragglerDetector.removeJob(jobId);
+                tileCache.removeJob(jobId);
+                largeRenderService.finish(jobId);
+
+                // Clean up all worker resources for this completed job
                 if (cleanupCompletedJobs) {
-                    cleanupKubernetesJobs(jobId);
+                    cleanupWorkerJobs(jobId);
                 }
             }
 
@@ -306,39 +502,31 @@ public class OrchestrationService {
             );
             Span.current().setAttribute("job.elapsed_ms", elapsedTimeMs);
 
-            // Send WebSocket updates - send tile update first, then progress
-            webSocketService.sendTileUpdate(result);
+            // Send WebSocket updates - send tile update first, then progress;
+            // tiles of a large render are far too many for a browser canvas
+            if (!assembled) {
+                webSocketService.sendTileUpdate(result);
+            }
             webSocketService.sendProgressUpdate(job, elapsedTimeMs);
         }
     }
 
     /**
-     * Clean up Kubernetes jobs for a completed fractal job
+     * Clean up worker resources for a completed fractal job
      */
-    @WithSpan("OrchestrationService.cleanupKubernetesJobs")
-    private void cleanupKubernetesJobs(@SpanAttribute("job.id") String jobId) {
+    @WithSpan("OrchestrationService.cleanupWorkerJobs")
+    private void cleanupWorkerJobs(@SpanAttribute("job.id") String jobId) {
         try {
             logger.info(
-                "Cleaning up Kubernetes jobs for completed job: {}",
+                "Cleaning up worker resources for completed job: {}",
                 jobId
             );
 
-            // Delete all Kubernetes jobs with this fractal job ID
-            kubernetesClient
-                .batch()
-                .v1()
-                .jobs()
-                .inNamespace(namespace)
-                .withLabel("fractal-job-id", jobId)
-                .delete();
-
-            logger.info(
-                "Successfully cleaned up Kubernetes jobs for job: {}",
-                jobId
-            );
+            // Delete all worker resources with this fractal job ID
+            workerBackend.cleanupJob(jobId);
         } catch (Exception e) {
             logger.warn(
-                "Error cleaning up Kubernetes jobs: {}",
+                "Error cleaning up worker resources: {}",
                 e.getMessage()
             );
             Span.current().recordException(e);
@@ -348,71 +536,295 @@ public class OrchestrationService {
 
     /**
      * Decrement the active worker count when a worker completes its task
-     * and clean up the Kubernetes job if enabled
+     * and release the worker resources held for the tile
      */
     @WithSpan("OrchestrationService.decrementActiveWorkerCount")
-    private synchronized void decrementActiveWorkerCount(
+    private void decrementActiveWorkerCount(
         @SpanAttribute("job.id") String jobId,
         @SpanAttribute("tile.id") String tileId
     ) {
-        activeWorkerCount = Math.max(0, activeWorkerCount - 1);
-        Span.current().setAttribute("workers.active", activeWorkerCount);
+        releaseTileSlot(jobId, tileId);
+        int activeWorkers = admissionController.getActiveCount();
+        Span.current().setAttribute("workers.active", activeWorkers);
         logger.debug(
-            "Decremented active worker count to {} after completion of tile {}",
-            activeWorkerCount,
+            "Active worker count is {} after completion of tile {}",
+            activeWorkers,
             tileId
         );
 
-        // Clean up the individual Kubernetes job if enabled
-        if (cleanupCompletedJobs) {
-            cleanupTileJob(jobId, tileId);
+        // Release the worker resources for this tile
+        workerBackend.cleanupTile(jobId, tileId);
+
+        // Wake the dispatcher to launch queued tiles now that we have
+        // capacity; the result callback never waits on the queue itself
+        dispatchLoop.signal();
+
+        Span.current().addEvent("Worker count decremented and dispatcher signalled");
+    }
+
+    /**
+     * Give back the worker slot a tile holds. Only tiles that took a slot
+     * when launched give one back, and a batch gives its slot back once its
+     * last tile is in. Duplicate results find no slot and release nothing.
+     */
+    private void releaseTileSlot(String jobId, String tileId) {
+        admissionController.releaseTile(jobId, tileId);
+    }
+
+    /**
+     * Dispatch again the tiles whose worker never reported back within the
+     * lease, giving back the slot and worker resources of the lost attempt.
+     * Tiles out of retries are recorded as failed so their job still finishes.
+     */
+    @WithSpan("OrchestrationService.reclaimExpiredTiles")
+    @Scheduled(fixedDelayString = "${app.worker.tile-lease.check-interval-ms:5000}")
+    void reclaimExpiredTiles() {
+        if (workerBackend.isPullBased()) {
+            return;
         }
 
-        // Process any queued jobs now that we have capacity
-        // Skip initialization check since we'll do it in processJobQueue directly
-        // This avoids redundant initialization on each completed tile
-        if (redisStreamInitialized) {
-            try {
-                processJobQueue();
-            } catch (Exception e) {
-                // Don't let Redis errors affect tile processing
-                logger.error("Error processing job queue after tile completion: {}", e.getMessage());
-                Span.current().recordException(e);
-            }
+        int expired;
+        try {
+            expired = tileReclaimer.reclaim(Instant.now(), 100, maxTileRetries, new TileReclaimer.Outcomes() {
+                @Override
+                public void attemptLost(TileSpec tileSpec) {
+                    releaseTileSlot(tileSpec.getJobId(), tileSpec.getTileId());
+                    releaseSpeculativeSlot(tileSpec.getJobId(), tileSpec.getTileId());
+                    workerBackend.cleanupTile(tileSpec.getJobId(), tileSpec.getTileId());
+                }
+
+                @Override
+                public void dispatchAgain(InFlightTile inFlightTile, long retries) {
+                    addToJobQueue(inFlightTile.getTileSpec(), inFlightTile.getLane(), null, null);
+                }
+
+                @Override
+                public void recordFailed(TileResult result) {
+                    recordTileResult(result.getJobId(), result.getTileId(), result, false);
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Error reading expired tile leases: {}", e.getMessage());
+            return;
         }
+        Span.current().setAttribute("tiles.expired", expired);
 
-        Span.current().addEvent("Worker count decremented and queue processed");
+        if (expired > 0) {
+            dispatchLoop.signal();
+        }
     }
 
     /**
-     * Clean up a specific Kubernetes job for a tile
+     * Launch a second copy of tiles that run far longer than the rest of
+     * their job, while workers are idle. Whichever copy reports first wins;
+     * the other is deleted with the tile's worker resources and its result,
+     * if it still comes, is dropped as a duplicate.
      */
-    @WithSpan("Kubernetes.cleanupJob")
-    private void cleanupTileJob(
-        @SpanAttribute("kubernetes.job.id") String jobId,
-        @SpanAttribute("kubernetes.tile.id") String tileId
-    ) {
+    @WithSpan("OrchestrationService.speculateStragglers")
+    @Scheduled(fixedDelayString = "${app.worker.speculation.check-interval-ms:2000}")
+    void speculateStragglers() {
+        // Only use capacity no queued tile is waiting for
+        if (!speculationEnabled
+            || workerBackend.isPullBased()
+            || admissionController.getAvailableSlots() <= 0
+            || fairShareScheduler.getBufferedCount() > 0) {
+            return;
+        }
+
+        int launched = 0;
+        for (InFlightTile straggler : stragglerDetector.findStragglers(System.currentTimeMillis())) {
+            if (launchSpeculativeCopy(straggler)) {
+                launched++;
+            }
+        }
+        Span.current().setAttribute("tiles.speculated", launched);
+    }
+
+    /**
+     * Launch a speculative copy of a tile in a slot of its own
+     *
+     * @return true if the copy was launched
+     */
+    private boolean launchSpeculativeCopy(InFlightTile straggler) {
+        TileSpec tileSpec = straggler.getTileSpec();
+        String jobId = tileSpec.getJobId();
+        String key = jobId + ":" + tileSpec.getTileId();
+        if (!tryAdmit(jobId, key + SPECULATIVE_SLOT_SUFFIX, List.of())) {
+            return false;
+        }
         try {
-            kubernetesClient
-                .batch()
-                .v1()
-                .jobs()
-                .inNamespace(namespace)
-                .withLabel("fractal-job-id", jobId)
-                .withLabel("fractal-tile-id", tileId)
-                .delete();
-
-            logger.debug("Cleaned up Kubernetes job for tile: {}", tileId);
-            Span.current().addEvent("Kubernetes job deleted");
-        } catch (Exception e) {
-            logger.warn(
-                "Error cleaning up Kubernetes job for tile {}: {}",
-                tileId,
-                e.getMessage()
+            workerBackend.launch(tileSpec, straggler.getLane(), getTraceparent(), getCurrentTraceState());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to launch speculative copy of tile {}: {}", key, e.getMessage());
+            releaseSpeculativeSlot(jobId, tileSpec.getTileId());
+            return false;
+        }
+        logger.info("Launched speculative copy of straggling tile {} of job {}", tileSpec.getTileId(), jobId);
+        return true;
+    }
+
+    /**
+     * Give back the slot of a tile's speculative copy, if it has one
+     */
+    private void releaseSpeculativeSlot(String jobId, String tileId) {
+        if (admissionController.releaseSlot(jobId, jobId + ":" + tileId + SPECULATIVE_SLOT_SUFFIX) != null) {
+            dispatchLoop.signal();
+        }
+    }
+
+    /**
+     * End the leases of a lost worker's tiles that haven't reported back, so
+     * the next reclaim pass dispatches them again without waiting out the lease
+     */
+    @WithSpan("OrchestrationService.handleLostWorker")
+    void handleLostWorker(WorkerInfo worker, String reason) {
+        Span.current().setAttribute("job.id", worker.getJobId());
+        Span.current().setAttribute("worker.name", worker.getName());
+        Span.current().setAttribute("worker.lost_reason", reason);
+
+        int expired = 0;
+        for (String tileId : worker.getTileIds()) {
+            if (inFlightTileRepository.expire(worker.getJobId(), tileId)) {
+                expired++;
+            }
+        }
+        Span.current().setAttribute("tiles.expired", expired);
+        if (expired > 0) {
+            logger.warn("Worker {} was lost ({}), reclaiming {} tiles", worker.getName(), reason, expired);
+        }
+    }
+
+    /**
+     * Bring the worker slots in line with the workers the backend observes
+     * running or still being created. Slots without a worker at two
+     * reconciliations in a row are given back; running workers holding no
+     * slot, such as those launched before a restart, take one so admission
+     * counts them.
+     */
+    @WithSpan("OrchestrationService.reconcileWorkerSlots")
+    @Scheduled(fixedDelayString = "${app.worker.reconcile.interval-ms:10000}")
+    void reconcileWorkerSlots() {
+        List<WorkerInfo> running = workerBackend.getRunningWorkers();
+        if (running == null) {
+            return;
+        }
+
+        // Speculative copies share their tile's worker, so they are left to
+        // the tile's result or lease
+        Set<String> held = new HashSet<>(admissionController.getSlotKeys());
+        held.removeIf(slotKey -> slotKey.endsWith(SPECULATIVE_SLOT_SUFFIX));
+
+        Set<String> observed = new HashSet<>();
+        int adopted = 0;
+        for (WorkerInfo worker : running) {
+            String slotKey = worker.getJobId() + ":" + worker.getSlotId();
+            if (observed.add(slotKey) && !held.contains(slotKey) && adoptSlot(worker, slotKey)) {
+                adopted++;
+            }
+        }
+
+        int released = 0;
+        for (String slotKey : missingSlots.reconcile(held, observed)) {
+            if (releaseMissingSlot(slotKey)) {
+                released++;
+            }
+        }
+
+        Span.current().setAttribute("workers.running", running.size());
+        Span.current().setAttribute("slots.adopted", adopted);
+        Span.current().setAttribute("slots.released", released);
+        if (adopted > 0 || released > 0) {
+            logger.info(
+                "Reconciled worker slots with {} running workers: adopted {}, released {} (active workers: {})",
+                running.size(),
+                adopted,
+                released,
+                admissionController.getActiveCount()
             );
-            Span.current().recordException(e);
-            Span.current().setStatus(StatusCode.ERROR, e.getMessage());
         }
+        if (released > 0) {
+            dispatchLoop.signal();
+        }
+    }
+
+    /**
+     * Take a slot for a running worker of an unfinished job that holds none
+     *
+     * @return true if the slot was taken
+     */
+    private boolean adoptSlot(WorkerInfo worker, String slotKey) {
+        String jobId = worker.getJobId();
+        Optional<FractalJob> job = jobRepository.findById(jobId);
+        if (job.isEmpty() || isFinished(job.get().getStatus())) {
+            return false;
+        }
+        registerJobLimit(jobId);
+        // The worker is already running, so count it even above the limits
+        return admissionController.acquire(jobId, slotKey, worker.getTileIds());
+    }
+
+    /**
+     * Give back a slot whose worker is gone, ending the leases of its tiles
+     * that never reported back
+     *
+     * @return true if the slot was still held
+     */
+    private boolean releaseMissingSlot(String slotKey) {
+        String jobId = slotKey.substring(0, slotKey.indexOf(':'));
+        List<String> outstanding = admissionController.releaseSlot(jobId, slotKey);
+        if (outstanding == null) {
+            return false;
+        }
+        for (String tileId : outstanding) {
+            inFlightTileRepository.expire(jobId, tileId);
+        }
+        logger.warn("No running worker for slot {}, releasing it", slotKey);
+        return true;
+    }
+
+    /**
+     * Workers the backend observes running, for status queries
+     */
+    public Optional<List<WorkerInfo>> getRunningWorkers() {
+        return Optional.ofNullable(workerBackend.getRunningWorkers());
+    }
+
+    static boolean isFinished(JobStatus status) {
+        return status == JobStatus.COMPLETED || status == JobStatus.CANCELLED || status == JobStatus.FAILED;
+    }
+
+    /**
+     * Lease a tile handed to a push-based worker, before launching it since
+     * in-process backends can report the result before launch returns
+     */
+    private void leaseTile(TileSpec tileSpec, TileLane lane) {
+        if (workerBackend.isPullBased()) {
+            return;
+        }
+        inFlightTileRepository.track(
+            tileSpec,
+            lane,
+            Instant.now().plusSeconds(tileLeaseTimeoutSeconds)
+        );
+    }
+
+    /**
+     * PNG image of a completed tile. With a color scheme the tile is colored
+     * from its stored iteration counts instead of being rendered again.
+     *
+     * @return empty if the tile, or with a color scheme its iteration counts, aren't stored
+     */
+    @WithSpan("OrchestrationService.getTileImage")
+    public Optional<byte[]> getTileImage(
+        @SpanAttribute("job.id") String jobId,
+        @SpanAttribute("tile.id") String tileId,
+        @SpanAttribute("tile.color_scheme") String colorScheme
+    ) {
+        if (colorScheme == null || colorScheme.isBlank()) {
+            return Optional.ofNullable(tileRepository.getTileImage(jobId, tileId));
+        }
+        return tileRepository.getTileIterations(jobId, tileId)
+            .map(iterations -> tileColorizer.colorize(iterations, colorScheme));
     }
 
     /**
@@ -432,16 +844,29 @@ public class OrchestrationService {
         // Update job status
         jobRepository.updateStatus(jobId, JobStatus.CANCELLED);
 
-        // Delete Kubernetes jobs
-        kubernetesClient
-            .batch()
-            .v1()
-            .jobs()
-            .inNamespace(namespace)
-            .withLabel("fractal-job-id", jobId)
-            .delete();
+        // Delete worker resources
+        workerBackend.cleanupJob(jobId);
+
+        // The deleted workers never report back, so give their slots back now
+        int released = admissionController.removeJob(jobId);
+        stragglerDetector.removeJob(jobId);
+        tileCache.removeJob(jobId);
+        largeRenderService.finish(jobId);
+
+        // Tiles still waiting for their turn are dropped from the queue
+        for (QueuedTile queuedTile : fairShareScheduler.removeJob(jobId)) {
+            try {
+                tileQueueRepository.acknowledge(queuedTile.getLane(), queuedTile.getRecordId());
+            } catch (Exception e) {
+                logger.warn("Failed to acknowledge cancelled tile: {}", e.getMessage());
+            }
+        }
 
-        logger.info("Deleted Kubernetes jobs for jobId {}", jobId);
+        if (released > 0) {
+            dispatchLoop.signal();
+        }
+
+        logger.info("Deleted worker resources for jobId {} and released {} worker slots", jobId, released);
         return true;
     }
 
@@ -457,27 +882,39 @@ public class OrchestrationService {
         TileSpec previewSpec = new TileSpec.Builder()
             .jobId(job.getJobId())
             .tileId("preview")
-            .xMin(job.getCenterX() - job.getZoom())
-            .yMin(job.getCenterY() - job.getZoom())
-            .xMax(job.getCenterX() + job.getZoom())
-            .yMax(job.getCenterY() + job.getZoom())
+            .xMin(viewCenterX(job) - job.getZoom())
+            .yMin(viewCenterY(job) - job.getZoom())
+            .xMax(viewCenterX(job) + job.getZoom())
+            .yMax(viewCenterY(job) + job.getZoom())
             .width(Math.min(job.getWidth(), 256)) // Low resolution for preview
             .height(Math.min(job.getHeight(), 256))
             .maxIterations(Math.min(job.getMaxIterations(), 100)) // Fewer iterations for speed
             .colorScheme(job.getColorScheme())
             .pixelStartX(0)
             .pixelStartY(0)
+            .reference(job.getReferenceX(), job.getReferenceY())
+            .precision(job.getPrecision())
             .build();
         Span.current().setAttribute("tile.spec", previewSpec.toString());
         Span.current().setAttribute("tile.id", "preview");
         Span.current().setAttribute("tile.priority", "high");
 
-        // Create and launch a worker pod
-        createWorkerJob(previewSpec, true);
-
-        // Update job status to PROCESSING
+        // Update job status to PROCESSING before launching, since in-process
+        // backends can report the preview result almost immediately
         jobRepository.updateStatus(job.getJobId(), JobStatus.PROCESSING);
-        // Note: Progress count is already initialized in createRenderJob
+        // Note: The total tile count is set in createRenderJob once detail tiles are planned
+
+        // A view rendered before needs no worker for its preview
+        Optional<TileResult> cached = tileCache.lookup(previewSpec);
+        if (cached.isPresent()) {
+            Span.current().setAttribute("tile.cached", true);
+            recordTileResult(job.getJobId(), "preview", cached.get(), false);
+            logger.info("Completed preview of fractal job {} from the tile cache", job.getJobId());
+            return;
+        }
+
+        // Create and launch a worker
+        createWorkerJob(previewSpec, TileLane.PREVIEW);
 
         logger.info("Created preview job for fractal job: {}", job.getJobId());
         Span.current().addEvent("Preview job created");
@@ -496,21 +933,125 @@ public class OrchestrationService {
     @WithSpan("OrchestrationService.createDetailJobs")
     private void createDetailJobs(
         @SpanAttribute("job.id") String jobId,
-        FractalJob job
+        FractalJob job,
+        TileGrid grid,
+        List<TileSpec> tiles
     ) {
-        // Partition the rendering area into tiles
-        List<TileSpec> tiles = partitionIntoTiles(job);
         Span.current().setAttribute("tiles.count", tiles.size());
+        Span.current().setAttribute("tiles.partitioning", tilePartitioning);
+
+        // Backends that schedule whole grids get every detail tile at once;
+        // workers derive their tile from the index, so only uniform grids qualify
+        if (workerBackend.supportsGridLaunch() && !isAdaptivePartitioning() && !grid.hasReference()) {
+            int parallelism = job.getMaxConcurrency() != null
+                ? job.getMaxConcurrency()
+                : maxConcurrentWorkers;
+            workerBackend.launchGrid(
+                grid,
+                parallelism,
+                getTraceparent(),
+                getCurrentTraceState()
+            );
+            logger.info(
+                "Launched grid of {} detail tiles for fractal job: {}",
+                grid.getTileCount(),
+                job.getJobId()
+            );
+            Span.current().addEvent("Detail tile grid launched");
+            return;
+        }
 
-        // Create a worker pod for each tile
-        for (TileSpec tile : tiles) {
-            createDetailTile(job.getJobId(), tile);
+        // Checking each tile's boundary and the tile cache takes a while for
+        // renders of many tiles, so it runs off the request thread
+        tileClassifier.execute(Context.current().wrap(() -> classifyDetailTiles(job.getJobId(), job, tiles)));
+        Span.current().addEvent("Detail tiles handed to the classifier");
+    }
+
+    /**
+     * Dispatch a job's detail tiles a chunk at a time, in dispatch order:
+     * tiles whose boundary shows a single color, and tiles some job already
+     * computed, are completed without a worker, the rest are launched as
+     * soon as their chunk is classified
+     */
+    @WithSpan("OrchestrationService.classifyDetailTiles")
+    private void classifyDetailTiles(
+        @SpanAttribute("job.id") String jobId,
+        FractalJob job,
+        List<TileSpec> tiles
+    ) {
+        int launched = 0;
+        int uniform = 0;
+        int cached = 0;
+        try {
+            for (int from = 0; from < tiles.size(); from += CLASSIFY_CHUNK_TILES) {
+                // A cancelled job's remaining tiles are dropped
+                if (from > 0 && jobRepository.findById(jobId).map(j -> isFinished(j.getStatus())).orElse(true)) {
+                    logger.info("Job {} finished while its tiles were classified, dropping the rest", jobId);
+                    Span.current().setAttribute("tiles.dropped", tiles.size() - from);
+                    break;
+                }
+
+                List<TileSpec> chunk = tiles.subList(from, Math.min(from + CLASSIFY_CHUNK_TILES, tiles.size()));
+                List<TileSpec> workerTiles = new ArrayList<>(chunk.size());
+                Map<TileSpec, Integer> uniformTiles = new LinkedHashMap<>();
+                List<TileResult> cachedTiles = new ArrayList<>();
+                for (TileSpec tile : chunk) {
+                    // The detector samples absolute coordinates, which a deep zoom's offsets aren't
+                    int iterations = skipUniformTiles && !tile.hasReference()
+                        ? UniformTileDetector.uniformIterations(tile)
+                        : UniformTileDetector.NOT_UNIFORM;
+                    if (iterations != UniformTileDetector.NOT_UNIFORM) {
+                        uniformTiles.put(tile, iterations);
+                        continue;
+                    }
+                    Optional<TileResult> cachedTile = tileCache.lookup(tile);
+                    if (cachedTile.isPresent()) {
+                        cachedTiles.add(cachedTile.get());
+                    } else {
+                        workerTiles.add(tile);
+                    }
+                }
+
+                // Create a worker pod for each tile, or for each batch of small tiles
+                for (TileBatch batch : toBatches(workerTiles)) {
+                    if (batch.size() == 1) {
+                        createDetailTile(jobId, job.getLane(), batch.getTiles().get(0));
+                    } else {
+                        createWorkerBatch(batch, job.getLane(), null, null);
+                    }
+                }
+
+                // Complete the uniform and cached tiles once the workers are on their way
+                uniformTiles.forEach((tile, tileIterations) ->
+                    recordTileResult(
+                        tile.getJobId(),
+                        tile.getTileId(),
+                        fractalCalculator.fillTile(tile, tileIterations),
+                        false
+                    )
+                );
+                for (TileResult cachedTile : cachedTiles) {
+                    recordTileResult(cachedTile.getJobId(), cachedTile.getTileId(), cachedTile, false);
+                }
+
+                launched += workerTiles.size();
+                uniform += uniformTiles.size();
+                cached += cachedTiles.size();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to dispatch the detail tiles of job {}: {}", jobId, e.getMessage(), e);
+            Span.current().recordException(e);
+            Span.current().setStatus(StatusCode.ERROR);
         }
 
+        Span.current().setAttribute("tiles.uniform", uniform);
+        Span.current().setAttribute("tiles.cached", cached);
         logger.info(
-            "Created {} detail jobs for fractal job: {}",
-            tiles.size(),
-            job.getJobId()
+            "Created {} detail jobs for fractal job: {}, {} uniform and {} cached tiles need no worker",
+            launched,
+            jobId,
+            uniform,
+            cached
         );
         Span.current().addEvent("All detail jobs created");
     }
@@ -522,259 +1063,134 @@ public class OrchestrationService {
     private void createDetailTile(
         @SpanAttribute("job.id") String jobId,
         @SpanAttribute("tile.id") String tileId,
+        @SpanAttribute("tile.lane") TileLane lane,
         TileSpec tile
     ) {
-        createWorkerJob(tile, false);
+        createWorkerJob(tile, lane);
         Span.current().addEvent("Detail tile job scheduled");
     }
 
     /**
      * Create a single detail tile job - convenience method
      */
-    private void createDetailTile(String jobId, TileSpec tile) {
-        createDetailTile(jobId, tile.getTileId(), tile);
+    private void createDetailTile(String jobId, TileLane lane, TileSpec tile) {
+        createDetailTile(jobId, tile.getTileId(), lane, tile);
     }
 
     /**
      * Create detailed tile jobs - convenience method
      */
-    private void createDetailJobs(FractalJob job) {
-        createDetailJobs(job.getJobId(), job);
+    private void createDetailJobs(FractalJob job, TileGrid grid, List<TileSpec> tiles) {
+        createDetailJobs(job.getJobId(), job, grid, tiles);
     }
 
     /**
-     * Create a Kubernetes job for a worker, with concurrency control
+     * Launch a worker for a tile, with concurrency control
      */
     @WithSpan("OrchestrationService.createWorkerJob")
-    private synchronized void createWorkerJob(
+    private void createWorkerJob(
         @SpanAttribute("job.id") String jobId,
         @SpanAttribute("tile.id") String tileId,
-        @SpanAttribute("tile.priority") boolean isPriority,
+        @SpanAttribute("tile.lane") TileLane lane,
         TileSpec tileSpec
     ) {
         // Use default method without explicit trace context
-        createWorkerJob(jobId, tileId, isPriority, tileSpec, null, null);
+        createWorkerJob(jobId, tileId, lane, tileSpec, null, null);
     }
     
     /**
-     * Create a Kubernetes job for a worker with explicit trace context
+     * Launch a worker for a tile with explicit trace context
      */
     @WithSpan("OrchestrationService.createWorkerJobWithContext")
-    private synchronized void createWorkerJob(
+    private void createWorkerJob(
         @SpanAttribute("job.id") String jobId,
         @SpanAttribute("tile.id") String tileId,
-        @SpanAttribute("tile.priority") boolean isPriority,
+        @SpanAttribute("tile.lane") TileLane lane,
         TileSpec tileSpec,
         @SpanAttribute("traceparent") String traceparent,
         @SpanAttribute("tracestate") String tracestate
     ) {
-        // Get the job's maxConcurrency if available
-        Optional<FractalJob> fractalJob = jobRepository.findById(jobId);
-        int maxWorkers = fractalJob
-            .map(j -> j.getMaxConcurrency() != null ? j.getMaxConcurrency() : maxConcurrentWorkers)
-            .orElse(maxConcurrentWorkers);
-
-        if (activeWorkerCount >= maxWorkers && !isPriority) {
-            logger.info(
-                "Deferring worker job for tile {} due to reaching max concurrency ({}/{})",
-                tileSpec.getTileId(),
-                activeWorkerCount,
-                maxWorkers
-            );
+        boolean isPriority = lane == TileLane.PREVIEW;
+        boolean requiresSlot = workerBackend.requiresWorkerSlot(tileSpec, isPriority);
+        Span.current().setAttribute("worker.backend", workerBackend.getName());
+
+        // The slot is registered before launching, since in-process
+        // backends can report the result before launch returns
+        String slotKey = jobId + ":" + tileId;
+        if (requiresSlot) {
+            if (isPriority) {
+                // Priority tiles never wait, but still count against the limits
+                registerJobLimit(jobId);
+                admissionController.acquire(jobId, slotKey, List.of(tileId));
+            } else if (!tryAdmit(jobId, slotKey, List.of(tileId))) {
+                logger.info(
+                    "Deferring worker job for tile {} due to reaching max concurrency (job {}/{}, total {}/{})",
+                    tileSpec.getTileId(),
+                    admissionController.getActiveCount(jobId),
+                    admissionController.getJobLimit(jobId),
+                    admissionController.getActiveCount(),
+                    admissionController.getMaxConcurrentWorkers()
+                );
 
-            // For non-priority jobs, defer creation and return - they'll be created
-            // as workers complete and capacity becomes available
-            addToJobQueue(tileSpec);
-            return;
+                // For non-priority jobs, defer creation and return - they'll be created
+                // as workers complete and capacity becomes available
+                addToJobQueue(tileSpec, lane, traceparent, tracestate);
+                return;
+            }
         }
 
-        // Generate unique name for the job
-        // Safely handle strings that might be shorter than 8 characters
-        String jobIdPrefix = jobId.length() >= 8
-            ? jobId.substring(0, 8)
-            : jobId;
-        String tileIdPrefix = tileId.length() >= 8
-            ? tileId.substring(0, 8)
-            : tileId;
-        String name = "fractal-" + jobIdPrefix + "-" + tileIdPrefix;
-
-        // Create labels
-        Map<String, String> labels = new HashMap<>();
-        labels.put("app", "otelbrot-worker");
-        labels.put("fractal-job-id", jobId);
-        labels.put("fractal-tile-id", tileId);
-        labels.put("priority", isPriority ? "high" : "normal");
-
-        // Add a TTL for automatic cleanup if we're not manually cleaning up
-        Integer ttlSecondsAfterFinished = cleanupCompletedJobs ? null : 300; // 5 minutes TTL
-
-        // Create the job
-        Job job = new JobBuilder()
-            .withNewMetadata()
-            .withName(name)
-            .withLabels(labels)
-            .endMetadata()
-            .withNewSpec()
-            .withBackoffLimit(2)
-            .withTtlSecondsAfterFinished(ttlSecondsAfterFinished)
-            .withNewTemplate()
-            .withNewMetadata()
-            .withLabels(labels)
-            // No OpenTelemetry annotation - Go instrumentation is built-in
-            .endMetadata()
-            .withNewSpec()
-            .withRestartPolicy("Never")
-            // Add the OpenTelemetry config volume to the pod
-            .addNewVolume()
-            .withName("go-worker-otel-config")
-            .withNewConfigMap()
-            .withName("go-worker-otel-config")
-            .endConfigMap()
-            .endVolume()
-            .addNewContainer()
-            .withName("worker")
-            .withImage(workerImage)
-            .withImagePullPolicy(imagePullPolicy)
-            .addNewEnv()
-            .withName("ORCHESTRATOR_URL")
-            .withValue("http://orchestrator.otelbrot.svc.cluster.local:8080")
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_JOB_ID")
-            .withValue(tileSpec.getJobId())
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_TILE_ID")
-            .withValue(tileSpec.getTileId())
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_X_MIN")
-            .withValue(String.valueOf(tileSpec.getXMin()))
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_Y_MIN")
-            .withValue(String.valueOf(tileSpec.getYMin()))
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_X_MAX")
-            .withValue(String.valueOf(tileSpec.getXMax()))
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_Y_MAX")
-            .withValue(String.valueOf(tileSpec.getYMax()))
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_WIDTH")
-            .withValue(String.valueOf(tileSpec.getWidth()))
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_HEIGHT")
-            .withValue(String.valueOf(tileSpec.getHeight()))
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_MAX_ITERATIONS")
-            .withValue(String.valueOf(tileSpec.getMaxIterations()))
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_COLOR_SCHEME")
-            .withValue(tileSpec.getColorScheme())
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_PIXEL_START_X")
-            .withValue(String.valueOf(tileSpec.getPixelStartX()))
-            .endEnv()
-            .addNewEnv()
-            .withName("TILE_SPEC_PIXEL_START_Y")
-            .withValue(String.valueOf(tileSpec.getPixelStartY()))
-            .endEnv()
-            // Add OpenTelemetry trace context using W3C standard environment variables
-            .addNewEnv()
-            .withName("TRACEPARENT")
-            .withValue(traceparent != null ? traceparent : getTraceparent())
-            .endEnv()
-            .addNewEnv()
-            .withName("TRACESTATE")
-            .withValue(tracestate != null ? tracestate : getCurrentTraceState())
-            .endEnv()
-            // Mount the OpenTelemetry config
-            .addNewVolumeMount()
-            .withName("go-worker-otel-config")
-            .withMountPath("/app/config")
-            .withReadOnly(true)
-            .endVolumeMount()
-            // Set environment variable for OpenTelemetry config file
-            .addNewEnv()
-            .withName("OTEL_CONFIG_FILE")
-            .withValue("/app/config/otel-config.yaml")
-            .endEnv()
-            .withNewResources()
-            .addToRequests(
-                "cpu",
-                new io.fabric8.kubernetes.api.model.Quantity(workerCpuRequest)
-            )
-            .addToRequests(
-                "memory",
-                new io.fabric8.kubernetes.api.model.Quantity(
-                    workerMemoryRequest
-                )
-            )
-            .addToLimits(
-                "cpu",
-                new io.fabric8.kubernetes.api.model.Quantity("1000m")
-            )
-            .addToLimits(
-                "memory",
-                new io.fabric8.kubernetes.api.model.Quantity("1024Mi")
-            )
-            .endResources()
-            .endContainer()
-            .endSpec()
-            .endTemplate()
-            .endSpec()
-            .build();
-
-        // Create the job in Kubernetes with correct namespace
-        kubernetesClient
-            .batch()
-            .v1()
-            .jobs()
-            .inNamespace(namespace)
-            .resource(job)
-            .create();
+        // Hand the tile to the worker backend with the trace context to continue
+        leaseTile(tileSpec, lane);
+        try {
+            workerBackend.launch(
+                tileSpec,
+                lane,
+                traceparent != null ? traceparent : getTraceparent(),
+                tracestate != null ? tracestate : getCurrentTraceState()
+            );
+        } catch (RuntimeException e) {
+            inFlightTileRepository.complete(jobId, tileId);
+            if (requiresSlot) {
+                releaseSlot(jobId, slotKey);
+            }
+            throw e;
+        }
 
-        // Increment active worker count
-        activeWorkerCount++;
+        // Time single-tile launches; tiles in a batch run one after another
+        if (lane != TileLane.PREVIEW) {
+            stragglerDetector.started(tileSpec, lane, System.currentTimeMillis());
+        }
 
         String traceContextSource = traceparent != null ? "preserved" : "current";
         logger.info(
-            "Created worker job: {} for tile: {} (active workers: {}, trace context: {})",
-            name,
+            "Launched {} worker for tile: {} (active workers: {}, trace context: {})",
+            workerBackend.getName(),
             tileId,
-            activeWorkerCount,
+            admissionController.getActiveCount(),
             traceContextSource
         );
     }
 
     /**
-     * Create a Kubernetes job for a worker - convenience method
+     * Launch a worker for a tile - convenience method
      */
-    private void createWorkerJob(TileSpec tileSpec, boolean isPriority) {
+    private void createWorkerJob(TileSpec tileSpec, TileLane lane) {
         createWorkerJob(
             tileSpec.getJobId(),
             tileSpec.getTileId(),
-            isPriority,
+            lane,
             tileSpec
         );
     }
     
     /**
-     * Create a Kubernetes job for a worker with trace context - convenience method
+     * Launch a worker for a tile with trace context - convenience method
      */
-    private void createWorkerJob(TileSpec tileSpec, boolean isPriority, String traceparent, String tracestate) {
+    private void createWorkerJob(TileSpec tileSpec, TileLane lane, String traceparent, String tracestate) {
         createWorkerJob(
             tileSpec.getJobId(),
             tileSpec.getTileId(),
-            isPriority,
+            lane,
             tileSpec,
             traceparent,
             tracestate
@@ -782,41 +1198,136 @@ public class OrchestrationService {
     }
 
     /**
-     * Add a job to the Redis Stream queue for later execution
+     * Launch one worker for a batch of tiles. The batch occupies a single
+     * worker slot until all of its tiles have reported back.
+     */
+    @WithSpan("OrchestrationService.createWorkerBatch")
+    private void createWorkerBatch(
+        TileBatch batch,
+        @SpanAttribute("tile.lane") TileLane lane,
+        @SpanAttribute("traceparent") String traceparent,
+        @SpanAttribute("tracestate") String tracestate
+    ) {
+        String jobId = batch.getJobId();
+        Span.current().setAttribute("job.id", jobId);
+        Span.current().setAttribute("batch.id", batch.getBatchId());
+        Span.current().setAttribute("batch.tiles", batch.size());
+
+        String slotKey = jobId + ":" + batch.getBatchId();
+        List<String> tileIds = batch.getTiles().stream().map(TileSpec::getTileId).toList();
+        if (!tryAdmit(jobId, slotKey, tileIds)) {
+            logger.info(
+                "Deferring batch {} of {} tiles due to reaching max concurrency (job {}/{}, total {}/{})",
+                batch.getBatchId(),
+                batch.size(),
+                admissionController.getActiveCount(jobId),
+                admissionController.getJobLimit(jobId),
+                admissionController.getActiveCount(),
+                admissionController.getMaxConcurrentWorkers()
+            );
+            // Queue the tiles individually; they are re-batched when read back
+            for (TileSpec tile : batch.getTiles()) {
+                addToJobQueue(tile, lane, traceparent, tracestate);
+            }
+            return;
+        }
+
+        for (TileSpec tile : batch.getTiles()) {
+            leaseTile(tile, lane);
+        }
+        try {
+            workerBackend.launchBatch(
+                batch,
+                traceparent != null ? traceparent : getTraceparent(),
+                tracestate != null ? tracestate : getCurrentTraceState()
+            );
+        } catch (RuntimeException e) {
+            for (TileSpec tile : batch.getTiles()) {
+                inFlightTileRepository.complete(jobId, tile.getTileId());
+            }
+            releaseSlot(jobId, slotKey);
+            throw e;
+        }
+
+        logger.info(
+            "Launched {} worker for batch {} of {} tiles (active workers: {})",
+            workerBackend.getName(),
+            batch.getBatchId(),
+            batch.size(),
+            admissionController.getActiveCount()
+        );
+    }
+
+    /**
+     * Take a worker slot waiting for the given tiles, looking up the job's
+     * own concurrency limit the first time this instance sees the job
+     */
+    private boolean tryAdmit(String jobId, String slotKey, List<String> tileIds) {
+        registerJobLimit(jobId);
+        return admissionController.tryAcquire(jobId, slotKey, tileIds);
+    }
+
+    /**
+     * Register the job's own concurrency limit if this instance hasn't yet
+     */
+    private void registerJobLimit(String jobId) {
+        if (!admissionController.isRegistered(jobId)) {
+            jobRepository.findById(jobId).ifPresent(
+                job -> admissionController.registerJob(jobId, job.getMaxConcurrency())
+            );
+        }
+    }
+
+    /**
+     * Give back a slot whose worker could not be launched
+     */
+    private void releaseSlot(String jobId, String slotKey) {
+        if (admissionController.releaseSlot(jobId, slotKey) != null) {
+            dispatchLoop.signal();
+        }
+    }
+
+    /**
+     * Group tiles into batches when the backend supports it, keeping tiles
+     * of different jobs apart. Without batching every tile is its own batch.
+     */
+    private List<TileBatch> toBatches(List<TileSpec> tiles) {
+        if (!workerBackend.supportsBatchLaunch() || maxBatchTiles <= 1) {
+            return tiles.stream()
+                .map(tile -> new TileBatch(tile.getTileId(), List.of(tile)))
+                .toList();
+        }
+
+        Map<String, List<TileSpec>> tilesByJob = new LinkedHashMap<>();
+        for (TileSpec tile : tiles) {
+            tilesByJob.computeIfAbsent(tile.getJobId(), k -> new ArrayList<>()).add(tile);
+        }
+
+        List<TileBatch> batches = new ArrayList<>();
+        for (List<TileSpec> jobTiles : tilesByJob.values()) {
+            batches.addAll(TileBatch.partition(jobTiles, batchWorkBudget, maxBatchTiles));
+        }
+        return batches;
+    }
+
+    /**
+     * Add a job to its lane's Redis Stream for later execution
      */
     @WithSpan("OrchestrationService.addToJobQueue")
-    private void addToJobQueue(TileSpec tileSpec) {
-        // Capture current trace context for the job
-        String traceparent = getTraceparent();
-        String tracestate = getCurrentTraceState();
-        
-        // Create a map of the job data including the TileSpec fields and trace context
-        Map<String, String> jobData = new HashMap<>();
-        jobData.put("jobId", tileSpec.getJobId());
-        jobData.put("tileId", tileSpec.getTileId());
-        jobData.put("xMin", String.valueOf(tileSpec.getXMin()));
-        jobData.put("yMin", String.valueOf(tileSpec.getYMin()));
-        jobData.put("xMax", String.valueOf(tileSpec.getXMax()));
-        jobData.put("yMax", String.valueOf(tileSpec.getYMax()));
-        jobData.put("width", String.valueOf(tileSpec.getWidth()));
-        jobData.put("height", String.valueOf(tileSpec.getHeight()));
-        jobData.put("maxIterations", String.valueOf(tileSpec.getMaxIterations()));
-        jobData.put("colorScheme", tileSpec.getColorScheme());
-        jobData.put("pixelStartX", String.valueOf(tileSpec.getPixelStartX()));
-        jobData.put("pixelStartY", String.valueOf(tileSpec.getPixelStartY()));
-        
-        // Add trace context
-        jobData.put("traceparent", traceparent);
-        jobData.put("tracestate", tracestate != null ? tracestate : "");
-        
-        // Add to Redis Stream
-        redisTemplate.opsForStream().add(streamName, jobData);
+    private void addToJobQueue(TileSpec tileSpec, TileLane lane, String savedTraceparent, String savedTracestate) {
+        // Keep a tile's original trace context, otherwise capture the current one
+        String traceparent = savedTraceparent != null ? savedTraceparent : getTraceparent();
+        String tracestate = savedTraceparent != null ? savedTracestate : getCurrentTraceState();
+
+        // Add to Redis Stream and let the dispatcher know there is work
+        tileQueueRepository.enqueue(tileSpec, lane, traceparent, tracestate);
+        dispatchLoop.signal();
         
         // Add span attributes for debugging
-        Span.current().setAttribute("queue.stream", streamName);
+        Span.current().setAttribute("queue.stream", lane.getStreamName());
         Span.current().setAttribute("job.id", tileSpec.getJobId());
         Span.current().setAttribute("tile.id", tileSpec.getTileId());
-        Span.current().setAttribute("traceparent", traceparent);
+        Span.current().setAttribute("traceparent", traceparent != null ? traceparent : "");
         
         logger.debug(
             "Added tile {} to Redis Stream with trace context",
@@ -824,291 +1335,204 @@ public class OrchestrationService {
         );
     }
 
-    // Static flag to track if Redis Stream is already initialized
-    private static boolean redisStreamInitialized = false;
-    
     /**
-     * Clean up the Redis Stream by trimming old messages and resetting consumer group state
-     * This prevents the stream from growing indefinitely and ensures a fresh state on application restart
+     * Start observing workers and the dispatcher once configuration is
+     * injected. Pull-based workers lease queued tiles themselves and need
+     * no dispatcher.
      */
-    private void cleanupRedisStream() {
-        logger.info("Cleaning up Redis Stream: {} on application startup", streamName);
-        
+    @PostConstruct
+    void startDispatcher() {
+        workerBackend.start();
+        if (workerBackend.isPullBased()) {
+            return;
+        }
+        dispatchLoop.setIdleInterval(Duration.ofMillis(dispatcherIdleIntervalMs));
+        dispatchLoop.start();
+    }
+
+    @PreDestroy
+    void stopDispatcher() {
+        tileClassifier.shutdownNow();
+        dispatchLoop.stop();
+        workerBackend.stop();
+    }
+
+    /**
+     * Keep the tiles this instance has buffered pending under its own
+     * consumer, and take over the tiles a replica that went away had
+     * buffered but never launched
+     */
+    @WithSpan("OrchestrationService.renewBufferedTiles")
+    @Scheduled(fixedDelayString = "${app.queue.renew-interval-ms:15000}")
+    void renewBufferedTiles() {
+        if (workerBackend.isPullBased()) {
+            return;
+        }
         try {
-            // Check if the stream exists
-            Boolean streamExists = redisTemplate.hasKey(streamName);
-            if (streamExists == null || !streamExists) {
-                logger.info("Redis Stream {} doesn't exist yet, no cleanup needed", streamName);
+            List<String> bufferedIds = fairShareScheduler.getBufferedQueueIds();
+            int renewed = tileQueueRepository.renew(instanceConsumerName, bufferedIds);
+            Span.current().setAttribute("queue.renewed", renewed);
+
+            int room = fairShareBufferSize - fairShareScheduler.getBufferedCount();
+            if (room <= 0) {
                 return;
             }
-            
-            try {
-                // Delete any existing consumer groups for a fresh start
-                // We need to use the StreamInfo.XInfoGroups API
-                org.springframework.data.redis.connection.stream.StreamInfo.XInfoGroups groups = 
-                    redisTemplate.opsForStream().groups(streamName);
-                
-                if (groups != null && !groups.isEmpty()) {
-                    logger.info("Found {} existing consumer groups in stream: {}", groups.size(), streamName);
-                    
-                    // Iterate through each group info and destroy the group
-                    for (org.springframework.data.redis.connection.stream.StreamInfo.XInfoGroup groupInfo : groups) {
-                        String groupName = groupInfo.groupName();
-                        try {
-                            redisTemplate.opsForStream().destroyGroup(streamName, groupName);
-                            logger.info("Deleted consumer group: {} from stream: {}", groupName, streamName);
-                        } catch (Exception e) {
-                            logger.warn("Error deleting consumer group {}: {}", groupName, e.getMessage());
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                logger.warn("Error listing/deleting consumer groups: {}", e.getMessage());
-            }
-            
-            // Trim the stream to keep only the most recent initialization message
-            try {
-                // First check how many messages are in the stream
-                Long streamLength = redisTemplate.opsForStream().size(streamName);
-                if (streamLength != null && streamLength > 0) {
-                    logger.info("Redis Stream {} contains {} messages, trimming to keep only 1 message", 
-                                streamName, streamLength);
-                    
-                    // XTRIM with MAXLEN ~ 1 (the ~ means approximate trim, which is more efficient)
-                    redisTemplate.opsForStream().trim(streamName, 1, true);
-                    logger.info("Successfully trimmed Redis Stream to approximately 1 message");
-                } else {
-                    logger.info("Redis Stream {} is empty, no trimming needed", streamName);
-                }
-            } catch (Exception e) {
-                logger.warn("Error trimming stream: {}", e.getMessage());
+            Set<String> buffered = new HashSet<>(bufferedIds);
+            List<QueuedTile> orphaned = tileQueueRepository
+                .claimExpired(instanceConsumerName, Duration.ofMillis(orphanIdleMs), room)
+                .stream()
+                .filter(tile -> !buffered.contains(tile.getQueueId()))
+                .toList();
+            Span.current().setAttribute("queue.orphaned", orphaned.size());
+            if (!orphaned.isEmpty()) {
+                logger.info("Took over {} queued tiles left by another orchestrator", orphaned.size());
+                fairShareScheduler.offer(orphaned);
+                dispatchLoop.signal();
             }
-            
-            // Optionally delete the entire stream for a completely fresh start
-            // Uncomment if you want to completely reset between application starts
-            /*
-            try {
-                redisTemplate.delete(streamName);
-                logger.info("Deleted Redis Stream {} for a fresh start", streamName);
-            } catch (Exception e) {
-                logger.warn("Error deleting stream: {}", e.getMessage());
-            }
-            */
-            
-            logger.info("Redis Stream cleanup completed successfully");
         } catch (Exception e) {
-            logger.error("Error during Redis Stream cleanup: {}", e.getMessage(), e);
+            logger.warn("Error renewing buffered tiles: {}", e.getMessage());
         }
     }
-    
+
     /**
      * Process queued jobs from Redis Stream when resources become available
-     * Called when a worker completes or on a schedule
+     * Runs on the dispatcher thread; waits up to the stream read timeout for new tiles
+     *
+     * @return the number of queued tiles launched
      */
     @WithSpan("OrchestrationService.processJobQueue")
-    @Scheduled(fixedDelay = 250) // Check for jobs every 250ms for faster response
-    private synchronized void processJobQueue() {
-        // Only process if we have capacity - use default maxConcurrentWorkers for queue processing
-        int maxWorkers = maxConcurrentWorkers;
-        int availableSlots = maxWorkers - activeWorkerCount;
-        
+    int processJobQueue() {
+        return drainJobQueue(Duration.ofSeconds(redisStreamReadTimeoutSeconds));
+    }
+
+    /**
+     * Launch queued tiles while there is capacity. Only the dispatcher thread
+     * drains the queue, so nothing else ever waits on a stream read.
+     *
+     * @param block how long to wait for new tiles when none are buffered, or null to not wait
+     * @return the number of queued tiles launched
+     */
+    private int drainJobQueue(Duration block) {
+
         Span span = Span.current();
-        span.setAttribute("workers.max", maxWorkers);
-        span.setAttribute("workers.active", activeWorkerCount);
-        
+        int availableSlots = admissionController.getAvailableSlots();
+        span.setAttribute("workers.max", admissionController.getMaxConcurrentWorkers());
+        span.setAttribute("workers.active", admissionController.getActiveCount());
+
         // Check if we have capacity to process more jobs
         if (availableSlots <= 0) {
             span.addEvent("No available capacity for processing");
             // Log at debug level to reduce noise
-            logger.debug("No available capacity for processing jobs. Active workers: {}", activeWorkerCount);
-            return;
+            logger.debug("No available capacity for processing jobs. Active workers: {}", admissionController.getActiveCount());
+            return 0;
         }
-        
-        // Generate a unique consumer name to avoid conflicts in a cluster
-        String instanceConsumerName = consumerName + "-" + UUID.randomUUID().toString().substring(0, 8);
-        
+
         try {
-            // Only verify stream and group if not already initialized
-            if (!redisStreamInitialized) {
-                boolean ready = verifyStreamAndGroup();
-                if (!ready) {
-                    logger.warn("Stream or consumer group not ready, skipping job processing");
-                    return;
-                }
-                redisStreamInitialized = true;
-                logger.info("Redis Stream and Consumer Group successfully initialized");
+            // Read ahead from the stream with XREADGROUP so every job with
+            // queued tiles is visible to the scheduler, waiting only when
+            // nothing is buffered
+            int room = fairShareBufferSize - fairShareScheduler.getBufferedCount();
+            if (room > 0) {
+                fairShareScheduler.offer(tileQueueRepository.read(
+                    instanceConsumerName,
+                    room,
+                    fairShareScheduler.getBufferedCount() == 0 ? block : null
+                ));
             }
-            
-            // Read jobs from the stream with XREADGROUP
-            // Use special ID ">" to read only new messages never delivered to any consumer
-            List<MapRecord<String, Object, Object>> records;
-            try {
-                // Use configurable timeout to avoid blocking for too long
-                StreamReadOptions options = StreamReadOptions.empty()
-                    .count(availableSlots)
-                    .block(Duration.ofSeconds(redisStreamReadTimeoutSeconds)); // Configurable timeout instead of default 60 seconds
-                
-                records = redisTemplate.opsForStream()
-                    .read(Consumer.from(consumerGroup, instanceConsumerName),
-                          options,
-                          StreamOffset.create(streamName, ReadOffset.from(">")));
-            } catch (Exception e) {
-                // Specific handling for stream/group not found errors
-                if (e.getMessage() != null && 
-                    (e.getMessage().contains("NOGROUP") || e.getMessage().contains("No such key"))) {
-                    logger.warn("Stream or group not found during read, reinitializing: {}", e.getMessage());
-                    redisStreamInitialized = false; // Reset flag to force reinitialization
-                    
-                    // Directly initialize here instead of just marking for next cycle
-                    boolean success = initializeRedisStreamConsumerGroup();
-                    if (success) {
-                        logger.info("Successfully reinitialized Redis Stream and Consumer Group after error");
-                        redisStreamInitialized = true;
-                        
-                        // Try again immediately instead of waiting for next cycle
-                        try {
-                            // Use configurable timeout to avoid blocking for too long
-                            StreamReadOptions options = StreamReadOptions.empty()
-                                .count(availableSlots)
-                                .block(Duration.ofSeconds(redisStreamReadTimeoutSeconds)); // Configurable timeout instead of default 60 seconds
-                            
-                            records = redisTemplate.opsForStream()
-                                .read(Consumer.from(consumerGroup, instanceConsumerName),
-                                    options,
-                                    StreamOffset.create(streamName, ReadOffset.from(">")));
-                            
-                            // If we get here, then the read succeeded
-                            logger.info("Successfully read from Redis Stream after reinitialization");
-                            
-                            // Skip the empty records check below if we have records
-                            if (records != null && !records.isEmpty()) {
-                                // Continue processing with these records
-                                span.setAttribute("queue.jobs_to_process", records.size());
-                                logger.info(
-                                    "Processing {} jobs from Redis Stream after reinitialization (available slots: {})",
-                                    records.size(),
-                                    availableSlots
-                                );
-                                
-                                // Continue with normal processing
-                                // The code below will be executed because we're not returning
-                            } else {
-                                logger.info("No pending jobs to process after reinitialization");
-                                return;
-                            }
-                        } catch (Exception readEx) {
-                            logger.warn("Error reading from Redis Stream after reinitialization: {}", readEx.getMessage());
-                            return;
-                        }
-                    } else {
-                        logger.warn("Failed to reinitialize Redis Stream and Consumer Group, will retry next cycle");
-                        return;
-                    }
-                } else {
-                    // For other exceptions, log and return
-                    logger.error("Error reading from Redis Stream: {}", e.getMessage(), e);
-                    return;
+
+            // Take tiles round robin across jobs, each within its own limit.
+            // With batching a slot can take several small tiles
+            int tilesPerSlot = workerBackend.supportsBatchLaunch() ? Math.max(maxBatchTiles, 1) : 1;
+            List<QueuedTile> queuedTiles = fairShareScheduler.next(
+                availableSlots * tilesPerSlot,
+                jobId -> {
+                    registerJobLimit(jobId);
+                    return admissionController.getAvailableSlots(jobId) * tilesPerSlot;
                 }
-            }
+            );
+            span.setAttribute("queue.buffered", fairShareScheduler.getBufferedCount());
             
-            if (records == null || records.isEmpty()) {
+            if (queuedTiles.isEmpty()) {
                 span.addEvent("No pending jobs to process");
                 // Only log at debug level to reduce noise
                 logger.debug("No pending jobs to process in Redis Stream (available slots: {})", availableSlots);
-                return;
+                return 0;
             }
             
-            span.setAttribute("queue.jobs_to_process", records.size());
+            span.setAttribute("queue.jobs_to_process", queuedTiles.size());
             
             // Log at info level only when we actually have jobs to process
             logger.info(
                 "Processing {} jobs from Redis Stream (available slots: {})",
-                records.size(),
+                queuedTiles.size(),
                 availableSlots
             );
             
-            for (MapRecord<String, Object, Object> record : records) {
-                Map<Object, Object> jobData = record.getValue();
-                
-                // Skip initialization messages
-                if (jobData.containsKey("init") && "true".equals(jobData.get("init").toString())) {
-                    // Acknowledge initialization message
-                    redisTemplate.opsForStream().acknowledge(streamName, consumerGroup, record.getId());
-                    continue;
+            // Launch higher lanes first; tiles of different lanes are never batched together.
+            // A tile queued more than once, such as a reclaimed copy of it, is
+            // launched once and every one of its stream records acknowledged
+            Map<String, List<QueuedTile>> queuedById = new HashMap<>();
+            Map<TileLane, List<TileSpec>> specsByLane = new EnumMap<>(TileLane.class);
+            for (QueuedTile queuedTile : queuedTiles) {
+                List<QueuedTile> records = queuedById.computeIfAbsent(
+                    queuedTile.getTileSpec().getJobId() + ":" + queuedTile.getTileSpec().getTileId(),
+                    k -> new ArrayList<>()
+                );
+                if (records.isEmpty()) {
+                    specsByLane.computeIfAbsent(queuedTile.getLane(), k -> new ArrayList<>()).add(queuedTile.getTileSpec());
                 }
-                
-                try {
-                    // Convert the Object map to String map for easier handling
-                    Map<String, String> stringJobData = jobData.entrySet().stream()
-                        .collect(Collectors.toMap(
-                            e -> e.getKey().toString(),
-                            e -> e.getValue() != null ? e.getValue().toString() : ""
-                        ));
-                    
-                    // Extract the tile spec and trace context
-                    TileSpec tileSpec = buildTileSpecFromMap(stringJobData);
-                    String traceparent = stringJobData.get("traceparent");
-                    String tracestate = stringJobData.get("tracestate");
-                    
-                    // Process the job with the preserved trace context
-                    processQueuedJobWithContext(tileSpec, traceparent, tracestate);
-                    
-                    // Acknowledge the message (XACK)
-                    redisTemplate.opsForStream().acknowledge(streamName, consumerGroup, record.getId());
-                    
-                    logger.debug("Processed and acknowledged job from stream: {}", record.getId());
-                } catch (Exception e) {
-                    logger.error("Error processing individual job from stream: {}", e.getMessage(), e);
-                    // Still acknowledge the message to avoid reprocessing a bad message
+                records.add(queuedTile);
+            }
+
+            for (Map.Entry<TileLane, List<TileSpec>> laneSpecs : specsByLane.entrySet()) {
+                TileLane lane = laneSpecs.getKey();
+                for (TileBatch batch : toBatches(laneSpecs.getValue())) {
+                    TileSpec first = batch.getTiles().get(0);
+                    QueuedTile firstQueued = queuedById.get(first.getJobId() + ":" + first.getTileId()).get(0);
                     try {
-                        redisTemplate.opsForStream().acknowledge(streamName, consumerGroup, record.getId());
-                    } catch (Exception ackEx) {
-                        logger.warn("Failed to acknowledge failed job: {}", ackEx.getMessage());
+                        // Process the job with the preserved trace context
+                        if (batch.size() == 1) {
+                            processQueuedJobWithContext(
+                                first,
+                                lane,
+                                firstQueued.getTraceparent(),
+                                firstQueued.getTracestate()
+                            );
+                        } else {
+                            createWorkerBatch(
+                                batch,
+                                lane,
+                                firstQueued.getTraceparent(),
+                                firstQueued.getTracestate()
+                            );
+                        }
+                    } catch (Exception e) {
+                        logger.error("Error processing individual job from stream: {}", e.getMessage(), e);
+                    } finally {
+                        // Acknowledge the messages (XACK), even on failure to avoid reprocessing a bad message
+                        for (TileSpec tile : batch.getTiles()) {
+                            for (QueuedTile queuedTile : queuedById.get(tile.getJobId() + ":" + tile.getTileId())) {
+                                try {
+                                    tileQueueRepository.acknowledge(queuedTile.getLane(), queuedTile.getRecordId());
+                                } catch (Exception ackEx) {
+                                    logger.warn("Failed to acknowledge job: {}", ackEx.getMessage());
+                                }
+                            }
+                        }
                     }
                 }
             }
             
             span.addEvent("Queue processing completed");
+            return queuedTiles.size();
             
         } catch (Exception e) {
             logger.error("Error processing Redis Stream queue: {}", e.getMessage(), e);
             span.recordException(e);
             span.setStatus(StatusCode.ERROR, e.getMessage());
+            return 0;
         }
     }
-    
-    /**
-     * Verify that the Redis Stream and Consumer Group exist
-     */
-    private boolean verifyStreamAndGroup() {
-        try {
-            // Call the initialization method which now returns a boolean success indicator
-            return initializeRedisStreamConsumerGroup();
-        } catch (Exception e) {
-            logger.warn("Error during stream/group verification: {}", e.getMessage(), e);
-            return false;
-        }
-    }
-    
-    /**
-     * Build a TileSpec from Redis Stream job data map
-     */
-    private TileSpec buildTileSpecFromMap(Map<String, String> jobData) {
-        return new TileSpec.Builder()
-            .jobId(jobData.get("jobId"))
-            .tileId(jobData.get("tileId"))
-            .xMin(Double.parseDouble(jobData.get("xMin")))
-            .yMin(Double.parseDouble(jobData.get("yMin")))
-            .xMax(Double.parseDouble(jobData.get("xMax")))
-            .yMax(Double.parseDouble(jobData.get("yMax")))
-            .width(Integer.parseInt(jobData.get("width")))
-            .height(Integer.parseInt(jobData.get("height")))
-            .maxIterations(Integer.parseInt(jobData.get("maxIterations")))
-            .colorScheme(jobData.get("colorScheme"))
-            .pixelStartX(Integer.parseInt(jobData.get("pixelStartX")))
-            .pixelStartY(Integer.parseInt(jobData.get("pixelStartY")))
-            .build();
-    }
 
     /**
      * Process a queued job with its saved trace context
@@ -1116,14 +1540,15 @@ public class OrchestrationService {
     @WithSpan("OrchestrationService.processQueuedJobWithContext")
     private void processQueuedJobWithContext(
         TileSpec tileSpec,
+        @SpanAttribute("tile.lane") TileLane lane,
         @SpanAttribute("traceparent") String traceparent,
         @SpanAttribute("tracestate") String tracestate
     ) {
-        // Create the Kubernetes job with the preserved trace context
+        // Launch the worker with the preserved trace context
         createWorkerJob(
             tileSpec.getJobId(),
             tileSpec.getTileId(),
-            false,
+            lane,
             tileSpec,
             traceparent,
             tracestate
@@ -1132,20 +1557,19 @@ public class OrchestrationService {
     }
 
     /**
-     * Calculate how many tiles a job will require
+     * Split a job's grid into detail tiles, of equal estimated cost when
+     * adaptive partitioning is enabled, in the grid's dispatch order
      */
-    private int calculateTileCount(FractalJob job) {
-        // Use the job's tile size if specified, otherwise fall back to maxTileSize
-        int tileSize = (job.getTileSize() != null && job.getTileSize() > 0)
-            ? job.getTileSize()
-            : maxTileSize;
-
-        // Validate tile size is within bounds
-        tileSize = Math.min(Math.max(tileSize, 64), 512);
+    private List<TileSpec> planDetailTiles(TileGrid grid) {
+        // Cost estimates sample absolute coordinates, so deep zooms split uniformly
+        if (!isAdaptivePartitioning() || grid.hasReference()) {
+            return grid.tiles();
+        }
+        return new AdaptiveTilePartitioner(adaptiveSampleResolution).partition(grid);
+    }
 
-        int tilesX = (int) Math.ceil((double) job.getWidth() / tileSize);
-        int tilesY = (int) Math.ceil((double) job.getHeight() / tileSize);
-        return tilesX * tilesY;
+    private boolean isAdaptivePartitioning() {
+        return "adaptive".equalsIgnoreCase(tilePartitioning);
     }
 
     /**
@@ -1327,91 +1751,49 @@ public class OrchestrationService {
     }
 
     /**
-     * Partition a job into tiles
+     * Lay out a job's detail tiles
      */
-    private List<TileSpec> partitionIntoTiles(FractalJob job) {
-        double centerX = job.getCenterX();
-        double centerY = job.getCenterY();
-        double zoom = job.getZoom();
-        int width = job.getWidth();
-        int height = job.getHeight();
-        int maxIterations = job.getMaxIterations();
-        String colorScheme = job.getColorScheme();
-        String jobId = job.getJobId();
-
-        // Get tile size from job or use default - use same logic as calculateTileCount method
+    private TileGrid buildTileGrid(FractalJob job) {
+        // Use the job's tile size if specified, otherwise fall back to maxTileSize
         Integer requestedTileSize = job.getTileSize();
         int tileSize = (requestedTileSize != null && requestedTileSize > 0)
             ? requestedTileSize
             : maxTileSize;
-
-        // Validate tile size is within bounds
-        tileSize = Math.min(Math.max(tileSize, 64), 512);
+        // Large renders get tiles big enough to keep their tile count bounded
+        if (job.isLargeRender()) {
+            tileSize = largeRenderService.detailTileSize(job.getWidth(), job.getHeight(), tileSize);
+        }
 
         // Calculate the boundaries of the view
-        double xMin = centerX - zoom;
-        double xMax = centerX + zoom;
-        double yMin = centerY - zoom;
-        double yMax = centerY + zoom;
-
-        // Determine how many tiles we need in each dimension
-        int tilesX = (int) Math.ceil((double) width / tileSize);
-        int tilesY = (int) Math.ceil((double) height / tileSize);
-
-        // Calculate tile size in original pixel space
-        int tileWidth = (int) Math.ceil((double) width / tilesX);
-        int tileHeight = (int) Math.ceil((double) height / tilesY);
-
-        // Calculate tile size in coordinate space
-        double tileRangeX = (xMax - xMin) / tilesX;
-        double tileRangeY = (yMax - yMin) / tilesY;
-
-        List<TileSpec> tiles = new ArrayList<>();
-
-        // Create tiles
-        for (int ty = 0; ty < tilesY; ty++) {
-            for (int tx = 0; tx < tilesX; tx++) {
-                // Calculate coordinates for this tile
-                double tileXMin = xMin + tx * tileRangeX;
-                double tileXMax = tileXMin + tileRangeX;
-                double tileYMin = yMin + ty * tileRangeY;
-                double tileYMax = tileYMin + tileRangeY;
-
-                // Calculate pixel offsets for this tile
-                int pixelStartX = tx * tileWidth;
-                int pixelStartY = ty * tileHeight;
-
-                // Calculate actual pixel dimensions for this tile (handling edge cases)
-                int actualTileWidth = Math.min(tileWidth, width - pixelStartX);
-                int actualTileHeight = Math.min(
-                    tileHeight,
-                    height - pixelStartY
-                );
+        return new TileGrid.Builder()
+            .jobId(job.getJobId())
+            .xMin(viewCenterX(job) - job.getZoom())
+            .yMin(viewCenterY(job) - job.getZoom())
+            .xMax(viewCenterX(job) + job.getZoom())
+            .yMax(viewCenterY(job) + job.getZoom())
+            .width(job.getWidth())
+            .height(job.getHeight())
+            .tileSize(tileSize)
+            .maxIterations(job.getMaxIterations())
+            .colorScheme(job.getColorScheme())
+            .order(job.getTileOrder() != null ? job.getTileOrder() : TileOrder.fromId(defaultTileOrder))
+            .focus(focusOffset(job.getFocusX(), job.getCenterX(), job), focusOffset(job.getFocusY(), job.getCenterY(), job))
+            .reference(job.getReferenceX(), job.getReferenceY())
+            .precision(job.getPrecision())
+            .largeRender(job.isLargeRender())
+            .build();
+    }
 
-                // Create tile with trace propagation data
-                TileSpec.Builder tileSpecBuilder = new TileSpec.Builder()
-                    .jobId(jobId)
-                    .tileId(UUID.randomUUID().toString())
-                    .xMin(tileXMin)
-                    .yMin(tileYMin)
-                    .xMax(tileXMax)
-                    .yMax(tileYMax)
-                    .width(actualTileWidth)
-                    .height(actualTileHeight)
-                    .maxIterations(maxIterations)
-                    .colorScheme(colorScheme)
-                    .pixelStartX(pixelStartX)
-                    .pixelStartY(pixelStartY);
-
-                // Not setting trace context in TileSpec anymore - using environment variables
-                // Context propagation happens when the Kubernetes job is created
-
-                TileSpec tileSpec = tileSpecBuilder.build();
-
-                tiles.add(tileSpec);
-            }
-        }
+    // A deep zoom's tile bounds are offsets from its reference point
+    private static double viewCenterX(FractalJob job) {
+        return job.getReferenceX() != null ? 0.0 : job.getCenterX();
+    }
+
+    private static double viewCenterY(FractalJob job) {
+        return job.getReferenceY() != null ? 0.0 : job.getCenterY();
+    }
 
-        return tiles;
+    private static Double focusOffset(Double focus, double center, FractalJob job) {
+        return focus != null && job.getReferenceX() != null ? focus - center : focus;
     }
 }
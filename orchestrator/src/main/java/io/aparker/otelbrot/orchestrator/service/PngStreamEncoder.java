@@ -0,0 +1,196 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an 8-bit RGB PNG row by row. Each row is filtered on its own,
+ * with whichever filter makes its bytes smallest, and deflated into IDAT
+ * chunks as they fill up, so only two rows and a chunk are kept.
+ */
+class PngStreamEncoder implements StreamingImageEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int BYTES_PER_PIXEL = 3;
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final DeflaterOutputStream idat;
+
+    // Previous and current row, and the current row under each of the five filters
+    private byte[] previous;
+    private byte[] current;
+    private final byte[][] filtered = new byte[5][];
+    private int rowsWritten;
+
+    PngStreamEncoder(OutputStream out, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid image size: " + width + "x" + height);
+        }
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.previous = new byte[width * BYTES_PER_PIXEL];
+        this.current = new byte[width * BYTES_PER_PIXEL];
+        for (int i = 0; i < filtered.length; i++) {
+            filtered[i] = new byte[width * BYTES_PER_PIXEL];
+        }
+
+        out.write(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8; // bit depth
+        header[9] = 2; // truecolor
+        writeChunk("IHDR", header, header.length);
+        idat = new DeflaterOutputStream(new IdatOutputStream(), deflater, 8192);
+    }
+
+    @Override
+    public void writeRows(int[] pixels, int rows) throws IOException {
+        if (rowsWritten + rows > height) {
+            throw new IllegalStateException("Image has only " + height + " rows");
+        }
+        for (int row = 0; row < rows; row++) {
+            int offset = row * width;
+            for (int x = 0; x < width; x++) {
+                int rgb = pixels[offset + x];
+                current[x * 3] = (byte) (rgb >> 16);
+                current[x * 3 + 1] = (byte) (rgb >> 8);
+                current[x * 3 + 2] = (byte) rgb;
+            }
+            int filter = filterRow();
+            idat.write(filter);
+            idat.write(filtered[filter]);
+
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        rowsWritten += rows;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rowsWritten != height) {
+            throw new IllegalStateException("Wrote " + rowsWritten + " of " + height + " rows");
+        }
+        idat.finish();
+        idat.flush();
+        deflater.end();
+        writeChunk("IEND", new byte[0], 0);
+        out.flush();
+    }
+
+    /**
+     * Filter the current row every way, picking the filter with the smallest
+     * sum of absolute differences, the usual heuristic for compressing well
+     */
+    private int filterRow() {
+        int best = 0;
+        long bestSum = Long.MAX_VALUE;
+        for (int filter = 0; filter < filtered.length; filter++) {
+            byte[] target = filtered[filter];
+            long sum = 0;
+            for (int i = 0; i < current.length; i++) {
+                int x = current[i] & 0xFF;
+                int a = i >= BYTES_PER_PIXEL ? current[i - BYTES_PER_PIXEL] & 0xFF : 0;
+                int b = previous[i] & 0xFF;
+                int c = i >= BYTES_PER_PIXEL ? previous[i - BYTES_PER_PIXEL] & 0xFF : 0;
+                int value = switch (filter) {
+                    case 1 -> x - a;
+                    case 2 -> x - b;
+                    case 3 -> x - ((a + b) >>> 1);
+                    case 4 -> x - paeth(a, b, c);
+                    default -> x;
+                };
+                target[i] = (byte) value;
+                sum += Math.abs((byte) value);
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                best = filter;
+            }
+        }
+        return best;
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] lengthBytes = new byte[4];
+        putInt(lengthBytes, 0, length);
+        out.write(lengthBytes);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        byte[] crcBytes = new byte[4];
+        putInt(crcBytes, 0, (int) crc.getValue());
+        out.write(crcBytes);
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Collects deflated image data into IDAT chunks of up to CHUNK_SIZE bytes
+     */
+    private class IdatOutputStream extends OutputStream {
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int length;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (length == buffer.length) {
+                flush();
+            }
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int count) throws IOException {
+            while (count > 0) {
+                if (length == buffer.length) {
+                    flush();
+                }
+                int n = Math.min(count, buffer.length - length);
+                System.arraycopy(data, offset, buffer, length, n);
+                length += n;
+                offset += n;
+                count -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (length > 0) {
+                writeChunk("IDAT", buffer, length);
+                length = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.InFlightTile;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks how long each job's tiles take from dispatch to result and spots
+ * stragglers: running tiles that have taken a multiple of the job's
+ * percentile runtime so far. Each straggler is reported once, so it gets
+ * at most one speculative copy.
+ */
+@Component
+public class StragglerDetector {
+
+    private final double percentile;
+    private final double multiple;
+    private final int minSamples;
+    private final long minRuntimeMs;
+
+    private final Map<String, JobRuntimes> jobs = new ConcurrentHashMap<>();
+
+    public StragglerDetector(
+        @Value("${app.worker.speculation.percentile:0.9}") double percentile,
+        @Value("${app.worker.speculation.multiple:2.0}") double multiple,
+        @Value("${app.worker.speculation.min-samples:5}") int minSamples,
+        @Value("${app.worker.speculation.min-runtime-ms:5000}") long minRuntimeMs
+    ) {
+        this.percentile = Math.min(Math.max(percentile, 0.0), 1.0);
+        this.multiple = multiple;
+        this.minSamples = Math.max(minSamples, 1);
+        this.minRuntimeMs = minRuntimeMs;
+    }
+
+    /**
+     * Start timing a tile handed to a worker, restarting it if the tile is dispatched again
+     */
+    public void started(TileSpec tileSpec, TileLane lane, long nowMs) {
+        jobs.computeIfAbsent(tileSpec.getJobId(), k -> new JobRuntimes())
+            .start(new InFlightTile(lane, tileSpec), nowMs);
+    }
+
+    /**
+     * Stop timing a tile whose first result came in and add its runtime to the job's distribution
+     */
+    public void finished(String jobId, String tileId, long nowMs) {
+        JobRuntimes runtimes = jobs.get(jobId);
+        if (runtimes != null) {
+            runtimes.finish(tileId, nowMs);
+        }
+    }
+
+    /**
+     * Running tiles of all jobs that have become stragglers since the last call
+     */
+    public List<InFlightTile> findStragglers(long nowMs) {
+        List<InFlightTile> stragglers = new ArrayList<>();
+        for (JobRuntimes runtimes : jobs.values()) {
+            runtimes.collectStragglers(nowMs, stragglers);
+        }
+        return stragglers;
+    }
+
+    public void removeJob(String jobId) {
+        jobs.remove(jobId);
+    }
+
+    /**
+     * Running and finished tile runtimes of one job
+     */
+    private class JobRuntimes {
+        private final Map<String, InFlightTile> running = new HashMap<>();
+        private final Map<String, Long> startedAt = new HashMap<>();
+        private final Set<String> speculated = new HashSet<>();
+        private long[] durations = new long[16];
+        private int samples;
+
+        synchronized void start(InFlightTile tile, long nowMs) {
+            String tileId = tile.getTileSpec().getTileId();
+            running.put(tileId, tile);
+            startedAt.put(tileId, nowMs);
+            speculated.remove(tileId);
+        }
+
+        synchronized void finish(String tileId, long nowMs) {
+            Long start = startedAt.remove(tileId);
+            running.remove(tileId);
+            speculated.remove(tileId);
+            if (start == null) {
+                return;
+            }
+            if (samples == durations.length) {
+                durations = Arrays.copyOf(durations, samples * 2);
+            }
+            durations[samples++] = nowMs - start;
+        }
+
+        synchronized void collectStragglers(long nowMs, List<InFlightTile> stragglers) {
+            if (samples < minSamples || running.isEmpty()) {
+                return;
+            }
+            long[] sorted = Arrays.copyOf(durations, samples);
+            Arrays.sort(sorted);
+            long typical = sorted[(int) Math.max(0, Math.min(samples - 1, Math.ceil(percentile * samples) - 1))];
+            long threshold = Math.max(minRuntimeMs, (long) (typical * multiple));
+
+            for (Map.Entry<String, Long> entry : startedAt.entrySet()) {
+                String tileId = entry.getKey();
+                if (nowMs - entry.getValue() > threshold && speculated.add(tileId)) {
+                    stragglers.add(running.get(tileId));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import java.io.IOException;
+
+/**
+ * Encodes an image handed over a few rows at a time, writing each row out
+ * as soon as the format allows, so the whole image is never held in memory
+ */
+interface StreamingImageEncoder {
+
+    /**
+     * Encode the next rows of the image
+     *
+     * @param pixels the rows' pixels as RGB ints, row after row
+     * @param rows   the number of rows in pixels
+     */
+    void writeRows(int[] pixels, int rows) throws IOException;
+
+    /**
+     * Finish the image once all its rows are written
+     *
+     * @throws IllegalStateException if not all rows were written
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,215 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.commons.model.TileStatus;
+import io.aparker.otelbrot.orchestrator.repository.TileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reuses tile images across jobs. A tile's image depends only on its exact
+ * bounds, pixel size, iteration limit and color scheme, so those make up
+ * its content key; tiles of any job with the same key are completed from
+ * the cache instead of being computed again. Iteration counts are cached
+ * under a key without the color scheme, so a tile calculated before in
+ * another scheme is only colored again.
+ */
+@Component
+public class TileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TileCache.class);
+
+    // Iteration count keys are told apart from image keys by this prefix
+    private static final String ITERATIONS_KEY_PREFIX = "iter-";
+
+    private final TileRepository tileRepository;
+    private final TileColorizer tileColorizer;
+    private final boolean enabled;
+    private final int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong recolored = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter stored;
+    private final Counter evicted;
+
+    public TileCache(
+        TileRepository tileRepository,
+        TileColorizer tileColorizer,
+        @Value("${app.tile.cache.enabled:true}") boolean enabled,
+        @Value("${app.tile.cache.max-entries:10000}") int maxEntries,
+        MeterRegistry meterRegistry
+    ) {
+        this.tileRepository = tileRepository;
+        this.tileColorizer = tileColorizer;
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+
+        FunctionCounter.builder("otelbrot.tile_cache.lookups", hits, AtomicLong::get)
+            .description("Tile cache lookups")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("otelbrot.tile_cache.lookups", recolored, AtomicLong::get)
+            .description("Tile cache lookups")
+            .tag("result", "recolored")
+            .register(meterRegistry);
+        FunctionCounter.builder("otelbrot.tile_cache.lookups", misses, AtomicLong::get)
+            .description("Tile cache lookups")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("otelbrot.tile_cache.hit_ratio", this, TileCache::getHitRatio)
+            .description("Share of tile cache lookups that were hits")
+            .register(meterRegistry);
+        this.stored = Counter.builder("otelbrot.tile_cache.stored")
+            .description("Tile images and iteration counts added to the cache")
+            .register(meterRegistry);
+        this.evicted = Counter.builder("otelbrot.tile_cache.evictions")
+            .description("Tile images and iteration counts evicted from the cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Content key of a tile: the same for every tile that renders the same image
+     */
+    static String cacheKey(TileSpec tile) {
+        return digest(canonicalArea(tile) + "|" + (tile.getColorScheme() != null ? tile.getColorScheme() : ""));
+    }
+
+    /**
+     * Content key of a tile's iteration counts: the same in every color scheme
+     */
+    static String iterationsKey(TileSpec tile) {
+        return ITERATIONS_KEY_PREFIX + digest(canonicalArea(tile));
+    }
+
+    private static String canonicalArea(TileSpec tile) {
+        // Exact bit patterns, with -0.0 folded into 0.0, so only identical bounds match
+        String area = String.join("|",
+            Long.toHexString(Double.doubleToLongBits(tile.getXMin() + 0.0)),
+            Long.toHexString(Double.doubleToLongBits(tile.getYMin() + 0.0)),
+            Long.toHexString(Double.doubleToLongBits(tile.getXMax() + 0.0)),
+            Long.toHexString(Double.doubleToLongBits(tile.getYMax() + 0.0)),
+            String.valueOf(tile.getWidth()),
+            String.valueOf(tile.getHeight()),
+            String.valueOf(tile.getMaxIterations())
+        );
+        // Deep zoom bounds are offsets, only the same offsets from the same point match
+        if (tile.hasReference()) {
+            area += "|" + tile.getReferenceX() + "|" + tile.getReferenceY();
+        }
+        // Other precisions round differently; double keeps the keys cached before tiers existed
+        if (tile.getPrecision() != PrecisionTier.DOUBLE) {
+            area += "|" + tile.getPrecision().name();
+        }
+        return area;
+    }
+
+    private static String digest(String canonical) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look up the image of a tile about to be dispatched, coloring cached
+     * iteration counts if only those are cached. On a miss the tile's
+     * content keys are remembered so its result can be cached.
+     *
+     * @return the tile's result built from the cache, if it was cached
+     */
+    public Optional<TileResult> lookup(TileSpec tile) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = cacheKey(tile);
+        String iterationsKey = iterationsKey(tile);
+        try {
+            Optional<byte[]> imageData = tileRepository.findCachedData(key);
+            if (imageData.isPresent()) {
+                hits.incrementAndGet();
+                return Optional.of(TileResult.fromCalculation(tile, imageData.get(), 0));
+            }
+            Optional<byte[]> iterations = tileRepository.findCachedData(iterationsKey);
+            if (iterations.isPresent()) {
+                long startTime = System.currentTimeMillis();
+                byte[] recoloredImage = tileColorizer.colorize(iterations.get(), tile.getColorScheme());
+                recolored.incrementAndGet();
+                TileResult result = TileResult.fromCalculation(tile, recoloredImage, System.currentTimeMillis() - startTime);
+                result.setIterations(iterations.get());
+                return Optional.of(result);
+            }
+            misses.incrementAndGet();
+            // Hex digests hold no spaces, so both keys fit in one field
+            tileRepository.rememberCacheKey(tile.getJobId(), tile.getTileId(), key + " " + iterationsKey);
+        } catch (Exception e) {
+            logger.warn("Tile cache lookup failed for tile {}: {}", tile.getTileId(), e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Cache the image and iteration counts of a computed tile looked up
+     * before it was dispatched
+     */
+    public void store(TileResult result) {
+        if (!enabled || result.getStatus() != TileStatus.COMPLETED || result.getImageData() == null) {
+            return;
+        }
+        try {
+            Optional<String> keys = tileRepository.takeCacheKey(result.getJobId(), result.getTileId());
+            if (keys.isEmpty()) {
+                return;
+            }
+            String[] parts = keys.get().split(" ");
+            int evictedCount = tileRepository.cacheData(parts[0], result.getImageData(), maxEntries);
+            stored.increment();
+            if (result.getIterations() != null && parts.length > 1) {
+                evictedCount += tileRepository.cacheData(parts[1], result.getIterations(), maxEntries);
+                stored.increment();
+            }
+            evicted.increment(evictedCount);
+        } catch (Exception e) {
+            logger.warn("Failed to cache tile {}: {}", result.getTileId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Forget the tiles of a finished or cancelled job still waiting to be cached
+     */
+    public void removeJob(String jobId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            tileRepository.forgetCacheKeys(jobId);
+        } catch (Exception e) {
+            logger.warn("Failed to forget cached tile keys of job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Share of lookups answered without a worker, by image or by coloring iteration counts
+     */
+    public double getHitRatio() {
+        long hitCount = hits.get() + recolored.get();
+        long total = hitCount + misses.get();
+        return total > 0 ? (double) hitCount / total : 0.0;
+    }
+}
@@ -0,0 +1,56 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.calculator.FractalCalculator;
+import io.aparker.otelbrot.commons.calculator.IterationBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/**
+ * Colors tiles from their iteration counts, so a tile already calculated
+ * can be shown in another color scheme without a worker. Each scheme and
+ * iteration limit gets a palette with the color of every count, built once
+ * and reused.
+ */
+@Component
+public class TileColorizer {
+
+    // Palettes are small, but drop them all rather than grow without bound
+    private static final int MAX_PALETTES = 64;
+
+    private final Map<String, int[]> palettes = new ConcurrentHashMap<>();
+    private final Timer colorizeTimer;
+
+    public TileColorizer(MeterRegistry meterRegistry) {
+        this.colorizeTimer = Timer.builder("otelbrot.tile.colorize")
+            .description("Time to color a tile from its iteration counts")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Color encoded iteration counts with a scheme
+     *
+     * @return the PNG-encoded tile
+     * @throws IllegalArgumentException if the iteration counts are not a valid buffer
+     */
+    public byte[] colorize(byte[] iterations, String colorScheme) {
+        return colorizeTimer.record(() -> {
+            IterationBuffer buffer = IterationBuffer.decode(iterations);
+            return FractalCalculator.colorize(buffer, palette(buffer.getMaxIterations(), colorScheme));
+        });
+    }
+
+    int[] palette(int maxIterations, String colorScheme) {
+        String key = (colorScheme != null ? colorScheme : "") + ":" + maxIterations;
+        int[] palette = palettes.get(key);
+        if (palette == null) {
+            if (palettes.size() >= MAX_PALETTES) {
+                palettes.clear();
+            }
+            palette = palettes.computeIfAbsent(key, k -> FractalCalculator.palette(maxIterations, colorScheme));
+        }
+        return palette;
+    }
+}
@@ -0,0 +1,138 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.orchestrator.model.QueuedTile;
+import io.aparker.otelbrot.orchestrator.model.TileLease;
+import io.aparker.otelbrot.orchestrator.repository.TileQueueRepository;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hands out queued tiles to long-running pull-based workers. A lease is an
+ * entry in the consumer group's pending list owned by the worker; if the
+ * worker stops heartbeating, the entry goes idle and is leased to another worker.
+ */
+@Service
+public class TileLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        TileLeaseService.class
+    );
+
+    private final TileQueueRepository tileQueueRepository;
+    private final OrchestrationService orchestrationService;
+
+    @Value("${app.worker.lease.timeout-seconds:30}")
+    private int leaseTimeoutSeconds;
+
+    @Value("${app.worker.lease.max-tiles:16}")
+    private int maxTilesPerLease;
+
+    @Value("${app.worker.lease.max-wait-ms:5000}")
+    private int maxWaitMs;
+
+    public TileLeaseService(
+        TileQueueRepository tileQueueRepository,
+        OrchestrationService orchestrationService
+    ) {
+        this.tileQueueRepository = tileQueueRepository;
+        this.orchestrationService = orchestrationService;
+    }
+
+    public int getLeaseTimeoutSeconds() {
+        return leaseTimeoutSeconds;
+    }
+
+    /**
+     * Lease up to maxTiles tiles to a worker. Expired leases are handed out
+     * before new tiles; if nothing is available the call waits up to waitMs.
+     */
+    @WithSpan("TileLeaseService.lease")
+    public List<TileLease> lease(
+        @SpanAttribute("worker.id") String workerId,
+        int maxTiles,
+        int waitMs
+    ) {
+        int count = Math.max(1, Math.min(maxTiles, maxTilesPerLease));
+        List<QueuedTile> tiles = new ArrayList<>(
+            tileQueueRepository.claimExpired(
+                workerId,
+                Duration.ofSeconds(leaseTimeoutSeconds),
+                count
+            )
+        );
+        int reclaimed = tiles.size();
+
+        if (tiles.size() < count) {
+            // Only block when there is nothing to hand out yet
+            Duration block = tiles.isEmpty() && waitMs > 0
+                ? Duration.ofMillis(Math.min(waitMs, maxWaitMs))
+                : null;
+            tiles.addAll(tileQueueRepository.read(workerId, count - tiles.size(), block));
+        }
+
+        Span.current().setAttribute("lease.tiles", tiles.size());
+        Span.current().setAttribute("lease.reclaimed", reclaimed);
+        if (reclaimed > 0) {
+            logger.info("Re-leased {} expired tiles to worker {}", reclaimed, workerId);
+        }
+        logger.debug("Leased {} tiles to worker {}", tiles.size(), workerId);
+
+        return tiles.stream().map(TileLease::fromQueuedTile).toList();
+    }
+
+    /**
+     * Extend the leases a worker still holds
+     * @return the number of leases that were extended
+     */
+    @WithSpan("TileLeaseService.heartbeat")
+    public int heartbeat(
+        @SpanAttribute("worker.id") String workerId,
+        List<String> leaseIds
+    ) {
+        int renewed = tileQueueRepository.renew(workerId, leaseIds);
+        Span.current().setAttribute("lease.renewed", renewed);
+        if (leaseIds != null && renewed < leaseIds.size()) {
+            logger.info(
+                "Worker {} lost {} of {} leases",
+                workerId,
+                leaseIds.size() - renewed,
+                leaseIds.size()
+            );
+        }
+        return renewed;
+    }
+
+    /**
+     * Complete a lease with the tile result. Only the first completion of a
+     * tile is processed; duplicates from re-leased tiles are dropped.
+     * @return true if the result was processed
+     */
+    @WithSpan("TileLeaseService.complete")
+    public boolean complete(
+        @SpanAttribute("worker.id") String workerId,
+        @SpanAttribute("lease.id") String leaseId,
+        TileResult result
+    ) {
+        if (!tileQueueRepository.acknowledge(leaseId)) {
+            logger.info(
+                "Dropping duplicate result for tile {} from worker {}",
+                result.getTileId(),
+                workerId
+            );
+            Span.current().addEvent("Duplicate lease completion dropped");
+            return false;
+        }
+
+        orchestrationService.processTileResult(result.getJobId(), result.getTileId(), result);
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileSpec;
+
+/**
+ * Fixed quadtree of map tiles over the Mandelbrot set, addressed like a
+ * slippy map by zoom level z and column x and row y from the top left.
+ * Level 0 is a single tile over the whole set; each level splits every
+ * tile into four. Tile bounds are powers of two apart, so neighbouring
+ * tiles share their edges exactly and a tile always has the same bounds.
+ */
+public class TilePyramid {
+
+    // Square around the whole set: [-2.5, 1.5] x [-2, 2]
+    private static final double ORIGIN_X = -2.5;
+    private static final double ORIGIN_Y = 2.0;
+    private static final double EXTENT = 4.0;
+
+    // Same limit as a render request
+    private static final int MAX_ITERATIONS = 10000;
+
+    private final int tileSize;
+    private final int baseIterations;
+    private final int iterationsPerLevel;
+    private final int maxZoom;
+
+    public TilePyramid(int tileSize, int baseIterations, int iterationsPerLevel, int maxZoom) {
+        this.tileSize = tileSize;
+        this.baseIterations = baseIterations;
+        this.iterationsPerLevel = iterationsPerLevel;
+        // Deeper than this, tile bounds no longer fit a double exactly
+        this.maxZoom = Math.min(maxZoom, 45);
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    /**
+     * Iteration limit of the tiles on a level, rising as they zoom in
+     */
+    public int maxIterations(int z) {
+        return (int) Math.min(MAX_ITERATIONS, baseIterations + (long) iterationsPerLevel * z);
+    }
+
+    /**
+     * Cheapest precision that tells apart the pixels of tiles the given span
+     * wide. Pixel coordinates are exact binary fractions, so double-double
+     * adds them to the tile bounds exactly down to the deepest level.
+     */
+    PrecisionTier precision(double span) {
+        PrecisionTier precision = PrecisionTier.forPixelSpacing(Math.abs(ORIGIN_X), span / tileSize);
+        return precision != null ? precision : PrecisionTier.DOUBLE_DOUBLE;
+    }
+
+    /**
+     * Spec of the map tile at z/x/y
+     *
+     * @throws IllegalArgumentException if the tile is outside the pyramid
+     */
+    public TileSpec tileSpec(String jobId, String tileId, String colorScheme, int z, long x, long y) {
+        if (z < 0 || z > maxZoom) {
+            throw new IllegalArgumentException("Zoom level must be between 0 and " + maxZoom + ": " + z);
+        }
+        long tilesPerSide = 1L << z;
+        if (x < 0 || x >= tilesPerSide || y < 0 || y >= tilesPerSide) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " is outside the map");
+        }
+        double span = EXTENT / tilesPerSide;
+        return new TileSpec.Builder()
+            .jobId(jobId)
+            .tileId(tileId)
+            .xMin(ORIGIN_X + x * span)
+            .xMax(ORIGIN_X + (x + 1) * span)
+            .yMin(ORIGIN_Y - (y + 1) * span)
+            .yMax(ORIGIN_Y - y * span)
+            .width(tileSize)
+            .height(tileSize)
+            .maxIterations(maxIterations(z))
+            .colorScheme(colorScheme)
+            .pixelStartX(0)
+            .pixelStartY(0)
+            .precision(precision(span))
+            .build();
+    }
+}
@@ -0,0 +1,84 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.FractalJob;
+import io.aparker.otelbrot.orchestrator.model.InFlightTile;
+import io.aparker.otelbrot.orchestrator.repository.InFlightTileRepository;
+import io.aparker.otelbrot.orchestrator.repository.JobRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tiles whose worker never reported back within the lease. Each expired
+ * lease goes to one orchestrator, which counts its tile as one more
+ * attempt: the tile is dispatched again while it has retries left, and
+ * recorded as failed after that, so its job still completes. Tiles of
+ * finished or deleted jobs are only cleaned up.
+ */
+class TileReclaimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TileReclaimer.class);
+
+    /**
+     * What becomes of a reclaimed tile
+     */
+    interface Outcomes {
+
+        /**
+         * Give back the slot and worker resources of the lost attempt
+         */
+        void attemptLost(TileSpec tileSpec);
+
+        void dispatchAgain(InFlightTile inFlightTile, long retries);
+
+        void recordFailed(TileResult result);
+    }
+
+    private final InFlightTileRepository inFlightTileRepository;
+    private final JobRepository jobRepository;
+
+    TileReclaimer(InFlightTileRepository inFlightTileRepository, JobRepository jobRepository) {
+        this.inFlightTileRepository = inFlightTileRepository;
+        this.jobRepository = jobRepository;
+    }
+
+    /**
+     * Claim up to count leases expired by now and settle their tiles
+     *
+     * @return the number of leases claimed
+     */
+    int reclaim(Instant now, int count, int maxRetries, Outcomes outcomes) {
+        List<InFlightTile> expired = inFlightTileRepository.claimExpired(now, count);
+        for (InFlightTile inFlightTile : expired) {
+            TileSpec tileSpec = inFlightTile.getTileSpec();
+            String jobId = tileSpec.getJobId();
+            String tileId = tileSpec.getTileId();
+            try {
+                outcomes.attemptLost(tileSpec);
+
+                Optional<FractalJob> job = jobRepository.findById(jobId);
+                if (job.isEmpty() || OrchestrationService.isFinished(job.get().getStatus())) {
+                    continue;
+                }
+
+                long retries = jobRepository.incrementTileRetries(jobId, tileId);
+                if (retries > maxRetries) {
+                    logger.warn("Tile {} of job {} was lost {} times, giving up", tileId, jobId, retries);
+                    outcomes.recordFailed(
+                        TileResult.failedResult(tileSpec, "Worker lost after " + retries + " attempts"));
+                    continue;
+                }
+
+                logger.info("Lease on tile {} of job {} expired, dispatching it again (retry {})", tileId, jobId, retries);
+                outcomes.dispatchAgain(inFlightTile, retries);
+            } catch (Exception e) {
+                logger.error("Error reclaiming tile {} of job {}: {}", tileId, jobId, e.getMessage(), e);
+            }
+        }
+        return expired.size();
+    }
+}
@@ -17,12 +17,16 @@ import io.opentelemetry.instrumentation.annotations.SpanAttribute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
@@ -52,10 +56,33 @@ public class WebSocketService {
 
     public WebSocketService(RedisTemplate<String, String> redisTemplate, 
                            ObjectMapper objectMapper,
-                           Tracer tracer) {
+                           Tracer tracer,
+                           RedisMessageListenerContainer listenerContainer) {
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
         this.tracer = tracer;
+
+        // Updates are published by whichever replica processed the result,
+        // so sessions on every replica receive them through Redis
+        MessageListener relay = (message, pattern) -> relayUpdate(
+            new String(message.getChannel(), StandardCharsets.UTF_8),
+            new String(message.getBody(), StandardCharsets.UTF_8)
+        );
+        listenerContainer.addMessageListener(relay, List.of(
+            new PatternTopic(TILE_UPDATES_CHANNEL + "*"),
+            new PatternTopic(JOB_UPDATES_CHANNEL + "*")
+        ));
+    }
+
+    /**
+     * Relay an update published on a job's channel to this replica's
+     * sessions subscribed to the job
+     */
+    private void relayUpdate(String channel, String json) {
+        String jobId = channel.substring(channel.indexOf(':') + 1);
+        if (sessionJobMap.containsValue(jobId)) {
+            sendToSubscribedSessions(jobId, json);
+        }
     }
 
     /**
@@ -146,12 +173,10 @@ public class WebSocketService {
             String json = objectMapper.writeValueAsString(message);
             Span.current().setAttribute("messaging.message_payload_size_bytes", json.length());
             
-            // Publish to Redis
+            // Publish to Redis; every replica, this one included, relays it
+            // to its own subscribed sessions
             publishToRedis(jobId, tileId, TILE_UPDATES_CHANNEL + jobId, json);
             
-            // Also send directly to connected sessions
-            sendToSubscribedSessions(jobId, json);
-            
             logger.debug("Sent tile update for job: {}, tile: {}", jobId, tileId);
             Span.current().addEvent("Tile update sent");
         } catch (Exception e) {
@@ -205,12 +230,10 @@ public class WebSocketService {
             String json = objectMapper.writeValueAsString(message);
             Span.current().setAttribute("messaging.message_payload_size_bytes", json.length());
             
-            // Publish to Redis
+            // Publish to Redis; every replica, this one included, relays it
+            // to its own subscribed sessions
             publishToRedis(jobId, null, JOB_UPDATES_CHANNEL + jobId, json);
             
-            // Also send directly to connected sessions
-            sendToSubscribedSessions(jobId, json);
-            
             // Check if job is complete and log it
             if (job.getStatus() == JobStatus.COMPLETED) {
                 logger.info("Job {} is now complete. Tiles: {}/{} (Completed/Total)", 
@@ -281,9 +304,6 @@ public class WebSocketService {
                 redisSpan.end();
             }
             
-            // Also send directly to connected sessions
-            sendToSubscribedSessions(jobId, json);
-            
             logger.debug("Sent error message for job: {}, code: {}", jobId, errorCode);
             span.addEvent("Error message sent");
         } catch (Exception e) {
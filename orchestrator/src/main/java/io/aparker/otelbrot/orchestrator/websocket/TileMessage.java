@@ -13,8 +13,10 @@ public class TileMessage extends BaseMessage {
     private final int width;
     private final int height;
     private final String imageDataBase64;
+    // Above 1 for a coarse pass whose image is that many times smaller than the tile
+    private final int scale;
 
-    public TileMessage(String jobId, String tileId, int x, int y, int width, int height, byte[] imageData) {
+    public TileMessage(String jobId, String tileId, int x, int y, int width, int height, byte[] imageData, int scale) {
         super("tile", jobId);
         this.tileId = tileId;
         this.x = x;
@@ -22,6 +24,7 @@ public class TileMessage extends BaseMessage {
         this.width = width;
         this.height = height;
         this.imageDataBase64 = Base64.getEncoder().encodeToString(imageData);
+        this.scale = scale;
     }
 
     // Factory method to create from TileResult
@@ -33,7 +36,8 @@ public class TileMessage extends BaseMessage {
             result.getPixelStartY(),
             result.getWidth(),
             result.getHeight(),
-            result.getImageData()
+            result.getImageData(),
+            result.getScale()
         );
     }
 
@@ -61,4 +65,8 @@ public class TileMessage extends BaseMessage {
     public String getImageDataBase64() {
         return imageDataBase64;
     }
+
+    public int getScale() {
+        return scale;
+    }
 }
\ No newline at end of file
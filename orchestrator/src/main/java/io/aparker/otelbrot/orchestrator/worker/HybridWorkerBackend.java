@@ -0,0 +1,139 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import io.opentelemetry.api.trace.Span;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Worker backend that renders small and preview tiles in-process and
+ * sends large tiles to the cluster. Once the local pool is backed up,
+ * further tiles overflow to the cluster as well.
+ */
+public class HybridWorkerBackend implements WorkerBackend {
+
+    private final WorkerBackend clusterBackend;
+    private final LocalWorkerBackend localBackend;
+    private final int localMaxPixels;
+    private final int localMaxQueued;
+    private final boolean localPreview;
+
+    // Routing decision per tile, pinned so slot accounting and cleanup agree
+    private final Map<String, WorkerBackend> routes = new ConcurrentHashMap<>();
+
+    public HybridWorkerBackend(
+        WorkerBackend clusterBackend,
+        LocalWorkerBackend localBackend,
+        int localMaxPixels,
+        int localMaxQueued,
+        boolean localPreview
+    ) {
+        this.clusterBackend = clusterBackend;
+        this.localBackend = localBackend;
+        this.localMaxPixels = localMaxPixels;
+        this.localMaxQueued = localMaxQueued;
+        this.localPreview = localPreview;
+    }
+
+    @Override
+    public String getName() {
+        return "hybrid";
+    }
+
+    @Override
+    public boolean requiresWorkerSlot(TileSpec tileSpec, boolean isPriority) {
+        return route(tileSpec, isPriority).requiresWorkerSlot(tileSpec, isPriority);
+    }
+
+    @Override
+    public boolean isPullBased() {
+        return clusterBackend.isPullBased();
+    }
+
+    @Override
+    public void launch(TileSpec tileSpec, boolean isPriority, String traceparent, String tracestate) {
+        WorkerBackend backend = route(tileSpec, isPriority);
+        Span.current().setAttribute("worker.backend", backend.getName());
+        backend.launch(tileSpec, isPriority, traceparent, tracestate);
+    }
+
+    @Override
+    public void launch(TileSpec tileSpec, TileLane lane, String traceparent, String tracestate) {
+        WorkerBackend backend = route(tileSpec, lane == TileLane.PREVIEW);
+        Span.current().setAttribute("worker.backend", backend.getName());
+        backend.launch(tileSpec, lane, traceparent, tracestate);
+    }
+
+    @Override
+    public void cleanupTile(String jobId, String tileId) {
+        WorkerBackend backend = routes.remove(tileKey(jobId, tileId));
+        (backend != null ? backend : clusterBackend).cleanupTile(jobId, tileId);
+    }
+
+    @Override
+    public void cleanupJob(String jobId) {
+        routes.keySet().removeIf(key -> key.startsWith(jobId + ":"));
+        localBackend.cleanupJob(jobId);
+        clusterBackend.cleanupJob(jobId);
+    }
+
+    @Override
+    public void setResultHandler(Consumer<TileResult> resultHandler) {
+        localBackend.setResultHandler(resultHandler);
+        clusterBackend.setResultHandler(resultHandler);
+    }
+
+    @Override
+    public void setWorkerLostHandler(BiConsumer<WorkerInfo, String> lostHandler) {
+        clusterBackend.setWorkerLostHandler(lostHandler);
+    }
+
+    /**
+     * Running cluster workers; in-process tiles are not observed
+     */
+    @Override
+    public List<WorkerInfo> getRunningWorkers() {
+        return clusterBackend.getRunningWorkers();
+    }
+
+    @Override
+    public void start() {
+        localBackend.start();
+        clusterBackend.start();
+    }
+
+    @Override
+    public void stop() {
+        clusterBackend.stop();
+        localBackend.stop();
+    }
+
+    /**
+     * Pick the backend for a tile: preview and small tiles stay local while
+     * the pool keeps up, everything else goes to the cluster
+     */
+    WorkerBackend route(TileSpec tileSpec, boolean isPriority) {
+        return routes.computeIfAbsent(
+            tileKey(tileSpec.getJobId(), tileSpec.getTileId()),
+            key -> chooseBackend(tileSpec, isPriority)
+        );
+    }
+
+    private WorkerBackend chooseBackend(TileSpec tileSpec, boolean isPriority) {
+        boolean small = (long) tileSpec.getWidth() * tileSpec.getHeight() <= localMaxPixels;
+        boolean wantsLocal = (isPriority && localPreview) || small;
+        if (wantsLocal && localBackend.getQueuedTileCount() < localMaxQueued) {
+            return localBackend;
+        }
+        return clusterBackend;
+    }
+
+    private String tileKey(String jobId, String tileId) {
+        return jobId + ":" + tileId;
+    }
+}
@@ -0,0 +1,183 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.opentelemetry.context.Context;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates worker Jobs without making the caller wait on the API server.
+ * Creates run on virtual threads with a bounded number in flight, take a
+ * token from a client-side rate limit, and back off and retry when the API
+ * server answers 429 or 5xx. A 429 pauses every create, not only the one
+ * that got it, since they all share the same priority-and-fairness budget.
+ * Until its Job is created, a submitted worker is reported as pending.
+ */
+public class KubernetesJobCreator {
+
+    private static final Logger logger = LoggerFactory.getLogger(KubernetesJobCreator.class);
+
+    private final KubernetesClient kubernetesClient;
+    private final String namespace;
+    private final TokenBucket rateLimit;
+    private final Semaphore inFlight;
+    private final int maxRetries;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Workers submitted whose Job isn't created yet, keyed by Job name
+    private final Map<String, WorkerInfo> pending = new ConcurrentHashMap<>();
+
+    // No create starts before this System.nanoTime(), after a 429
+    private final AtomicLong pausedUntil = new AtomicLong(System.nanoTime());
+
+    public KubernetesJobCreator(
+        KubernetesClient kubernetesClient,
+        String namespace,
+        TokenBucket rateLimit,
+        int maxInFlight,
+        int maxRetries,
+        Duration initialBackoff,
+        Duration maxBackoff
+    ) {
+        this.kubernetesClient = kubernetesClient;
+        this.namespace = namespace;
+        this.rateLimit = rateLimit;
+        // Fair, so creates start in the order they were submitted
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight), true);
+        this.maxRetries = maxRetries;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    /**
+     * Create the Job of a worker in the background
+     *
+     * @param onFailure told why the Job could not be created once retries ran out
+     */
+    public void submit(Job job, WorkerInfo worker, Consumer<Exception> onFailure) {
+        String name = job.getMetadata().getName();
+        pending.put(name, worker);
+        // Carry the current trace context onto the creating thread
+        executor.execute(Context.current().wrap(() -> {
+            Exception failure = null;
+            try {
+                create(job);
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                pending.remove(name);
+            }
+            if (failure != null) {
+                logger.error("Failed to create Kubernetes job {}: {}", name, failure.getMessage());
+                onFailure.accept(failure);
+            }
+        }));
+    }
+
+    /**
+     * Workers submitted whose Job is still waiting for the rate limit, a
+     * pause or a retry
+     */
+    public List<WorkerInfo> getPendingWorkers() {
+        return List.copyOf(pending.values());
+    }
+
+    /**
+     * Create the Job, waiting for it to be created
+     *
+     * @throws KubernetesClientException if the Job could not be created once retries ran out
+     */
+    public void create(Job job) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            for (int attempt = 0; ; attempt++) {
+                waitUntilUnpaused();
+                rateLimit.acquire();
+                try {
+                    kubernetesClient
+                        .batch()
+                        .v1()
+                        .jobs()
+                        .inNamespace(namespace)
+                        .resource(job)
+                        .create();
+                    return;
+                } catch (KubernetesClientException e) {
+                    if (e.getCode() == 409 && attempt > 0) {
+                        // An earlier attempt went through after all
+                        return;
+                    }
+                    if (!isRetryable(e) || attempt >= maxRetries) {
+                        throw e;
+                    }
+                    long backoff = backoffNanos(attempt, e);
+                    logger.warn(
+                        "Creating Kubernetes job {} got HTTP {}, retrying in {}ms",
+                        job.getMetadata().getName(),
+                        e.getCode(),
+                        backoff / 1_000_000
+                    );
+                    if (e.getCode() == 429) {
+                        pause(backoff);
+                    } else {
+                        Thread.sleep(Duration.ofNanos(backoff));
+                    }
+                }
+            }
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Throttled, server errors, and failures without a response
+     */
+    static boolean isRetryable(KubernetesClientException e) {
+        int code = e.getCode();
+        return code == 429 || code >= 500 || code == 0;
+    }
+
+    /**
+     * Exponential backoff with jitter, or the server's Retry-After if it sent one
+     */
+    long backoffNanos(int attempt, KubernetesClientException e) {
+        if (e.getStatus() != null
+            && e.getStatus().getDetails() != null
+            && e.getStatus().getDetails().getRetryAfterSeconds() != null
+            && e.getStatus().getDetails().getRetryAfterSeconds() > 0) {
+            return Duration.ofSeconds(e.getStatus().getDetails().getRetryAfterSeconds()).toNanos();
+        }
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private void pause(long nanos) {
+        long until = System.nanoTime() + nanos;
+        pausedUntil.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+    }
+
+    private void waitUntilUnpaused() throws InterruptedException {
+        long remaining;
+        while ((remaining = pausedUntil.get() - System.nanoTime()) > 0) {
+            Thread.sleep(Duration.ofNanos(remaining));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import io.aparker.otelbrot.orchestrator.service.DispatchLoop;
+import io.fabric8.kubernetes.api.model.DeletionPropagation;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes worker Jobs off the result path. Requests only record what to
+ * delete; a background loop coalesces them into one set-based label
+ * selector per fractal job, drops tile deletes covered by a whole-job
+ * delete, and issues the deletes under a rate limit with background
+ * propagation so the API server removes the pods on its own time.
+ */
+public class KubernetesJobDeleter {
+
+    private static final Logger logger = LoggerFactory.getLogger(KubernetesJobDeleter.class);
+
+    private final KubernetesClient kubernetesClient;
+    private final String namespace;
+    private final TokenBucket rateLimit;
+    private final int maxSelectorValues;
+    private final DispatchLoop loop;
+
+    // Pending deletes per fractal job, as label key to label values
+    private final Map<String, Map<String, Set<String>>> pendingByJob = new LinkedHashMap<>();
+
+    // Fractal jobs whose Jobs are all to be deleted
+    private final Set<String> pendingJobs = new LinkedHashSet<>();
+
+    // Jobs to delete by name
+    private final Set<String> pendingNames = new LinkedHashSet<>();
+
+    /**
+     * @param interval how long requests gather before they are deleted together
+     * @param maxSelectorValues most label values put in one selector
+     */
+    public KubernetesJobDeleter(
+        KubernetesClient kubernetesClient,
+        String namespace,
+        TokenBucket rateLimit,
+        int maxSelectorValues,
+        Duration interval
+    ) {
+        this.kubernetesClient = kubernetesClient;
+        this.namespace = namespace;
+        this.rateLimit = rateLimit;
+        this.maxSelectorValues = Math.max(1, maxSelectorValues);
+        this.loop = new DispatchLoop("job-deleter", this::flush, interval);
+    }
+
+    public void start() {
+        loop.start();
+    }
+
+    /**
+     * Stop the loop and delete what is still pending
+     */
+    public void stop() {
+        loop.stop();
+        flush();
+    }
+
+    /**
+     * Delete the Job of a single tile
+     */
+    public synchronized void deleteTile(String jobId, String tileId) {
+        deleteLabelled(jobId, "fractal-tile-id", tileId);
+    }
+
+    /**
+     * Delete the Job of a batch of tiles
+     */
+    public synchronized void deleteBatch(String jobId, String batchId) {
+        deleteLabelled(jobId, "fractal-batch-id", batchId);
+    }
+
+    /**
+     * Delete every Job of a fractal job, including pending tile deletes
+     */
+    public synchronized void deleteJob(String jobId) {
+        pendingByJob.remove(jobId);
+        pendingJobs.add(jobId);
+    }
+
+    /**
+     * Delete a Job by name
+     */
+    public synchronized void deleteByName(String name) {
+        pendingNames.add(name);
+    }
+
+    private void deleteLabelled(String jobId, String labelKey, String value) {
+        if (pendingJobs.contains(jobId)) {
+            return;
+        }
+        pendingByJob
+            .computeIfAbsent(jobId, k -> new LinkedHashMap<>())
+            .computeIfAbsent(labelKey, k -> new LinkedHashSet<>())
+            .add(value);
+    }
+
+    /**
+     * Take the pending requests as coalesced deletes
+     */
+    synchronized List<Deletion> drain() {
+        List<Deletion> deletions = new ArrayList<>();
+        for (String jobId : pendingJobs) {
+            deletions.add(new Deletion(jobId, null, List.of(), null));
+        }
+        pendingByJob.forEach((jobId, byLabel) -> byLabel.forEach((labelKey, values) -> {
+            List<String> all = new ArrayList<>(values);
+            for (int from = 0; from < all.size(); from += maxSelectorValues) {
+                List<String> chunk = all.subList(from, Math.min(all.size(), from + maxSelectorValues));
+                deletions.add(new Deletion(jobId, labelKey, List.copyOf(chunk), null));
+            }
+        }));
+        for (String name : pendingNames) {
+            deletions.add(new Deletion(null, null, List.of(), name));
+        }
+        pendingJobs.clear();
+        pendingByJob.clear();
+        pendingNames.clear();
+        return deletions;
+    }
+
+    /**
+     * Issue the pending deletes
+     *
+     * @return the number of delete calls made
+     */
+    int flush() {
+        List<Deletion> deletions = drain();
+        for (Deletion deletion : deletions) {
+            try {
+                rateLimit.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted with {} Job deletes pending", deletions.size());
+                return 0;
+            }
+            try {
+                delete(deletion);
+            } catch (Exception e) {
+                logger.warn("Error deleting Kubernetes jobs {}: {}", deletion, e.getMessage());
+            }
+        }
+        if (!deletions.isEmpty()) {
+            logger.debug("Issued {} coalesced Kubernetes job deletes", deletions.size());
+        }
+        return deletions.size();
+    }
+
+    private void delete(Deletion deletion) {
+        var jobs = kubernetesClient.batch().v1().jobs().inNamespace(namespace);
+        if (deletion.name != null) {
+            jobs.withName(deletion.name)
+                .withPropagationPolicy(DeletionPropagation.BACKGROUND)
+                .delete();
+        } else if (deletion.labelKey == null) {
+            jobs.withLabel("fractal-job-id", deletion.jobId)
+                .withPropagationPolicy(DeletionPropagation.BACKGROUND)
+                .delete();
+        } else {
+            jobs.withLabel("fractal-job-id", deletion.jobId)
+                .withLabelIn(deletion.labelKey, deletion.values.toArray(String[]::new))
+                .withPropagationPolicy(DeletionPropagation.BACKGROUND)
+                .delete();
+        }
+    }
+
+    /**
+     * One delete call: a Job by name, all Jobs of a fractal job, or the Jobs
+     * of a fractal job whose label takes one of the values
+     */
+    static final class Deletion {
+        final String jobId;
+        final String labelKey;
+        final List<String> values;
+        final String name;
+
+        Deletion(String jobId, String labelKey, List<String> values, String name) {
+            this.jobId = jobId;
+            this.labelKey = labelKey;
+            this.values = values;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            if (name != null) {
+                return name;
+            }
+            return labelKey == null ? jobId : jobId + " " + labelKey + " in " + values;
+        }
+    }
+}
@@ -0,0 +1,773 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aparker.otelbrot.commons.model.TileBatch;
+import io.aparker.otelbrot.commons.model.TileGrid;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.repository.PendingWorkerRepository;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.EnvVarBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodTemplateSpec;
+import io.fabric8.kubernetes.api.model.PodTemplateSpecBuilder;
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.api.model.batch.v1.JobBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker backend that launches one Kubernetes Job per tile, or one
+ * Indexed Job per render when app.worker.dispatch-mode=indexed. Informers on
+ * the worker Jobs and pods keep track of the workers actually running.
+ */
+@Component
+public class KubernetesWorkerBackend implements WorkerBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        KubernetesWorkerBackend.class
+    );
+
+    private final KubernetesClient kubernetesClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kubernetes.namespace:otelbrot}")
+    private String namespace;
+
+    @Value("${app.worker.image:otel-monte/worker:latest}")
+    private String workerImage;
+
+    @Value("${app.worker.cpu.request:1000m}")
+    private String workerCpuRequest;
+
+    @Value("${app.worker.memory.request:1024Mi}")
+    private String workerMemoryRequest;
+
+    @Value("${app.worker.image-pull-policy:Never}")
+    private String imagePullPolicy;
+
+    @Value("${app.worker.cleanup-completed:true}")
+    private boolean cleanupCompletedJobs;
+
+    // Coarsest pass of a single tile refined progressively; 1 sends only the full resolution result
+    @Value("${app.worker.progressive.coarsest-scale:8}")
+    private int progressiveScale;
+
+    // per-tile launches one Job per tile, indexed one Indexed Job per render
+    @Value("${app.worker.dispatch-mode:per-tile}")
+    private String dispatchMode;
+
+    // Fractal jobs whose detail tiles run in an Indexed Job
+    private final Set<String> indexedJobs = ConcurrentHashMap.newKeySet();
+
+    // Batch of each batched tile still running, keyed by jobId:tileId
+    private final Map<String, String> batchedTiles = new ConcurrentHashMap<>();
+
+    // Tiles still running per batch, keyed by jobId:batchId
+    private final Map<String, AtomicInteger> batchRemaining = new ConcurrentHashMap<>();
+
+    // Launches per tile, keyed by jobId:tileId. A tile dispatched again while
+    // an earlier attempt's Job may still exist needs a Job name of its own
+    private final Map<String, Integer> launchAttempts = new ConcurrentHashMap<>();
+
+    // Watch worker Jobs and pods instead of counting launches and results
+    @Value("${app.worker.informer.enabled:true}")
+    private boolean informersEnabled;
+
+    // How often the informers replay their cache, which is when pods pending
+    // for too long are noticed
+    @Value("${app.worker.informer.resync-ms:30000}")
+    private long informerResyncMs;
+
+    // Running workers seen by the informers
+    private final KubernetesWorkerTracker tracker;
+
+    // Finished Jobs are deleted in the background, with requests gathered
+    // for this long and coalesced into set-based label selector deletes
+    @Value("${app.worker.cleanup.interval-ms:500}")
+    private long cleanupIntervalMs;
+
+    @Value("${app.worker.cleanup.max-selector-values:50}")
+    private int cleanupMaxSelectorValues;
+
+    // Delete calls per second and burst allowed against the API server
+    @Value("${app.worker.cleanup.deletes-per-second:5}")
+    private double cleanupDeletesPerSecond;
+
+    @Value("${app.worker.cleanup.burst:10}")
+    private int cleanupBurst;
+
+    private KubernetesJobDeleter jobDeleter;
+
+    // Jobs are created in the background, at most max-in-flight at once,
+    // under a rate limit sized to the API server's priority-and-fairness
+    // share, retrying 429 and 5xx answers with exponential backoff
+    @Value("${app.worker.create.max-in-flight:8}")
+    private int createMaxInFlight;
+
+    @Value("${app.worker.create.requests-per-second:20}")
+    private double createRequestsPerSecond;
+
+    @Value("${app.worker.create.burst:40}")
+    private int createBurst;
+
+    @Value("${app.worker.create.max-retries:5}")
+    private int createMaxRetries;
+
+    @Value("${app.worker.create.initial-backoff-ms:200}")
+    private long createInitialBackoffMs;
+
+    @Value("${app.worker.create.max-backoff-ms:10000}")
+    private long createMaxBackoffMs;
+
+    private KubernetesJobCreator jobCreator;
+
+    // Workers whose Job the creator still holds back count as running, and
+    // are published for the other orchestrators until their deadline, which
+    // every reconciliation renews. Otherwise a create waiting on the rate
+    // limit or retries would have its slot given back and its tiles run twice
+    private final PendingWorkerRepository pendingWorkerRepository;
+
+    @Value("${app.worker.create.pending-ttl-ms:60000}")
+    private long pendingTtlMs;
+
+    // Slot keys this orchestrator published as pending
+    private final Set<String> publishedPending = new HashSet<>();
+
+    // Worker pod template built once; launches only overlay their labels
+    // and tile environment
+    private PodTemplateSpec baseTemplate;
+
+    private volatile SharedIndexInformer<Job> jobInformer;
+    private volatile SharedIndexInformer<Pod> podInformer;
+
+    public KubernetesWorkerBackend(
+        KubernetesClient kubernetesClient,
+        ObjectMapper objectMapper,
+        PendingWorkerRepository pendingWorkerRepository,
+        @Value("${app.worker.informer.pending-timeout-seconds:300}") int pendingTimeoutSeconds
+    ) {
+        this.kubernetesClient = kubernetesClient;
+        this.objectMapper = objectMapper;
+        this.pendingWorkerRepository = pendingWorkerRepository;
+        this.tracker = new KubernetesWorkerTracker(
+            Duration.ofSeconds(pendingTimeoutSeconds),
+            name -> jobDeleter.deleteByName(name)
+        );
+    }
+
+    @PostConstruct
+    void init() {
+        baseTemplate = buildBaseTemplate();
+        jobCreator = new KubernetesJobCreator(
+            kubernetesClient,
+            namespace,
+            new TokenBucket(createRequestsPerSecond, createBurst),
+            createMaxInFlight,
+            createMaxRetries,
+            Duration.ofMillis(createInitialBackoffMs),
+            Duration.ofMillis(createMaxBackoffMs)
+        );
+        jobDeleter = new KubernetesJobDeleter(
+            kubernetesClient,
+            namespace,
+            new TokenBucket(cleanupDeletesPerSecond, cleanupBurst),
+            cleanupMaxSelectorValues,
+            Duration.ofMillis(cleanupIntervalMs)
+        );
+    }
+
+    @Override
+    public String getName() {
+        return "kubernetes";
+    }
+
+    @Override
+    public boolean requiresWorkerSlot(TileSpec tileSpec, boolean isPriority) {
+        return true;
+    }
+
+    @Override
+    public boolean supportsBatchLaunch() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsGridLaunch() {
+        return "indexed".equals(dispatchMode);
+    }
+
+    @Override
+    public void setWorkerLostHandler(BiConsumer<WorkerInfo, String> lostHandler) {
+        tracker.setLostHandler(lostHandler);
+    }
+
+    /**
+     * Running worker Jobs from the informer cache, without asking the API
+     * server, and the workers any orchestrator is still creating Jobs for
+     */
+    @Override
+    public List<WorkerInfo> getRunningWorkers() {
+        SharedIndexInformer<Job> jobs = jobInformer;
+        SharedIndexInformer<Pod> pods = podInformer;
+        if (jobs == null || pods == null || !jobs.hasSynced() || !pods.hasSynced()) {
+            return null;
+        }
+        Map<String, WorkerInfo> workers = new LinkedHashMap<>();
+        for (WorkerInfo worker : tracker.getRunningWorkers()) {
+            workers.put(PendingWorkerRepository.slotKey(worker), worker);
+        }
+        for (WorkerInfo worker : getPendingWorkers()) {
+            workers.putIfAbsent(PendingWorkerRepository.slotKey(worker), worker);
+        }
+        return new ArrayList<>(workers.values());
+    }
+
+    /**
+     * Renew this orchestrator's pending workers, withdraw the ones whose Job
+     * was created, and read every orchestrator's
+     */
+    private List<WorkerInfo> getPendingWorkers() {
+        List<WorkerInfo> pending = new ArrayList<>(jobCreator.getPendingWorkers());
+        try {
+            synchronized (publishedPending) {
+                Instant deadline = Instant.now().plusMillis(pendingTtlMs);
+                Set<String> current = new HashSet<>();
+                for (WorkerInfo worker : pending) {
+                    pendingWorkerRepository.publish(worker, deadline);
+                    current.add(PendingWorkerRepository.slotKey(worker));
+                }
+                for (String slotKey : publishedPending) {
+                    if (!current.contains(slotKey)) {
+                        pendingWorkerRepository.remove(slotKey);
+                    }
+                }
+                publishedPending.retainAll(current);
+                publishedPending.addAll(current);
+            }
+            pending.addAll(pendingWorkerRepository.findPending(Instant.now()));
+        } catch (Exception e) {
+            logger.warn("Could not share pending workers with other orchestrators: {}", e.getMessage());
+        }
+        return pending;
+    }
+
+    /**
+     * Hand a worker's Job to the creator, publishing it as pending first
+     */
+    private void submit(Job job, WorkerInfo worker) {
+        try {
+            synchronized (publishedPending) {
+                pendingWorkerRepository.publish(worker, Instant.now().plusMillis(pendingTtlMs));
+                publishedPending.add(PendingWorkerRepository.slotKey(worker));
+            }
+        } catch (Exception e) {
+            logger.warn("Could not publish pending worker {}: {}", worker.getName(), e.getMessage());
+        }
+        jobCreator.submit(job, worker, e -> creationFailed(worker, e));
+    }
+
+    /**
+     * Start the Job deleter and the informers on worker Jobs and pods.
+     * Without informers the backend still launches workers, it just can't
+     * tell when they are lost.
+     */
+    @Override
+    public void start() {
+        jobDeleter.start();
+        if (!informersEnabled) {
+            return;
+        }
+        try {
+            jobInformer = kubernetesClient
+                .batch()
+                .v1()
+                .jobs()
+                .inNamespace(namespace)
+                .withLabel("app", "otelbrot-worker")
+                .inform(new ResourceEventHandler<Job>() {
+                    @Override
+                    public void onAdd(Job job) {
+                        tracker.jobChanged(job);
+                    }
+
+                    @Override
+                    public void onUpdate(Job oldJob, Job newJob) {
+                        tracker.jobChanged(newJob);
+                    }
+
+                    @Override
+                    public void onDelete(Job job, boolean deletedFinalStateUnknown) {
+                        tracker.jobDeleted(job);
+                    }
+                }, informerResyncMs);
+
+            podInformer = kubernetesClient
+                .pods()
+                .inNamespace(namespace)
+                .withLabel("app", "otelbrot-worker")
+                .inform(new ResourceEventHandler<Pod>() {
+                    @Override
+                    public void onAdd(Pod pod) {
+                        tracker.podChanged(pod, Instant.now());
+                    }
+
+                    @Override
+                    public void onUpdate(Pod oldPod, Pod newPod) {
+                        tracker.podChanged(newPod, Instant.now());
+                    }
+
+                    @Override
+                    public void onDelete(Pod pod, boolean deletedFinalStateUnknown) {
+                    }
+                }, informerResyncMs);
+
+            logger.info("Watching worker Jobs and pods in namespace {}", namespace);
+        } catch (Exception e) {
+            logger.warn("Could not start worker informers, lost workers will only be found by their tile leases: {}", e.getMessage());
+            stopInformers();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopInformers();
+        jobCreator.stop();
+        jobDeleter.stop();
+    }
+
+    private void stopInformers() {
+        SharedIndexInformer<Job> jobs = jobInformer;
+        SharedIndexInformer<Pod> pods = podInformer;
+        jobInformer = null;
+        podInformer = null;
+        if (jobs != null) {
+            jobs.stop();
+        }
+        if (pods != null) {
+            pods.stop();
+        }
+    }
+
+    /**
+     * Create a Kubernetes job that computes a single tile
+     */
+    @Override
+    @WithSpan("Kubernetes.createJob")
+    public void launch(
+        TileSpec tileSpec,
+        @SpanAttribute("tile.priority") boolean isPriority,
+        @SpanAttribute("traceparent") String traceparent,
+        @SpanAttribute("tracestate") String tracestate
+    ) {
+        String jobId = tileSpec.getJobId();
+        String tileId = tileSpec.getTileId();
+
+        // Generate unique name for the job, keeping the whole tile id since
+        // grid tile ids (tile-<index>) share their prefix, and numbering
+        // retries and speculative copies of the tile
+        int attempt = launchAttempts.merge(jobId + ":" + tileId, 1, Integer::sum) - 1;
+        String name = jobName(jobId, attempt == 0 ? tileId : tileId + "-" + attempt);
+
+        // Create labels
+        Map<String, String> labels = new HashMap<>();
+        labels.put("app", "otelbrot-worker");
+        labels.put("fractal-job-id", jobId);
+        labels.put("fractal-tile-id", tileId);
+        labels.put("priority", isPriority ? "high" : "normal");
+
+        List<EnvVar> tileEnv = new ArrayList<>(List.of(
+            env("TILE_SPEC_JOB_ID", tileSpec.getJobId()),
+            env("TILE_SPEC_TILE_ID", tileSpec.getTileId()),
+            env("TILE_SPEC_X_MIN", String.valueOf(tileSpec.getXMin())),
+            env("TILE_SPEC_Y_MIN", String.valueOf(tileSpec.getYMin())),
+            env("TILE_SPEC_X_MAX", String.valueOf(tileSpec.getXMax())),
+            env("TILE_SPEC_Y_MAX", String.valueOf(tileSpec.getYMax())),
+            env("TILE_SPEC_WIDTH", String.valueOf(tileSpec.getWidth())),
+            env("TILE_SPEC_HEIGHT", String.valueOf(tileSpec.getHeight())),
+            env("TILE_SPEC_MAX_ITERATIONS", String.valueOf(tileSpec.getMaxIterations())),
+            env("TILE_SPEC_COLOR_SCHEME", tileSpec.getColorScheme()),
+            env("TILE_SPEC_PIXEL_START_X", String.valueOf(tileSpec.getPixelStartX())),
+            env("TILE_SPEC_PIXEL_START_Y", String.valueOf(tileSpec.getPixelStartY())),
+            env("PROGRESSIVE_SCALE", String.valueOf(progressiveScale)),
+            env("TILE_SPEC_PRECISION", tileSpec.getPrecision().name())
+        ));
+        // Deep zoom workers add their offsets to the reference point, or
+        // fetch the job's reference orbit from the orchestrator
+        if (tileSpec.hasReference()) {
+            tileEnv.add(env("TILE_SPEC_REFERENCE_X", tileSpec.getReferenceX()));
+            tileEnv.add(env("TILE_SPEC_REFERENCE_Y", tileSpec.getReferenceY()));
+        }
+
+        // Add a TTL for automatic cleanup if we're not manually cleaning up
+        Integer ttlSecondsAfterFinished = cleanupCompletedJobs ? null : 300; // 5 minutes TTL
+
+        // Create the job
+        Job job = new JobBuilder()
+            .withNewMetadata()
+            .withName(name)
+            .withLabels(labels)
+            .endMetadata()
+            .withNewSpec()
+            .withBackoffLimit(2)
+            .withTtlSecondsAfterFinished(ttlSecondsAfterFinished)
+            .withTemplate(podTemplate(labels, tileEnv, traceparent, tracestate))
+            .endSpec()
+            .build();
+
+        // Create the job in the background; a job that can't be created
+        // loses its tile like any other lost worker
+        WorkerInfo worker = new WorkerInfo(name, jobId, tileId, List.of(tileId));
+        submit(job, worker);
+
+        Span.current().setAttribute("kubernetes.job.name", name);
+        logger.debug("Submitted Kubernetes job {} for tile {}", name, tileId);
+    }
+
+    /**
+     * Create a Kubernetes job that computes a batch of tiles in one pod
+     */
+    @Override
+    @WithSpan("Kubernetes.createBatchJob")
+    public void launchBatch(
+        TileBatch batch,
+        @SpanAttribute("traceparent") String traceparent,
+        @SpanAttribute("tracestate") String tracestate
+    ) {
+        String jobId = batch.getJobId();
+        String name = jobName(jobId, batch.getBatchId());
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put("app", "otelbrot-worker");
+        labels.put("fractal-job-id", jobId);
+        labels.put("fractal-batch-id", batch.getBatchId());
+        labels.put("priority", "normal");
+
+        String tileSpecsJson;
+        try {
+            tileSpecsJson = objectMapper.writeValueAsString(batch.getTiles());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize tile batch " + batch.getBatchId(), e);
+        }
+
+        Integer ttlSecondsAfterFinished = cleanupCompletedJobs ? null : 300; // 5 minutes TTL
+
+        // List the batch's tiles so the informers know which tiles a lost worker held
+        String tileIds = batch.getTiles().stream()
+            .map(TileSpec::getTileId)
+            .collect(Collectors.joining(","));
+
+        Job job = new JobBuilder()
+            .withNewMetadata()
+            .withName(name)
+            .withLabels(labels)
+            .addToAnnotations(KubernetesWorkerTracker.TILE_IDS_ANNOTATION, tileIds)
+            .endMetadata()
+            .withNewSpec()
+            .withBackoffLimit(2)
+            .withTtlSecondsAfterFinished(ttlSecondsAfterFinished)
+            .withTemplate(podTemplate(
+                labels,
+                List.of(env(TileBatch.TILE_SPECS_ENV, tileSpecsJson)),
+                traceparent,
+                tracestate
+            ))
+            .endSpec()
+            .build();
+
+        // Track the batch so its job is deleted once its last tile is in
+        String batchKey = jobId + ":" + batch.getBatchId();
+        batchRemaining.put(batchKey, new AtomicInteger(batch.size()));
+        for (TileSpec tile : batch.getTiles()) {
+            batchedTiles.put(jobId + ":" + tile.getTileId(), batchKey);
+        }
+
+        WorkerInfo worker = new WorkerInfo(
+            name,
+            jobId,
+            batch.getBatchId(),
+            batch.getTiles().stream().map(TileSpec::getTileId).toList()
+        );
+        submit(job, worker);
+
+        Span.current().setAttribute("kubernetes.job.name", name);
+        Span.current().setAttribute("batch.tiles", batch.size());
+        logger.debug("Submitted Kubernetes job {} for {} tiles", name, batch.size());
+    }
+
+    /**
+     * Create a single Indexed Job for all tiles of a grid. Each pod derives its
+     * tile from JOB_COMPLETION_INDEX, taken as a position in the grid's dispatch
+     * order, and Kubernetes limits how many run at once.
+     */
+    @Override
+    @WithSpan("Kubernetes.createIndexedJob")
+    public void launchGrid(
+        TileGrid grid,
+        @SpanAttribute("job.parallelism") int parallelism,
+        @SpanAttribute("traceparent") String traceparent,
+        @SpanAttribute("tracestate") String tracestate
+    ) {
+        String jobId = grid.getJobId();
+        String name = jobName(jobId, "grid");
+
+        Map<String, String> labels = new HashMap<>();
+        labels.put("app", "otelbrot-worker");
+        labels.put("fractal-job-id", jobId);
+        labels.put("priority", "normal");
+        labels.put("dispatch-mode", "indexed");
+
+        List<EnvVar> gridEnv = List.of(
+            env("TILE_GRID_JOB_ID", jobId),
+            env("TILE_GRID_X_MIN", String.valueOf(grid.getXMin())),
+            env("TILE_GRID_Y_MIN", String.valueOf(grid.getYMin())),
+            env("TILE_GRID_X_MAX", String.valueOf(grid.getXMax())),
+            env("TILE_GRID_Y_MAX", String.valueOf(grid.getYMax())),
+            env("TILE_GRID_WIDTH", String.valueOf(grid.getWidth())),
+            env("TILE_GRID_HEIGHT", String.valueOf(grid.getHeight())),
+            env("TILE_GRID_TILE_SIZE", String.valueOf(grid.getTileSize())),
+            env("TILE_GRID_MAX_ITERATIONS", String.valueOf(grid.getMaxIterations())),
+            env("TILE_GRID_COLOR_SCHEME", grid.getColorScheme()),
+            env("TILE_GRID_ORDER", grid.getOrder().getId()),
+            env("TILE_GRID_FOCUS_TILE_X", String.valueOf(grid.getFocusTileX())),
+            env("TILE_GRID_FOCUS_TILE_Y", String.valueOf(grid.getFocusTileY())),
+            env("TILE_GRID_PRECISION", grid.getPrecision().name()),
+            env("TILE_GRID_LARGE_RENDER", String.valueOf(grid.isLargeRender()))
+        );
+
+        Integer ttlSecondsAfterFinished = cleanupCompletedJobs ? null : 300; // 5 minutes TTL
+
+        Job job = new JobBuilder()
+            .withNewMetadata()
+            .withName(name)
+            .withLabels(labels)
+            .endMetadata()
+            .withNewSpec()
+            .withCompletionMode("Indexed")
+            .withCompletions(grid.getTileCount())
+            .withParallelism(Math.max(1, Math.min(parallelism, grid.getTileCount())))
+            // Retry failed tiles individually instead of failing the whole render
+            .withBackoffLimitPerIndex(2)
+            .withTtlSecondsAfterFinished(ttlSecondsAfterFinished)
+            .withTemplate(podTemplate(labels, gridEnv, traceparent, tracestate))
+            .endSpec()
+            .build();
+
+        // The grid's tiles aren't leased one by one, so wait for the single
+        // Indexed Job to exist and let a failure reach the caller
+        try {
+            jobCreator.create(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted creating Indexed Job " + name, e);
+        }
+
+        indexedJobs.add(jobId);
+        Span.current().setAttribute("kubernetes.job.name", name);
+        Span.current().setAttribute("job.completions", grid.getTileCount());
+        logger.info(
+            "Created Indexed Job {} with {} completions (parallelism {})",
+            name,
+            grid.getTileCount(),
+            parallelism
+        );
+    }
+
+    /**
+     * Worker pod template for a job: the base template with the job's labels,
+     * its tile environment and the trace context overlaid
+     */
+    private PodTemplateSpec podTemplate(
+        Map<String, String> labels,
+        List<EnvVar> tileEnv,
+        String traceparent,
+        String tracestate
+    ) {
+        List<EnvVar> jobEnv = new ArrayList<>(tileEnv.size() + 2);
+        jobEnv.addAll(tileEnv);
+        // OpenTelemetry trace context using W3C standard environment variables
+        jobEnv.add(env("TRACEPARENT", traceparent));
+        jobEnv.add(env("TRACESTATE", tracestate));
+
+        return new PodTemplateSpecBuilder(baseTemplate)
+            .editMetadata()
+            .withLabels(labels)
+            .endMetadata()
+            .editSpec()
+            .editFirstContainer()
+            .addAllToEnv(jobEnv)
+            .endContainer()
+            .endSpec()
+            .build();
+    }
+
+    /**
+     * Build the worker pod template shared by per-tile, batch and indexed
+     * jobs, without anything specific to a job
+     */
+    private PodTemplateSpec buildBaseTemplate() {
+        return new PodTemplateSpecBuilder()
+            .withNewMetadata()
+            // No OpenTelemetry annotation - Go instrumentation is built-in
+            .endMetadata()
+            .withNewSpec()
+            .withRestartPolicy("Never")
+            // Add the OpenTelemetry config volume to the pod
+            .addNewVolume()
+            .withName("go-worker-otel-config")
+            .withNewConfigMap()
+            .withName("go-worker-otel-config")
+            .endConfigMap()
+            .endVolume()
+            .addNewContainer()
+            .withName("worker")
+            .withImage(workerImage)
+            .withImagePullPolicy(imagePullPolicy)
+            .addNewEnv()
+            .withName("ORCHESTRATOR_URL")
+            .withValue("http://orchestrator.otelbrot.svc.cluster.local:8080")
+            .endEnv()
+            // Mount the OpenTelemetry config
+            .addNewVolumeMount()
+            .withName("go-worker-otel-config")
+            .withMountPath("/app/config")
+            .withReadOnly(true)
+            .endVolumeMount()
+            // Set environment variable for OpenTelemetry config file
+            .addNewEnv()
+            .withName("OTEL_CONFIG_FILE")
+            .withValue("/app/config/otel-config.yaml")
+            .endEnv()
+            .withNewResources()
+            .addToRequests(
+                "cpu",
+                new io.fabric8.kubernetes.api.model.Quantity(workerCpuRequest)
+            )
+            .addToRequests(
+                "memory",
+                new io.fabric8.kubernetes.api.model.Quantity(
+                    workerMemoryRequest
+                )
+            )
+            .addToLimits(
+                "cpu",
+                new io.fabric8.kubernetes.api.model.Quantity("1000m")
+            )
+            .addToLimits(
+                "memory",
+                new io.fabric8.kubernetes.api.model.Quantity("1024Mi")
+            )
+            .endResources()
+            .endContainer()
+            .endSpec()
+            .build();
+    }
+
+    /**
+     * Report a worker whose Job could not be created as lost
+     */
+    private void creationFailed(WorkerInfo worker, Exception e) {
+        String reason = e instanceof KubernetesClientException clientException
+            ? "Job creation failed with HTTP " + clientException.getCode()
+            : "Job creation failed: " + e.getMessage();
+        tracker.reportLost(worker, reason);
+    }
+
+    private static EnvVar env(String name, String value) {
+        return new EnvVarBuilder().withName(name).withValue(value).build();
+    }
+
+    /**
+     * Kubernetes job name for a tile, safely handling ids shorter than 8 characters
+     */
+    private static String jobName(String jobId, String suffix) {
+        String jobIdPrefix = jobId.length() >= 8
+            ? jobId.substring(0, 8)
+            : jobId;
+        String name = ("fractal-" + jobIdPrefix + "-" + suffix).toLowerCase();
+        return name.length() > 63 ? name.substring(0, 63) : name;
+    }
+
+    /**
+     * Queue the Kubernetes job of a tile for deletion, if cleanup is enabled
+     */
+    @Override
+    @WithSpan("Kubernetes.cleanupJob")
+    public void cleanupTile(
+        @SpanAttribute("kubernetes.job.id") String jobId,
+        @SpanAttribute("kubernetes.tile.id") String tileId
+    ) {
+        String batchKey = batchedTiles.remove(jobId + ":" + tileId);
+        if (batchKey != null) {
+            cleanupBatchTile(batchKey);
+            return;
+        }
+        tracker.forget(jobId, tileId);
+        if (!cleanupCompletedJobs || indexedJobs.contains(jobId)) {
+            // Finished jobs expire through ttlSecondsAfterFinished instead, and
+            // indexed tiles go away with their render's single Job
+            return;
+        }
+        jobDeleter.deleteTile(jobId, tileId);
+        Span.current().addEvent("Kubernetes job delete queued");
+    }
+
+    /**
+     * Count a batched tile as done and queue the batch's job for deletion
+     * after its last tile
+     */
+    private void cleanupBatchTile(String batchKey) {
+        AtomicInteger remaining = batchRemaining.get(batchKey);
+        if (remaining == null || remaining.decrementAndGet() > 0) {
+            return;
+        }
+        batchRemaining.remove(batchKey);
+        String[] ids = batchKey.split(":", 2);
+        tracker.forget(ids[0], ids[1]);
+        if (!cleanupCompletedJobs) {
+            return;
+        }
+
+        jobDeleter.deleteBatch(ids[0], ids[1]);
+        Span.current().addEvent("Kubernetes batch job delete queued");
+    }
+
+    /**
+     * Queue all Kubernetes jobs belonging to a fractal job for deletion,
+     * replacing the job's pending tile deletes
+     */
+    @Override
+    @WithSpan("Kubernetes.cleanupJobs")
+    public void cleanupJob(@SpanAttribute("job.id") String jobId) {
+        indexedJobs.remove(jobId);
+        batchedTiles.keySet().removeIf(key -> key.startsWith(jobId + ":"));
+        batchRemaining.keySet().removeIf(key -> key.startsWith(jobId + ":"));
+        launchAttempts.keySet().removeIf(key -> key.startsWith(jobId + ":"));
+        tracker.forgetJob(jobId);
+        jobDeleter.deleteJob(jobId);
+        logger.info("Queued cleanup of Kubernetes jobs for job: {}", jobId);
+    }
+}
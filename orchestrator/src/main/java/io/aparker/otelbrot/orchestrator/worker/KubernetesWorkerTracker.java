@@ -0,0 +1,224 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.api.model.batch.v1.JobCondition;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the set of running worker Jobs from informer events and spots the
+ * ones lost without finishing: Jobs that failed, were deleted while running,
+ * or whose pod is stuck before it could start. Stuck Jobs are deleted.
+ * Indexed Jobs retry their tiles per index and are not tracked.
+ */
+public class KubernetesWorkerTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(KubernetesWorkerTracker.class);
+
+    // Annotation listing the tiles of a batch Job, comma separated
+    public static final String TILE_IDS_ANNOTATION = "otelbrot.io/tile-ids";
+
+    // Waiting reasons a pending pod won't recover from on its own
+    private static final Set<String> STUCK_REASONS = Set.of(
+        "ErrImagePull",
+        "ImagePullBackOff",
+        "InvalidImageName",
+        "CreateContainerConfigError",
+        "CreateContainerError"
+    );
+
+    private final Duration pendingTimeout;
+    private final Consumer<String> jobDeleter;
+
+    // Running worker Jobs, keyed by Kubernetes Job name
+    private final Map<String, WorkerInfo> running = new ConcurrentHashMap<>();
+
+    // Slots being cleaned up, keyed by jobId:slotId. Their Jobs are not
+    // tracked again by events that arrive before the deletion
+    private final Set<String> forgotten = ConcurrentHashMap.newKeySet();
+
+    private volatile BiConsumer<WorkerInfo, String> lostHandler = (worker, reason) -> { };
+
+    public KubernetesWorkerTracker(Duration pendingTimeout, Consumer<String> jobDeleter) {
+        this.pendingTimeout = pendingTimeout;
+        this.jobDeleter = jobDeleter;
+    }
+
+    public void setLostHandler(BiConsumer<WorkerInfo, String> lostHandler) {
+        this.lostHandler = lostHandler;
+    }
+
+    /**
+     * Track a worker Job that was added or changed
+     */
+    public void jobChanged(Job job) {
+        WorkerInfo worker = toWorker(job);
+        if (worker == null || forgotten.contains(worker.getJobId() + ":" + worker.getSlotId())) {
+            return;
+        }
+        if (hasCondition(job, "Failed")) {
+            if (running.remove(worker.getName()) != null) {
+                lost(worker, "Job failed: " + failureReason(job));
+            }
+        } else if (hasCondition(job, "Complete")) {
+            running.remove(worker.getName());
+        } else {
+            running.put(worker.getName(), worker);
+        }
+    }
+
+    /**
+     * Forget a deleted worker Job, which is lost if it was still running
+     */
+    public void jobDeleted(Job job) {
+        WorkerInfo deleted = toWorker(job);
+        if (deleted != null) {
+            forgotten.remove(deleted.getJobId() + ":" + deleted.getSlotId());
+        }
+        WorkerInfo worker = running.remove(job.getMetadata().getName());
+        if (worker != null) {
+            lost(worker, "Job deleted before finishing");
+        }
+    }
+
+    /**
+     * Check a worker pod that was added or changed, or resynced, and delete
+     * its Job if the pod is stuck before starting
+     */
+    public void podChanged(Pod pod, Instant now) {
+        if (pod.getStatus() == null || !"Pending".equals(pod.getStatus().getPhase())) {
+            return;
+        }
+        String reason = stuckReason(pod, now);
+        if (reason == null) {
+            return;
+        }
+        String jobName = pod.getMetadata().getLabels() != null
+            ? pod.getMetadata().getLabels().get("job-name")
+            : null;
+        WorkerInfo worker = jobName != null ? running.remove(jobName) : null;
+        if (worker == null) {
+            return;
+        }
+        logger.warn("Worker pod {} is stuck ({}), deleting Job {}", pod.getMetadata().getName(), reason, jobName);
+        forgotten.add(worker.getJobId() + ":" + worker.getSlotId());
+        jobDeleter.accept(jobName);
+        lost(worker, "Pod stuck: " + reason);
+    }
+
+    /**
+     * Report a worker lost before the informers could see it, such as one
+     * whose Job could not be created
+     */
+    public void reportLost(WorkerInfo worker, String reason) {
+        lost(worker, reason);
+    }
+
+    /**
+     * Stop tracking the workers of a slot that is being cleaned up, so their
+     * deletion isn't taken for a loss
+     */
+    public void forget(String jobId, String slotId) {
+        forgotten.add(jobId + ":" + slotId);
+        running.values().removeIf(
+            worker -> worker.getJobId().equals(jobId) && worker.getSlotId().equals(slotId)
+        );
+    }
+
+    /**
+     * Stop tracking every worker of a fractal job that is being cleaned up
+     */
+    public void forgetJob(String jobId) {
+        forgotten.removeIf(key -> key.startsWith(jobId + ":"));
+        running.values().removeIf(worker -> worker.getJobId().equals(jobId));
+    }
+
+    /**
+     * Running worker Jobs as last seen by the informers
+     */
+    public List<WorkerInfo> getRunningWorkers() {
+        return List.copyOf(running.values());
+    }
+
+    private String stuckReason(Pod pod, Instant now) {
+        List<ContainerStatus> statuses = pod.getStatus().getContainerStatuses();
+        if (statuses != null) {
+            for (ContainerStatus status : statuses) {
+                if (status.getState() != null
+                    && status.getState().getWaiting() != null
+                    && STUCK_REASONS.contains(status.getState().getWaiting().getReason())) {
+                    return status.getState().getWaiting().getReason();
+                }
+            }
+        }
+        String created = pod.getMetadata().getCreationTimestamp();
+        if (created != null && Instant.parse(created).plus(pendingTimeout).isBefore(now)) {
+            return "pending for over " + pendingTimeout.toSeconds() + "s";
+        }
+        return null;
+    }
+
+    private void lost(WorkerInfo worker, String reason) {
+        logger.warn("Worker {} of job {} lost: {}", worker.getName(), worker.getJobId(), reason);
+        try {
+            lostHandler.accept(worker, reason);
+        } catch (RuntimeException e) {
+            logger.error("Error handling lost worker {}: {}", worker.getName(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The worker a Job runs, or null for Jobs that don't hold a worker slot
+     */
+    static WorkerInfo toWorker(Job job) {
+        Map<String, String> labels = job.getMetadata().getLabels();
+        if (labels == null || labels.get("fractal-job-id") == null) {
+            return null;
+        }
+        String name = job.getMetadata().getName();
+        String jobId = labels.get("fractal-job-id");
+        String tileId = labels.get("fractal-tile-id");
+        if (tileId != null) {
+            return new WorkerInfo(name, jobId, tileId, List.of(tileId));
+        }
+        String batchId = labels.get("fractal-batch-id");
+        Map<String, String> annotations = job.getMetadata().getAnnotations();
+        if (batchId != null && annotations != null && annotations.get(TILE_IDS_ANNOTATION) != null) {
+            List<String> tileIds = Arrays.asList(annotations.get(TILE_IDS_ANNOTATION).split(","));
+            return new WorkerInfo(name, jobId, batchId, tileIds);
+        }
+        return null;
+    }
+
+    private static boolean hasCondition(Job job, String type) {
+        if (job.getStatus() == null || job.getStatus().getConditions() == null) {
+            return false;
+        }
+        for (JobCondition condition : job.getStatus().getConditions()) {
+            if (type.equals(condition.getType()) && "True".equals(condition.getStatus())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String failureReason(Job job) {
+        for (JobCondition condition : job.getStatus().getConditions()) {
+            if ("Failed".equals(condition.getType())) {
+                return condition.getReason() != null ? condition.getReason() : "unknown";
+            }
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,157 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import io.aparker.otelbrot.commons.calculator.FractalCalculator;
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.repository.ReferenceOrbitRepository;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker backend that renders tiles inside the orchestrator JVM on a
+ * work-stealing ForkJoin pool, avoiding pod scheduling for cheap tiles
+ */
+@Component
+public class LocalWorkerBackend implements WorkerBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        LocalWorkerBackend.class
+    );
+
+    private final FractalCalculator calculator = new FractalCalculator();
+    private final ReferenceOrbitRepository referenceOrbitRepository;
+    private final int threads;
+
+    // Created on the first tile, so the pool's threads only exist when this backend is in use
+    private volatile ForkJoinPool pool;
+
+    // Tiles submitted to the pool that have not finished yet
+    private final AtomicInteger queuedTiles = new AtomicInteger();
+
+    // Coarsest pass of a tile refined progressively; 1 renders tiles at once
+    private final int progressiveScale;
+
+    private volatile Consumer<TileResult> resultHandler;
+
+    public LocalWorkerBackend(
+        ReferenceOrbitRepository referenceOrbitRepository,
+        @Value("${app.worker.local.parallelism:0}") int parallelism,
+        @Value("${app.worker.progressive.coarsest-scale:8}") int progressiveScale
+    ) {
+        this.referenceOrbitRepository = referenceOrbitRepository;
+        this.progressiveScale = progressiveScale;
+        this.threads = parallelism > 0
+            ? parallelism
+            : Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public boolean requiresWorkerSlot(TileSpec tileSpec, boolean isPriority) {
+        return false;
+    }
+
+    @Override
+    public void setResultHandler(Consumer<TileResult> resultHandler) {
+        this.resultHandler = resultHandler;
+    }
+
+    /**
+     * Number of tiles waiting for or currently using a pool thread
+     */
+    public int getQueuedTileCount() {
+        return queuedTiles.get();
+    }
+
+    /**
+     * Submit a tile to the local pool
+     */
+    @Override
+    @WithSpan("LocalWorker.submitTile")
+    public void launch(
+        TileSpec tileSpec,
+        @SpanAttribute("tile.priority") boolean isPriority,
+        String traceparent,
+        String tracestate
+    ) {
+        queuedTiles.incrementAndGet();
+        // Carry the current trace context onto the pool thread
+        pool().execute(Context.current().wrap(() -> renderTile(tileSpec)));
+    }
+
+    private ForkJoinPool pool() {
+        ForkJoinPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (pool == null) {
+                pool = new ForkJoinPool(
+                    threads,
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                    null,
+                    true // FIFO ordering so tiles complete roughly in submission order
+                );
+                logger.info("Local worker backend using {} threads", threads);
+            }
+            return pool;
+        }
+    }
+
+    @WithSpan("LocalWorker.renderTile")
+    private void renderTile(TileSpec tileSpec) {
+        TileResult result;
+        try {
+            if (tileSpec.isPerturbed()) {
+                result = calculator.calculatePerturbedTile(tileSpec, referenceOrbitRepository.findByJobId(tileSpec.getJobId())
+                    .orElseThrow(() -> new IllegalStateException("No reference orbit for job " + tileSpec.getJobId())));
+            } else {
+                // Coarse passes go to the handler as they are ready, the full result below
+                result = calculator.calculateTileProgressive(tileSpec, progressiveScale, pass -> handleResult(tileSpec, pass));
+            }
+            Span.current().setAttribute("tile.calculation_ms", result.getCalculationTimeMs());
+        } catch (Exception e) {
+            logger.error("Local rendering failed for tile {}: {}", tileSpec.getTileId(), e.getMessage(), e);
+            Span.current().recordException(e);
+            result = TileResult.failedResult(tileSpec, String.valueOf(e.getMessage()));
+        } finally {
+            queuedTiles.decrementAndGet();
+        }
+
+        handleResult(tileSpec, result);
+    }
+
+    private void handleResult(TileSpec tileSpec, TileResult result) {
+        Consumer<TileResult> handler = resultHandler;
+        if (handler == null) {
+            logger.warn("No result handler registered, dropping local result for tile {}", tileSpec.getTileId());
+            return;
+        }
+        try {
+            handler.accept(result);
+        } catch (Exception e) {
+            logger.error("Error handling local result for tile {}: {}", tileSpec.getTileId(), e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
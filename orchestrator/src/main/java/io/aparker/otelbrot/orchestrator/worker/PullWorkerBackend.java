@@ -0,0 +1,66 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import io.aparker.otelbrot.orchestrator.repository.TileQueueRepository;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker backend that queues tiles for a fleet of long-running workers,
+ * which lease them through the worker lease API
+ */
+@Component
+public class PullWorkerBackend implements WorkerBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        PullWorkerBackend.class
+    );
+
+    private final TileQueueRepository tileQueueRepository;
+
+    public PullWorkerBackend(TileQueueRepository tileQueueRepository) {
+        this.tileQueueRepository = tileQueueRepository;
+    }
+
+    @Override
+    public String getName() {
+        return "pull";
+    }
+
+    @Override
+    public boolean requiresWorkerSlot(TileSpec tileSpec, boolean isPriority) {
+        // The fleet size bounds concurrency, not the orchestrator
+        return false;
+    }
+
+    @Override
+    public boolean isPullBased() {
+        return true;
+    }
+
+    @Override
+    public void launch(TileSpec tileSpec, boolean isPriority, String traceparent, String tracestate) {
+        launch(tileSpec, isPriority ? TileLane.PREVIEW : TileLane.INTERACTIVE, traceparent, tracestate);
+    }
+
+    /**
+     * Queue a tile in its lane for the worker fleet
+     */
+    @Override
+    @WithSpan("PullWorkerBackend.enqueue")
+    public void launch(
+        TileSpec tileSpec,
+        @SpanAttribute("tile.lane") TileLane lane,
+        @SpanAttribute("traceparent") String traceparent,
+        @SpanAttribute("tracestate") String tracestate
+    ) {
+        tileQueueRepository.enqueue(tileSpec, lane, traceparent, tracestate);
+        Span.current().setAttribute("queue.stream", lane.getStreamName());
+        logger.debug("Queued tile {} in lane {} for the worker fleet", tileSpec.getTileId(), lane.getId());
+    }
+}
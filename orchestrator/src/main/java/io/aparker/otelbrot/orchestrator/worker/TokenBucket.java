@@ -0,0 +1,50 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import java.time.Duration;
+
+/**
+ * Client-side rate limit for Kubernetes API calls. Tokens refill at a steady
+ * rate up to the burst size; callers that find the bucket empty reserve a
+ * future token and sleep until it is due, so waiting callers are served in
+ * the order they arrived.
+ */
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double burst;
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double tokensPerSecond, int burst) {
+        if (tokensPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and burst");
+        }
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Take a token, waiting until one is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            Thread.sleep(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Take a token now or reserve the next one
+     *
+     * @return how long the caller must wait before using its token
+     */
+    synchronized long reserve(long now) {
+        tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
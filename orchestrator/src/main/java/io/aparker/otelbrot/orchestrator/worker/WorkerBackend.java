@@ -0,0 +1,129 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import io.aparker.otelbrot.commons.model.TileBatch;
+import io.aparker.otelbrot.commons.model.TileGrid;
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Executes tile computations on behalf of the orchestrator
+ */
+public interface WorkerBackend {
+
+    /**
+     * Name of the backend, used in logs and span attributes
+     */
+    String getName();
+
+    /**
+     * Start computing a tile. Results are reported back asynchronously,
+     * either over HTTP by a remote worker or through the result handler.
+     */
+    void launch(TileSpec tileSpec, boolean isPriority, String traceparent, String tracestate);
+
+    /**
+     * Start computing a tile queued in the given priority lane. Backends
+     * that queue tiles keep them in that lane; others only distinguish the
+     * preview lane as priority.
+     */
+    default void launch(TileSpec tileSpec, TileLane lane, String traceparent, String tracestate) {
+        launch(tileSpec, lane == TileLane.PREVIEW, traceparent, tracestate);
+    }
+
+    /**
+     * Whether launching this tile occupies one of the cluster worker slots
+     * counted against the concurrency limits
+     */
+    boolean requiresWorkerSlot(TileSpec tileSpec, boolean isPriority);
+
+    /**
+     * Whether workers pull tiles from the queue themselves, in which case the
+     * orchestrator must not drain the queue on their behalf
+     */
+    default boolean isPullBased() {
+        return false;
+    }
+
+    /**
+     * Whether a render's detail tiles can be handed over as a whole grid
+     * instead of being launched one by one
+     */
+    default boolean supportsGridLaunch() {
+        return false;
+    }
+
+    /**
+     * Start computing every tile of a grid, with at most parallelism tiles
+     * running at once. Only called when supportsGridLaunch() is true.
+     */
+    default void launchGrid(TileGrid grid, int parallelism, String traceparent, String tracestate) {
+        throw new UnsupportedOperationException(getName() + " backend cannot launch tile grids");
+    }
+
+    /**
+     * Whether several tiles can be computed one after another by one worker
+     */
+    default boolean supportsBatchLaunch() {
+        return false;
+    }
+
+    /**
+     * Start one worker that computes every tile of the batch and reports
+     * each result as it finishes. Only called when supportsBatchLaunch() is true.
+     */
+    default void launchBatch(TileBatch batch, String traceparent, String tracestate) {
+        throw new UnsupportedOperationException(getName() + " backend cannot launch tile batches");
+    }
+
+    /**
+     * Release resources held for a single completed tile
+     */
+    default void cleanupTile(String jobId, String tileId) {
+    }
+
+    /**
+     * Release resources held for a whole fractal job
+     */
+    default void cleanupJob(String jobId) {
+    }
+
+    /**
+     * Register the handler that receives results computed in-process
+     */
+    default void setResultHandler(Consumer<TileResult> resultHandler) {
+    }
+
+    /**
+     * Register the handler told about workers that stopped without reporting
+     * their tiles, with the reason. Backends that don't observe their
+     * workers never call it.
+     */
+    default void setWorkerLostHandler(BiConsumer<WorkerInfo, String> lostHandler) {
+    }
+
+    /**
+     * Workers the backend currently observes running
+     *
+     * @return the running workers, or null if the backend doesn't observe them
+     * or hasn't caught up with them yet
+     */
+    default List<WorkerInfo> getRunningWorkers() {
+        return null;
+    }
+
+    /**
+     * Start observing workers, once the orchestrator is ready to handle them
+     */
+    default void start() {
+    }
+
+    /**
+     * Stop observing workers
+     */
+    default void stop() {
+    }
+}
@@ -0,0 +1,37 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import java.util.List;
+
+/**
+ * A worker the backend observes, with the slot it occupies and the tiles it
+ * computes. A single tile's slot id is its tile id, a batch's its batch id.
+ */
+public class WorkerInfo {
+    private final String name;
+    private final String jobId;
+    private final String slotId;
+    private final List<String> tileIds;
+
+    public WorkerInfo(String name, String jobId, String slotId, List<String> tileIds) {
+        this.name = name;
+        this.jobId = jobId;
+        this.slotId = slotId;
+        this.tileIds = List.copyOf(tileIds);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getSlotId() {
+        return slotId;
+    }
+
+    public List<String> getTileIds() {
+        return tileIds;
+    }
+}
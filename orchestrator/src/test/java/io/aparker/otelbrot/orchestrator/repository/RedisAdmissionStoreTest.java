@@ -0,0 +1,106 @@
+package io.aparker.otelbrot.orchestrator.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.aparker.otelbrot.orchestrator.service.AdmissionStore;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+class RedisAdmissionStoreTest {
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private RedisAdmissionStore store;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = RedisTestSupport.connect();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        store = new RedisAdmissionStore(redisTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void acquireEnforcesJobAndGlobalLimits() {
+        assertEquals(AdmissionStore.ADMITTED, store.acquire("job-1", "job-1:a", List.of("t1"), 2, 3, false));
+        assertEquals(AdmissionStore.ALREADY_HELD, store.acquire("job-1", "job-1:a", List.of("t1"), 2, 3, false));
+        assertEquals(AdmissionStore.ADMITTED, store.acquire("job-1", "job-1:b", List.of("t2"), 2, 3, false));
+        assertEquals(AdmissionStore.REJECTED_JOB, store.acquire("job-1", "job-1:c", List.of("t3"), 2, 3, false));
+        assertEquals(AdmissionStore.ADMITTED, store.acquire("job-2", "job-2:a", List.of("t1"), 2, 3, false));
+        assertEquals(AdmissionStore.REJECTED_GLOBAL, store.acquire("job-2", "job-2:b", List.of("t2"), 2, 3, false));
+
+        // Bypassing takes a slot above both limits
+        assertEquals(AdmissionStore.ADMITTED, store.acquire("job-1", "job-1:c", List.of("t3"), 2, 3, true));
+
+        assertEquals(4, store.getActiveCount());
+        assertEquals(3, store.getActiveCount("job-1"));
+        assertEquals(1, store.getActiveCount("job-2"));
+        assertEquals(Set.of("job-1:a", "job-1:b", "job-1:c", "job-2:a"), store.getSlotKeys());
+    }
+
+    @Test
+    void slotIsGivenBackOnItsLastTile() {
+        store.acquire("job-1", "job-1:a", List.of("t1", "t2"), 2, 2, false);
+        store.acquire("job-2", "job-2:a", List.of("t1"), 2, 2, false);
+
+        assertFalse(store.releaseTile("job-1", "t1"));
+        assertEquals(2, store.getActiveCount());
+
+        // A tile is only counted once, and only for its own job
+        assertFalse(store.releaseTile("job-1", "t1"));
+        assertTrue(store.releaseTile("job-1", "t2"));
+        assertEquals(1, store.getActiveCount());
+        assertEquals(0, store.getActiveCount("job-1"));
+        assertEquals(Set.of("job-2:a"), store.getSlotKeys());
+
+        assertFalse(store.releaseTile("job-1", "t2"));
+        assertEquals(1, store.getActiveCount());
+    }
+
+    @Test
+    void releasingASlotReturnsItsOutstandingTiles() {
+        store.acquire("job-1", "job-1:a", List.of("t1", "t2", "t3"), 2, 2, false);
+        store.releaseTile("job-1", "t2");
+
+        List<String> outstanding = store.releaseSlot("job-1", "job-1:a");
+
+        assertEquals(Set.of("t1", "t3"), Set.copyOf(outstanding));
+        assertEquals(0, store.getActiveCount());
+        assertNull(store.releaseSlot("job-1", "job-1:a"));
+        assertFalse(store.releaseTile("job-1", "t1"));
+        assertEquals(0, store.getActiveCount());
+    }
+
+    @Test
+    void removingAJobGivesBackAllItsSlots() {
+        store.acquire("job-1", "job-1:a", List.of("t1"), 2, 3, false);
+        store.acquire("job-1", "job-1:b", List.of("t2"), 2, 3, false);
+        store.acquire("job-2", "job-2:a", List.of("t1"), 2, 3, false);
+
+        assertEquals(2, store.removeJob("job-1"));
+
+        assertEquals(1, store.getActiveCount());
+        assertEquals(0, store.getActiveCount("job-1"));
+        assertEquals(Set.of("job-2:a"), store.getSlotKeys());
+        assertFalse(redisTemplate.hasKey(RedisAdmissionStore.jobSlotsKey("job-1")));
+        assertFalse(redisTemplate.hasKey(RedisAdmissionStore.jobTilesKey("job-1")));
+        assertFalse(store.releaseTile("job-1", "t1"));
+        assertEquals(0, store.removeJob("job-1"));
+
+        // The other job's slot is still given back on its last tile
+        assertTrue(store.releaseTile("job-2", "t1"));
+        assertEquals(0, store.getActiveCount());
+    }
+}
@@ -0,0 +1,37 @@
+package io.aparker.otelbrot.orchestrator.repository;
+
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+/**
+ * Connection to the Redis the Redis-backed tests run against: REDIS_HOST and
+ * REDIS_PORT, or localhost:6379. The tests use, and flush, database 15,
+ * and are skipped when no Redis is reachable.
+ */
+public final class RedisTestSupport {
+
+    private static final int DATABASE = 15;
+
+    private RedisTestSupport() {
+    }
+
+    public static LettuceConnectionFactory connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(host, port);
+        configuration.setDatabase(DATABASE);
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(configuration);
+        factory.afterPropertiesSet();
+        factory.start();
+        try (RedisConnection connection = factory.getConnection()) {
+            connection.serverCommands().flushDb();
+        } catch (Exception e) {
+            factory.destroy();
+            Assumptions.abort("No Redis at " + host + ":" + port + ": " + e.getMessage());
+        }
+        return factory;
+    }
+}
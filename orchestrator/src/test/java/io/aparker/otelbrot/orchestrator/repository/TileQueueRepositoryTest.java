@@ -0,0 +1,176 @@
+package io.aparker.otelbrot.orchestrator.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.QueuedTile;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+class TileQueueRepositoryTest {
+
+    private static final String CONSUMER = "test-consumer";
+
+    private LettuceConnectionFactory connectionFactory;
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void readsAreSharedByLaneWeight() {
+        TileQueueRepository repository = new TileQueueRepository(null, 8, 4, 1);
+
+        assertArrayEquals(new int[] {8, 4, 1}, repository.planReads(13));
+        assertArrayEquals(new int[] {16, 8, 2}, repository.planReads(26));
+    }
+
+    @Test
+    void singleReadsStartWithPreviewAndReachEveryLane() {
+        TileQueueRepository repository = new TileQueueRepository(null, 8, 4, 1);
+
+        assertArrayEquals(new int[] {1, 0, 0}, repository.planReads(1));
+        int[] total = {1, 0, 0};
+        for (int n = 1; n < 13; n++) {
+            int[] quotas = repository.planReads(1);
+            for (int i = 0; i < quotas.length; i++) {
+                total[i] += quotas[i];
+            }
+        }
+        assertArrayEquals(new int[] {8, 4, 1}, total);
+    }
+
+    @Test
+    void backgroundIsNeverStarved() {
+        TileQueueRepository repository = new TileQueueRepository(null, 100, 10, 0);
+
+        // A weight below 1 counts as 1, so background gets a read in every round of 111
+        int backgroundReads = 0;
+        for (int n = 0; n < 111; n++) {
+            backgroundReads += repository.planReads(1)[TileLane.BACKGROUND.ordinal()];
+        }
+        assertEquals(1, backgroundReads);
+    }
+
+    @Test
+    void blockingReadPutsBackTheTilesOfLowerLanesBeyondCount() {
+        TileQueueRepository repository = redisRepository();
+        repository.enqueue(tile("preview-1").build(), TileLane.PREVIEW, null, null);
+        repository.enqueue(tile("preview-2").build(), TileLane.PREVIEW, null, null);
+        repository.enqueue(tile("interactive-1").build(), TileLane.INTERACTIVE, null, null);
+        repository.enqueue(tile("background-1").build(), TileLane.BACKGROUND, null, null);
+
+        // Every lane returns up to count entries, so four arrive for a read of two
+        List<QueuedTile> tiles = repository.blockingRead(CONSUMER, 2, Duration.ofMillis(100));
+
+        assertEquals(List.of("preview-1", "preview-2"), tileIds(tiles));
+        List<QueuedTile> requeued = repository.read(CONSUMER, 10, null);
+        assertEquals(List.of("interactive-1", "background-1"), tileIds(requeued));
+        assertEquals(List.of(TileLane.INTERACTIVE, TileLane.BACKGROUND),
+            requeued.stream().map(QueuedTile::getLane).toList());
+        assertTrue(repository.read(CONSUMER, 10, null).isEmpty());
+    }
+
+    @Test
+    void queuedTileReadsBackAsEnqueued() {
+        TileQueueRepository repository = redisRepository();
+        TileSpec tileSpec = tile("tile-1")
+            .reference("-1.74999841099374081749002483162428393452822172335808534616943930976364725846655",
+                "-0.00000000000000165712469295418692325810961981279189026504290127375760405334498")
+            .precision(PrecisionTier.DOUBLE_DOUBLE)
+            .build();
+
+        repository.enqueue(tileSpec, TileLane.INTERACTIVE, "00-trace-span-01", "");
+        List<QueuedTile> tiles = repository.read(CONSUMER, 10, null);
+
+        assertEquals(1, tiles.size());
+        QueuedTile queuedTile = tiles.get(0);
+        assertEquals(TileLane.INTERACTIVE, queuedTile.getLane());
+        assertEquals("00-trace-span-01", queuedTile.getTraceparent());
+        TileSpec read = queuedTile.getTileSpec();
+        assertEquals("job-1", read.getJobId());
+        assertEquals("tile-1", read.getTileId());
+        assertEquals(tileSpec.getXMin(), read.getXMin());
+        assertEquals(tileSpec.getYMin(), read.getYMin());
+        assertEquals(tileSpec.getXMax(), read.getXMax());
+        assertEquals(tileSpec.getYMax(), read.getYMax());
+        assertEquals(256, read.getWidth());
+        assertEquals(128, read.getHeight());
+        assertEquals(1000, read.getMaxIterations());
+        assertEquals("fire", read.getColorScheme());
+        assertEquals(512, read.getPixelStartX());
+        assertEquals(256, read.getPixelStartY());
+        assertTrue(read.hasReference());
+        assertEquals(tileSpec.getReferenceX(), read.getReferenceX());
+        assertEquals(tileSpec.getReferenceY(), read.getReferenceY());
+        assertEquals(PrecisionTier.DOUBLE_DOUBLE, read.getPrecision());
+        assertFalse(read.isPerturbed());
+    }
+
+    @Test
+    void everyPrecisionReadsBackAsEnqueued() {
+        TileQueueRepository repository = redisRepository();
+        for (PrecisionTier precision : PrecisionTier.values()) {
+            repository.enqueue(tile("tile-" + precision).precision(precision).build(), TileLane.BACKGROUND, null, null);
+        }
+
+        List<QueuedTile> tiles = repository.read(CONSUMER, 10, null);
+
+        assertEquals(PrecisionTier.values().length, tiles.size());
+        for (QueuedTile queuedTile : tiles) {
+            assertEquals("tile-" + queuedTile.getTileSpec().getPrecision(), queuedTile.getTileSpec().getTileId());
+        }
+    }
+
+    @Test
+    void tileWithoutReferenceReadsBackWithoutOne() {
+        TileQueueRepository repository = redisRepository();
+        repository.enqueue(tile("tile-1").build(), TileLane.INTERACTIVE, null, null);
+        TileSpec read = repository.read(CONSUMER, 10, null).get(0).getTileSpec();
+
+        assertFalse(read.hasReference());
+        assertNull(read.getReferenceX());
+    }
+
+    // A repository on a fresh Redis whose streams hold nothing to read
+    private TileQueueRepository redisRepository() {
+        connectionFactory = RedisTestSupport.connect();
+        TileQueueRepository repository = new TileQueueRepository(new StringRedisTemplate(connectionFactory), 8, 4, 1);
+        assertTrue(repository.initialize());
+        assertTrue(repository.read(CONSUMER, 10, null).isEmpty());
+        return repository;
+    }
+
+    private static List<String> tileIds(List<QueuedTile> tiles) {
+        return tiles.stream().map(queuedTile -> queuedTile.getTileSpec().getTileId()).toList();
+    }
+
+    private static TileSpec.Builder tile(String tileId) {
+        return new TileSpec.Builder()
+            .jobId("job-1")
+            .tileId(tileId)
+            .xMin(-1.0e-30)
+            .yMin(-0.5e-30)
+            .xMax(1.0e-30)
+            .yMax(0.5e-30)
+            .width(256)
+            .height(128)
+            .maxIterations(1000)
+            .colorScheme("fire")
+            .pixelStartX(512)
+            .pixelStartY(256);
+    }
+}
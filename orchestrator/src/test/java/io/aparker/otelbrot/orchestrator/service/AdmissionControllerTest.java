@@ -0,0 +1,98 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+    @Test
+    void enforcesJobAndGlobalLimits() {
+        AdmissionController admission = new AdmissionController(3, new SimpleMeterRegistry());
+        admission.registerJob("a", 2);
+        admission.registerJob("b", null);
+
+        assertTrue(admission.tryAcquire("a", "a:1", List.of("t1")));
+        assertTrue(admission.tryAcquire("a", "a:2", List.of("t2")));
+        assertFalse(admission.tryAcquire("a", "a:3", List.of("t3")));
+        assertEquals(2, admission.getActiveCount());
+
+        assertTrue(admission.tryAcquire("b", "b:1", List.of("t1")));
+        assertFalse(admission.tryAcquire("b", "b:2", List.of("t2")));
+        assertEquals(0, admission.getAvailableSlots());
+
+        assertTrue(admission.releaseTile("a", "t1"));
+        assertTrue(admission.tryAcquire("b", "b:2", List.of("t2")));
+        assertEquals(2, admission.getActiveCount("b"));
+    }
+
+    @Test
+    void priorityBypassesLimitsAndRemovingJobReturnsSlots() {
+        AdmissionController admission = new AdmissionController(1, new SimpleMeterRegistry());
+        admission.registerJob("a", 1);
+
+        assertTrue(admission.tryAcquire("a", "a:1", List.of("t1")));
+        assertTrue(admission.acquire("a", "a:preview", List.of("preview")));
+        assertEquals(2, admission.getActiveCount());
+
+        assertEquals(2, admission.removeJob("a"));
+        assertEquals(0, admission.getActiveCount());
+
+        // Late releases for a removed job give nothing back twice
+        assertFalse(admission.releaseTile("a", "t1"));
+        assertNull(admission.releaseSlot("a", "a:preview"));
+        assertEquals(0, admission.getActiveCount());
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedLimit() throws InterruptedException {
+        AdmissionController admission = new AdmissionController(10, new SimpleMeterRegistry());
+        admission.registerJob("a", 4);
+        AtomicInteger granted = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            String slotId = String.valueOf(i);
+            executor.submit(() -> {
+                if (admission.tryAcquire("a", "a:" + slotId, List.of(slotId))) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(4, granted.get());
+        assertEquals(4, admission.getActiveCount());
+    }
+
+    @Test
+    void slotIsGivenBackAfterItsLastTile() {
+        AdmissionController admission = new AdmissionController(2, new SimpleMeterRegistry());
+
+        assertTrue(admission.tryAcquire("a", "a:batch", List.of("t1", "t2")));
+        assertFalse(admission.tryAcquire("a", "a:batch", List.of("t3")));
+        assertEquals(1, admission.getActiveCount());
+
+        assertFalse(admission.releaseTile("a", "t1"));
+        assertEquals(1, admission.getActiveCount());
+        assertTrue(admission.releaseTile("a", "t2"));
+        assertEquals(0, admission.getActiveCount());
+
+        // Releasing a slot early reports the tiles it was still waiting for
+        assertTrue(admission.tryAcquire("a", "a:other", List.of("t3", "t4")));
+        assertFalse(admission.releaseTile("a", "t3"));
+        assertEquals(List.of("t4"), admission.releaseSlot("a", "a:other"));
+        assertEquals(0, admission.getActiveCount());
+        assertTrue(admission.getSlotKeys().isEmpty());
+    }
+}
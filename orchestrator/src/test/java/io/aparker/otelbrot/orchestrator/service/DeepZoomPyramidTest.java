@@ -0,0 +1,185 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DeepZoomPyramidTest {
+
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 200;
+    private static final int TILE_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void maxLevelHalvesDownToOnePixel() {
+        assertEquals(0, DeepZoomPyramid.maxLevel(1, 1));
+        assertEquals(1, DeepZoomPyramid.maxLevel(2, 1));
+        assertEquals(9, DeepZoomPyramid.maxLevel(300, 200));
+        assertEquals(9, DeepZoomPyramid.maxLevel(512, 512));
+        assertEquals(10, DeepZoomPyramid.maxLevel(513, 512));
+    }
+
+    @Test
+    void mosaicReadsBackWhatWasWritten() throws IOException {
+        try (MosaicFile mosaic = MosaicFile.create(directory.resolve("mosaic.rgb"), WIDTH, HEIGHT)) {
+            mosaic.write(290, 190, image(290, 190, 20, 20));
+
+            int[] pixels = new int[10 * 10];
+            mosaic.read(290, 190, 10, 10, pixels, 0, 10);
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    assertEquals(pixel(290 + x, 190 + y), pixels[y * 10 + x]);
+                }
+            }
+
+            // Unwritten pixels are black
+            mosaic.read(0, 0, 1, 1, pixels, 0, 1);
+            assertEquals(0, pixels[0]);
+            assertThrows(IllegalArgumentException.class, () -> mosaic.read(295, 0, 10, 1, new int[10], 0, 10));
+        }
+        assertEquals((long) WIDTH * HEIGHT * MosaicFile.BYTES_PER_PIXEL, Files.size(directory.resolve("mosaic.rgb")));
+    }
+
+    @Test
+    void tilesAreWrittenOnceTheirRegionIsComplete() throws IOException {
+        try (MosaicFile mosaic = MosaicFile.create(directory.resolve("mosaic.rgb"), WIDTH, HEIGHT)) {
+            DeepZoomPyramid pyramid = new DeepZoomPyramid(mosaic, directory, "image", TILE_SIZE, "png");
+            assertTrue(Files.isRegularFile(directory.resolve("image.dzi")));
+            assertTrue(Files.readString(directory.resolve("image.dzi")).contains("Width=\"300\" Height=\"200\""));
+
+            // Half of the first pyramid tile
+            addTile(mosaic, pyramid, 0, 0, 32, 100);
+            assertFalse(Files.exists(pyramid.tilePath(9, 0, 0)));
+
+            // The other half completes it
+            addTile(mosaic, pyramid, 32, 0, 268, 100);
+            assertTrue(Files.exists(pyramid.tilePath(9, 0, 0)));
+            assertTrue(Files.exists(pyramid.tilePath(9, 4, 0)));
+            assertFalse(Files.exists(pyramid.tilePath(9, 0, 1)));
+            assertFalse(Files.exists(pyramid.tilePath(0, 0, 0)));
+            assertFalse(pyramid.isComplete());
+
+            addTile(mosaic, pyramid, 0, 100, 300, 100);
+            assertTrue(pyramid.isComplete());
+            for (int level = 0; level <= pyramid.getMaxLevel(); level++) {
+                for (int row = 0; row < pyramid.getRows(level); row++) {
+                    for (int column = 0; column < pyramid.getColumns(level); column++) {
+                        assertTrue(Files.exists(pyramid.tilePath(level, column, row)), level + "/" + column + "_" + row);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void levelsHalveTheImage() throws IOException {
+        try (MosaicFile mosaic = MosaicFile.create(directory.resolve("mosaic.rgb"), WIDTH, HEIGHT)) {
+            DeepZoomPyramid pyramid = new DeepZoomPyramid(mosaic, directory, "image", TILE_SIZE, "png");
+            addTile(mosaic, pyramid, 0, 0, WIDTH, HEIGHT);
+
+            BufferedImage full = ImageIO.read(pyramid.tilePath(9, 4, 3).toFile());
+            assertEquals(300 - 4 * TILE_SIZE, full.getWidth());
+            assertEquals(200 - 3 * TILE_SIZE, full.getHeight());
+            assertEquals(pixel(4 * TILE_SIZE, 3 * TILE_SIZE), full.getRGB(0, 0) & 0xFFFFFF);
+
+            // Level 8 is 150x100, its pixels the average of 2x2 full resolution pixels
+            BufferedImage half = ImageIO.read(pyramid.tilePath(8, 2, 1).toFile());
+            assertEquals(150 - 2 * TILE_SIZE, half.getWidth());
+            assertEquals(100 - TILE_SIZE, half.getHeight());
+            assertEquals(average(2 * 2 * TILE_SIZE, 2 * TILE_SIZE), half.getRGB(0, 0) & 0xFFFFFF);
+
+            BufferedImage single = ImageIO.read(pyramid.tilePath(0, 0, 0).toFile());
+            assertEquals(1, single.getWidth());
+            assertEquals(1, single.getHeight());
+        }
+    }
+
+    @Test
+    void lossyLevelsAreAveragedFromExactPixels() throws IOException {
+        try (MosaicFile mosaic = MosaicFile.create(directory.resolve("mosaic.rgb"), WIDTH, HEIGHT)) {
+            DeepZoomPyramid pyramid = new DeepZoomPyramid(mosaic, directory, "image", TILE_SIZE, "jpg");
+            addTile(mosaic, pyramid, 0, 0, WIDTH, HEIGHT);
+            assertTrue(pyramid.isComplete());
+
+            // Level 8 holds the exact averages of the full resolution pixels, not of decoded jpg tiles
+            int[] half = new int[150 * 100];
+            try (MosaicFile level = MosaicFile.open(directory.resolve("image_levels/8.rgb"), 150, 100)) {
+                level.read(0, 0, 150, 100, half, 0, 150);
+            }
+            for (int y = 0; y < 100; y++) {
+                for (int x = 0; x < 150; x++) {
+                    assertEquals(average(2 * x, 2 * y), half[y * 150 + x], x + "," + y);
+                }
+            }
+
+            // And level 7 those of level 8's
+            int[] quarter = new int[1];
+            try (MosaicFile level = MosaicFile.open(directory.resolve("image_levels/7.rgb"), 75, 50)) {
+                level.read(37, 24, 1, 1, quarter, 0, 1);
+            }
+            int r = 0;
+            int g = 0;
+            int b = 0;
+            for (int dy = 0; dy < 2; dy++) {
+                for (int dx = 0; dx < 2; dx++) {
+                    int rgb = half[(48 + dy) * 150 + 74 + dx];
+                    r += (rgb >> 16) & 0xFF;
+                    g += (rgb >> 8) & 0xFF;
+                    b += rgb & 0xFF;
+                }
+            }
+            assertEquals((r / 4) << 16 | (g / 4) << 8 | (b / 4), quarter[0]);
+
+            pyramid.close();
+            assertFalse(Files.exists(directory.resolve("image_levels")));
+            assertTrue(Files.exists(pyramid.tilePath(0, 0, 0)));
+        }
+    }
+
+    private static void addTile(MosaicFile mosaic, DeepZoomPyramid pyramid, int x, int y, int width, int height)
+            throws IOException {
+        mosaic.write(x, y, image(x, y, width, height));
+        pyramid.addRegion(x, y, width, height);
+    }
+
+    private static BufferedImage image(int x, int y, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                image.setRGB(column, row, pixel(x + column, y + row));
+            }
+        }
+        return image;
+    }
+
+    private static int pixel(int x, int y) {
+        return (x * 255 / WIDTH) << 16 | (y * 255 / HEIGHT) << 8 | ((x * 7 + y * 3) & 0xFF);
+    }
+
+    private static int average(int x, int y) {
+        int r = 0;
+        int g = 0;
+        int b = 0;
+        for (int dy = 0; dy < 2; dy++) {
+            for (int dx = 0; dx < 2; dx++) {
+                int rgb = pixel(x + dx, y + dy);
+                r += (rgb >> 16) & 0xFF;
+                g += (rgb >> 8) & 0xFF;
+                b += rgb & 0xFF;
+            }
+        }
+        return (r / 4) << 16 | (g / 4) << 8 | (b / 4);
+    }
+}
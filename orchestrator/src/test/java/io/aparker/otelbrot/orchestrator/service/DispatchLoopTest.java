@@ -0,0 +1,51 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class DispatchLoopTest {
+
+    @Test
+    void signalWakesIdleLoop() throws InterruptedException {
+        Semaphore steps = new Semaphore(0);
+        DispatchLoop loop = new DispatchLoop("test-dispatcher", () -> {
+            steps.release();
+            return 0;
+        }, Duration.ofMinutes(1));
+
+        loop.start();
+        try {
+            assertTrue(steps.tryAcquire(1, TimeUnit.SECONDS));
+            // Idle for a minute unless signalled
+            loop.signal();
+            assertTrue(steps.tryAcquire(1, TimeUnit.SECONDS));
+        } finally {
+            loop.stop();
+        }
+    }
+
+    @Test
+    void keepsRunningWhileStepsLaunchTiles() throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(5);
+        Semaphore done = new Semaphore(0);
+        DispatchLoop loop = new DispatchLoop("test-dispatcher", () -> {
+            int left = remaining.getAndDecrement();
+            if (left == 1) {
+                done.release();
+            }
+            return left > 0 ? 1 : 0;
+        }, Duration.ofMinutes(1));
+
+        loop.start();
+        try {
+            assertTrue(done.tryAcquire(1, TimeUnit.SECONDS));
+        } finally {
+            loop.stop();
+        }
+    }
+}
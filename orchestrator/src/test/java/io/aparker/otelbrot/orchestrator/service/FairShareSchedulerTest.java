@@ -0,0 +1,67 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.QueuedTile;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FairShareSchedulerTest {
+
+    private final FairShareScheduler scheduler = new FairShareScheduler(8, 4, 1, new SimpleMeterRegistry());
+
+    private List<QueuedTile> tiles(String jobId, TileLane lane, int count) {
+        List<QueuedTile> tiles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TileSpec spec = new TileSpec.Builder().jobId(jobId).tileId("tile-" + i).build();
+            tiles.add(new QueuedTile(lane, jobId + "-" + i, spec, null, null));
+        }
+        return tiles;
+    }
+
+    private long countOf(List<QueuedTile> tiles, String jobId) {
+        return tiles.stream().filter(t -> t.getTileSpec().getJobId().equals(jobId)).count();
+    }
+
+    @Test
+    void smallJobIsServedAlongsideLargeBacklog() {
+        scheduler.offer(tiles("large", TileLane.INTERACTIVE, 4096));
+        scheduler.offer(tiles("small", TileLane.INTERACTIVE, 16));
+
+        // Equal weights alternate four tiles at a time, so the small job is done in four rounds
+        List<QueuedTile> picked = scheduler.next(32, jobId -> Integer.MAX_VALUE);
+        assertEquals(16, countOf(picked, "small"));
+        assertEquals(16, countOf(picked, "large"));
+        assertEquals("tile-0", picked.get(4).getTileSpec().getTileId());
+        assertEquals(4096 - 16, scheduler.getBufferedCount());
+    }
+
+    @Test
+    void laneWeightsSetShares() {
+        scheduler.offer(tiles("background", TileLane.BACKGROUND, 100));
+        scheduler.offer(tiles("interactive", TileLane.INTERACTIVE, 100));
+
+        List<QueuedTile> picked = scheduler.next(50, jobId -> Integer.MAX_VALUE);
+        assertEquals(40, countOf(picked, "interactive"));
+        assertEquals(10, countOf(picked, "background"));
+    }
+
+    @Test
+    void jobsAtTheirLimitArePassedOver() {
+        scheduler.offer(tiles("capped", TileLane.INTERACTIVE, 10));
+        scheduler.offer(tiles("open", TileLane.INTERACTIVE, 10));
+
+        List<QueuedTile> picked = scheduler.next(12, jobId -> jobId.equals("capped") ? 2 : Integer.MAX_VALUE);
+        assertEquals(2, countOf(picked, "capped"));
+        assertEquals(10, countOf(picked, "open"));
+
+        assertTrue(scheduler.next(5, jobId -> 0).isEmpty());
+        assertEquals(8, scheduler.removeJob("capped").size());
+        assertEquals(0, scheduler.getBufferedCount());
+    }
+}
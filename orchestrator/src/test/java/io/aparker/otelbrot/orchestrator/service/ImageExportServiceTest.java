@@ -0,0 +1,131 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileStatus;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class ImageExportServiceTest {
+
+    private static final int WIDTH = 100;
+    private static final int HEIGHT = 70;
+
+    @Test
+    void stitchesTilesAcrossBandsIntoOnePng() throws IOException {
+        // Tiles of uneven heights, so bands start and end inside them
+        List<TileResult> tiles = new ArrayList<>();
+        Map<String, byte[]> images = new HashMap<>();
+        addTile(tiles, images, "a", 0, 0, 60, 25);
+        addTile(tiles, images, "b", 60, 0, 40, 40);
+        addTile(tiles, images, "c", 0, 25, 60, 45);
+        addTile(tiles, images, "d", 60, 40, 40, 30);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageExportService.stitch(tiles, tile -> images.get(tile.getTileId()), WIDTH, HEIGHT, 16,
+            new PngStreamEncoder(out, WIDTH, HEIGHT));
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(WIDTH, image.getWidth());
+        assertEquals(HEIGHT, image.getHeight());
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(pixel(x, y), image.getRGB(x, y) & 0xFFFFFF, "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void missingTilesAreLeftBlack() throws IOException {
+        List<TileResult> tiles = new ArrayList<>();
+        Map<String, byte[]> images = new HashMap<>();
+        addTile(tiles, images, "a", 0, 0, WIDTH, 35);
+        tiles.add(layout("failed", 0, 35, WIDTH, 35));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageExportService.stitch(tiles, tile -> images.get(tile.getTileId()), WIDTH, HEIGHT, 64,
+            new PngStreamEncoder(out, WIDTH, HEIGHT));
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(pixel(10, 10), image.getRGB(10, 10) & 0xFFFFFF);
+        assertEquals(0, image.getRGB(10, 50) & 0xFFFFFF);
+    }
+
+    @Test
+    void jpegExportDecodesCloseToTheTiles() throws IOException {
+        List<TileResult> tiles = new ArrayList<>();
+        Map<String, byte[]> images = new HashMap<>();
+        addTile(tiles, images, "a", 0, 0, WIDTH, HEIGHT);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageExportService.stitch(tiles, tile -> images.get(tile.getTileId()), WIDTH, HEIGHT, 5,
+            new JpegStreamEncoder(out, WIDTH, HEIGHT, 95));
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(WIDTH, image.getWidth());
+        assertEquals(HEIGHT, image.getHeight());
+        long error = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int expected = pixel(x, y);
+                int actual = image.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    error += Math.abs(((expected >> shift) & 0xFF) - ((actual >> shift) & 0xFF));
+                }
+            }
+        }
+        assertTrue(error / (double) (WIDTH * HEIGHT * 3) < 3, "mean error " + error / (double) (WIDTH * HEIGHT * 3));
+    }
+
+    @Test
+    void encodersRejectMissingRows() throws IOException {
+        PngStreamEncoder png = new PngStreamEncoder(new ByteArrayOutputStream(), WIDTH, HEIGHT);
+        png.writeRows(new int[WIDTH * 10], 10);
+        assertThrows(IllegalStateException.class, png::finish);
+
+        JpegStreamEncoder jpeg = new JpegStreamEncoder(new ByteArrayOutputStream(), WIDTH, HEIGHT, 90);
+        assertThrows(IllegalStateException.class, () -> jpeg.writeRows(new int[WIDTH * (HEIGHT + 1)], HEIGHT + 1));
+    }
+
+    // Smooth gradient with a different color in every pixel
+    private static int pixel(int x, int y) {
+        return (x * 255 / WIDTH) << 16 | (y * 255 / HEIGHT) << 8 | ((x + y) * 255 / (WIDTH + HEIGHT));
+    }
+
+    private static void addTile(List<TileResult> tiles, Map<String, byte[]> images,
+                                String tileId, int x, int y, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                image.setRGB(column, row, pixel(x + column, y + row));
+            }
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        images.put(tileId, png.toByteArray());
+        tiles.add(layout(tileId, x, y, width, height));
+    }
+
+    private static TileResult layout(String tileId, int x, int y, int width, int height) {
+        return new TileResult.Builder()
+            .jobId("job")
+            .tileId(tileId)
+            .pixelStartX(x)
+            .pixelStartY(y)
+            .width(width)
+            .height(height)
+            .status(TileStatus.COMPLETED)
+            .build();
+    }
+}
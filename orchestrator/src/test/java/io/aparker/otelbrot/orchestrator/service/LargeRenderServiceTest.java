@@ -0,0 +1,79 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.aparker.otelbrot.commons.model.TileGrid;
+import io.aparker.otelbrot.orchestrator.model.FractalJob;
+import io.aparker.otelbrot.orchestrator.model.JobStatus;
+import io.aparker.otelbrot.orchestrator.repository.JobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LargeRenderServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tilesGrowUntilTheRenderFitsInMaxTiles() {
+        LargeRenderService service = service(Map.of(), 4096);
+
+        assertEquals(256, service.detailTileSize(4096, 4096, 256));
+        assertEquals(1024, service.detailTileSize(65535, 65535, 256));
+        assertEquals(1024, service.detailTileSize(65535, 65535, 64));
+        assertEquals(TileGrid.MAX_LARGE_TILE_SIZE, service(Map.of(), 1).detailTileSize(65535, 65535, 256));
+    }
+
+    @Test
+    void rendersOfGoneAndStaleJobsAreRemoved() throws IOException {
+        ZonedDateTime now = ZonedDateTime.now();
+        LargeRenderService service = service(Map.of(
+            "stale-job", job("stale-job", now.minusDays(2)),
+            "fresh-job", job("fresh-job", now)
+        ), 4096);
+        for (String jobId : new String[] {"gone-job", "stale-job", "fresh-job"}) {
+            Path files = Files.createDirectories(directory.resolve(jobId).resolve("image_files/0"));
+            Files.write(files.resolve("0_0.jpg"), new byte[] {1});
+            Files.write(directory.resolve(jobId).resolve(LargeRenderService.MOSAIC_FILE), new byte[] {1});
+        }
+
+        assertEquals(2, service.removeExpiredRenders(now.minusDays(1)));
+
+        assertFalse(Files.exists(directory.resolve("gone-job")));
+        assertFalse(Files.exists(directory.resolve("stale-job")));
+        assertTrue(service.hasMosaic("fresh-job"));
+        assertTrue(Files.exists(directory.resolve("fresh-job/image_files/0/0_0.jpg")));
+    }
+
+    private LargeRenderService service(Map<String, FractalJob> jobs, int maxTiles) {
+        JobRepository jobRepository = new JobRepository(null) {
+            @Override
+            public Optional<FractalJob> findById(String jobId) {
+                return Optional.ofNullable(jobs.get(jobId));
+            }
+        };
+        return new LargeRenderService(
+            jobRepository, directory.toString(), 256, "jpg", maxTiles, 24, new SimpleMeterRegistry());
+    }
+
+    private static FractalJob job(String jobId, ZonedDateTime updatedAt) {
+        return new FractalJob.Builder()
+            .jobId(jobId)
+            .width(65535)
+            .height(65535)
+            .largeRender(true)
+            .status(JobStatus.COMPLETED)
+            .createdAt(updatedAt)
+            .updatedAt(updatedAt)
+            .build();
+    }
+}
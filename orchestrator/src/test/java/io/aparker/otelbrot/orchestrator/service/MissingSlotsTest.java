@@ -0,0 +1,64 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.aparker.otelbrot.orchestrator.worker.KubernetesJobCreator;
+import io.aparker.otelbrot.orchestrator.worker.TokenBucket;
+import io.aparker.otelbrot.orchestrator.worker.WorkerInfo;
+import io.fabric8.kubernetes.api.model.batch.v1.JobBuilder;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class MissingSlotsTest {
+
+    private static final Set<String> HELD = Set.of("job-1:tile-0", "job-1:tile-1");
+
+    @Test
+    void slotIsGivenBackAfterTwoReconciliationsWithoutItsWorker() {
+        MissingSlots missingSlots = new MissingSlots();
+        assertTrue(missingSlots.reconcile(HELD, Set.of("job-1:tile-0")).isEmpty());
+        assertEquals(List.of("job-1:tile-1"), missingSlots.reconcile(HELD, Set.of("job-1:tile-0")));
+    }
+
+    @Test
+    void slotSeenAgainStartsOver() {
+        MissingSlots missingSlots = new MissingSlots();
+        assertTrue(missingSlots.reconcile(HELD, Set.of("job-1:tile-0")).isEmpty());
+        assertTrue(missingSlots.reconcile(HELD, HELD).isEmpty());
+        assertTrue(missingSlots.reconcile(HELD, Set.of("job-1:tile-0")).isEmpty());
+    }
+
+    @Test
+    void slotOfAWorkerStillBeingCreatedIsKept() throws InterruptedException {
+        // The rate limit's only token is taken, so the create waits far longer than the reconciliations
+        TokenBucket rateLimit = new TokenBucket(0.001, 1);
+        rateLimit.acquire();
+        KubernetesJobCreator creator = new KubernetesJobCreator(
+            null, "otelbrot", rateLimit, 4, 5, Duration.ofMillis(100), Duration.ofSeconds(1));
+        try {
+            for (String slotId : List.of("tile-0", "tile-1")) {
+                WorkerInfo worker = new WorkerInfo("worker-" + slotId, "job-1", slotId, List.of(slotId));
+                creator.submit(
+                    new JobBuilder().withNewMetadata().withName(worker.getName()).endMetadata().build(),
+                    worker,
+                    e -> { }
+                );
+            }
+
+            MissingSlots missingSlots = new MissingSlots();
+            for (int pass = 0; pass < 3; pass++) {
+                Set<String> observed = creator.getPendingWorkers().stream()
+                    .map(worker -> worker.getJobId() + ":" + worker.getSlotId())
+                    .collect(Collectors.toSet());
+                assertEquals(HELD, observed);
+                assertTrue(missingSlots.reconcile(HELD, observed).isEmpty(), "pass " + pass);
+            }
+        } finally {
+            creator.stop();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.orchestrator.model.InFlightTile;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StragglerDetectorTest {
+
+    private final StragglerDetector detector = new StragglerDetector(0.9, 2.0, 5, 0);
+
+    private TileSpec tile(String jobId, int index) {
+        return new TileSpec.Builder().jobId(jobId).tileId("tile-" + index).build();
+    }
+
+    @Test
+    void reportsTilesFarSlowerThanTheirJobOnce() {
+        for (int i = 0; i < 10; i++) {
+            detector.started(tile("job", i), TileLane.INTERACTIVE, 0);
+        }
+        for (int i = 0; i < 8; i++) {
+            detector.finished("job", "tile-" + i, 1000);
+        }
+
+        // p90 of the finished tiles is 1s, so tiles become stragglers after 2s
+        assertTrue(detector.findStragglers(1900).isEmpty());
+        List<InFlightTile> stragglers = detector.findStragglers(2100);
+        assertEquals(2, stragglers.size());
+        assertEquals(TileLane.INTERACTIVE, stragglers.get(0).getLane());
+        assertTrue(detector.findStragglers(5000).isEmpty());
+    }
+
+    @Test
+    void waitsForEnoughSamples() {
+        for (int i = 0; i < 5; i++) {
+            detector.started(tile("job", i), TileLane.INTERACTIVE, 0);
+        }
+        detector.finished("job", "tile-0", 100);
+        detector.finished("job", "tile-1", 100);
+        assertTrue(detector.findStragglers(60_000).isEmpty());
+
+        detector.removeJob("job");
+        assertTrue(detector.findStragglers(60_000).isEmpty());
+    }
+}
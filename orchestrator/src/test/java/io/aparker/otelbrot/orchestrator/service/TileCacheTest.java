@@ -0,0 +1,63 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import org.junit.jupiter.api.Test;
+
+class TileCacheTest {
+
+    private TileSpec.Builder tile() {
+        return new TileSpec.Builder()
+            .jobId("job-a")
+            .xMin(-2.0)
+            .yMin(-1.5)
+            .xMax(1.0)
+            .yMax(1.5)
+            .width(256)
+            .height(256)
+            .maxIterations(100)
+            .colorScheme("classic")
+            .pixelStartX(0)
+            .pixelStartY(0);
+    }
+
+    @Test
+    void sameImageHasSameKeyAcrossJobs() {
+        TileSpec first = tile().build();
+        TileSpec second = tile().jobId("job-b").pixelStartX(512).pixelStartY(256).build();
+
+        assertNotEquals(first.getTileId(), second.getTileId());
+        assertEquals(TileCache.cacheKey(first), TileCache.cacheKey(second));
+        assertEquals(TileCache.cacheKey(tile().xMin(-0.0).xMax(0.5).build()),
+            TileCache.cacheKey(tile().xMin(0.0).xMax(0.5).build()));
+    }
+
+    @Test
+    void anythingAffectingTheImageChangesTheKey() {
+        String key = TileCache.cacheKey(tile().build());
+
+        assertNotEquals(key, TileCache.cacheKey(tile().xMin(Math.nextUp(-2.0)).build()));
+        assertNotEquals(key, TileCache.cacheKey(tile().yMax(1.5000001).build()));
+        assertNotEquals(key, TileCache.cacheKey(tile().width(128).build()));
+        assertNotEquals(key, TileCache.cacheKey(tile().height(128).build()));
+        assertNotEquals(key, TileCache.cacheKey(tile().maxIterations(101).build()));
+        assertNotEquals(key, TileCache.cacheKey(tile().colorScheme("fire").build()));
+        assertNotEquals(key, TileCache.cacheKey(tile().reference("-1.75", "0").build()));
+        assertNotEquals(key, TileCache.cacheKey(tile().precision(PrecisionTier.FLOAT32).build()));
+        assertEquals(key, TileCache.cacheKey(tile().precision(PrecisionTier.DOUBLE).build()));
+        assertNotEquals(TileCache.cacheKey(tile().reference("-1.75", "0").build()),
+            TileCache.cacheKey(tile().reference("-1.75", "0.0000000000000000000001").build()));
+    }
+
+    @Test
+    void iterationsKeyIgnoresColorScheme() {
+        assertEquals(TileCache.iterationsKey(tile().build()),
+            TileCache.iterationsKey(tile().colorScheme("fire").build()));
+        assertNotEquals(TileCache.iterationsKey(tile().build()),
+            TileCache.iterationsKey(tile().maxIterations(101).build()));
+        assertNotEquals(TileCache.cacheKey(tile().build()), TileCache.iterationsKey(tile().build()));
+    }
+}
@@ -0,0 +1,95 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.aparker.otelbrot.commons.calculator.FractalCalculator;
+import io.aparker.otelbrot.commons.calculator.IterationBuffer;
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class TileColorizerTest {
+
+    private static final String[] SCHEMES = {"classic", "fire", "ocean", "grayscale", "rainbow", "unknown"};
+
+    private final TileColorizer colorizer = new TileColorizer(new SimpleMeterRegistry());
+
+    @Test
+    void recoloredCountsMatchDirectColoring() throws IOException {
+        for (int maxIterations : new int[] {100, 1000, 100000}) {
+            int[] counts = new int[16 * 8];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = (i * 37) % (maxIterations + 1);
+            }
+            counts[0] = maxIterations;
+            byte[] iterations = new IterationBuffer(16, 8, maxIterations, counts).encode();
+
+            for (String scheme : SCHEMES) {
+                int[] pixels = pixels(colorizer.colorize(iterations, scheme), 16, 8);
+
+                for (int i = 0; i < counts.length; i++) {
+                    assertEquals(FractalCalculator.applyColorMap(counts[i], maxIterations, scheme), pixels[i],
+                        scheme + " at " + maxIterations + ", pixel " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void recoloredTileMatchesTheCalculatedOne() throws IOException {
+        FractalCalculator calculator = new FractalCalculator();
+        TileResult classic = calculator.calculateTile(tile("classic"));
+
+        for (String scheme : SCHEMES) {
+            TileResult calculated = calculator.calculateTile(tile(scheme));
+
+            assertArrayEquals(pixels(calculated.getImageData(), 64, 48),
+                pixels(colorizer.colorize(classic.getIterations(), scheme), 64, 48), scheme);
+        }
+    }
+
+    @Test
+    void palettesAreBuiltOncePerSchemeAndLimit() {
+        int[] palette = colorizer.palette(100, "fire");
+
+        assertSame(palette, colorizer.palette(100, "fire"));
+        assertArrayEquals(FractalCalculator.palette(100, "fire"), palette);
+        assertArrayEquals(FractalCalculator.palette(101, "fire"), colorizer.palette(101, "fire"));
+        assertArrayEquals(FractalCalculator.palette(100, "ocean"), colorizer.palette(100, "ocean"));
+    }
+
+    @Test
+    void invalidCountsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> colorizer.colorize(new byte[4], "classic"));
+    }
+
+    private static int[] pixels(byte[] png, int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+        return image.getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    private static TileSpec tile(String colorScheme) {
+        return new TileSpec.Builder()
+            .jobId("job-1")
+            .tileId("tile-0")
+            .xMin(-2.0)
+            .yMin(-1.0)
+            .xMax(1.0)
+            .yMax(1.0)
+            .width(64)
+            .height(48)
+            .maxIterations(200)
+            .colorScheme(colorScheme)
+            .build();
+    }
+}
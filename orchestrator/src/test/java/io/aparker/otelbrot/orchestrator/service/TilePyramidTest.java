@@ -0,0 +1,62 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.aparker.otelbrot.commons.model.PrecisionTier;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import org.junit.jupiter.api.Test;
+
+class TilePyramidTest {
+
+    private final TilePyramid pyramid = new TilePyramid(256, 256, 64, 40);
+
+    @Test
+    void levelZeroCoversTheWholeSet() {
+        TileSpec tile = pyramid.tileSpec("job", "map", "classic", 0, 0, 0);
+        assertEquals(-2.5, tile.getXMin());
+        assertEquals(1.5, tile.getXMax());
+        assertEquals(-2.0, tile.getYMin());
+        assertEquals(2.0, tile.getYMax());
+        assertEquals(256, tile.getWidth());
+        assertEquals(256, tile.getMaxIterations());
+    }
+
+    @Test
+    void rowsCountDownFromTheTop() {
+        TileSpec top = pyramid.tileSpec("job", "map", "classic", 1, 0, 0);
+        TileSpec bottom = pyramid.tileSpec("job", "map", "classic", 1, 0, 1);
+        assertEquals(2.0, top.getYMax());
+        assertEquals(top.getYMin(), bottom.getYMax());
+        assertEquals(-2.0, bottom.getYMin());
+    }
+
+    @Test
+    void neighboursShareEdgesExactly() {
+        int z = 37;
+        TileSpec left = pyramid.tileSpec("job", "map", "classic", z, 68_719_476_735L, 5);
+        TileSpec right = pyramid.tileSpec("job", "map", "classic", z, 68_719_476_736L, 5);
+        assertEquals(left.getXMax(), right.getXMin());
+        assertEquals(left.getYMin(), right.getYMin());
+    }
+
+    @Test
+    void iterationsRiseWithZoomUpToTheLimit() {
+        assertEquals(256 + 64 * 10, pyramid.maxIterations(10));
+        assertEquals(10000, new TilePyramid(256, 9000, 1000, 40).maxIterations(5));
+    }
+
+    @Test
+    void deeperLevelsIterateInMorePrecision() {
+        assertEquals(PrecisionTier.FLOAT32, pyramid.tileSpec("job", "map", "classic", 0, 0, 0).getPrecision());
+        assertEquals(PrecisionTier.DOUBLE, pyramid.tileSpec("job", "map", "classic", 20, 0, 0).getPrecision());
+        assertEquals(PrecisionTier.DOUBLE_DOUBLE, pyramid.tileSpec("job", "map", "classic", 40, 0, 0).getPrecision());
+    }
+
+    @Test
+    void rejectsTilesOutsideThePyramid() {
+        assertThrows(IllegalArgumentException.class, () -> pyramid.tileSpec("job", "map", "classic", 41, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.tileSpec("job", "map", "classic", 2, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> pyramid.tileSpec("job", "map", "classic", 2, 0, -1));
+    }
+}
@@ -0,0 +1,204 @@
+package io.aparker.otelbrot.orchestrator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.aparker.otelbrot.commons.model.TileResult;
+import io.aparker.otelbrot.commons.model.TileSpec;
+import io.aparker.otelbrot.commons.model.TileStatus;
+import io.aparker.otelbrot.orchestrator.config.RedisConfig;
+import io.aparker.otelbrot.orchestrator.model.FractalJob;
+import io.aparker.otelbrot.orchestrator.model.InFlightTile;
+import io.aparker.otelbrot.orchestrator.model.JobStatus;
+import io.aparker.otelbrot.orchestrator.model.TileLane;
+import io.aparker.otelbrot.orchestrator.repository.InFlightTileRepository;
+import io.aparker.otelbrot.orchestrator.repository.JobRepository;
+import io.aparker.otelbrot.orchestrator.repository.RedisTestSupport;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+class TileReclaimerTest {
+
+    private static final int MAX_RETRIES = 2;
+
+    private LettuceConnectionFactory connectionFactory;
+    private InFlightTileRepository inFlightTileRepository;
+    private JobRepository jobRepository;
+    private TileReclaimer reclaimer;
+
+    private final List<String> lost = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> dispatched = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> retries = Collections.synchronizedList(new ArrayList<>());
+    private final List<TileResult> failed = Collections.synchronizedList(new ArrayList<>());
+
+    private final TileReclaimer.Outcomes outcomes = new TileReclaimer.Outcomes() {
+        @Override
+        public void attemptLost(TileSpec tileSpec) {
+            lost.add(tileSpec.getTileId());
+        }
+
+        @Override
+        public void dispatchAgain(InFlightTile inFlightTile, long attempt) {
+            dispatched.add(inFlightTile.getTileSpec().getTileId());
+            retries.add(attempt);
+        }
+
+        @Override
+        public void recordFailed(TileResult result) {
+            failed.add(result);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = RedisTestSupport.connect();
+        RedisTemplate<String, Object> redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        jobRepository = new JobRepository(redisTemplate);
+        inFlightTileRepository = new InFlightTileRepository(new StringRedisTemplate(connectionFactory), new ObjectMapper());
+        reclaimer = new TileReclaimer(inFlightTileRepository, jobRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void onlyExpiredLeasesAreClaimed() {
+        saveJob("job-1", JobStatus.PROCESSING);
+        Instant now = Instant.now();
+        inFlightTileRepository.track(tile("job-1", "expired"), TileLane.BACKGROUND, now.minusSeconds(1));
+        inFlightTileRepository.track(tile("job-1", "running"), TileLane.BACKGROUND, now.plusSeconds(60));
+
+        assertEquals(1, reclaimer.reclaim(now, 100, MAX_RETRIES, outcomes));
+
+        assertEquals(List.of("expired"), lost);
+        assertEquals(List.of("expired"), dispatched);
+        assertEquals(1, inFlightTileRepository.count());
+    }
+
+    @Test
+    void expiredLeaseIsClaimedOnce() throws Exception {
+        saveJob("job-1", JobStatus.PROCESSING);
+        Instant now = Instant.now();
+        for (int i = 0; i < 50; i++) {
+            inFlightTileRepository.track(tile("job-1", "tile-" + i), TileLane.INTERACTIVE, now.minusSeconds(1));
+        }
+
+        // Orchestrators reclaiming at the same time each get their own tiles
+        ExecutorService orchestrators = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> claims = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                claims.add(orchestrators.submit(() -> reclaimer.reclaim(now, 100, MAX_RETRIES, outcomes)));
+            }
+            int claimed = 0;
+            for (Future<Integer> claim : claims) {
+                claimed += claim.get();
+            }
+            assertEquals(50, claimed);
+        } finally {
+            orchestrators.shutdownNow();
+        }
+
+        assertEquals(50, dispatched.size());
+        assertEquals(50, new HashSet<>(dispatched).size());
+        assertEquals(0, reclaimer.reclaim(now, 100, MAX_RETRIES, outcomes));
+        assertEquals(0, inFlightTileRepository.count());
+    }
+
+    @Test
+    void everyReclaimCountsAnotherRetry() {
+        saveJob("job-1", JobStatus.PROCESSING);
+        TileSpec tileSpec = tile("job-1", "tile-0");
+
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            inFlightTileRepository.track(tileSpec, TileLane.INTERACTIVE, Instant.now());
+            assertTrue(inFlightTileRepository.expire("job-1", "tile-0"));
+            reclaimer.reclaim(Instant.now(), 100, MAX_RETRIES, outcomes);
+        }
+
+        assertEquals(List.of(1L, 2L), retries);
+        assertTrue(failed.isEmpty());
+    }
+
+    @Test
+    void tileOutOfRetriesIsRecordedAsFailed() {
+        saveJob("job-1", JobStatus.PROCESSING);
+        TileSpec tileSpec = tile("job-1", "tile-0");
+
+        for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
+            inFlightTileRepository.track(tileSpec, TileLane.INTERACTIVE, Instant.now().minusSeconds(1));
+            reclaimer.reclaim(Instant.now(), 100, MAX_RETRIES, outcomes);
+        }
+
+        assertEquals(MAX_RETRIES, dispatched.size());
+        assertEquals(1, failed.size());
+        TileResult result = failed.get(0);
+        assertEquals(TileStatus.FAILED, result.getStatus());
+        assertEquals("job-1", result.getJobId());
+        assertEquals("tile-0", result.getTileId());
+        assertEquals(tileSpec.getPixelStartX(), result.getPixelStartX());
+        assertEquals(MAX_RETRIES + 1, lost.size());
+    }
+
+    @Test
+    void tilesOfFinishedJobsAreOnlyCleanedUp() {
+        saveJob("job-1", JobStatus.CANCELLED);
+        inFlightTileRepository.track(tile("job-1", "tile-0"), TileLane.INTERACTIVE, Instant.now().minusSeconds(1));
+        inFlightTileRepository.track(tile("deleted-job", "tile-0"), TileLane.INTERACTIVE, Instant.now().minusSeconds(1));
+
+        assertEquals(2, reclaimer.reclaim(Instant.now(), 100, MAX_RETRIES, outcomes));
+
+        assertEquals(2, lost.size());
+        assertTrue(dispatched.isEmpty());
+        assertTrue(failed.isEmpty());
+    }
+
+    private void saveJob(String jobId, JobStatus status) {
+        jobRepository.save(new FractalJob.Builder()
+            .jobId(jobId)
+            .zoom(1.0)
+            .maxIterations(100)
+            .width(512)
+            .height(512)
+            .colorScheme("classic")
+            .status(status)
+            .createdAt(ZonedDateTime.now())
+            .updatedAt(ZonedDateTime.now())
+            .totalTiles(5)
+            .build());
+    }
+
+    private static TileSpec tile(String jobId, String tileId) {
+        return new TileSpec.Builder()
+            .jobId(jobId)
+            .tileId(tileId)
+            .xMin(-2.0)
+            .yMin(-1.0)
+            .xMax(0.0)
+            .yMax(1.0)
+            .width(256)
+            .height(256)
+            .maxIterations(100)
+            .colorScheme("classic")
+            .pixelStartX(256)
+            .pixelStartY(0)
+            .build();
+    }
+}
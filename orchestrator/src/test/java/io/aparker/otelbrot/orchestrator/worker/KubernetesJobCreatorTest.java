@@ -0,0 +1,72 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.batch.v1.JobBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class KubernetesJobCreatorTest {
+
+    private final KubernetesJobCreator creator = new KubernetesJobCreator(
+        null,
+        "otelbrot",
+        new TokenBucket(100, 10),
+        4,
+        5,
+        Duration.ofMillis(100),
+        Duration.ofSeconds(1)
+    );
+
+    private static KubernetesClientException error(int code) {
+        return new KubernetesClientException("HTTP " + code, code, null);
+    }
+
+    @Test
+    void retriesThrottlingAndServerErrorsOnly() {
+        assertTrue(KubernetesJobCreator.isRetryable(error(429)));
+        assertTrue(KubernetesJobCreator.isRetryable(error(503)));
+        assertFalse(KubernetesJobCreator.isRetryable(error(403)));
+        assertFalse(KubernetesJobCreator.isRetryable(error(422)));
+    }
+
+    @Test
+    void backsOffExponentiallyUpToTheMaximum() {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            long ceiling = Math.min(Duration.ofSeconds(1).toNanos(), Duration.ofMillis(100).toNanos() << attempt);
+            long backoff = creator.backoffNanos(attempt, error(503));
+            assertTrue(backoff >= ceiling / 2 && backoff <= ceiling, "attempt " + attempt + ": " + backoff);
+        }
+    }
+
+    @Test
+    void honoursRetryAfter() {
+        KubernetesClientException throttled = new KubernetesClientException(
+            "Too many requests",
+            429,
+            new StatusBuilder().withNewDetails().withRetryAfterSeconds(3).endDetails().build()
+        );
+        assertEquals(Duration.ofSeconds(3).toNanos(), creator.backoffNanos(0, throttled));
+    }
+
+    @Test
+    void workerIsPendingOnlyUntilItsCreateIsDone() throws InterruptedException {
+        // Without a client the create fails as soon as it gets a token
+        CountDownLatch failed = new CountDownLatch(1);
+        WorkerInfo worker = new WorkerInfo("worker", "job-1", "tile-0", List.of("tile-0"));
+        creator.submit(
+            new JobBuilder().withNewMetadata().withName("worker").endMetadata().build(),
+            worker,
+            e -> failed.countDown()
+        );
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertTrue(creator.getPendingWorkers().isEmpty());
+    }
+}
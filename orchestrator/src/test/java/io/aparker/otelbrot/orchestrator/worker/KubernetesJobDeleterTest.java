@@ -0,0 +1,54 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class KubernetesJobDeleterTest {
+
+    private final KubernetesJobDeleter deleter = new KubernetesJobDeleter(
+        null,
+        "otelbrot",
+        new TokenBucket(100, 10),
+        3,
+        Duration.ofMillis(500)
+    );
+
+    private static List<String> describe(List<KubernetesJobDeleter.Deletion> deletions) {
+        return deletions.stream().map(Object::toString).toList();
+    }
+
+    @Test
+    void coalescesTileDeletesPerJob() {
+        for (int i = 0; i < 4; i++) {
+            deleter.deleteTile("a", "tile-" + i);
+        }
+        deleter.deleteTile("a", "tile-0");
+        deleter.deleteBatch("a", "batch-1");
+        deleter.deleteTile("b", "tile-9");
+
+        assertEquals(
+            List.of(
+                "a fractal-tile-id in [tile-0, tile-1, tile-2]",
+                "a fractal-tile-id in [tile-3]",
+                "a fractal-batch-id in [batch-1]",
+                "b fractal-tile-id in [tile-9]"
+            ),
+            describe(deleter.drain())
+        );
+        assertTrue(deleter.drain().isEmpty());
+    }
+
+    @Test
+    void wholeJobDeleteReplacesTileDeletes() {
+        deleter.deleteTile("a", "tile-0");
+        deleter.deleteJob("a");
+        deleter.deleteTile("a", "tile-1");
+        deleter.deleteByName("fractal-b-tile-0");
+
+        assertEquals(List.of("a", "fractal-b-tile-0"), describe(deleter.drain()));
+    }
+}
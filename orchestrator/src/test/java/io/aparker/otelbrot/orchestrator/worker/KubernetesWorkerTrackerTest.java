@@ -0,0 +1,132 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.api.model.batch.v1.JobBuilder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KubernetesWorkerTrackerTest {
+
+    private final List<String> deletedJobs = new ArrayList<>();
+    private final List<String> lostReasons = new ArrayList<>();
+    private final KubernetesWorkerTracker tracker = new KubernetesWorkerTracker(
+        Duration.ofMinutes(5),
+        deletedJobs::add
+    );
+
+    @BeforeEach
+    void recordLostWorkers() {
+        tracker.setLostHandler((worker, reason) -> lostReasons.add(worker.getSlotId() + ": " + reason));
+    }
+
+    private Job tileJob(String name, String tileId, String condition) {
+        JobBuilder builder = new JobBuilder()
+            .withNewMetadata()
+            .withName(name)
+            .addToLabels("app", "otelbrot-worker")
+            .addToLabels("fractal-job-id", "job")
+            .addToLabels("fractal-tile-id", tileId)
+            .endMetadata();
+        if (condition != null) {
+            builder.withNewStatus()
+                .addNewCondition().withType(condition).withStatus("True").withReason("BackoffLimitExceeded").endCondition()
+                .endStatus();
+        }
+        return builder.build();
+    }
+
+    private Pod pendingPod(String jobName, Instant created, String waitingReason) {
+        return new PodBuilder()
+            .withNewMetadata()
+            .withName(jobName + "-abcde")
+            .addToLabels("job-name", jobName)
+            .withCreationTimestamp(created.toString())
+            .endMetadata()
+            .withNewStatus()
+            .withPhase("Pending")
+            .addNewContainerStatus()
+            .withNewState().withNewWaiting().withReason(waitingReason).endWaiting().endState()
+            .endContainerStatus()
+            .endStatus()
+            .build();
+    }
+
+    @Test
+    void tracksRunningJobsUntilTheyFinish() {
+        tracker.jobChanged(tileJob("fractal-job-tile-0", "tile-0", null));
+        tracker.jobChanged(tileJob("fractal-job-tile-1", "tile-1", null));
+        assertEquals(2, tracker.getRunningWorkers().size());
+
+        tracker.jobChanged(tileJob("fractal-job-tile-0", "tile-0", "Complete"));
+        tracker.jobChanged(tileJob("fractal-job-tile-1", "tile-1", "Failed"));
+        assertTrue(tracker.getRunningWorkers().isEmpty());
+        assertEquals(List.of("tile-1: Job failed: BackoffLimitExceeded"), lostReasons);
+    }
+
+    @Test
+    void reportsBatchJobsDeletedWhileRunning() {
+        Job batch = new JobBuilder()
+            .withNewMetadata()
+            .withName("fractal-job-batch-1")
+            .addToLabels("fractal-job-id", "job")
+            .addToLabels("fractal-batch-id", "batch-1")
+            .addToAnnotations(KubernetesWorkerTracker.TILE_IDS_ANNOTATION, "tile-2,tile-3")
+            .endMetadata()
+            .build();
+        tracker.jobChanged(batch);
+        assertEquals(List.of("tile-2", "tile-3"), tracker.getRunningWorkers().get(0).getTileIds());
+
+        tracker.jobDeleted(batch);
+        assertEquals(List.of("batch-1: Job deleted before finishing"), lostReasons);
+    }
+
+    @Test
+    void doesNotReportForgottenSlots() {
+        Job job = tileJob("fractal-job-tile-0", "tile-0", null);
+        tracker.jobChanged(job);
+        tracker.forget("job", "tile-0");
+
+        // Events racing the cleanup don't track the Job again
+        tracker.jobChanged(job);
+        tracker.jobDeleted(job);
+        assertTrue(tracker.getRunningWorkers().isEmpty());
+        assertTrue(lostReasons.isEmpty());
+    }
+
+    @Test
+    void deletesJobsWithStuckPods() {
+        Instant now = Instant.parse("2026-01-01T00:10:00Z");
+        tracker.jobChanged(tileJob("fractal-job-tile-0", "tile-0", null));
+        tracker.jobChanged(tileJob("fractal-job-tile-1", "tile-1", null));
+
+        tracker.podChanged(pendingPod("fractal-job-tile-0", now.minusSeconds(10), "ContainerCreating"), now);
+        assertTrue(deletedJobs.isEmpty());
+
+        tracker.podChanged(pendingPod("fractal-job-tile-0", now.minusSeconds(10), "ImagePullBackOff"), now);
+        tracker.podChanged(pendingPod("fractal-job-tile-1", now.minusSeconds(600), "ContainerCreating"), now);
+        assertEquals(List.of("fractal-job-tile-0", "fractal-job-tile-1"), deletedJobs);
+        assertEquals(2, lostReasons.size());
+        assertTrue(tracker.getRunningWorkers().isEmpty());
+    }
+
+    @Test
+    void ignoresIndexedJobs() {
+        tracker.jobChanged(new JobBuilder()
+            .withNewMetadata()
+            .withName("fractal-job-grid")
+            .addToLabels("fractal-job-id", "job")
+            .addToLabels("dispatch-mode", "indexed")
+            .endMetadata()
+            .build());
+        assertTrue(tracker.getRunningWorkers().isEmpty());
+    }
+}
@@ -0,0 +1,40 @@
+package io.aparker.otelbrot.orchestrator.worker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenPacesCallers() {
+        TokenBucket bucket = new TokenBucket(2, 2);
+        long start = System.nanoTime();
+
+        assertEquals(0, bucket.reserve(start));
+        assertEquals(0, bucket.reserve(start));
+        // Waiting callers queue up behind each other at the refill rate
+        assertEquals(SECOND / 2, bucket.reserve(start));
+        assertEquals(SECOND, bucket.reserve(start));
+
+        // Refilled tokens first pay off the reservations
+        assertEquals(SECOND / 2, bucket.reserve(start + SECOND));
+    }
+
+    @Test
+    void refillsUpToTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            bucket.reserve(start);
+        }
+
+        long later = start + 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve(later));
+        }
+        assertEquals(SECOND / 10, bucket.reserve(later));
+    }
+}